@@ -18,7 +18,11 @@
 
 package com.dtstack.dtcenter.common.loader.clickhouse;
 
+import com.dtstack.dtcenter.common.loader.common.enums.SqlDialect;
+import com.dtstack.dtcenter.common.loader.common.utils.PreparedSql;
 import com.dtstack.dtcenter.common.loader.common.utils.SqlFormatUtil;
+import com.dtstack.dtcenter.common.loader.rdbms.IPageDialect;
+import com.dtstack.dtcenter.common.loader.rdbms.RdbmsPagination;
 import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.dto.Column;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
@@ -41,7 +45,7 @@ import java.util.stream.Collectors;
  * @Description：db2表下载
  */
 
-public class ClickHouseDownloader implements IDownloader {
+public class ClickHouseDownloader implements IDownloader, IPageDialect {
 
     private int pageNum;
 
@@ -55,6 +59,8 @@ public class ClickHouseDownloader implements IDownloader {
 
     private String sql;
 
+    private PreparedSql preparedSql;
+
     private String schema;
 
     private Statement statement;
@@ -63,9 +69,13 @@ public class ClickHouseDownloader implements IDownloader {
 
     private int columnCount;
 
+    private RdbmsPagination pagination;
+
     public ClickHouseDownloader(Connection connection, String sql, String schema) {
         this.connection = connection;
-        this.sql = SqlFormatUtil.formatSql(sql);
+        // clickhouse 字符串中 \ 与 mysql 相同为转义符
+        this.preparedSql = SqlFormatUtil.prepare(sql, SqlDialect.MYSQL);
+        this.sql = preparedSql.getSql();
         this.schema = schema;
     }
 
@@ -77,11 +87,11 @@ public class ClickHouseDownloader implements IDownloader {
         totalLine = 0;
         pageSize = 100;
         pageNum = 1;
-        String countSQL = String.format("SELECT COUNT(*) FROM (%s) temp", sql);
+        String countSQL = preparedSql.wrap("SELECT COUNT(*) FROM (%s) temp");
         statement = connection.createStatement();
 
         //获取列信息
-        String showColumns = String.format("SELECT * FROM (%s) t limit 1", sql);
+        String showColumns = preparedSql.wrap("SELECT * FROM (%s) t limit 1");
         ResultSet totalResultSet = null;
         ResultSet columnsResultSet = null;
         try {
@@ -103,6 +113,9 @@ public class ClickHouseDownloader implements IDownloader {
             }
             //获取总页数
             pageAll = (int) Math.ceil(totalLine / (double) pageSize);
+            // 优先使用主键或唯一索引分页
+            pagination = new RdbmsPagination(connection, sql, schema, this, pageSize);
+            pagination.init(getMetaInfo());
         } catch (Exception e) {
             throw new DtLoaderException("build ClickHouse downloader message exception : " + e.getMessage(), e);
         } finally {
@@ -126,37 +139,47 @@ public class ClickHouseDownloader implements IDownloader {
 
     @Override
     public List<List<String>> readNext() {
-        //分页查询，一次一百条
-        String limitSQL = String.format("SELECT * FROM (%s) t limit %s,%s", sql, pageSize * (pageNum - 1), pageSize);
-        List<List<String>> pageTemp = new ArrayList<>(100);
-        try (ResultSet resultSet = statement.executeQuery(limitSQL);) {
-            while (resultSet.next()) {
-                List<String> columns = new ArrayList<>(columnCount);
-                for (int i = 1; i <= columnCount; i++) {
-                    columns.add(resultSet.getString(i));
-                }
-                pageTemp.add(columns);
-            }
-        } catch (Exception e) {
-            throw new DtLoaderException("read ClickHouse message exception : " + e.getMessage(), e);
-        }
-
+        List<List<String>> pageTemp = pagination.readNext();
         pageNum++;
         return pageTemp;
     }
 
     @Override
     public boolean reachedEnd() {
-        return pageAll < pageNum;
+        return pageAll < pageNum || pagination.reachedEnd();
     }
 
     @Override
     public boolean close() throws Exception {
+        if (pagination != null) {
+            pagination.close();
+        }
         statement.close();
         connection.close();
         return true;
     }
 
+    @Override
+    public String quote(String identifier) {
+        return String.format("`%s`", identifier);
+    }
+
+    @Override
+    public String limitSql(String sql, String where, String orderBy, int limit) {
+        return String.format("SELECT * FROM (%s) t%s ORDER BY %s LIMIT %s", sql, where, orderBy, limit);
+    }
+
+    @Override
+    public String offsetSql(String sql, List<String> columns, int offset, int limit) {
+        return String.format("SELECT * FROM (%s) t limit %s,%s", sql, offset, limit);
+    }
+
+    @Override
+    public boolean supportKeyset() {
+        // clickhouse 主键不唯一，不能用于分页
+        return false;
+    }
+
     @Override
     public String getFileName() {
         return null;
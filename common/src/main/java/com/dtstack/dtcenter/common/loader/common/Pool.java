@@ -159,6 +159,13 @@ public class Pool<T> implements Cloneable {
         return this.internalPool.getMaxBorrowWaitTimeMillis();
     }
 
+    /**
+     * @return 连接池是否已关闭
+     */
+    public boolean isClosed() {
+        return poolInactive();
+    }
+
     private boolean poolInactive() {
         return this.internalPool == null || this.internalPool.isClosed();
     }
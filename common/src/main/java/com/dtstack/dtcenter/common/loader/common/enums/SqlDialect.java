@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.common.enums;
+
+/**
+ * sql 规范化时的引号规则，不同数据源引号内的转义方式及标识符引用符不同
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/20
+ * company: www.dtstack.com
+ */
+public enum SqlDialect {
+
+    /**
+     * 标准 sql，单引号、双引号内只支持引号重复转义（如 'it''s'），反斜杠为普通字符
+     */
+    STANDARD(false, false),
+
+    /**
+     * MySQL 系列（MySQL、OceanBase）及 ClickHouse，单引号、双引号内同时支持反斜杠转义（如 'it\'s'）
+     */
+    MYSQL(true, false),
+
+    /**
+     * SQL Server、Sybase，[] 为标识符引用符
+     */
+    SQL_SERVER(false, true);
+
+    /**
+     * 单引号、双引号内反斜杠是否为转义符
+     */
+    private final boolean backslashEscape;
+
+    /**
+     * [] 是否为标识符引用符
+     */
+    private final boolean bracketQuote;
+
+    SqlDialect(boolean backslashEscape, boolean bracketQuote) {
+        this.backslashEscape = backslashEscape;
+        this.bracketQuote = bracketQuote;
+    }
+
+    public boolean isBackslashEscape() {
+        return backslashEscape;
+    }
+
+    public boolean isBracketQuote() {
+        return bracketQuote;
+    }
+}
@@ -23,9 +23,11 @@ import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.client.IClient;
 import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
 import com.dtstack.dtcenter.loader.dto.Database;
+import com.dtstack.dtcenter.loader.dto.PoolMetricsDTO;
 import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
 import com.dtstack.dtcenter.loader.dto.Table;
 import com.dtstack.dtcenter.loader.dto.TableInfo;
+import com.dtstack.dtcenter.loader.dto.batch.RowBatch;
 import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 
@@ -57,6 +59,11 @@ public abstract class AbsNoSqlClient<T> implements IClient<T> {
         throw new DtLoaderException(ErrorCode.NOT_SUPPORT.getDesc());
     }
 
+    @Override
+    public RowBatch executeQueryBatch(ISourceDTO source, SqlQueryDTO queryDTO) {
+        throw new DtLoaderException(ErrorCode.NOT_SUPPORT.getDesc());
+    }
+
     @Override
     public Boolean executeSqlWithoutResultSet(ISourceDTO source, SqlQueryDTO queryDTO) {
         throw new DtLoaderException(ErrorCode.NOT_SUPPORT.getDesc());
@@ -181,4 +188,9 @@ public abstract class AbsNoSqlClient<T> implements IClient<T> {
     public TableInfo getTableInfo(ISourceDTO sourceDTO, String tableName) {
         throw new DtLoaderException(ErrorCode.NOT_SUPPORT.getDesc());
     }
+
+    @Override
+    public List<PoolMetricsDTO> getPoolMetrics() {
+        throw new DtLoaderException(ErrorCode.NOT_SUPPORT.getDesc());
+    }
 }
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.common.utils;
+
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类能力注册表，记录类中是否存在指定字段或 getter 方法，并提供字段的 MethodHandle 读写
+ * <p>
+ * 不同版本的 core 包中 DTO 字段可能不同，插件中通过判断字段是否存在来兼容。
+ * 每个类的字段只在第一次使用时解析一次，结果缓存在 {@link ClassValue} 中，之后判断字段是否存在及读写字段不再反射扫描
+ *
+ * @author ：wangchuan
+ * date：Created in 下午2:00 2022/6/19
+ * company: www.dtstack.com
+ */
+public class CapabilityRegistry {
+
+    private static final ClassValue<ClassCapability> CAPABILITIES = new ClassValue<ClassCapability>() {
+        @Override
+        protected ClassCapability computeValue(Class<?> type) {
+            return new ClassCapability(type);
+        }
+    };
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private CapabilityRegistry() {
+    }
+
+    /**
+     * 类中是否声明了指定字段，不包含父类字段
+     *
+     * @param type      class 类型
+     * @param fieldName 字段名称
+     * @return 是否存在
+     */
+    public static boolean hasField(Class<?> type, String fieldName) {
+        return CAPABILITIES.get(type).fields.containsKey(fieldName);
+    }
+
+    /**
+     * 类中是否存在指定字段的 public getter 方法，如 getName、isEnable
+     *
+     * @param type      class 类型
+     * @param fieldName 字段名称
+     * @return 是否存在
+     */
+    public static boolean hasGetter(Class<?> type, String fieldName) {
+        return CAPABILITIES.get(type).getGetter(fieldName).isPresent();
+    }
+
+    /**
+     * 获取字段访问器
+     *
+     * @param type      class 类型
+     * @param fieldName 字段名称
+     * @return 字段访问器，字段不存在时返回 null
+     */
+    public static FieldAccessor getField(Class<?> type, String fieldName) {
+        return CAPABILITIES.get(type).getAccessor(fieldName);
+    }
+
+    /**
+     * 类能力，字段在创建时解析，字段访问器及 getter 方法在第一次使用时创建
+     */
+    private static class ClassCapability {
+
+        private final Class<?> type;
+
+        private final Map<String, Field> fields = new HashMap<>();
+
+        private final Map<String, FieldAccessor> accessors = new ConcurrentHashMap<>();
+
+        private final Map<String, Optional<Method>> getters = new ConcurrentHashMap<>();
+
+        private ClassCapability(Class<?> type) {
+            this.type = type;
+            for (Field field : type.getDeclaredFields()) {
+                fields.put(field.getName(), field);
+            }
+        }
+
+        private FieldAccessor getAccessor(String fieldName) {
+            Field field = fields.get(fieldName);
+            if (field == null) {
+                return null;
+            }
+            return accessors.computeIfAbsent(fieldName, k -> new FieldAccessor(field));
+        }
+
+        private Optional<Method> getGetter(String fieldName) {
+            return getters.computeIfAbsent(fieldName, k -> {
+                String suffix = StringUtils.capitalize(fieldName);
+                for (String prefix : new String[]{"get", "is"}) {
+                    try {
+                        return Optional.of(type.getMethod(prefix + suffix));
+                    } catch (NoSuchMethodException e) {
+                        // 继续查找下一个前缀
+                    }
+                }
+                return Optional.empty();
+            });
+        }
+    }
+
+    /**
+     * 字段访问器，使用 MethodHandle 读写字段，静态字段读写时忽略传入的对象
+     */
+    public static class FieldAccessor {
+
+        private final Field field;
+
+        private volatile MethodHandle getter;
+
+        private volatile MethodHandle setter;
+
+        private FieldAccessor(Field field) {
+            this.field = field;
+        }
+
+        /**
+         * 获取字段值
+         *
+         * @param obj 对象，静态字段可以为 null
+         * @return 字段值
+         */
+        public Object get(Object obj) {
+            try {
+                return getGetter().invokeExact(obj);
+            } catch (Throwable e) {
+                throw new DtLoaderException(String.format("get field value failed, fieldName : %s, objType : %s. %s",
+                        field.getName(), field.getDeclaringClass().getName(), e.getMessage()), e);
+            }
+        }
+
+        /**
+         * 获取指定类型的字段值
+         *
+         * @param obj  对象，静态字段可以为 null
+         * @param type 返回值类型
+         * @param <T>  返回值类型
+         * @return 字段值
+         */
+        public <T> T get(Object obj, Class<T> type) {
+            Object value = get(obj);
+            if (value != null && !type.isInstance(value)) {
+                throw new DtLoaderException(String.format("field [%s] of objType [%s] is not %s",
+                        field.getName(), field.getDeclaringClass().getName(), type.getName()));
+            }
+            return type.cast(value);
+        }
+
+        /**
+         * 设置字段值
+         *
+         * @param obj   对象，静态字段可以为 null
+         * @param value 字段值
+         */
+        public void set(Object obj, Object value) {
+            try {
+                getSetter().invokeExact(obj, value);
+            } catch (Throwable e) {
+                throw new DtLoaderException(String.format("set class: %s field: %s fail",
+                        field.getDeclaringClass().getName(), field.getName()), e);
+            }
+        }
+
+        private MethodHandle getGetter() throws IllegalAccessException {
+            MethodHandle handle = getter;
+            if (handle == null) {
+                field.setAccessible(true);
+                handle = MethodHandles.lookup().unreflectGetter(field);
+                handle = isStatic() ? MethodHandles.dropArguments(handle, 0, Object.class) : handle;
+                handle = handle.asType(GETTER_TYPE);
+                getter = handle;
+            }
+            return handle;
+        }
+
+        private MethodHandle getSetter() throws IllegalAccessException {
+            MethodHandle handle = setter;
+            if (handle == null) {
+                field.setAccessible(true);
+                handle = MethodHandles.lookup().unreflectSetter(field);
+                handle = isStatic() ? MethodHandles.dropArguments(handle, 0, Object.class) : handle;
+                handle = handle.asType(SETTER_TYPE);
+                setter = handle;
+            }
+            return handle;
+        }
+
+        private boolean isStatic() {
+            return Modifier.isStatic(field.getModifiers());
+        }
+    }
+}
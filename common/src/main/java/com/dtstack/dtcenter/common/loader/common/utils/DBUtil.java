@@ -19,7 +19,15 @@
 package com.dtstack.dtcenter.common.loader.common.utils;
 
 import com.dtstack.dtcenter.common.loader.common.base.CallBack;
+import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
 import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
+import com.dtstack.dtcenter.loader.dto.batch.BooleanColumnVector;
+import com.dtstack.dtcenter.loader.dto.batch.ColumnVector;
+import com.dtstack.dtcenter.loader.dto.batch.DoubleColumnVector;
+import com.dtstack.dtcenter.loader.dto.batch.LongColumnVector;
+import com.dtstack.dtcenter.loader.dto.batch.ObjectColumnVector;
+import com.dtstack.dtcenter.loader.dto.batch.RowBatch;
+import com.dtstack.dtcenter.loader.dto.batch.StringColumnVector;
 import com.dtstack.dtcenter.loader.dto.source.RdbmsSourceDTO;
 import com.dtstack.dtcenter.loader.enums.ConnectionClearStatus;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
@@ -35,12 +43,16 @@ import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * @company: www.dtstack.com
@@ -191,6 +203,227 @@ public class DBUtil {
         return result;
     }
 
+    /**
+     * 根据 SQL 查询，返回列式结果，preFields 不为空时使用预编译查询
+     *
+     * @param conn         连接
+     * @param sql          sql
+     * @param limit        最大条数
+     * @param preFields    预编译字段
+     * @param queryTimeout 查询超时时间
+     * @param setMaxRow    是否设置最大条数
+     * @param fieldProcess 字段处理
+     * @return 列式结果
+     */
+    public static RowBatch executeQueryBatch(Connection conn, String sql, Integer limit, List<Object> preFields, Integer queryTimeout, Boolean setMaxRow, CallBack<Object, Object> fieldProcess) {
+        ResultSet res = null;
+        Statement statement = null;
+        try {
+            statement = preFields == null ? conn.createStatement() : conn.prepareStatement(sql);
+            if (queryTimeout != null) {
+                try {
+                    statement.setQueryTimeout(queryTimeout);
+                } catch (Exception e) {
+                    log.debug(String.format("statement set QueryTimeout exception,%s", e.getMessage()), e);
+                }
+            }
+            if (Objects.isNull(setMaxRow) || BooleanUtils.isTrue(setMaxRow)) {
+                // 设置返回最大条数
+                statement.setMaxRows(Objects.isNull(limit) ? MAX_QUERY_ROW : limit);
+            }
+            if (preFields == null) {
+                if (!statement.execute(sql)) {
+                    return new RowBatch(Lists.newArrayList(), new ColumnVector[0]);
+                }
+                res = statement.getResultSet();
+            } else {
+                PreparedStatement preparedStatement = (PreparedStatement) statement;
+                for (int i = 0; i < preFields.size(); i++) {
+                    preparedStatement.setObject(i + 1, preFields.get(i));
+                }
+                res = preparedStatement.executeQuery();
+            }
+            return readRowBatch(res, fieldProcess);
+        } catch (Exception e) {
+            throw new DtLoaderException(String.format("SQL execute exception：%s", e.getMessage()), e);
+        } finally {
+            DBUtil.closeDBResources(res, statement, null);
+        }
+    }
+
+    /**
+     * 将结果集直接读取为列式结果，不构建行 Map，列存储随读取的行数扩容
+     *
+     * @param res          结果集
+     * @param fieldProcess 字段处理，对所有类型的字段生效，处理后的值与列类型不符时该列转为对象存储
+     * @return 列式结果
+     * @throws Exception 异常
+     */
+    private static RowBatch readRowBatch(ResultSet res, CallBack<Object, Object> fieldProcess) throws Exception {
+        ResultSetMetaData metaData = res.getMetaData();
+        int columns = metaData.getColumnCount();
+        List<ColumnMetaDTO> columnMetas = Lists.newArrayListWithCapacity(columns);
+        ColumnVector[] vectors = new ColumnVector[columns];
+        Set<String> columnNames = new HashSet<>();
+        Map<String, Integer> columnRepeatSign = Maps.newHashMap();
+        for (int i = 0; i < columns; i++) {
+            String column = metaData.getColumnLabel(i + 1);
+            if (!columnNames.add(column)) {
+                columnRepeatSign.merge(column, 1, Integer::sum);
+                column = String.format(REPEAT_SIGN, column, columnRepeatSign.get(column));
+                columnNames.add(column);
+            }
+            ColumnMetaDTO columnMeta = new ColumnMetaDTO();
+            columnMeta.setKey(column);
+            columnMeta.setType(metaData.getColumnTypeName(i + 1));
+            columnMeta.setPrecision(metaData.getPrecision(i + 1));
+            columnMeta.setScale(metaData.getScale(i + 1));
+            columnMetas.add(columnMeta);
+            // 不按 limit 预分配，结果集通常远小于 limit
+            vectors[i] = createColumnVector(metaData, i + 1, 0);
+        }
+
+        while (res.next()) {
+            for (int i = 0; i < columns; i++) {
+                ColumnVector vector = vectors[i];
+                if (Objects.nonNull(fieldProcess)) {
+                    // 增加字段处理
+                    vectors[i] = appendValue(vector, fieldProcess.execute(readValue(res, i + 1, vector)));
+                } else if (vector instanceof LongColumnVector) {
+                    long value = res.getLong(i + 1);
+                    if (res.wasNull()) {
+                        vector.appendNull();
+                    } else {
+                        ((LongColumnVector) vector).append(value);
+                    }
+                } else if (vector instanceof DoubleColumnVector) {
+                    double value = res.getDouble(i + 1);
+                    if (res.wasNull()) {
+                        vector.appendNull();
+                    } else {
+                        ((DoubleColumnVector) vector).append(value);
+                    }
+                } else if (vector instanceof BooleanColumnVector) {
+                    boolean value = res.getBoolean(i + 1);
+                    if (res.wasNull()) {
+                        vector.appendNull();
+                    } else {
+                        ((BooleanColumnVector) vector).append(value);
+                    }
+                } else if (vector instanceof StringColumnVector) {
+                    ((StringColumnVector) vector).append(res.getString(i + 1));
+                } else {
+                    ((ObjectColumnVector) vector).append(res.getObject(i + 1));
+                }
+            }
+        }
+        return new RowBatch(columnMetas, vectors);
+    }
+
+    /**
+     * 按列存储的类型读取字段值
+     *
+     * @param res    结果集
+     * @param column 列号，从 1 开始
+     * @param vector 列存储
+     * @return 字段值，null 值返回 null
+     * @throws SQLException 异常
+     */
+    private static Object readValue(ResultSet res, int column, ColumnVector vector) throws SQLException {
+        Object value;
+        if (vector instanceof LongColumnVector) {
+            value = res.getLong(column);
+        } else if (vector instanceof DoubleColumnVector) {
+            value = res.getDouble(column);
+        } else if (vector instanceof BooleanColumnVector) {
+            value = res.getBoolean(column);
+        } else if (vector instanceof StringColumnVector) {
+            value = res.getString(column);
+        } else {
+            value = res.getObject(column);
+        }
+        return res.wasNull() ? null : value;
+    }
+
+    /**
+     * 追加字段处理后的值，值与列存储类型不符时将该列转为对象存储
+     *
+     * @param vector 列存储
+     * @param value  字段处理后的值
+     * @return 追加后的列存储
+     */
+    private static ColumnVector appendValue(ColumnVector vector, Object value) {
+        if (value == null) {
+            vector.appendNull();
+        } else if (vector instanceof LongColumnVector && value instanceof Long) {
+            ((LongColumnVector) vector).append((Long) value);
+        } else if (vector instanceof DoubleColumnVector && value instanceof Double) {
+            ((DoubleColumnVector) vector).append((Double) value);
+        } else if (vector instanceof BooleanColumnVector && value instanceof Boolean) {
+            ((BooleanColumnVector) vector).append((Boolean) value);
+        } else if (vector instanceof StringColumnVector && value instanceof String) {
+            ((StringColumnVector) vector).append((String) value);
+        } else {
+            ObjectColumnVector objectVector = toObjectColumnVector(vector);
+            objectVector.append(value);
+            return objectVector;
+        }
+        return vector;
+    }
+
+    /**
+     * 将列存储转为对象存储，已经是对象存储时直接返回
+     *
+     * @param vector 列存储
+     * @return 对象存储
+     */
+    private static ObjectColumnVector toObjectColumnVector(ColumnVector vector) {
+        if (vector instanceof ObjectColumnVector) {
+            return (ObjectColumnVector) vector;
+        }
+        ObjectColumnVector objectVector = new ObjectColumnVector(vector.size());
+        for (int row = 0; row < vector.size(); row++) {
+            objectVector.append(vector.getObject(row));
+        }
+        return objectVector;
+    }
+
+    /**
+     * 根据 jdbc 类型创建对应的列存储
+     *
+     * @param metaData 结果集元数据
+     * @param column   列号，从 1 开始
+     * @param capacity 初始容量
+     * @return 列存储
+     * @throws SQLException 异常
+     */
+    private static ColumnVector createColumnVector(ResultSetMetaData metaData, int column, int capacity) throws SQLException {
+        switch (metaData.getColumnType(column)) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return new LongColumnVector(capacity);
+            case Types.BIGINT:
+                // 无符号 bigint 可能超出 long 范围
+                return metaData.isSigned(column) ? new LongColumnVector(capacity) : new ObjectColumnVector(capacity);
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                return new DoubleColumnVector(capacity);
+            case Types.BOOLEAN:
+                return new BooleanColumnVector(capacity);
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return new StringColumnVector(capacity);
+            default:
+                return new ObjectColumnVector(capacity);
+        }
+    }
+
     /**
      * 处理 executeQuery 查询结果字段重复字段
      *
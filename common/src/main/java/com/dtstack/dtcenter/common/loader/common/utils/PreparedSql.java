@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.common.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 规范化后的 SQL 及基于它的包装 SQL，如统计行数、查询列信息的 SQL
+ * <p>
+ * 由 {@link SqlFormatUtil#prepare(String)} 创建并缓存，同一条 SQL 重复查询时直接使用缓存的结果
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/19
+ * company: www.dtstack.com
+ */
+public class PreparedSql {
+
+    /**
+     * 每条 SQL 最多缓存的包装 SQL 数量，下载器只使用统计行数及查询列信息两个模版，超过后不再缓存
+     */
+    static final int MAX_WRAPPED_NUM = 4;
+
+    private final String sql;
+
+    /**
+     * 包装模版 - 包装后的 sql
+     */
+    private final Map<String, String> wrappedSql = new ConcurrentHashMap<>();
+
+    PreparedSql(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * 获取规范化后的 sql
+     *
+     * @return sql
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * 使用模版包装 sql，如 SELECT COUNT(*) FROM (%s) temp
+     *
+     * @param template 包装模版，只包含一个 %s 占位符
+     * @return 包装后的 sql
+     */
+    public String wrap(String template) {
+        String wrapped = wrappedSql.get(template);
+        if (wrapped != null) {
+            return wrapped;
+        }
+        wrapped = String.format(template, sql);
+        if (wrappedSql.size() < MAX_WRAPPED_NUM) {
+            wrappedSql.putIfAbsent(template, wrapped);
+        }
+        return wrapped;
+    }
+}
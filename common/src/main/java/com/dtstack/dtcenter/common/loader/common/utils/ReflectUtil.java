@@ -22,7 +22,6 @@ import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 
-import java.lang.reflect.Field;
 import java.util.Objects;
 
 /**
@@ -46,13 +45,8 @@ public class ReflectUtil {
         if (Objects.isNull(c) || StringUtils.isBlank(fieldName)) {
             throw new DtLoaderException("class or fieldName can not be null...");
         }
-        Field[] fields = c.getDeclaredFields();
-        for (Field field : fields) {
-            if (fieldName.equals(field.getName())) {
-                return true;
-            }
-        }
-        return false;
+        // 类的字段只解析一次，之后从缓存中判断
+        return CapabilityRegistry.hasField(c, fieldName);
     }
 
     /**
@@ -128,26 +122,20 @@ public class ReflectUtil {
         if (Objects.isNull(returnClassType) || Objects.isNull(obj) || StringUtils.isBlank(fieldName)) {
             throw new DtLoaderException("returnClassType or obj or fieldName can not be null...");
         }
-        Boolean fieldExists = fieldExists(obj.getClass(), fieldName);
-        if (BooleanUtils.isFalse(fieldExists)) {
+        CapabilityRegistry.FieldAccessor accessor = CapabilityRegistry.getField(obj.getClass(), fieldName);
+        if (Objects.isNull(accessor)) {
             // 如果字段不存在且设置抛异常则抛出异常，不然返回字段不存在的默认值
             if (BooleanUtils.isTrue(fieldNotExistIsThrow)) {
                 throw new DtLoaderException(String.format("field [%s] is not exists in objType [%s]", fieldName, obj.getClass().getName()));
             }
             return fieldNotExistsDefaultValue;
         }
-        try {
-            Field field = obj.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            Object returnObj = field.get(obj);
-            // 如果字段值为 null，并且设置返回默认值的时候，return 默认值
-            if (Objects.isNull(returnObj) && Objects.nonNull(valueIsNullDefaultValue)) {
-                return valueIsNullDefaultValue;
-            }
-            return (T) returnObj;
-        } catch (Exception e) {
-            throw new DtLoaderException(String.format("get field value failed, fieldName : %s, objType : %s. %s", fieldName, obj.getClass().getName(), e.getMessage()));
+        Object returnObj = accessor.get(obj);
+        // 如果字段值为 null，并且设置返回默认值的时候，return 默认值
+        if (Objects.isNull(returnObj) && Objects.nonNull(valueIsNullDefaultValue)) {
+            return valueIsNullDefaultValue;
         }
+        return (T) returnObj;
     }
 
     /**
@@ -160,12 +148,10 @@ public class ReflectUtil {
      * @param <T>         对象类型
      */
     public static <T> void setField(Class<T> c, String fieldName, Object obj, Object targetParam) {
-        try {
-            Field field = c.getDeclaredField(fieldName);
-            field.setAccessible(true);
-            field.set(obj, targetParam);
-        } catch (Exception e) {
+        CapabilityRegistry.FieldAccessor accessor = CapabilityRegistry.getField(c, fieldName);
+        if (Objects.isNull(accessor)) {
             throw new DtLoaderException(String.format("set class: %s field: %s fail", c.getName(), fieldName));
         }
+        accessor.set(obj, targetParam);
     }
 }
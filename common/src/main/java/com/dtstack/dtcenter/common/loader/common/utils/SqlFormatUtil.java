@@ -18,10 +18,42 @@
 
 package com.dtstack.dtcenter.common.loader.common.utils;
 
+import com.dtstack.dtcenter.common.loader.common.enums.SqlDialect;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.NoArgsConstructor;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @NoArgsConstructor
 public class SqlFormatUtil {
+
+    /**
+     * 缓存的 sql 最大长度，超过后不缓存
+     */
+    private static final int MAX_CACHED_SQL_LENGTH = 16 * 1024;
+
+    /**
+     * 每种引号规则缓存的 sql 最大总字符数
+     */
+    private static final long MAX_CACHED_WEIGHT = 4L * 1024 * 1024;
+
+    /**
+     * 引号规则 - （原始 sql - 规范化后的 sql），同一条 sql 重复查询时不再重复格式化，
+     * 不同引号规则的格式化结果可能不同，分开缓存
+     */
+    private static final Map<SqlDialect, Cache<String, PreparedSql>> PREPARED_SQL_CACHE = new EnumMap<>(SqlDialect.class);
+
+    static {
+        for (SqlDialect dialect : SqlDialect.values()) {
+            PREPARED_SQL_CACHE.put(dialect, CacheBuilder.newBuilder()
+                    .maximumWeight(MAX_CACHED_WEIGHT)
+                    .<String, PreparedSql>weigher(SqlFormatUtil::weigh)
+                    .build());
+        }
+    }
+
     private String sql;
 
     /**
@@ -43,7 +75,44 @@ public class SqlFormatUtil {
      * @return
      */
     public static String formatSql(String sql) {
-        return init(sql).removeComment().toOneLine().removeBlank().removeEndChar().getSql();
+        return prepare(sql).getSql();
+    }
+
+    /**
+     * 格式化 SQL 并缓存，可以通过返回结果获取包装后的 SQL
+     *
+     * @param sql 原始 sql
+     * @return 格式化后的 sql
+     */
+    public static PreparedSql prepare(String sql) {
+        return prepare(sql, SqlDialect.STANDARD);
+    }
+
+    /**
+     * 格式化 SQL 并缓存，可以通过返回结果获取包装后的 SQL
+     *
+     * @param sql     原始 sql
+     * @param dialect 引号规则
+     * @return 格式化后的 sql
+     */
+    public static PreparedSql prepare(String sql, SqlDialect dialect) {
+        if (sql == null || sql.length() > MAX_CACHED_SQL_LENGTH) {
+            return new PreparedSql(sql == null ? null : SqlNormalizer.normalize(sql, dialect));
+        }
+        Cache<String, PreparedSql> cache = PREPARED_SQL_CACHE.get(dialect);
+        PreparedSql preparedSql = cache.getIfPresent(sql);
+        if (preparedSql == null) {
+            preparedSql = new PreparedSql(SqlNormalizer.normalize(sql, dialect));
+            cache.put(sql, preparedSql);
+        }
+        return preparedSql;
+    }
+
+    /**
+     * 缓存权重：原始 sql、规范化后的 sql 及包装 sql 的字符数，包装 sql 在放入缓存后才生成，按最大数量估算
+     */
+    private static int weigh(String sql, PreparedSql preparedSql) {
+        return sql.length() + preparedSql.getSql().length() * (1 + PreparedSql.MAX_WRAPPED_NUM);
     }
 
     /**
@@ -52,7 +121,7 @@ public class SqlFormatUtil {
      * @return
      */
     public SqlFormatUtil toOneLine() {
-        this.sql = this.sql.replaceAll("\r", " ").replaceAll("\n", " ");
+        this.sql = this.sql.replace('\r', ' ').replace('\n', ' ');
         return this;
     }
 
@@ -76,10 +145,7 @@ public class SqlFormatUtil {
      * @return
      */
     public SqlFormatUtil removeComment() {
-        this.sql = this.sql.replaceAll("--.*", "");
-        this.sql = this.sql.replaceAll("\\/\\*\\*+.*\\*\\*+\\/", "");
-        this.sql = this.sql.replaceAll("/\\*{1,2}\\*/", "");
-        this.sql = this.sql.replaceAll("/\\*{1,2}[\\s\\S]*?\\*/", "");
+        this.sql = SqlNormalizer.removeComment(this.sql);
         return this;
     }
 
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.common.utils;
+
+import com.dtstack.dtcenter.common.loader.common.enums.SqlDialect;
+
+/**
+ * SQL 单次扫描规范化：去除注释、换行转为空格、去除首尾空白及末尾分号
+ * <p>
+ * 扫描时识别字符串及标识符的引号（'、"、`），引号内的内容原样保留，不会把字符串中的 -- 或 /* 当做注释；
+ * 引号内支持引号重复转义（如 'it''s'）。反斜杠只在 MySQL 系列及 ClickHouse 中是转义符，PostgreSQL、Oracle 等数据源中是普通字符；
+ * [] 只在 SQL Server、Sybase 中是标识符引用符，PostgreSQL、ClickHouse 等数据源中是数组下标，需要调用方通过 {@link SqlDialect} 指定
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/19
+ * company: www.dtstack.com
+ */
+public class SqlNormalizer {
+
+    private static final char SEMICOLON = ';';
+
+    private SqlNormalizer() {
+    }
+
+    /**
+     * 规范化 SQL：去除注释、换行转为空格、去除首尾空白及末尾分号
+     *
+     * @param sql 原始 sql
+     * @return 规范化后的 sql
+     */
+    public static String normalize(String sql) {
+        return normalize(sql, SqlDialect.STANDARD);
+    }
+
+    /**
+     * 规范化 SQL：去除注释、换行转为空格、去除首尾空白及末尾分号
+     *
+     * @param sql     原始 sql
+     * @param dialect 引号规则
+     * @return 规范化后的 sql
+     */
+    public static String normalize(String sql, SqlDialect dialect) {
+        StringBuilder builder = scan(sql, true, dialect);
+        int start = 0;
+        int end = builder.length();
+        while (start < end && builder.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && builder.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (end > start && builder.charAt(end - 1) == SEMICOLON) {
+            end--;
+            while (end > start && builder.charAt(end - 1) <= ' ') {
+                end--;
+            }
+        }
+        return builder.substring(start, end);
+    }
+
+    /**
+     * 只去除注释，保留换行
+     *
+     * @param sql 原始 sql
+     * @return 去除注释后的 sql
+     */
+    public static String removeComment(String sql) {
+        return scan(sql, false, SqlDialect.STANDARD).toString();
+    }
+
+    private static StringBuilder scan(String sql, boolean oneLine, SqlDialect dialect) {
+        int length = sql.length();
+        StringBuilder builder = new StringBuilder(length);
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            switch (c) {
+                case '\'':
+                case '"':
+                    i = copyQuoted(sql, i, c, dialect.isBackslashEscape(), builder);
+                    break;
+                case '`':
+                    i = copyQuoted(sql, i, c, false, builder);
+                    break;
+                case '[':
+                    if (dialect.isBracketQuote()) {
+                        i = copyQuoted(sql, i, ']', false, builder);
+                    } else {
+                        builder.append(c);
+                        i++;
+                    }
+                    break;
+                case '-':
+                    if (i + 1 < length && sql.charAt(i + 1) == '-') {
+                        // 行注释到换行符为止，换行符保留
+                        i = skipLineComment(sql, i + 2);
+                    } else {
+                        builder.append(c);
+                        i++;
+                    }
+                    break;
+                case '/':
+                    if (i + 1 < length && sql.charAt(i + 1) == '*') {
+                        int close = sql.indexOf("*/", i + 2);
+                        if (close < 0) {
+                            // 未闭合的块注释原样保留
+                            builder.append(sql, i, length);
+                            return builder;
+                        }
+                        // 注释相当于空白，避免前后的内容连在一起
+                        appendBlank(builder);
+                        i = close + 2;
+                    } else {
+                        builder.append(c);
+                        i++;
+                    }
+                    break;
+                case '\r':
+                case '\n':
+                    builder.append(oneLine ? ' ' : c);
+                    i++;
+                    break;
+                default:
+                    builder.append(c);
+                    i++;
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * 复制引号内的内容
+     *
+     * @return 引号结束后的位置
+     */
+    private static int copyQuoted(String sql, int start, char close, boolean backslashEscape, StringBuilder builder) {
+        int length = sql.length();
+        builder.append(sql.charAt(start));
+        int i = start + 1;
+        while (i < length) {
+            char c = sql.charAt(i);
+            builder.append(c);
+            i++;
+            if (backslashEscape && c == '\\' && i < length) {
+                builder.append(sql.charAt(i));
+                i++;
+            } else if (c == close) {
+                if (i < length && sql.charAt(i) == close) {
+                    builder.append(close);
+                    i++;
+                } else {
+                    return i;
+                }
+            }
+        }
+        return i;
+    }
+
+    private static int skipLineComment(String sql, int start) {
+        int i = start;
+        while (i < sql.length() && sql.charAt(i) != '\n' && sql.charAt(i) != '\r') {
+            i++;
+        }
+        return i;
+    }
+
+    private static void appendBlank(StringBuilder builder) {
+        if (builder.length() > 0 && !Character.isWhitespace(builder.charAt(builder.length() - 1))) {
+            builder.append(' ');
+        }
+    }
+}
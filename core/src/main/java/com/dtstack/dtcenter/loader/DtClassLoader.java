@@ -38,6 +38,11 @@ import java.util.LinkedHashSet;
 public class DtClassLoader extends URLClassLoader {
     private static final String CLASS_FILE_SUFFIX = ".class";
 
+    /**
+     * JDK 类只能由父加载器加载
+     */
+    private static final String JDK_PACKAGE_PREFIX = "java.";
+
     /**
      * The parent class loader.
      */
@@ -45,11 +50,29 @@ public class DtClassLoader extends URLClassLoader {
 
     private boolean hasExternalRepositories = false;
 
+    /**
+     * 插件包索引，为 null 时扫描所有 jar 包
+     */
+    private volatile PluginPackageIndex packageIndex;
+
     public DtClassLoader(URL[] urls, ClassLoader parent) {
         super(urls, parent);
         this.parent = parent;
     }
 
+    /**
+     * Constructs a new URLClassLoader for the given URLs
+     * packageIndex 插件包索引，插件中不存在的包直接委托给父加载器
+     *
+     * @param urls
+     * @param parent
+     * @param packageIndex
+     */
+    public DtClassLoader(URL[] urls, ClassLoader parent, PluginPackageIndex packageIndex) {
+        this(urls, parent);
+        this.packageIndex = packageIndex;
+    }
+
     public DtClassLoader(URL[] urls) {
         super(urls);
     }
@@ -100,23 +123,25 @@ public class DtClassLoader extends URLClassLoader {
                 return (clazz);
             }
 
-            // (2) Search local repositories
-            if (log.isDebugEnabled()) {
-                log.debug("  Searching local repositories");
-            }
-            try {
-                clazz = findClass(name);
-                if (clazz != null) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("  Loading class from local repository");
-                    }
-                    if (resolve) {
-                        resolveClass(clazz);
+            // (2) Search local repositories, JDK 类及插件中不存在的包跳过
+            if (isLocalClass(name)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("  Searching local repositories");
+                }
+                try {
+                    clazz = findClass(name);
+                    if (clazz != null) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("  Loading class from local repository");
+                        }
+                        if (resolve) {
+                            resolveClass(clazz);
+                        }
+                        return (clazz);
                     }
-                    return (clazz);
+                } catch (ClassNotFoundException e) {
+                    // Ignore
                 }
-            } catch (ClassNotFoundException e) {
-                // Ignore
             }
 
             if (log.isDebugEnabled()) {
@@ -153,7 +178,7 @@ public class DtClassLoader extends URLClassLoader {
         URL url = null;
 
         // (2) Search local repositories
-        url = findResource(name);
+        url = isLocalResource(name) ? findResource(name) : null;
         if (url != null) {
             if (log.isDebugEnabled()) {
                 log.debug("  --> Returning '" + url.toString() + "'");
@@ -181,6 +206,8 @@ public class DtClassLoader extends URLClassLoader {
     public void addURL(URL url) {
         super.addURL(url);
         hasExternalRepositories = true;
+        // 新增的 jar 包不在索引中，索引失效
+        packageIndex = null;
     }
 
     /**
@@ -209,6 +236,10 @@ public class DtClassLoader extends URLClassLoader {
             log.debug("findResources(" + name + ")");
         }
 
+        if (!isLocalResource(name)) {
+            return Collections.emptyEnumeration();
+        }
+
         LinkedHashSet<URL> result = new LinkedHashSet<>();
 
         Enumeration<URL> superResource = super.findResources(name);
@@ -227,4 +258,29 @@ public class DtClassLoader extends URLClassLoader {
 
         return Collections.enumeration(result);
     }
+
+    /**
+     * 类是否需要在插件 jar 中查找
+     *
+     * @param name 类全限定名
+     * @return 是否需要查找
+     */
+    private boolean isLocalClass(String name) {
+        if (name.startsWith(JDK_PACKAGE_PREFIX)) {
+            return false;
+        }
+        PluginPackageIndex index = packageIndex;
+        return index == null || index.containsClass(name);
+    }
+
+    /**
+     * 资源是否需要在插件 jar 中查找
+     *
+     * @param name 资源名称
+     * @return 是否需要查找
+     */
+    private boolean isLocalResource(String name) {
+        PluginPackageIndex index = packageIndex;
+        return index == null || index.containsResource(name);
+    }
 }
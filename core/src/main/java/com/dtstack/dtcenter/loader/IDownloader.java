@@ -18,6 +18,7 @@
 
 package com.dtstack.dtcenter.loader;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -60,6 +61,21 @@ public interface IDownloader {
      */
     boolean reachedEnd();
 
+    /**
+     * 读取下一批数据，默认逐行读取；需要 kerberos 认证的下载器一批数据只进入一次认证上下文
+     * 返回的集合可能被下载器复用，下次调用后失效，需要保留的数据调用方自行拷贝
+     *
+     * @param maxRows 最多读取的行数
+     * @return 行数据，读取结束时返回空集合
+     */
+    default List<?> readNextBatch(int maxRows) {
+        List<Object> rows = new ArrayList<>();
+        while (rows.size() < maxRows && !reachedEnd()) {
+            rows.add(readNext());
+        }
+        return rows;
+    }
+
     /**
      * 是否关闭
      *
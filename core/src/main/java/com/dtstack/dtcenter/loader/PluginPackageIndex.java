@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.loader;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+/**
+ * 插件包索引，记录插件目录下每个包（jar 内目录）所在的 jar 包
+ * <p>
+ * {@link DtClassLoader} 通过索引判断类或资源是否可能存在于插件 jar 中，不存在时直接委托给父加载器，
+ * 不再逐个扫描插件目录下的 jar 包。索引可以持久化到插件目录，jar 包未变化时下次启动直接读取
+ *
+ * @author ：wangchuan
+ * date：Created in 下午2:00 2022/6/10
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class PluginPackageIndex {
+
+    /**
+     * 持久化的索引文件名称
+     */
+    private static final String INDEX_FILE_NAME = ".package.idx";
+
+    /**
+     * 索引文件第一行为 jar 包签名
+     */
+    private static final String SIGNATURE_PREFIX = "#";
+
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * 包路径 - jar 包名称，包路径以 / 分隔，默认包为空字符串
+     */
+    private final Map<String, List<String>> packageJars;
+
+    private PluginPackageIndex(Map<String, List<String>> packageJars) {
+        this.packageJars = packageJars;
+    }
+
+    /**
+     * 构建插件包索引
+     *
+     * @param pluginDir 插件目录
+     * @param jars      插件目录下的 jar 包
+     * @param persist   是否持久化到插件目录
+     * @return 插件包索引，jar 包读取失败时返回 null
+     */
+    public static PluginPackageIndex build(File pluginDir, List<File> jars, boolean persist) {
+        String signature = getSignature(jars);
+        File indexFile = new File(pluginDir, INDEX_FILE_NAME);
+        if (persist) {
+            PluginPackageIndex index = read(indexFile, signature);
+            if (Objects.nonNull(index)) {
+                return index;
+            }
+        }
+        Map<String, List<String>> packageJars = new HashMap<>();
+        for (File jar : jars) {
+            String jarName = jar.getName();
+            try (JarFile jarFile = new JarFile(jar)) {
+                for (JarEntry entry : Collections.list(jarFile.entries())) {
+                    List<String> jarNames = packageJars.computeIfAbsent(getPackagePath(entry.getName()), k -> new ArrayList<>(1));
+                    if (jarNames.isEmpty() || !jarName.equals(jarNames.get(jarNames.size() - 1))) {
+                        jarNames.add(jarName);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("build package index of plugin {} failed, jar: {}", pluginDir.getName(), jarName, e);
+                return null;
+            }
+        }
+        PluginPackageIndex index = new PluginPackageIndex(packageJars);
+        if (persist) {
+            write(indexFile, signature, index);
+        }
+        return index;
+    }
+
+    /**
+     * 插件 jar 中是否可能存在该类
+     *
+     * @param className 类全限定名
+     * @return 是否存在该类所在的包
+     */
+    public boolean containsClass(String className) {
+        return packageJars.containsKey(getPackagePath(className.replace('.', '/')));
+    }
+
+    /**
+     * 插件 jar 中是否可能存在该资源
+     *
+     * @param resourceName 资源名称
+     * @return 是否存在该资源所在的目录
+     */
+    public boolean containsResource(String resourceName) {
+        // 非常规的资源名称不做判断，交给 URLClassLoader 处理
+        if (resourceName.startsWith("/")) {
+            return true;
+        }
+        return packageJars.containsKey(getPackagePath(resourceName));
+    }
+
+    /**
+     * 获取包所在的 jar 包名称，可用于排查类冲突
+     *
+     * @param packageName 包名
+     * @return jar 包名称
+     */
+    public List<String> getJars(String packageName) {
+        return packageJars.getOrDefault(packageName.replace('.', '/'), Collections.emptyList());
+    }
+
+    private static String getPackagePath(String entryName) {
+        int index = entryName.lastIndexOf('/');
+        return index < 0 ? "" : entryName.substring(0, index);
+    }
+
+    /**
+     * jar 包签名，由名称、大小及修改时间组成，jar 包变化后持久化的索引失效
+     */
+    private static String getSignature(List<File> jars) {
+        return jars.stream()
+                .sorted(Comparator.comparing(File::getName))
+                .map(jar -> String.format("%s:%s:%s", jar.getName(), jar.length(), jar.lastModified()))
+                .collect(Collectors.joining(SEPARATOR));
+    }
+
+    private static PluginPackageIndex read(File indexFile, String signature) {
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            if (!(SIGNATURE_PREFIX + signature).equals(reader.readLine())) {
+                return null;
+            }
+            Map<String, List<String>> packageJars = new HashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(SEPARATOR, -1);
+                packageJars.put(parts[0], new ArrayList<>(Arrays.asList(parts).subList(1, parts.length)));
+            }
+            return new PluginPackageIndex(packageJars);
+        } catch (Exception e) {
+            log.warn("read package index {} failed, rebuild it", indexFile.getPath(), e);
+            return null;
+        }
+    }
+
+    private static void write(File indexFile, String signature, PluginPackageIndex index) {
+        Path tmpPath = null;
+        try {
+            tmpPath = Files.createTempFile(indexFile.getParentFile().toPath(), INDEX_FILE_NAME, ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpPath, StandardCharsets.UTF_8)) {
+                writer.write(SIGNATURE_PREFIX + signature);
+                writer.newLine();
+                for (Map.Entry<String, List<String>> entry : index.packageJars.entrySet()) {
+                    writer.write(entry.getKey() + SEPARATOR + String.join(SEPARATOR, entry.getValue()));
+                    writer.newLine();
+                }
+            }
+            Files.move(tmpPath, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            // 插件目录可能只读，持久化失败不影响使用
+            log.warn("persist package index {} failed", indexFile.getPath(), e);
+            if (Objects.nonNull(tmpPath)) {
+                tmpPath.toFile().delete();
+            }
+        }
+    }
+}
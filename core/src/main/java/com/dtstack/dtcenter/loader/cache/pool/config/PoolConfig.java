@@ -79,6 +79,13 @@ public class PoolConfig implements Serializable {
     @Builder.Default
     private Boolean readOnly = false;
 
+    /**
+     * 连接池没有使用中的连接且闲置超过该时长（毫秒）后关闭整个连接池，小于等于 0 时不关闭
+     * 目前对关系型数据库的 Hikari 连接池、OpenTSDB 的 http 客户端及 kafka、huawei_kafka、tbds_kafka 的 consumer 和 admin client 连接池生效
+     */
+    @Builder.Default
+    private Long poolIdleTimeout = MINUTES.toMillis(30);
+
     public Integer getMinimumIdle() {
         return minimumIdle < 0 || minimumIdle > getMaximumPoolSize() ? getMaximumPoolSize() : minimumIdle;
     }
@@ -24,15 +24,35 @@ import com.dtstack.dtcenter.loader.client.kerberos.KerberosClientFactory;
 import com.dtstack.dtcenter.loader.client.mq.KafkaClientFactory;
 import com.dtstack.dtcenter.loader.client.redis.RedisClientFactory;
 import com.dtstack.dtcenter.loader.client.restful.RestfulClientFactory;
+import com.dtstack.dtcenter.loader.client.sql.AsyncClientConfig;
+import com.dtstack.dtcenter.loader.client.sql.AsyncClientExecutor;
+import com.dtstack.dtcenter.loader.client.sql.AsyncDataSourceClient;
 import com.dtstack.dtcenter.loader.client.sql.DataSourceClientFactory;
+import com.dtstack.dtcenter.loader.client.sql.MetadataCache;
+import com.dtstack.dtcenter.loader.client.sql.MetadataCacheConfig;
 import com.dtstack.dtcenter.loader.client.table.TableClientFactory;
 import com.dtstack.dtcenter.loader.client.tsdb.TsdbClientFactory;
+import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
 import com.dtstack.dtcenter.loader.exception.ClientAccessException;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import com.dtstack.dtcenter.loader.factory.DtThreadFactory;
 import com.dtstack.dtcenter.loader.source.DataSourceType;
-import com.google.common.collect.Maps;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 /**
  * @company: www.dtstack.com
@@ -46,50 +66,65 @@ public class ClientCache {
     /**
      * Sql Client 客户端缓存
      */
-    private static final Map<String, IClient> SQL_CLIENT = Maps.newConcurrentMap();
+    private static final PluginRegistry<IClient> SQL_CLIENT = new PluginRegistry<>(DataSourceClientFactory::createPluginClass);
 
     /**
      * HDFS 文件客户端缓存
      */
-    private static final Map<String, IHdfsFile> HDFS_FILE_CLIENT = Maps.newConcurrentMap();
+    private static final PluginRegistry<IHdfsFile> HDFS_FILE_CLIENT = new PluginRegistry<>(HdfsFileClientFactory::createPluginClass);
 
     /**
      * KAFKA 客户端缓存
      */
-    private static final Map<String, IKafka> KAFKA_CLIENT = Maps.newConcurrentMap();
+    private static final PluginRegistry<IKafka> KAFKA_CLIENT = new PluginRegistry<>(KafkaClientFactory::createPluginClass);
 
     /**
      * Kerberos 认证服务客户端缓存
      */
-    private static final Map<String, IKerberos> KERBEROS_CLIENT = Maps.newConcurrentMap();
+    private static final PluginRegistry<IKerberos> KERBEROS_CLIENT = new PluginRegistry<>(KerberosClientFactory::createPluginClass);
 
     /**
      * hbase 服务客户端缓存
      */
-    private static final Map<String, IHbase> HBASE_CLIENT = Maps.newConcurrentMap();
+    private static final PluginRegistry<IHbase> HBASE_CLIENT = new PluginRegistry<>(HbaseClientFactory::createPluginClass);
 
     /**
      * table 客户端缓存
      */
-    private static final Map<String, ITable> TABLE_CLIENT = Maps.newConcurrentMap();
+    private static final PluginRegistry<ITable> TABLE_CLIENT = new PluginRegistry<>(TableClientFactory::createPluginClass);
 
     /**
      * tsdb 客户端缓存
      */
-    private static final Map<String, ITsdb> TSDB_CLIENT = Maps.newConcurrentMap();
+    private static final PluginRegistry<ITsdb> TSDB_CLIENT = new PluginRegistry<>(TsdbClientFactory::createPluginClass);
 
     /**
      * restful 客户端缓存
      */
-    private static final Map<String, IRestful> RESTFUL_CLIENT = Maps.newConcurrentMap();
+    private static final PluginRegistry<IRestful> RESTFUL_CLIENT = new PluginRegistry<>(RestfulClientFactory::createPluginClass);
 
     /**
      * redis 客户端缓存
      */
-    private static final Map<String, IRedis> REDIS_CLIENT = Maps.newConcurrentMap();
+    private static final PluginRegistry<IRedis> REDIS_CLIENT = new PluginRegistry<>(RedisClientFactory::createPluginClass);
 
     protected static String userDir = String.format("%s/pluginLibs/", System.getProperty("user.dir"));
 
+    /**
+     * 是否将插件包索引持久化到插件目录，默认 false
+     */
+    protected static boolean persistPackageIndex = false;
+
+    /**
+     * 异步客户端共享的执行器
+     */
+    private static volatile AsyncClientExecutor asyncClientExecutor;
+
+    /**
+     * Sql Client 元数据缓存，为 null 时不缓存
+     */
+    private static volatile MetadataCache metadataCache;
+
     /**
      * 修改插件包文件夹路径
      *
@@ -108,6 +143,89 @@ public class ClientCache {
         return userDir;
     }
 
+    /**
+     * 设置是否将插件包索引持久化到插件目录，插件目录需要有写权限
+     *
+     * @param persist 是否持久化
+     */
+    public static void setPersistPackageIndex(boolean persist) {
+        ClientCache.persistPackageIndex = persist;
+    }
+
+    /**
+     * 是否将插件包索引持久化到插件目录
+     *
+     * @return 是否持久化
+     */
+    public static boolean isPersistPackageIndex() {
+        return persistPackageIndex;
+    }
+
+    /**
+     * 并行创建插件目录下所有插件的 ClassLoader 及插件包索引，建议在服务启动时调用
+     *
+     * @return 创建失败的插件名称
+     */
+    public static List<String> preloadClassLoaders() {
+        File[] pluginDirs = new File(userDir).listFiles(File::isDirectory);
+        if (pluginDirs == null || pluginDirs.length == 0) {
+            return Collections.emptyList();
+        }
+        Set<String> pluginNames = Arrays.stream(pluginDirs).map(File::getName).collect(Collectors.toCollection(LinkedHashSet::new));
+        return parallelLoad(pluginNames, "pluginClassLoader", ClientFactory::getClassLoader);
+    }
+
+    /**
+     * 预热插件，并行加载插件的 ClassLoader 及 Sql Client 客户端，避免首次请求时等待插件加载，建议在服务启动时调用
+     *
+     * @param sourceTypes 需要预热的数据源类型
+     * @return 预热失败的插件名称
+     */
+    public static List<String> warmUp(List<Integer> sourceTypes) {
+        Set<String> pluginNames = sourceTypes.stream()
+                .map(sourceType -> DataSourceType.getSourceType(sourceType).getPluginName())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (pluginNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return parallelLoad(pluginNames, "pluginWarmUp", ClientCache::getClient);
+    }
+
+    /**
+     * 并行加载插件
+     *
+     * @param pluginNames 插件名称
+     * @param taskName    线程名称前缀
+     * @param loader      插件加载方法
+     * @return 加载失败的插件名称
+     */
+    private static List<String> parallelLoad(Set<String> pluginNames, String taskName, PluginRegistry.PluginLoader<?> loader) {
+        int threadNum = Math.min(pluginNames.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threadNum, new DtThreadFactory(taskName));
+        try {
+            Map<String, Future<?>> futures = new LinkedHashMap<>();
+            for (String pluginName : pluginNames) {
+                futures.put(pluginName, executor.submit(() -> loader.load(pluginName)));
+            }
+            List<String> failedPlugins = new ArrayList<>();
+            for (Map.Entry<String, Future<?>> entry : futures.entrySet()) {
+                try {
+                    entry.getValue().get();
+                } catch (ExecutionException e) {
+                    log.warn("{} load plugin {} failed", taskName, entry.getKey(), e.getCause());
+                    failedPlugins.add(entry.getKey());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DtLoaderException(String.format("%s is interrupted", taskName), e);
+                }
+            }
+            log.info("{} load plugins {} finished, failed plugins: {}", taskName, pluginNames, failedPlugins);
+            return failedPlugins;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     /**
      * 获取 Sql Client 客户端
      *
@@ -130,20 +248,98 @@ public class ClientCache {
     @Deprecated
     public static IClient getClient(String pluginName) throws ClientAccessException {
         try {
-            IClient client = SQL_CLIENT.get(pluginName);
-            if (client == null) {
-                synchronized (SQL_CLIENT) {
-                    client = SQL_CLIENT.get(pluginName);
-                    if (client == null) {
-                        client = DataSourceClientFactory.createPluginClass(pluginName);
-                        SQL_CLIENT.put(pluginName, client);
-                    }
+            return SQL_CLIENT.get(pluginName);
+        } catch (Throwable e) {
+            throw new ClientAccessException(e);
+        }
+    }
+
+    /**
+     * 获取 Sql Client 异步客户端，所有异步客户端共享同一个执行器
+     *
+     * @param sourceType 数据源类型
+     * @return 异步客户端
+     * @throws ClientAccessException
+     */
+    public static AsyncDataSourceClient getAsyncClient(Integer sourceType) throws ClientAccessException {
+        return new AsyncDataSourceClient(getClient(sourceType), ClientCache::getAsyncClientExecutor);
+    }
+
+    /**
+     * 设置异步客户端配置，之前的执行器在已提交的请求执行完后关闭，已创建的异步客户端使用新配置
+     *
+     * @param config 异步客户端配置
+     */
+    public static synchronized void setAsyncClientConfig(AsyncClientConfig config) {
+        AsyncClientExecutor oldExecutor = asyncClientExecutor;
+        asyncClientExecutor = new AsyncClientExecutor(config);
+        if (oldExecutor != null) {
+            oldExecutor.shutdown();
+        }
+    }
+
+    private static AsyncClientExecutor getAsyncClientExecutor() {
+        AsyncClientExecutor executor = asyncClientExecutor;
+        if (executor == null) {
+            synchronized (ClientCache.class) {
+                if (asyncClientExecutor == null) {
+                    asyncClientExecutor = new AsyncClientExecutor(AsyncClientConfig.builder().build());
                 }
+                executor = asyncClientExecutor;
             }
+        }
+        return executor;
+    }
 
-            return client;
-        } catch (Throwable e) {
-            throw new ClientAccessException(e);
+    /**
+     * 开启 Sql Client 元数据缓存，缓存 getTableList、getTableListBySchema、getColumnMetaData 及 getTableMetaComment 的查询结果，
+     * 重复调用时使用新配置并清空之前的缓存
+     *
+     * @param config 元数据缓存配置
+     */
+    public static void enableMetadataCache(MetadataCacheConfig config) {
+        ClientCache.metadataCache = new MetadataCache(config);
+    }
+
+    /**
+     * 关闭 Sql Client 元数据缓存
+     */
+    public static void disableMetadataCache() {
+        ClientCache.metadataCache = null;
+    }
+
+    /**
+     * 获取 Sql Client 元数据缓存
+     *
+     * @return 元数据缓存，未开启时为 null
+     */
+    public static MetadataCache getMetadataCache() {
+        return metadataCache;
+    }
+
+    /**
+     * 清除数据源的元数据缓存
+     *
+     * @param source 数据源信息
+     */
+    public static void invalidateMetadata(ISourceDTO source) {
+        MetadataCache cache = metadataCache;
+        if (cache != null) {
+            cache.invalidate(source);
+        }
+    }
+
+    /**
+     * 清除表的元数据缓存，表新增、删除或修改后调用
+     *
+     * @param source    数据源信息
+     * @param schema    schema
+     * @param tableName 表名
+     */
+    public static void invalidateMetadata(ISourceDTO source, String schema, String tableName) {
+        MetadataCache cache = metadataCache;
+        if (cache != null) {
+            cache.invalidate(source, schema, tableName);
         }
     }
 
@@ -169,18 +365,7 @@ public class ClientCache {
     @Deprecated
     public static IHdfsFile getHdfs(String pluginName) throws ClientAccessException {
         try {
-            IHdfsFile hdfsFile = HDFS_FILE_CLIENT.get(pluginName);
-            if (hdfsFile == null) {
-                synchronized (HDFS_FILE_CLIENT) {
-                    hdfsFile = HDFS_FILE_CLIENT.get(pluginName);
-                    if (hdfsFile == null) {
-                        hdfsFile = HdfsFileClientFactory.createPluginClass(pluginName);
-                        HDFS_FILE_CLIENT.put(pluginName, hdfsFile);
-                    }
-                }
-            }
-
-            return hdfsFile;
+            return HDFS_FILE_CLIENT.get(pluginName);
         } catch (Throwable e) {
             throw new ClientAccessException(e);
         }
@@ -209,18 +394,7 @@ public class ClientCache {
     @Deprecated
     public static IKafka getKafka(String pluginName) throws ClientAccessException {
         try {
-            IKafka kafka = KAFKA_CLIENT.get(pluginName);
-            if (kafka == null) {
-                synchronized (KAFKA_CLIENT) {
-                    kafka = KAFKA_CLIENT.get(pluginName);
-                    if (kafka == null) {
-                        kafka = KafkaClientFactory.createPluginClass(pluginName);
-                        KAFKA_CLIENT.put(pluginName, kafka);
-                    }
-                }
-            }
-
-            return kafka;
+            return KAFKA_CLIENT.get(pluginName);
         } catch (Throwable e) {
             throw new ClientAccessException(e);
         }
@@ -247,18 +421,7 @@ public class ClientCache {
      */
     private static IKerberos getKerberos(String pluginName) throws ClientAccessException {
         try {
-            IKerberos kerberos = KERBEROS_CLIENT.get(pluginName);
-            if (kerberos == null) {
-                synchronized (KERBEROS_CLIENT) {
-                    kerberos = KERBEROS_CLIENT.get(pluginName);
-                    if (kerberos == null) {
-                        kerberos = KerberosClientFactory.createPluginClass(pluginName);
-                        KERBEROS_CLIENT.put(pluginName, kerberos);
-                    }
-                }
-            }
-
-            return kerberos;
+            return KERBEROS_CLIENT.get(pluginName);
         } catch (Throwable e) {
             throw new ClientAccessException(e);
         }
@@ -285,17 +448,7 @@ public class ClientCache {
      */
     private static IHbase getHbase(String pluginName) throws ClientAccessException {
         try {
-            IHbase hbase = HBASE_CLIENT.get(pluginName);
-            if (hbase == null) {
-                synchronized (HBASE_CLIENT) {
-                    hbase = HBASE_CLIENT.get(pluginName);
-                    if (hbase == null) {
-                        hbase = HbaseClientFactory.createPluginClass(pluginName);
-                        HBASE_CLIENT.put(pluginName, hbase);
-                    }
-                }
-            }
-            return hbase;
+            return HBASE_CLIENT.get(pluginName);
         } catch (Throwable e) {
             throw new ClientAccessException(e);
         }
@@ -315,18 +468,7 @@ public class ClientCache {
 
     private static ITable getTable(String pluginName) {
         try {
-            ITable table = TABLE_CLIENT.get(pluginName);
-            if (table == null) {
-                synchronized (TABLE_CLIENT) {
-                    table = TABLE_CLIENT.get(pluginName);
-                    if (table == null) {
-                        table = TableClientFactory.createPluginClass(pluginName);
-                        TABLE_CLIENT.put(pluginName, table);
-                    }
-                }
-            }
-
-            return table;
+            return TABLE_CLIENT.get(pluginName);
         } catch (Throwable e) {
             throw new ClientAccessException(e);
         }
@@ -345,18 +487,7 @@ public class ClientCache {
 
     private static ITsdb getTsdb(String pluginName) {
         try {
-            ITsdb tsdb = TSDB_CLIENT.get(pluginName);
-            if (tsdb == null) {
-                synchronized (TSDB_CLIENT) {
-                    tsdb = TSDB_CLIENT.get(pluginName);
-                    if (tsdb == null) {
-                        tsdb = TsdbClientFactory.createPluginClass(pluginName);
-                        TSDB_CLIENT.put(pluginName, tsdb);
-                    }
-                }
-            }
-
-            return tsdb;
+            return TSDB_CLIENT.get(pluginName);
         } catch (Throwable e) {
             throw new ClientAccessException(e);
         }
@@ -375,17 +506,7 @@ public class ClientCache {
 
     private static IRestful getRestful(String pluginName) {
         try {
-            IRestful restful = RESTFUL_CLIENT.get(pluginName);
-            if (restful == null) {
-                synchronized (RESTFUL_CLIENT) {
-                    restful = RESTFUL_CLIENT.get(pluginName);
-                    if (restful == null) {
-                        restful = RestfulClientFactory.createPluginClass(pluginName);
-                        RESTFUL_CLIENT.put(pluginName, restful);
-                    }
-                }
-            }
-            return restful;
+            return RESTFUL_CLIENT.get(pluginName);
         } catch (Throwable e) {
             throw new ClientAccessException(e);
         }
@@ -398,17 +519,7 @@ public class ClientCache {
 
     private static IRedis getRedis(String pluginName) {
         try {
-            IRedis iRedis = REDIS_CLIENT.get(pluginName);
-            if (iRedis == null) {
-                synchronized (REDIS_CLIENT) {
-                    iRedis = REDIS_CLIENT.get(pluginName);
-                    if (iRedis == null) {
-                        iRedis = RedisClientFactory.createPluginClass(pluginName);
-                        REDIS_CLIENT.put(pluginName, iRedis);
-                    }
-                }
-            }
-            return iRedis;
+            return REDIS_CLIENT.get(pluginName);
         } catch (Throwable e) {
             throw new ClientAccessException(e);
         }
@@ -21,9 +21,9 @@ package com.dtstack.dtcenter.loader.client;
 import com.alibaba.fastjson.serializer.DateCodec;
 import com.alibaba.fastjson.serializer.SerializeConfig;
 import com.dtstack.dtcenter.loader.DtClassLoader;
+import com.dtstack.dtcenter.loader.PluginPackageIndex;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.dtstack.dtcenter.loader.source.DataSourceType;
-import com.google.common.collect.Maps;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
@@ -33,7 +33,6 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @company: www.dtstack.com
@@ -44,9 +43,13 @@ import java.util.Map;
 @Slf4j
 public class ClientFactory {
     /**
-     * 存储 插件名称 - ClassLoader 键值对信息
+     * 存储 插件名称 - ClassLoader 键值对信息，不同插件的 ClassLoader 并行创建
      */
-    private static final Map<String, ClassLoader> PLUGIN_CLASSLOADER = Maps.newConcurrentMap();
+    private static final PluginRegistry<ClassLoader> PLUGIN_CLASSLOADER = new PluginRegistry<>(pluginName -> {
+        ClassLoader classLoader = getClassLoad(pluginName, getFileByPluginName(pluginName));
+        dealFastJSON(pluginName, classLoader);
+        return classLoader;
+    });
 
     /**
      * 获取类加载器
@@ -56,21 +59,7 @@ public class ClientFactory {
      * @throws Exception
      */
     public static ClassLoader getClassLoader(String pluginName) throws Exception {
-        ClassLoader classLoader = PLUGIN_CLASSLOADER.get(pluginName);
-        if (null != classLoader) {
-            return classLoader;
-        }
-
-        synchronized (ClientFactory.class) {
-            classLoader = PLUGIN_CLASSLOADER.get(pluginName);
-            if (classLoader == null) {
-                classLoader = getClassLoad(pluginName, getFileByPluginName(pluginName));
-                PLUGIN_CLASSLOADER.put(pluginName, classLoader);
-            }
-        }
-
-        dealFastJSON(pluginName, classLoader);
-        return classLoader;
+        return PLUGIN_CLASSLOADER.get(pluginName);
     }
 
     /**
@@ -80,7 +69,7 @@ public class ClientFactory {
      * @return
      */
     public static boolean checkContainClassLoader(String pluginName) {
-        return PLUGIN_CLASSLOADER.containsKey(pluginName);
+        return PLUGIN_CLASSLOADER.contains(pluginName);
     }
 
     /**
@@ -93,6 +82,7 @@ public class ClientFactory {
     private static URLClassLoader getClassLoad(String pluginName, @NotNull File file) throws MalformedURLException {
         File[] files = file.listFiles();
         List<URL> urlList = new ArrayList<>();
+        List<File> jarList = new ArrayList<>();
         if (files.length == 0) {
             throw new DtLoaderException("The plugin folder setting is abnormal, please handle it again");
         }
@@ -102,10 +92,12 @@ public class ClientFactory {
             if (f.isFile() && jarName.endsWith(".jar")) {
                 log.info("Data source plugin pulls Jar package, plugin name: {}, Jar package name: {}", pluginName, jarName);
                 urlList.add(f.toURI().toURL());
+                jarList.add(f);
             }
         }
 
-        return new DtClassLoader(urlList.toArray(new URL[urlList.size()]), Thread.currentThread().getContextClassLoader());
+        PluginPackageIndex packageIndex = PluginPackageIndex.build(file, jarList, ClientCache.isPersistPackageIndex());
+        return new DtClassLoader(urlList.toArray(new URL[urlList.size()]), Thread.currentThread().getContextClassLoader(), packageIndex);
     }
 
     /**
@@ -21,9 +21,11 @@ package com.dtstack.dtcenter.loader.client;
 import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
 import com.dtstack.dtcenter.loader.dto.Database;
+import com.dtstack.dtcenter.loader.dto.PoolMetricsDTO;
 import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
 import com.dtstack.dtcenter.loader.dto.Table;
 import com.dtstack.dtcenter.loader.dto.TableInfo;
+import com.dtstack.dtcenter.loader.dto.batch.RowBatch;
 import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
 
 import java.sql.Connection;
@@ -76,6 +78,15 @@ public interface IClient<T> {
      */
     List<Map<String, Object>> executeQuery(ISourceDTO source, SqlQueryDTO queryDTO);
 
+    /**
+     * 执行查询，返回列式结果，字段信息只保存一份，每列按类型存储
+     *
+     * @param source   数据源信息
+     * @param queryDTO 必填项 sql
+     * @return 列式查询结果
+     */
+    RowBatch executeQueryBatch(ISourceDTO source, SqlQueryDTO queryDTO);
+
     /**
      * 执行查询，无需结果集
      *
@@ -329,4 +340,11 @@ public interface IClient<T> {
      * @return table 信息
      */
     TableInfo getTableInfo(ISourceDTO sourceDTO, String tableName);
+
+    /**
+     * 获取当前插件中所有连接池的运行指标
+     *
+     * @return 连接池指标
+     */
+    List<PoolMetricsDTO> getPoolMetrics();
 }
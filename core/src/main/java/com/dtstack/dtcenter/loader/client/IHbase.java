@@ -18,6 +18,8 @@
 
 package com.dtstack.dtcenter.loader.client;
 
+import com.dtstack.dtcenter.loader.dto.HbaseBatchConfig;
+import com.dtstack.dtcenter.loader.dto.HbaseCellDTO;
 import com.dtstack.dtcenter.loader.dto.HbaseQueryDTO;
 import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
 import com.dtstack.dtcenter.loader.dto.filter.Filter;
@@ -167,4 +169,37 @@ public interface IHbase {
      * @return 查询结果
      */
     List<Map<String, Object>> executeQuery(ISourceDTO source, HbaseQueryDTO hbaseQueryDTO, TimestampFilter timestampFilter);
+
+    /**
+     * hbase 批量写入，同一 rowkey 的单元格合并为一个 Put，通过 BufferedMutator 按缓冲区大小批量提交
+     *
+     * @param source    数据源信息
+     * @param tableName 表名
+     * @param cells     写入的单元格，rowKey、family、qualifier 不能为空
+     * @param config    批量操作配置，为空时使用默认配置
+     * @return 写入状态
+     */
+    Boolean batchPut(ISourceDTO source, String tableName, List<HbaseCellDTO> cells, HbaseBatchConfig config);
+
+    /**
+     * hbase 批量删除，family 为空时删除整行，qualifier 为空时删除整个列族
+     *
+     * @param source    数据源信息
+     * @param tableName 表名
+     * @param cells     删除的单元格，rowKey 不能为空
+     * @param config    批量操作配置，为空时使用默认配置
+     * @return 删除状态
+     */
+    Boolean batchDelete(ISourceDTO source, String tableName, List<HbaseCellDTO> cells, HbaseBatchConfig config);
+
+    /**
+     * hbase 批量获取，family 为空时获取整行，qualifier 为空时获取整个列族
+     *
+     * @param source    数据源信息
+     * @param tableName 表名
+     * @param cells     获取的单元格，rowKey 不能为空
+     * @param config    批量操作配置，为空时使用默认配置
+     * @return 获取到的单元格，按请求的 rowkey 顺序返回
+     */
+    List<HbaseCellDTO> batchGet(ISourceDTO source, String tableName, List<HbaseCellDTO> cells, HbaseBatchConfig config);
 }
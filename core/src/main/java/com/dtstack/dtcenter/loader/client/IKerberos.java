@@ -18,6 +18,8 @@
 
 package com.dtstack.dtcenter.loader.client;
 
+import com.dtstack.dtcenter.loader.dto.KerberosLoginMetricsDTO;
+
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
@@ -70,4 +72,11 @@ public interface IKerberos {
      * @throws Exception
      */
     List<String> getPrincipals(Map<String, Object> kerberosConfig);
+
+    /**
+     * 获取当前插件中 Kerberos 登录的运行指标，每个 principal 和 keytab 对应一条
+     *
+     * @return Kerberos 登录指标
+     */
+    List<KerberosLoginMetricsDTO> getLoginMetrics();
 }
@@ -22,6 +22,7 @@ import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
 import com.dtstack.dtcenter.loader.dto.tsdb.QueryResult;
 import com.dtstack.dtcenter.loader.dto.tsdb.Suggest;
 import com.dtstack.dtcenter.loader.dto.tsdb.TsdbPoint;
+import com.dtstack.dtcenter.loader.dto.tsdb.TsdbPutConfig;
 import com.dtstack.dtcenter.loader.dto.tsdb.TsdbQuery;
 
 import java.util.Collection;
@@ -46,6 +47,25 @@ public interface ITsdb {
      */
     Boolean putSync(ISourceDTO source, Collection<TsdbPoint> points);
 
+    /**
+     * 异步插入多个点位，点位先写入缓冲区，缓冲区达到 batchSize 或超过 flushInterval 后批量并行发送，
+     * 发送中的批次达到 maxInFlight 时阻塞等待，发送失败的点位在 {@link #flush(ISourceDTO)} 时抛出异常
+     *
+     * @param source    数据源信息
+     * @param points    插入点位
+     * @param putConfig 异步写入配置，同一数据源以第一次写入时的配置为准，为空时使用默认配置
+     * @return 是否写入缓冲区
+     */
+    Boolean putAsync(ISourceDTO source, Collection<TsdbPoint> points, TsdbPutConfig putConfig);
+
+    /**
+     * 发送缓冲区中的全部点位并等待所有批次发送完成
+     *
+     * @param source 数据源信息
+     * @return 上次 flush 之后的点位是否全部发送成功，存在发送失败的点位时抛出异常
+     */
+    Boolean flush(ISourceDTO source);
+
     /**
      * 查询
      *
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.loader.client;
+
+import com.google.common.collect.Maps;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 插件注册表，按插件名称懒加载并缓存插件对象
+ * <p>
+ * 每个插件对应一个 future，不同插件之间并行加载互不阻塞，同一插件的并发请求共享同一次加载，
+ * 加载失败时移除 future，后续请求可以重新加载
+ *
+ * @param <T> 插件对象类型
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/10
+ * company: www.dtstack.com
+ */
+public class PluginRegistry<T> {
+
+    private final ConcurrentMap<String, CompletableFuture<T>> registry = Maps.newConcurrentMap();
+
+    private final PluginLoader<T> loader;
+
+    public PluginRegistry(PluginLoader<T> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * 获取插件对象，不存在时由第一个请求线程加载，其他线程等待该次加载结果
+     *
+     * @param pluginName 插件名称
+     * @return 插件对象
+     * @throws Exception 加载异常
+     */
+    public T get(String pluginName) throws Exception {
+        CompletableFuture<T> future = registry.get(pluginName);
+        if (future == null) {
+            CompletableFuture<T> loading = new CompletableFuture<>();
+            future = registry.putIfAbsent(pluginName, loading);
+            if (future == null) {
+                future = loading;
+                load(pluginName, loading);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 插件是否已经加载成功
+     *
+     * @param pluginName 插件名称
+     * @return 是否已加载
+     */
+    public boolean contains(String pluginName) {
+        CompletableFuture<T> future = registry.get(pluginName);
+        return future != null && future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    private void load(String pluginName, CompletableFuture<T> loading) {
+        try {
+            loading.complete(loader.load(pluginName));
+        } catch (Throwable e) {
+            registry.remove(pluginName, loading);
+            loading.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 插件加载器
+     *
+     * @param <T> 插件对象类型
+     */
+    @FunctionalInterface
+    public interface PluginLoader<T> {
+
+        /**
+         * 加载插件对象
+         *
+         * @param pluginName 插件名称
+         * @return 插件对象
+         * @throws Exception 加载异常
+         */
+        T load(String pluginName) throws Exception;
+    }
+}
@@ -20,6 +20,8 @@ package com.dtstack.dtcenter.loader.client.hbase;
 
 import com.dtstack.dtcenter.loader.ClassLoaderCallBackMethod;
 import com.dtstack.dtcenter.loader.client.IHbase;
+import com.dtstack.dtcenter.loader.dto.HbaseBatchConfig;
+import com.dtstack.dtcenter.loader.dto.HbaseCellDTO;
 import com.dtstack.dtcenter.loader.dto.HbaseQueryDTO;
 import com.dtstack.dtcenter.loader.dto.filter.TimestampFilter;
 import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
@@ -118,4 +120,22 @@ public class HbaseProxy implements IHbase {
         return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.executeQuery(source, hbaseQueryDTO, timestampFilter),
                 targetClient.getClass().getClassLoader());
     }
+
+    @Override
+    public Boolean batchPut(ISourceDTO source, String tableName, List<HbaseCellDTO> cells, HbaseBatchConfig config) {
+        return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.batchPut(source, tableName, cells, config),
+                targetClient.getClass().getClassLoader());
+    }
+
+    @Override
+    public Boolean batchDelete(ISourceDTO source, String tableName, List<HbaseCellDTO> cells, HbaseBatchConfig config) {
+        return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.batchDelete(source, tableName, cells, config),
+                targetClient.getClass().getClassLoader());
+    }
+
+    @Override
+    public List<HbaseCellDTO> batchGet(ISourceDTO source, String tableName, List<HbaseCellDTO> cells, HbaseBatchConfig config) {
+        return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.batchGet(source, tableName, cells, config),
+                targetClient.getClass().getClassLoader());
+    }
 }
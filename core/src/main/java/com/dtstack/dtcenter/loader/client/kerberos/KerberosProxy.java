@@ -20,6 +20,7 @@ package com.dtstack.dtcenter.loader.client.kerberos;
 
 import com.dtstack.dtcenter.loader.ClassLoaderCallBackMethod;
 import com.dtstack.dtcenter.loader.client.IKerberos;
+import com.dtstack.dtcenter.loader.dto.KerberosLoginMetricsDTO;
 
 import java.util.List;
 import java.util.Map;
@@ -60,4 +61,10 @@ public class KerberosProxy implements IKerberos {
         return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getPrincipals(kerberosConfig),
                 targetClient.getClass().getClassLoader());
     }
+
+    @Override
+    public List<KerberosLoginMetricsDTO> getLoginMetrics() {
+        return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getLoginMetrics(),
+                targetClient.getClass().getClassLoader());
+    }
 }
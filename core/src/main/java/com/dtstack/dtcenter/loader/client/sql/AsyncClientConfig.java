@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.client.sql;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * 异步客户端配置
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/11
+ * company: www.dtstack.com
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AsyncClientConfig {
+
+    /**
+     * 工作线程数，小于等于 0 时优先使用虚拟线程，当前 JDK 不支持虚拟线程时为 CPU 核数的 4 倍
+     */
+    @Builder.Default
+    private int workerThreads = 0;
+
+    /**
+     * 同一个数据源允许同时执行的请求数，超过后排队等待，小于 1 时按 1 处理
+     */
+    @Builder.Default
+    private int maxConcurrencyPerSource = 8;
+
+    /**
+     * 请求超时时间（毫秒），包含排队等待的时间，小于等于 0 时不超时
+     */
+    @Builder.Default
+    private long timeout = MINUTES.toMillis(5);
+}
@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.client.sql;
+
+import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import com.dtstack.dtcenter.loader.factory.DtThreadFactory;
+import com.dtstack.dtcenter.loader.utils.SourceFingerprint;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 异步客户端执行器，所有异步客户端共享
+ * <p>
+ * 按数据源限制同时执行的请求数，超过限制的请求在数据源自己的队列中排队，不占用工作线程，避免单个数据源占满工作线程；
+ * 超时后中断执行中的请求，排队中的请求直接出队
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/11
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class AsyncClientExecutor {
+
+    /**
+     * 数据源队列闲置多久后移除，单位：毫秒
+     */
+    private static final long SOURCE_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * 闲置数据源队列检查间隔，单位：毫秒
+     */
+    private static final long EVICT_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private final AsyncClientConfig config;
+
+    private final ExecutorService workers;
+
+    private final ScheduledExecutorService timer;
+
+    /**
+     * 数据源 key - 数据源请求队列
+     */
+    private final Map<String, SourceLane> sourceLanes = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastEvictTime = new AtomicLong(System.currentTimeMillis());
+
+    public AsyncClientExecutor(AsyncClientConfig config) {
+        this.config = config;
+        this.workers = createWorkers(config.getWorkerThreads());
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new DtThreadFactory("asyncClientTimer"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setKeepAliveTime(60L, TimeUnit.SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+        this.timer = scheduler;
+    }
+
+    /**
+     * 在工作线程中执行请求，数据源并发数达到上限时先在数据源队列中排队
+     *
+     * @param source   数据源信息
+     * @param supplier 请求
+     * @param <T>      返回类型
+     * @return 请求结果
+     */
+    public <T> CompletableFuture<T> submit(ISourceDTO source, Supplier<T> supplier) {
+        evictIdleLanes();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<Future<?>> running = new AtomicReference<>();
+        String sourceKey = getSourceKey(source);
+        SourceLane lane;
+        Runnable start;
+        do {
+            lane = sourceLanes.computeIfAbsent(sourceKey, k -> new SourceLane(config.getMaxConcurrencyPerSource()));
+            SourceLane current = lane;
+            start = () -> {
+                try {
+                    running.set(workers.submit(() -> {
+                        try {
+                            if (!result.isDone()) {
+                                result.complete(supplier.get());
+                            }
+                        } catch (Throwable e) {
+                            result.completeExceptionally(e);
+                        } finally {
+                            current.finish();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    result.completeExceptionally(new DtLoaderException("async client executor is shutdown", e));
+                    current.finish();
+                }
+            };
+        } while (!lane.offer(start));
+        long timeout = config.getTimeout();
+        if (timeout > 0 && !result.isDone()) {
+            SourceLane current = lane;
+            Runnable queued = start;
+            Future<?> timeoutTask = timer.schedule(() -> {
+                if (current.remove(queued)) {
+                    result.completeExceptionally(new DtLoaderException("wait for data source concurrency permit timeout",
+                            new TimeoutException()));
+                } else if (result.completeExceptionally(new DtLoaderException(String.format("async request timeout after %s ms", timeout),
+                        new TimeoutException()))) {
+                    Future<?> task = running.get();
+                    if (task != null) {
+                        task.cancel(true);
+                    }
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+            result.whenComplete((r, e) -> timeoutTask.cancel(false));
+        }
+        return result;
+    }
+
+    /**
+     * 关闭执行器，已提交的请求继续执行
+     */
+    public void shutdown() {
+        workers.shutdown();
+        timer.shutdown();
+    }
+
+    /**
+     * 数据源 key，包含数据源的所有连接信息，不同集群的数据源分别限制并发
+     */
+    static String getSourceKey(ISourceDTO source) {
+        return SourceFingerprint.of(source);
+    }
+
+    /**
+     * 移除没有执行中及排队请求且闲置超时的数据源队列，最多每 {@link #EVICT_INTERVAL} 检查一次
+     */
+    private void evictIdleLanes() {
+        long now = System.currentTimeMillis();
+        long last = lastEvictTime.get();
+        if (now - last < EVICT_INTERVAL || !lastEvictTime.compareAndSet(last, now)) {
+            return;
+        }
+        sourceLanes.forEach((key, lane) -> {
+            if (lane.retireIfIdle(now)) {
+                sourceLanes.remove(key, lane);
+            }
+        });
+    }
+
+    private static ExecutorService createWorkers(int workerThreads) {
+        if (workerThreads <= 0) {
+            try {
+                // JDK 21 及以上使用虚拟线程
+                Method method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) method.invoke(null);
+            } catch (NoSuchMethodException e) {
+                log.info("virtual thread is not supported, use platform thread pool");
+            } catch (Exception e) {
+                log.warn("create virtual thread executor failed, use platform thread pool", e);
+            }
+            workerThreads = Runtime.getRuntime().availableProcessors() * 4;
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workerThreads, workerThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new DtThreadFactory("asyncClient"));
+        // 空闲时回收线程，避免阻止 JVM 退出
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 数据源请求队列，执行中的请求数达到上限时后续请求排队，执行中的请求结束后提交下一个排队的请求
+     */
+    private static class SourceLane {
+
+        private final int maxConcurrency;
+
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+
+        private int running = 0;
+
+        private long lastAccessTime = System.currentTimeMillis();
+
+        /**
+         * 被移除后不再接收请求
+         */
+        private boolean retired = false;
+
+        private SourceLane(int maxConcurrency) {
+            this.maxConcurrency = Math.max(1, maxConcurrency);
+        }
+
+        /**
+         * 提交请求，未达到并发上限时直接开始执行
+         *
+         * @return 队列已被移除时返回 false
+         */
+        private boolean offer(Runnable start) {
+            synchronized (this) {
+                if (retired) {
+                    return false;
+                }
+                lastAccessTime = System.currentTimeMillis();
+                if (running >= maxConcurrency) {
+                    waiting.add(start);
+                    return true;
+                }
+                running++;
+            }
+            start.run();
+            return true;
+        }
+
+        /**
+         * 请求执行结束，开始执行下一个排队的请求
+         */
+        private void finish() {
+            Runnable next;
+            synchronized (this) {
+                lastAccessTime = System.currentTimeMillis();
+                next = waiting.poll();
+                if (next == null) {
+                    running--;
+                    return;
+                }
+            }
+            next.run();
+        }
+
+        /**
+         * 从排队中移除请求
+         *
+         * @return 请求还在排队时返回 true
+         */
+        private synchronized boolean remove(Runnable start) {
+            return waiting.remove(start);
+        }
+
+        private synchronized boolean retireIfIdle(long now) {
+            if (running == 0 && waiting.isEmpty() && now - lastAccessTime > SOURCE_IDLE_TIMEOUT) {
+                retired = true;
+            }
+            return retired;
+        }
+    }
+}
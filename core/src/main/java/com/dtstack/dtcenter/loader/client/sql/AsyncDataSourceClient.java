@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.client.sql;
+
+import com.dtstack.dtcenter.loader.client.IClient;
+import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
+import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
+import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Sql Client 异步客户端，请求在共享的 {@link AsyncClientExecutor} 中执行
+ * <p>
+ * 代理的客户端为 {@link DataSourceClientProxy}，工作线程中执行时会切换为插件的 ClassLoader 并在结束后还原
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/11
+ * company: www.dtstack.com
+ */
+public class AsyncDataSourceClient {
+
+    private final IClient<?> client;
+
+    /**
+     * 执行器通过 supplier 获取，修改配置后已创建的异步客户端使用新的执行器
+     */
+    private final Supplier<AsyncClientExecutor> executor;
+
+    public AsyncDataSourceClient(IClient<?> client, Supplier<AsyncClientExecutor> executor) {
+        this.client = client;
+        this.executor = executor;
+    }
+
+    /**
+     * 异步执行查询
+     *
+     * @param source   数据源信息
+     * @param queryDTO 查询信息
+     * @return 查询结果
+     */
+    public CompletableFuture<List<Map<String, Object>>> executeQueryAsync(ISourceDTO source, SqlQueryDTO queryDTO) {
+        return executor.get().submit(source, () -> client.executeQuery(source, queryDTO));
+    }
+
+    /**
+     * 异步获取表列表
+     *
+     * @param source   数据源信息
+     * @param queryDTO 查询信息
+     * @return 表名称
+     */
+    public CompletableFuture<List<String>> getTableListAsync(ISourceDTO source, SqlQueryDTO queryDTO) {
+        return executor.get().submit(source, () -> client.getTableList(source, queryDTO));
+    }
+
+    /**
+     * 异步获取字段信息
+     *
+     * @param source   数据源信息
+     * @param queryDTO 查询信息
+     * @return 字段信息
+     */
+    public CompletableFuture<List<ColumnMetaDTO>> getColumnMetaDataAsync(ISourceDTO source, SqlQueryDTO queryDTO) {
+        return executor.get().submit(source, () -> client.getColumnMetaData(source, queryDTO));
+    }
+
+    /**
+     * 异步校验连通性
+     *
+     * @param source 数据源信息
+     * @return 是否连通
+     */
+    public CompletableFuture<Boolean> testConAsync(ISourceDTO source) {
+        return executor.get().submit(source, () -> client.testCon(source));
+    }
+}
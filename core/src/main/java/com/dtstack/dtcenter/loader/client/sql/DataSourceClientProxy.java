@@ -20,13 +20,16 @@ package com.dtstack.dtcenter.loader.client.sql;
 
 import com.dtstack.dtcenter.loader.ClassLoaderCallBackMethod;
 import com.dtstack.dtcenter.loader.IDownloader;
+import com.dtstack.dtcenter.loader.client.ClientCache;
 import com.dtstack.dtcenter.loader.client.IClient;
 import com.dtstack.dtcenter.loader.downloader.DownloaderProxy;
 import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
 import com.dtstack.dtcenter.loader.dto.Database;
+import com.dtstack.dtcenter.loader.dto.PoolMetricsDTO;
 import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
 import com.dtstack.dtcenter.loader.dto.Table;
 import com.dtstack.dtcenter.loader.dto.TableInfo;
+import com.dtstack.dtcenter.loader.dto.batch.RowBatch;
 import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
 import lombok.extern.slf4j.Slf4j;
 
@@ -72,6 +75,12 @@ public class DataSourceClientProxy<T> implements IClient<T> {
                 targetClient.getClass().getClassLoader());
     }
 
+    @Override
+    public RowBatch executeQueryBatch(ISourceDTO source, SqlQueryDTO queryDTO) {
+        return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.executeQueryBatch(source, queryDTO),
+                targetClient.getClass().getClassLoader());
+    }
+
     @Override
     public Boolean executeSqlWithoutResultSet(ISourceDTO source, SqlQueryDTO queryDTO) {
         return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.executeSqlWithoutResultSet(source,
@@ -80,14 +89,26 @@ public class DataSourceClientProxy<T> implements IClient<T> {
 
     @Override
     public List<String> getTableList(ISourceDTO source, SqlQueryDTO queryDTO) {
-        return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getTableList(source, queryDTO),
-                targetClient.getClass().getClassLoader());
+        MetadataCache metadataCache = ClientCache.getMetadataCache();
+        if (metadataCache == null) {
+            return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getTableList(source, queryDTO),
+                    targetClient.getClass().getClassLoader());
+        }
+        return metadataCache.get("getTableList", source, queryDTO,
+                () -> ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getTableList(source, queryDTO),
+                        targetClient.getClass().getClassLoader()));
     }
 
     @Override
     public List<String> getTableListBySchema(ISourceDTO source, SqlQueryDTO queryDTO) {
-        return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getTableListBySchema(source, queryDTO),
-                targetClient.getClass().getClassLoader());
+        MetadataCache metadataCache = ClientCache.getMetadataCache();
+        if (metadataCache == null) {
+            return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getTableListBySchema(source, queryDTO),
+                    targetClient.getClass().getClassLoader());
+        }
+        return metadataCache.get("getTableListBySchema", source, queryDTO,
+                () -> ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getTableListBySchema(source, queryDTO),
+                        targetClient.getClass().getClassLoader()));
     }
 
     @Override
@@ -98,8 +119,14 @@ public class DataSourceClientProxy<T> implements IClient<T> {
 
     @Override
     public List<ColumnMetaDTO> getColumnMetaData(ISourceDTO source, SqlQueryDTO queryDTO) {
-        return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getColumnMetaData(source, queryDTO),
-                targetClient.getClass().getClassLoader());
+        MetadataCache metadataCache = ClientCache.getMetadataCache();
+        if (metadataCache == null) {
+            return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getColumnMetaData(source, queryDTO),
+                    targetClient.getClass().getClassLoader());
+        }
+        return metadataCache.get("getColumnMetaData", source, queryDTO,
+                () -> ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getColumnMetaData(source, queryDTO),
+                        targetClient.getClass().getClassLoader()));
     }
 
     @Override
@@ -116,8 +143,14 @@ public class DataSourceClientProxy<T> implements IClient<T> {
 
     @Override
     public String getTableMetaComment(ISourceDTO source, SqlQueryDTO queryDTO) {
-        return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getTableMetaComment(source, queryDTO),
-                targetClient.getClass().getClassLoader());
+        MetadataCache metadataCache = ClientCache.getMetadataCache();
+        if (metadataCache == null) {
+            return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getTableMetaComment(source, queryDTO),
+                    targetClient.getClass().getClassLoader());
+        }
+        return metadataCache.get("getTableMetaComment", source, queryDTO,
+                () -> ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getTableMetaComment(source, queryDTO),
+                        targetClient.getClass().getClassLoader()));
     }
 
     @Override
@@ -221,4 +254,10 @@ public class DataSourceClientProxy<T> implements IClient<T> {
         return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getTableInfo(sourceDTO, tableName),
                 targetClient.getClass().getClassLoader());
     }
+
+    @Override
+    public List<PoolMetricsDTO> getPoolMetrics() {
+        return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getPoolMetrics(),
+                targetClient.getClass().getClassLoader());
+    }
 }
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.client.sql;
+
+import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
+import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import com.dtstack.dtcenter.loader.utils.SourceFingerprint;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 元数据缓存，缓存表列表、字段信息及表注释的查询结果
+ * <p>
+ * 缓存 key 由查询方法、数据源指纹（所有连接信息及认证信息的摘要）及查询条件组成，
+ * 相同 key 的并发请求只查询一次，其他请求等待该次查询结果
+ *
+ * @author ：wangchuan
+ * date：Created in 下午2:00 2022/6/11
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class MetadataCache {
+
+    /**
+     * 查询结果为 null 时的占位
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    private final Cache<CacheKey, Object> cache;
+
+    public MetadataCache(MetadataCacheConfig config) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getExpireAfterWrite(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * 获取缓存的查询结果，不存在时查询并缓存
+     *
+     * @param method   查询方法
+     * @param source   数据源信息
+     * @param queryDTO 查询信息
+     * @param loader   查询方法
+     * @param <T>      查询结果类型
+     * @return 查询结果，列表类型返回副本
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String method, ISourceDTO source, SqlQueryDTO queryDTO, Callable<T> loader) {
+        CacheKey key = new CacheKey(method, getSourceKey(source), queryDTO);
+        Object value;
+        try {
+            value = cache.get(key, () -> {
+                T result = loader.call();
+                return Objects.isNull(result) ? NULL_VALUE : result;
+            });
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+        if (value == NULL_VALUE) {
+            return null;
+        }
+        // 避免调用方修改缓存中的列表
+        return value instanceof List ? (T) new ArrayList<>((List<?>) value) : (T) value;
+    }
+
+    /**
+     * 清除数据源的所有缓存
+     *
+     * @param source 数据源信息
+     */
+    public void invalidate(ISourceDTO source) {
+        String sourceKey = getSourceKey(source);
+        cache.asMap().keySet().removeIf(key -> key.getSourceKey().equals(sourceKey));
+    }
+
+    /**
+     * 清除表的缓存，同时清除该数据源下表列表的缓存
+     *
+     * @param source    数据源信息
+     * @param schema    schema，为空时清除所有 schema 下同名表的缓存
+     * @param tableName 表名
+     */
+    public void invalidate(ISourceDTO source, String schema, String tableName) {
+        String sourceKey = getSourceKey(source);
+        cache.asMap().keySet().removeIf(key -> key.getSourceKey().equals(sourceKey)
+                && (StringUtils.isEmpty(key.getTableName())
+                || (key.getTableName().equals(tableName) && (StringUtils.isEmpty(schema) || StringUtils.isEmpty(key.getSchema()) || schema.equals(key.getSchema())))));
+    }
+
+    /**
+     * 清除所有缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 当前缓存的查询结果数量
+     *
+     * @return 数量
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * 数据源 key，包含数据源的所有连接信息及认证信息，不同集群或不同密码的数据源不会共用缓存
+     */
+    private static String getSourceKey(ISourceDTO source) {
+        return SourceFingerprint.of(source);
+    }
+
+    private static RuntimeException unwrap(Throwable e) {
+        if (e instanceof DtLoaderException) {
+            return (DtLoaderException) e;
+        }
+        return new DtLoaderException(e.getMessage(), e);
+    }
+
+    /**
+     * 缓存 key，只包含影响元数据查询结果的查询条件
+     */
+    @Data
+    private static class CacheKey {
+
+        private final String method;
+
+        private final String sourceKey;
+
+        private final String schema;
+
+        private final String tableName;
+
+        private final String tableNamePattern;
+
+        private final String matchType;
+
+        private final String[] tableTypes;
+
+        private final Boolean view;
+
+        private final Boolean filterPartitionColumns;
+
+        private final List<String> columns;
+
+        private final Integer limit;
+
+        private CacheKey(String method, String sourceKey, SqlQueryDTO queryDTO) {
+            this.method = method;
+            this.sourceKey = sourceKey;
+            boolean empty = Objects.isNull(queryDTO);
+            this.schema = empty ? null : queryDTO.getSchema();
+            this.tableName = empty ? null : queryDTO.getTableName();
+            this.tableNamePattern = empty ? null : queryDTO.getTableNamePattern();
+            this.matchType = empty || Objects.isNull(queryDTO.getMatchType()) ? null : queryDTO.getMatchType().name();
+            this.tableTypes = empty ? null : queryDTO.getTableTypes();
+            this.view = empty ? null : queryDTO.getView();
+            this.filterPartitionColumns = empty ? null : queryDTO.getFilterPartitionColumns();
+            this.columns = empty || Objects.isNull(queryDTO.getColumns()) ? null : new ArrayList<>(queryDTO.getColumns());
+            this.limit = empty ? null : queryDTO.getLimit();
+        }
+    }
+}
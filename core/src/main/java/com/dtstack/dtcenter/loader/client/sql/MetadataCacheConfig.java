@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.client.sql;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * 元数据缓存配置
+ *
+ * @author ：wangchuan
+ * date：Created in 下午2:00 2022/6/11
+ * company: www.dtstack.com
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MetadataCacheConfig {
+
+    /**
+     * 最多缓存的查询结果数量
+     */
+    @Builder.Default
+    private Long maximumSize = 10000L;
+
+    /**
+     * 查询结果写入后的有效时长（毫秒）
+     */
+    @Builder.Default
+    private Long expireAfterWrite = MINUTES.toMillis(10);
+}
@@ -24,6 +24,7 @@ import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
 import com.dtstack.dtcenter.loader.dto.tsdb.QueryResult;
 import com.dtstack.dtcenter.loader.dto.tsdb.Suggest;
 import com.dtstack.dtcenter.loader.dto.tsdb.TsdbPoint;
+import com.dtstack.dtcenter.loader.dto.tsdb.TsdbPutConfig;
 import com.dtstack.dtcenter.loader.dto.tsdb.TsdbQuery;
 
 import java.util.Collection;
@@ -51,6 +52,18 @@ public class TsdbClientProxy implements ITsdb {
                 targetClient.getClass().getClassLoader());
     }
 
+    @Override
+    public Boolean putAsync(ISourceDTO source, Collection<TsdbPoint> points, TsdbPutConfig putConfig) {
+        return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.putAsync(source, points, putConfig),
+                targetClient.getClass().getClassLoader());
+    }
+
+    @Override
+    public Boolean flush(ISourceDTO source) {
+        return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.flush(source),
+                targetClient.getClass().getClassLoader());
+    }
+
     @Override
     public List<QueryResult> query(ISourceDTO source, TsdbQuery query) {
         return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.query(source, query),
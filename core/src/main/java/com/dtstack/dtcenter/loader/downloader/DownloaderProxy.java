@@ -64,6 +64,12 @@ public class DownloaderProxy implements IDownloader {
                 targetDownloader.getClass().getClassLoader());
     }
 
+    @Override
+    public List<?> readNextBatch(int maxRows) {
+        return ClassLoaderCallBackMethod.callbackAndReset(() -> targetDownloader.readNextBatch(maxRows),
+                targetDownloader.getClass().getClassLoader());
+    }
+
     @Override
     public boolean close() throws Exception {
         return ClassLoaderCallBackMethod.callbackAndReset(() -> targetDownloader.close(),
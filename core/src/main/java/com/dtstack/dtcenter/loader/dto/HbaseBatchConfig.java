@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * hbase 批量操作配置
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/13
+ * company: www.dtstack.com
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HbaseBatchConfig {
+
+    /**
+     * 写缓冲区大小，单位：字节，缓冲区满后批量提交
+     */
+    @Builder.Default
+    private Long writeBufferSize = 4L * 1024 * 1024;
+
+    /**
+     * 每批的数量，flushPolicy 为 EVERY_BATCH 时每写入 batchSize 行提交一次，批量获取时每次请求的 rowkey 数
+     */
+    @Builder.Default
+    private Integer batchSize = 1000;
+
+    /**
+     * 提交策略
+     */
+    @Builder.Default
+    private FlushPolicy flushPolicy = FlushPolicy.BUFFER_FULL;
+
+    /**
+     * 是否按 region 分组后提交，同一批请求只发往一个 region
+     */
+    @Builder.Default
+    private Boolean groupByRegion = true;
+
+    public enum FlushPolicy {
+
+        /**
+         * 缓冲区满及结束时提交
+         */
+        BUFFER_FULL,
+
+        /**
+         * 每写入 batchSize 行提交一次
+         */
+        EVERY_BATCH
+    }
+}
@@ -54,6 +54,21 @@ public class HbaseQueryDTO {
 
     private Map<String, ColumnType> columnTypes;
 
+    /**
+     * 每次 rpc 返回的行数，为空时默认 1000
+     */
+    private Integer scanCaching;
+
+    /**
+     * 每个 Result 最多包含的列数，用于宽行拆分，为空时不拆分
+     */
+    private Integer scanBatch;
+
+    /**
+     * 按 region 并行扫描的并行度，为空时默认 4，最大 16
+     */
+    private Integer scanParallelism;
+
     public enum ColumnType {
         INT(),
 
@@ -21,6 +21,7 @@ package com.dtstack.dtcenter.loader.dto;
 import lombok.Data;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  *
@@ -58,4 +59,19 @@ public class HdfsWriterDTO {
      */
     private Boolean setDefault;
 
+    /**
+     * 并行导入的线程数，大于 1 时按行边界切分本地源文件，并行写入多个 part 文件，源文件的字段值中不能包含换行符
+     */
+    private Integer parallelism;
+
+    /**
+     * 并行导入时每个 part 文件对应的源文件大小，单位：字节，设置后按该大小切分源文件
+     */
+    private Long targetFileSize;
+
+    /**
+     * 并行导入后每个 part 文件写入的数据条数，key 为 part 文件路径
+     */
+    private Map<String, Integer> partRowCounts;
+
 }
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Kerberos 登录运行指标
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/18
+ * company: www.dtstack.com
+ */
+@Data
+@Builder
+public class KerberosLoginMetricsDTO implements Serializable {
+
+    /**
+     * 登录的 principal
+     */
+    private String principal;
+
+    /**
+     * keytab 文件路径
+     */
+    private String keytab;
+
+    /**
+     * 命中 UGI 缓存的次数
+     */
+    private Long cacheHitCount;
+
+    /**
+     * keytab 登录成功的次数，包括续期
+     */
+    private Long loginCount;
+
+    /**
+     * keytab 登录失败的次数，包括续期
+     */
+    private Long loginFailCount;
+
+    /**
+     * 后台续期成功的次数
+     */
+    private Long renewCount;
+
+    /**
+     * keytab 登录的平均耗时，单位：毫秒
+     */
+    private Double avgLoginMillis;
+
+    /**
+     * keytab 登录的最大耗时，单位：毫秒
+     */
+    private Long maxLoginMillis;
+
+    /**
+     * 最后一次登录成功的时间
+     */
+    private Long lastLoginTime;
+
+    /**
+     * 当前 TGT 的过期时间，获取不到 TGT 时为空
+     */
+    private Long tgtEndTime;
+
+    /**
+     * 最后一次获取 UGI 的时间
+     */
+    private Long lastAccessTime;
+}
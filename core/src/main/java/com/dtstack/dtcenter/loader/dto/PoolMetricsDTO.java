@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.loader.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 连接池运行指标
+ *
+ * @author ：wangchuan
+ * date：Created in 下午4:00 2022/6/10
+ * company: www.dtstack.com
+ */
+@Data
+@Builder
+public class PoolMetricsDTO implements Serializable {
+
+    /**
+     * 连接池名称，由连接地址和用户名组成，不包含密码
+     */
+    private String poolName;
+
+    /**
+     * 正在使用的连接数
+     */
+    private Integer activeConnections;
+
+    /**
+     * 空闲连接数
+     */
+    private Integer idleConnections;
+
+    /**
+     * 总连接数
+     */
+    private Integer totalConnections;
+
+    /**
+     * 等待获取连接的线程数
+     */
+    private Integer threadsAwaitingConnection;
+
+    /**
+     * 最大连接数
+     */
+    private Integer maximumPoolSize;
+
+    /**
+     * 获取连接的次数
+     */
+    private Long borrowCount;
+
+    /**
+     * 获取连接的平均耗时，单位：毫秒
+     */
+    private Double avgBorrowMillis;
+
+    /**
+     * 获取连接的最大耗时，单位：毫秒
+     */
+    private Long maxBorrowMillis;
+
+    /**
+     * 连接池创建时间
+     */
+    private Long createTime;
+
+    /**
+     * 最后一次获取连接的时间
+     */
+    private Long lastAccessTime;
+}
@@ -132,6 +132,27 @@ public class SqlQueryDTO {
      */
     private Integer fetchSize;
 
+    /**
+     * 下载器是否使用游标流式读取，只执行一次查询，不再 limit 分页及 count 总条数，默认 false
+     */
+    private Boolean streamingRead;
+
+    /**
+     * 流式读取时下载器每次 readNext 返回的条数，默认 100，es 下载器默认 1000
+     */
+    private Integer readBatchSize;
+
+    /**
+     * hive 等 hdfs 类下载器并行读取的线程数，大于 1 时并发列出分区目录并预读切片，默认串行读取；
+     * es 下载器为 sliced scroll 的 slice 数
+     */
+    private Integer readParallelism;
+
+    /**
+     * 并行读取时是否保证与串行读取一致的数据顺序，默认 true
+     */
+    private Boolean orderedRead;
+
 
     /**
      * solr 自定义查询
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.loader.dto.batch;
+
+import java.util.Arrays;
+
+/**
+ * 列式存储的单列数据，按行号顺序追加，null 值单独记录
+ *
+ * @author ：wangchuan
+ * date：Created in 下午2:10 2022/6/6
+ * company: www.dtstack.com
+ */
+public abstract class ColumnVector {
+
+    // 最小初始容量
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * 每一行是否为 null
+     */
+    protected boolean[] isNull;
+
+    /**
+     * 当前行数
+     */
+    protected int size;
+
+    protected ColumnVector(int capacity) {
+        isNull = new boolean[Math.max(capacity, MIN_CAPACITY)];
+    }
+
+    /**
+     * 获取当前行数
+     *
+     * @return 行数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 判断指定行是否为 null
+     *
+     * @param row 行号，从 0 开始
+     * @return 是否为 null
+     */
+    public boolean isNull(int row) {
+        return isNull[row];
+    }
+
+    /**
+     * 追加 null 值
+     */
+    public void appendNull() {
+        ensureCapacity(size + 1);
+        isNull[size++] = true;
+    }
+
+    /**
+     * 获取指定行的值，基本类型会进行装箱，仅用于兼容场景
+     *
+     * @param row 行号，从 0 开始
+     * @return 值
+     */
+    public abstract Object getObject(int row);
+
+    /**
+     * 扩容存储值的数组
+     *
+     * @param newCapacity 新容量
+     */
+    protected abstract void grow(int newCapacity);
+
+    /**
+     * 保证容量足够，不足时按两倍扩容
+     *
+     * @param capacity 需要的容量
+     */
+    protected void ensureCapacity(int capacity) {
+        if (capacity <= isNull.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, isNull.length << 1);
+        isNull = Arrays.copyOf(isNull, newCapacity);
+        grow(newCapacity);
+    }
+}
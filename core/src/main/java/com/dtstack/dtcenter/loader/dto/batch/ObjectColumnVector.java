@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.loader.dto.batch;
+
+import java.util.Arrays;
+
+/**
+ * 其他类型列，如 decimal、日期、二进制等，保留 jdbc 返回的对象
+ *
+ * @author ：wangchuan
+ * date：Created in 下午2:10 2022/6/6
+ * company: www.dtstack.com
+ */
+public class ObjectColumnVector extends ColumnVector {
+
+    private Object[] values;
+
+    public ObjectColumnVector(int capacity) {
+        super(capacity);
+        values = new Object[isNull.length];
+    }
+
+    /**
+     * 追加值，value 为 null 时记为 null 值
+     *
+     * @param value 值
+     */
+    public void append(Object value) {
+        ensureCapacity(size + 1);
+        isNull[size] = value == null;
+        values[size++] = value;
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return values[row];
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+        values = Arrays.copyOf(values, newCapacity);
+    }
+}
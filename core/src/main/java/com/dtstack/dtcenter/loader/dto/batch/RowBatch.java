@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.loader.dto.batch;
+
+import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 列式查询结果，字段信息只保存一份，每列数据按类型保存在对应的 {@link ColumnVector} 中，
+ * 避免逐行构建 Map 及基本类型装箱
+ *
+ * @author ：wangchuan
+ * date：Created in 下午2:10 2022/6/6
+ * company: www.dtstack.com
+ */
+public class RowBatch {
+
+    /**
+     * 字段信息，key 为去重后的字段名，type 为 jdbc 类型名称
+     */
+    private final List<ColumnMetaDTO> columns;
+
+    /**
+     * 每列数据，与 columns 一一对应
+     */
+    private final ColumnVector[] vectors;
+
+    public RowBatch(List<ColumnMetaDTO> columns, ColumnVector[] vectors) {
+        this.columns = columns;
+        this.vectors = vectors;
+    }
+
+    /**
+     * 获取字段信息
+     *
+     * @return 字段信息
+     */
+    public List<ColumnMetaDTO> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 获取字段数
+     *
+     * @return 字段数
+     */
+    public int getColumnCount() {
+        return vectors.length;
+    }
+
+    /**
+     * 获取行数
+     *
+     * @return 行数
+     */
+    public int getRowCount() {
+        return vectors.length == 0 ? 0 : vectors[0].size();
+    }
+
+    /**
+     * 获取指定列的数据
+     *
+     * @param column 列号，从 0 开始
+     * @return 列数据
+     */
+    public ColumnVector getVector(int column) {
+        return vectors[column];
+    }
+
+    /**
+     * 获取指定单元格的值，基本类型会进行装箱
+     *
+     * @param row    行号，从 0 开始
+     * @param column 列号，从 0 开始
+     * @return 值
+     */
+    public Object getObject(int row, int column) {
+        return vectors[column].getObject(row);
+    }
+
+    /**
+     * 转换为行式结果，仅用于兼容 executeQuery 的返回格式
+     *
+     * @return 行式结果
+     */
+    public List<Map<String, Object>> toMapList() {
+        int rowCount = getRowCount();
+        List<Map<String, Object>> result = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            Map<String, Object> rowMap = new LinkedHashMap<>();
+            for (int column = 0; column < vectors.length; column++) {
+                rowMap.put(columns.get(column).getKey(), vectors[column].getObject(row));
+            }
+            result.add(rowMap);
+        }
+        return result;
+    }
+}
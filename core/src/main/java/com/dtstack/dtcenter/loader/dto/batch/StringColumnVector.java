@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.loader.dto.batch;
+
+import java.util.Arrays;
+
+/**
+ * 字符串类型列
+ *
+ * @author ：wangchuan
+ * date：Created in 下午2:10 2022/6/6
+ * company: www.dtstack.com
+ */
+public class StringColumnVector extends ColumnVector {
+
+    private String[] values;
+
+    public StringColumnVector(int capacity) {
+        super(capacity);
+        values = new String[isNull.length];
+    }
+
+    /**
+     * 追加值，value 为 null 时记为 null 值
+     *
+     * @param value 值
+     */
+    public void append(String value) {
+        ensureCapacity(size + 1);
+        isNull[size] = value == null;
+        values[size++] = value;
+    }
+
+    /**
+     * 获取指定行的值
+     *
+     * @param row 行号，从 0 开始
+     * @return 值，null 值返回 null
+     */
+    public String getString(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return values[row];
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+        values = Arrays.copyOf(values, newCapacity);
+    }
+}
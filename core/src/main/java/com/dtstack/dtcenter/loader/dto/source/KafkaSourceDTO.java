@@ -18,6 +18,7 @@
 
 package com.dtstack.dtcenter.loader.dto.source;
 
+import com.dtstack.dtcenter.loader.cache.pool.config.PoolConfig;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.dtstack.dtcenter.loader.source.DataSourceType;
 import lombok.AllArgsConstructor;
@@ -79,6 +80,11 @@ public class KafkaSourceDTO implements ISourceDTO {
      */
     private Map<String, Object> kerberosConfig;
 
+    /**
+     * 连接池配置信息，如果传入则认为开启连接池
+     */
+    private PoolConfig poolConfig;
+
     @Override
     public Integer getSourceType() {
         return DataSourceType.KAFKA.getVal();
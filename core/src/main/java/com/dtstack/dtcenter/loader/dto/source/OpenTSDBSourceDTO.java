@@ -18,6 +18,7 @@
 
 package com.dtstack.dtcenter.loader.dto.source;
 
+import com.dtstack.dtcenter.loader.cache.pool.config.PoolConfig;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.dtstack.dtcenter.loader.source.DataSourceType;
 import lombok.AllArgsConstructor;
@@ -47,6 +48,11 @@ public class OpenTSDBSourceDTO implements ISourceDTO {
      */
     private String url;
 
+    /**
+     * http 连接池配置，maximumPoolSize 为最大连接数，poolIdleTimeout 为客户端闲置多久后关闭，为空时使用默认配置
+     */
+    private PoolConfig poolConfig;
+
     @Override
     public Integer getSourceType() {
         return DataSourceType.OPENTSDB.getVal();
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.dto.tsdb;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * TSDB 异步写入配置
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/16
+ * company: www.dtstack.com
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TsdbPutConfig {
+
+    /**
+     * 每批发送的点位数量，缓冲区达到该数量时立即发送
+     */
+    @Builder.Default
+    private Integer batchSize = 500;
+
+    /**
+     * 缓冲区刷新间隔，单位：毫秒，缓冲区中的点位最多等待该时长后发送
+     */
+    @Builder.Default
+    private Long flushInterval = 1000L;
+
+    /**
+     * 同时发送中的最大批次数，达到上限时写入线程阻塞等待
+     */
+    @Builder.Default
+    private Integer maxInFlight = 4;
+}
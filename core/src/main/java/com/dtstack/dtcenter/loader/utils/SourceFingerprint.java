@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.utils;
+
+import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 数据源指纹，由数据源 DTO 的所有连接信息字段（包括密码等认证信息）计算摘要得到
+ * <p>
+ * 不同类型的数据源连接字段不同（url、hostPort、endpoint 等），这里不区分类型，取 DTO 中的所有字段，
+ * 只跳过 Connection 等运行时资源。结果中只包含数据源类型及摘要，不会暴露密码
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/20
+ * company: www.dtstack.com
+ */
+public class SourceFingerprint {
+
+    private static final String SEPARATOR = "\u0001";
+
+    /**
+     * DTO 类型 - 参与计算的字段，按字段名排序
+     */
+    private static final ClassValue<List<Field>> FIELDS = new ClassValue<List<Field>>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            fields.sort(Comparator.comparing(Field::getName).thenComparing(field -> field.getDeclaringClass().getName()));
+            return fields;
+        }
+    };
+
+    private SourceFingerprint() {
+    }
+
+    /**
+     * 获取数据源指纹
+     *
+     * @param source 数据源信息
+     * @return 数据源类型:摘要
+     */
+    public static String of(ISourceDTO source) {
+        StringBuilder builder = new StringBuilder();
+        for (Field field : FIELDS.get(source.getClass())) {
+            Object value;
+            try {
+                value = field.get(source);
+            } catch (IllegalAccessException e) {
+                throw new DtLoaderException(String.format("get field %s of %s error : %s", field.getName(), source.getClass().getName(), e.getMessage()), e);
+            }
+            // 连接等运行时资源不代表数据源本身
+            if (value == null || value instanceof Connection || value instanceof AutoCloseable) {
+                continue;
+            }
+            builder.append(field.getName()).append('=');
+            appendValue(builder, value);
+            builder.append(SEPARATOR);
+        }
+        return String.format("%s:%s", source.getSourceType(), digest(builder.toString()));
+    }
+
+    private static void appendValue(StringBuilder builder, Object value) {
+        if (value instanceof Map) {
+            // map 与 key 的顺序无关
+            Map<String, Object> sorted = new TreeMap<>();
+            ((Map<?, ?>) value).forEach((k, v) -> sorted.put(String.valueOf(k), v));
+            builder.append('{');
+            sorted.forEach((k, v) -> {
+                builder.append(k).append('=');
+                appendValue(builder, v);
+                builder.append(',');
+            });
+            builder.append('}');
+        } else if (value instanceof Collection) {
+            builder.append('[');
+            for (Object item : (Collection<?>) value) {
+                appendValue(builder, item);
+                builder.append(',');
+            }
+            builder.append(']');
+        } else if (value instanceof Object[]) {
+            builder.append(Arrays.deepToString((Object[]) value));
+        } else if (value instanceof byte[]) {
+            builder.append(Arrays.toString((byte[]) value));
+        } else {
+            builder.append(value);
+        }
+    }
+
+    private static String digest(String value) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = messageDigest.digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new DtLoaderException(String.format("digest source fingerprint error : %s", e.getMessage()), e);
+        }
+    }
+}
@@ -18,7 +18,10 @@
 
 package com.dtstack.dtcenter.common.loader.dm;
 
+import com.dtstack.dtcenter.common.loader.common.utils.PreparedSql;
 import com.dtstack.dtcenter.common.loader.common.utils.SqlFormatUtil;
+import com.dtstack.dtcenter.common.loader.rdbms.IPageDialect;
+import com.dtstack.dtcenter.common.loader.rdbms.RdbmsPagination;
 import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.dto.Column;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
@@ -41,7 +44,7 @@ import java.util.stream.Collectors;
  * @Description：db2表下载
  */
 
-public class DmDownloader implements IDownloader {
+public class DmDownloader implements IDownloader, IPageDialect {
 
     private int pageNum;
 
@@ -55,6 +58,8 @@ public class DmDownloader implements IDownloader {
 
     private String sql;
 
+    private PreparedSql preparedSql;
+
     private String schema;
 
     private Statement statement;
@@ -63,9 +68,12 @@ public class DmDownloader implements IDownloader {
 
     private int columnCount;
 
+    private RdbmsPagination pagination;
+
     public DmDownloader(Connection connection, String sql, String schema) {
         this.connection = connection;
-        this.sql = SqlFormatUtil.formatSql(sql);
+        this.preparedSql = SqlFormatUtil.prepare(sql);
+        this.sql = preparedSql.getSql();
         this.schema = schema;
     }
 
@@ -79,8 +87,8 @@ public class DmDownloader implements IDownloader {
         pageNum = 1;
         statement = connection.createStatement();
 
-        String countSQL = String.format("SELECT COUNT(*) FROM (%s) temp", sql);
-        String showColumns = String.format("SELECT * FROM (%s) t limit 1", sql);
+        String countSQL = preparedSql.wrap("SELECT COUNT(*) FROM (%s) temp");
+        String showColumns = preparedSql.wrap("SELECT * FROM (%s) t limit 1");
         ResultSet totalResultSet = null;
         ResultSet columnsResultSet = null;
         try {
@@ -102,6 +110,9 @@ public class DmDownloader implements IDownloader {
             }
             //获取总页数
             pageAll = (int) Math.ceil(totalLine / (double) pageSize);
+            // 优先使用主键或唯一索引分页
+            pagination = new RdbmsPagination(connection, sql, schema, this, pageSize);
+            pagination.init(getMetaInfo());
         } catch (Exception e) {
             throw new DtLoaderException("build DM downloader message exception : " + e.getMessage(), e);
         } finally {
@@ -125,37 +136,41 @@ public class DmDownloader implements IDownloader {
 
     @Override
     public List<List<String>> readNext() {
-        //分页查询，一次一百条
-        String limitSQL = String.format("SELECT * FROM (%s) t limit %s,%s", sql, pageSize * (pageNum - 1), pageSize);
-        List<List<String>> pageTemp = new ArrayList<>(100);
-        try (ResultSet resultSet = statement.executeQuery(limitSQL)) {
-            while (resultSet.next()) {
-                List<String> columns = new ArrayList<>(columnCount);
-                for (int i = 1; i <= columnCount; i++) {
-                    columns.add(resultSet.getString(i));
-                }
-                pageTemp.add(columns);
-            }
-        } catch (Exception e) {
-            throw new DtLoaderException("read DM message exception : " + e.getMessage(), e);
-        }
-
+        List<List<String>> pageTemp = pagination.readNext();
         pageNum++;
         return pageTemp;
     }
 
     @Override
     public boolean reachedEnd() {
-        return pageAll < pageNum;
+        return pageAll < pageNum || pagination.reachedEnd();
     }
 
     @Override
     public boolean close() throws Exception {
+        if (pagination != null) {
+            pagination.close();
+        }
         statement.close();
         connection.close();
         return true;
     }
 
+    @Override
+    public String quote(String identifier) {
+        return String.format("\"%s\"", identifier);
+    }
+
+    @Override
+    public String limitSql(String sql, String where, String orderBy, int limit) {
+        return String.format("SELECT * FROM (%s) t%s ORDER BY %s LIMIT %s", sql, where, orderBy, limit);
+    }
+
+    @Override
+    public String offsetSql(String sql, List<String> columns, int offset, int limit) {
+        return String.format("SELECT * FROM (%s) t limit %s,%s", sql, offset, limit);
+    }
+
     @Override
     public String getFileName() {
         return null;
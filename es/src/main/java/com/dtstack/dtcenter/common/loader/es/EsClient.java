@@ -24,9 +24,11 @@ import com.dtstack.dtcenter.common.loader.common.exception.IErrorPattern;
 import com.dtstack.dtcenter.common.loader.common.nosql.AbsNoSqlClient;
 import com.dtstack.dtcenter.common.loader.common.service.ErrorAdapterImpl;
 import com.dtstack.dtcenter.common.loader.common.service.IErrorAdapter;
+import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
 import com.dtstack.dtcenter.common.loader.common.utils.SearchUtil;
 import com.dtstack.dtcenter.common.loader.es.pool.ElasticSearchManager;
 import com.dtstack.dtcenter.common.loader.es.pool.ElasticSearchPool;
+import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
 import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
 import com.dtstack.dtcenter.loader.dto.source.ESSourceDTO;
@@ -332,6 +334,29 @@ public class EsClient<T> extends AbsNoSqlClient<T> {
         return list;
     }
 
+    /**
+     * 获取 es 下载器，通过 scroll 分页导出索引数据，readParallelism 大于 1 时使用 sliced scroll 并行读取
+     *
+     * @param iSource  数据源信息
+     * @param queryDTO 查询信息，tableName 或 schema 为索引，sql 为查询语句
+     * @return 下载器
+     */
+    @Override
+    public IDownloader getDownloader(ISourceDTO iSource, SqlQueryDTO queryDTO) {
+        ESSourceDTO esSourceDTO = (ESSourceDTO) iSource;
+        String index = StringUtils.isNotBlank(queryDTO.getSchema()) ? queryDTO.getSchema() : queryDTO.getTableName();
+        if (StringUtils.isBlank(index)) {
+            throw new DtLoaderException("The index of es is not specified, please specify tableName as the index in sqlQueryDTO");
+        }
+        Integer batchSize = ReflectUtil.fieldExists(SqlQueryDTO.class, "readBatchSize") ? queryDTO.getReadBatchSize() : null;
+        Integer parallelism = ReflectUtil.fieldExists(SqlQueryDTO.class, "readParallelism") ? queryDTO.getReadParallelism() : null;
+        // 下载器持有客户端直到关闭，不使用连接池
+        RestHighLevelClient client = getClient(esSourceDTO.getUrl(), esSourceDTO.getUsername(), esSourceDTO.getPassword());
+        EsDownloader esDownloader = new EsDownloader(client, index, queryDTO.getSql(), batchSize, parallelism);
+        esDownloader.configure();
+        return esDownloader;
+    }
+
     private static RestHighLevelClient getClient(ESSourceDTO esSourceDTO) {
         boolean check = esSourceDTO.getPoolConfig() != null;
         IS_OPEN_POOL.set(check);
@@ -0,0 +1,551 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.es;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.Feature;
+import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
+import com.dtstack.dtcenter.loader.IDownloader;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.entity.NStringEntity;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * es 下载器，通过 scroll 分页导出索引数据，readNext 每次返回一批文档的 _source
+ * <p>
+ * 响应通过 jackson 流式解析，逐条读取 hits，不再将整个响应转换为字符串及 JSONObject；
+ * 并行度大于 1 时使用 sliced scroll，每个 slice 一个线程，读取的数据放入有界队列
+ *
+ * @author ：wangchuan
+ * date：Created in 下午2:00 2022/6/12
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class EsDownloader implements IDownloader {
+
+    /**
+     * 默认每批读取的文档数
+     */
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * 每批最多读取的文档数，不能超过 index.max_result_window
+     */
+    private static final int MAX_BATCH_SIZE = 10000;
+
+    /**
+     * scroll 上下文保留时间
+     */
+    private static final String SCROLL_KEEP_ALIVE = "5m";
+
+    private static final String ENDPOINT_SEARCH_FORMAT = "/%s/_search";
+
+    private static final String ENDPOINT_SCROLL = "/_search/scroll";
+
+    private static final String ENDPOINT_MAPPING_FORMAT = "/%s/_mapping";
+
+    /**
+     * slice 线程向队列放入数据的等待时间，超时后检查下载器是否已关闭
+     */
+    private static final long OFFER_TIMEOUT_MS = 500L;
+
+    /**
+     * 关闭时等待 slice 线程结束当前请求的时间，单位：秒
+     */
+    private static final long CLOSE_WAIT_SECONDS = 10L;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * slice 读取结束的标识
+     */
+    private static final List<Map<String, Object>> END_OF_SLICE = Collections.emptyList();
+
+    private final RestHighLevelClient client;
+
+    private final RestClient lowLevelClient;
+
+    private final String index;
+
+    private final String dsl;
+
+    private final int batchSize;
+
+    private final int slices;
+
+    private List<String> metaInfo;
+
+    /**
+     * 串行读取的 scroll
+     */
+    private ScrollSlice serialScroll;
+
+    /**
+     * 并行读取的线程池及数据队列
+     */
+    private ExecutorService executor;
+
+    private List<ScrollSlice> parallelScrolls;
+
+    private BlockingQueue<List<Map<String, Object>>> queue;
+
+    private int endedSlices;
+
+    private volatile Throwable error;
+
+    private volatile boolean closed;
+
+    /**
+     * 预读的下一批数据，为 null 且已读完时 reachedEnd
+     */
+    private List<Map<String, Object>> nextBatch;
+
+    private boolean finished;
+
+    /**
+     * @param client      es 客户端，下载器关闭时关闭
+     * @param index       索引
+     * @param dsl         查询语句，为空时查询全部，不支持 from、aggs
+     * @param batchSize   每次 readNext 返回的文档数
+     * @param parallelism 并行读取的 slice 数，小于等于 1 时串行读取
+     */
+    public EsDownloader(RestHighLevelClient client, String index, String dsl, Integer batchSize, Integer parallelism) {
+        this.client = client;
+        this.lowLevelClient = client.getLowLevelClient();
+        this.index = index;
+        this.dsl = dsl;
+        this.batchSize = Objects.nonNull(batchSize) && batchSize > 0 ? Math.min(batchSize, MAX_BATCH_SIZE) : DEFAULT_BATCH_SIZE;
+        this.slices = Objects.nonNull(parallelism) && parallelism > 1 ? parallelism : 1;
+    }
+
+    @Override
+    public boolean configure() {
+        if (StringUtils.isBlank(index)) {
+            throw new DtLoaderException("The index of es is not specified");
+        }
+        if (slices == 1) {
+            serialScroll = new ScrollSlice(null);
+            return true;
+        }
+        executor = Executors.newFixedThreadPool(slices, new DtClassThreadFactory("esSliceScroll"));
+        queue = new ArrayBlockingQueue<>(slices * 2);
+        parallelScrolls = new ArrayList<>(slices);
+        for (int i = 0; i < slices; i++) {
+            ScrollSlice slice = new ScrollSlice(i);
+            parallelScrolls.add(slice);
+            executor.submit(() -> readSlice(slice));
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> getMetaInfo() {
+        if (Objects.isNull(metaInfo)) {
+            metaInfo = readMapping();
+        }
+        return metaInfo;
+    }
+
+    @Override
+    public List<Map<String, Object>> readNext() {
+        fill();
+        List<Map<String, Object>> batch = Objects.isNull(nextBatch) ? new ArrayList<>() : nextBatch;
+        nextBatch = null;
+        return batch;
+    }
+
+    @Override
+    public boolean reachedEnd() {
+        fill();
+        return Objects.isNull(nextBatch);
+    }
+
+    @Override
+    public boolean close() throws Exception {
+        closed = true;
+        if (Objects.nonNull(serialScroll)) {
+            serialScroll.clear();
+        }
+        if (Objects.nonNull(executor)) {
+            // slice 线程在当前请求结束后退出，不中断线程，避免中断后无法清除 scroll
+            executor.shutdown();
+            queue.clear();
+            try {
+                if (!executor.awaitTermination(CLOSE_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                    log.warn("wait es slice scroll thread exit timeout, index: {}", index);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // 在关闭 client 之前清除所有未清除的 scroll
+            parallelScrolls.forEach(ScrollSlice::clear);
+            executor.shutdownNow();
+        }
+        client.close();
+        return true;
+    }
+
+    @Override
+    public String getFileName() {
+        return null;
+    }
+
+    @Override
+    public List<String> getContainers() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * 预读下一批数据
+     */
+    private void fill() {
+        if (Objects.nonNull(nextBatch) || finished) {
+            return;
+        }
+        nextBatch = slices == 1 ? serialScroll.nextBatch() : takeBatch();
+        finished = Objects.isNull(nextBatch);
+    }
+
+    private List<Map<String, Object>> takeBatch() {
+        try {
+            while (endedSlices < slices) {
+                List<Map<String, Object>> batch = queue.take();
+                if (batch != END_OF_SLICE) {
+                    return batch;
+                }
+                endedSlices++;
+                if (Objects.nonNull(error)) {
+                    throw new DtLoaderException(String.format("read es index %s error: %s", index, error.getMessage()), error);
+                }
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DtLoaderException("read es index is interrupted", e);
+        }
+    }
+
+    private void readSlice(ScrollSlice slice) {
+        try {
+            List<Map<String, Object>> batch;
+            while (!closed && Objects.nonNull(batch = slice.nextBatch())) {
+                if (!offer(batch)) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            log.error("read es index {} slice {} error", index, slice.sliceId, e);
+            error = e;
+        } finally {
+            slice.clear();
+            try {
+                offer(END_OF_SLICE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 向队列放入数据，队列已满时定时检查下载器是否已关闭，避免 slice 线程一直阻塞
+     *
+     * @param batch 数据
+     * @return 是否放入成功，下载器关闭时返回 false
+     * @throws InterruptedException 线程被中断
+     */
+    private boolean offer(List<Map<String, Object>> batch) throws InterruptedException {
+        while (!closed) {
+            if (queue.offer(batch, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 构建首次 scroll 请求的查询语句
+     */
+    private String buildSearchBody(Integer sliceId) {
+        JSONObject body = StringUtils.isBlank(dsl) ? new JSONObject(true) : JSONObject.parseObject(dsl, Feature.OrderedField);
+        // scroll 不支持 from，排序默认使用 _doc 效率最高
+        body.remove("from");
+        body.put("size", batchSize);
+        if (!body.containsKey("sort")) {
+            JSONArray sort = new JSONArray();
+            sort.add("_doc");
+            body.put("sort", sort);
+        }
+        if (Objects.nonNull(sliceId)) {
+            JSONObject slice = new JSONObject(true);
+            slice.put("id", sliceId);
+            slice.put("max", slices);
+            body.put("slice", slice);
+        }
+        return body.toJSONString();
+    }
+
+    /**
+     * 从 mapping 中获取字段名称，兼容 6.x 的 type 层级
+     */
+    private List<String> readMapping() {
+        Set<String> columns = new LinkedHashSet<>();
+        try {
+            Response response = lowLevelClient.performRequest(new Request("GET", String.format(ENDPOINT_MAPPING_FORMAT, index)));
+            JSONObject indices = JSONObject.parseObject(EntityUtils.toString(response.getEntity()), Feature.OrderedField);
+            for (Object indexMapping : indices.values()) {
+                JSONObject mappings = ((JSONObject) indexMapping).getJSONObject("mappings");
+                if (Objects.isNull(mappings)) {
+                    continue;
+                }
+                if (mappings.containsKey("properties")) {
+                    columns.addAll(mappings.getJSONObject("properties").keySet());
+                    continue;
+                }
+                for (Object typeMapping : mappings.values()) {
+                    JSONObject properties = ((JSONObject) typeMapping).getJSONObject("properties");
+                    if (Objects.nonNull(properties)) {
+                        columns.addAll(properties.keySet());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new DtLoaderException(String.format("get es index %s mapping error: %s", index, e.getMessage()), e);
+        }
+        return new ArrayList<>(columns);
+    }
+
+    /**
+     * 单个 scroll，sliceId 为 null 时不分片
+     */
+    private class ScrollSlice {
+
+        private final Integer sliceId;
+
+        private volatile String scrollId;
+
+        private boolean done;
+
+        private ScrollSlice(Integer sliceId) {
+            this.sliceId = sliceId;
+        }
+
+        /**
+         * 读取下一批数据
+         *
+         * @return 下一批数据，读完时返回 null
+         */
+        private List<Map<String, Object>> nextBatch() {
+            if (done) {
+                return null;
+            }
+            Request request;
+            if (Objects.isNull(scrollId)) {
+                request = new Request("POST", String.format(ENDPOINT_SEARCH_FORMAT, index));
+                request.addParameter("scroll", SCROLL_KEEP_ALIVE);
+                request.setEntity(new NStringEntity(buildSearchBody(sliceId), ContentType.APPLICATION_JSON));
+            } else {
+                JSONObject body = new JSONObject(true);
+                body.put("scroll", SCROLL_KEEP_ALIVE);
+                body.put("scroll_id", scrollId);
+                request = new Request("POST", ENDPOINT_SCROLL);
+                request.setEntity(new NStringEntity(body.toJSONString(), ContentType.APPLICATION_JSON));
+            }
+            List<Map<String, Object>> hits = new ArrayList<>(batchSize);
+            SearchResult result = new SearchResult();
+            try {
+                Response response = lowLevelClient.performRequest(request);
+                try (InputStream content = response.getEntity().getContent();
+                     JsonParser parser = JSON_FACTORY.createParser(content)) {
+                    parseSearchResponse(parser, hits, result);
+                }
+            } catch (IOException e) {
+                throw new DtLoaderException(String.format("scroll es index %s error: %s", index, e.getMessage()), e);
+            }
+            if (Objects.nonNull(result.scrollId)) {
+                scrollId = result.scrollId;
+            }
+            // 分片失败或超时时返回的数据不完整，直接报错
+            if (result.timedOut || result.failedShards > 0) {
+                throw new DtLoaderException(String.format("scroll es index %s is incomplete, timed out: %s, failed shards: %s",
+                        index, result.timedOut, result.failedShards));
+            }
+            // 每批返回的文档数可能小于 batchSize，只有返回空批次时才表示读完
+            if (hits.isEmpty()) {
+                done = true;
+                clear();
+                return null;
+            }
+            return hits;
+        }
+
+        /**
+         * 清除 scroll 上下文，失败时等待过期，slice 线程和关闭下载器的线程都会调用
+         */
+        private synchronized void clear() {
+            if (Objects.isNull(scrollId)) {
+                return;
+            }
+            JSONObject body = new JSONObject();
+            JSONArray scrollIds = new JSONArray();
+            scrollIds.add(scrollId);
+            body.put("scroll_id", scrollIds);
+            Request request = new Request("DELETE", ENDPOINT_SCROLL);
+            request.setEntity(new NStringEntity(body.toJSONString(), ContentType.APPLICATION_JSON));
+            try {
+                lowLevelClient.performRequest(request);
+            } catch (Exception e) {
+                log.warn("clear es scroll error: {}", e.getMessage());
+            }
+            scrollId = null;
+        }
+    }
+
+    /**
+     * search/scroll 响应中除文档外需要的信息
+     */
+    private static class SearchResult {
+
+        private String scrollId;
+
+        private boolean timedOut;
+
+        private int failedShards;
+    }
+
+    /**
+     * 流式解析 search/scroll 响应，只保留 _scroll_id、timed_out、_shards.failed 及 hits.hits[]._source
+     *
+     * @param parser json 解析器
+     * @param hits   文档
+     * @param result 响应信息
+     */
+    private static void parseSearchResponse(JsonParser parser, List<Map<String, Object>> hits, SearchResult result) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new DtLoaderException("es search response is not a json object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("_scroll_id".equals(field)) {
+                result.scrollId = parser.getText();
+            } else if ("timed_out".equals(field)) {
+                result.timedOut = parser.getCurrentToken() == JsonToken.VALUE_TRUE;
+            } else if ("_shards".equals(field) && parser.getCurrentToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String shardsField = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("failed".equals(shardsField)) {
+                        result.failedShards = parser.getValueAsInt();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("hits".equals(field) && parser.getCurrentToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String hitsField = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("hits".equals(hitsField) && parser.getCurrentToken() == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            hits.add(parseHit(parser));
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parseHit(JsonParser parser) throws IOException {
+        Map<String, Object> source = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("_source".equals(field) && parser.getCurrentToken() == JsonToken.START_OBJECT) {
+                source = (Map<String, Object>) parseValue(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return Objects.isNull(source) ? new LinkedHashMap<>() : source;
+    }
+
+    private static Object parseValue(JsonParser parser) throws IOException {
+        switch (parser.getCurrentToken()) {
+            case START_OBJECT:
+                Map<String, Object> object = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    object.put(field, parseValue(parser));
+                }
+                return object;
+            case START_ARRAY:
+                List<Object> array = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    array.add(parseValue(parser));
+                }
+                return array;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return true;
+            case VALUE_FALSE:
+                return false;
+            case VALUE_NULL:
+                return null;
+            default:
+                return parser.getText();
+        }
+    }
+}
@@ -28,6 +28,7 @@ import com.dtstack.dtcenter.common.loader.common.service.IErrorAdapter;
 import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
 import com.dtstack.dtcenter.common.loader.es7.pool.ElasticSearchManager;
 import com.dtstack.dtcenter.common.loader.es7.pool.ElasticSearchPool;
+import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
 import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
 import com.dtstack.dtcenter.loader.dto.source.ESSourceDTO;
@@ -169,12 +170,13 @@ public class EsClient<T> extends AbsNoSqlClient<T> {
             throw new DtLoaderException("The index of es is not specified, and the acquisition fails");
         }
         try {
-            GetMappingsRequest request = new GetMappingsRequest();
+            GetMappingsRequest request = new GetMappingsRequest().indices(index);
             // 为了兼容7.x之前的版本，所以把参数设置为null
             request.setMasterTimeout(null);
             request.indicesOptions(null);
             GetMappingsResponse res = client.indices().getMapping(request, RequestOptions.DEFAULT);
-            MappingMetadata data = res.mappings().get(index);
+            // 别名对应的 mapping 以实际索引名为 key
+            MappingMetadata data = res.mappings().containsKey(index) ? res.mappings().get(index) : res.mappings().values().iterator().next();
             typeList.add(data.type());
         } catch (NullPointerException e) {
             log.error("index not exits", e);
@@ -286,22 +288,9 @@ public class EsClient<T> extends AbsNoSqlClient<T> {
         }
         List<ColumnMetaDTO> columnMetaDTOS = new ArrayList<>();
         try {
-            //根据index进行查询
-            GetMappingsRequest request = new GetMappingsRequest();
-            request.setMasterTimeout(null);
-            request.indicesOptions(null);
-            GetMappingsResponse res = client.indices().getMapping(request, RequestOptions.DEFAULT);
-            MappingMetadata data = res.mappings().get(index);
-            Map<String, Object> metaDataMap = (Map<String, Object>) data.getSourceAsMap().get("properties");
-            Set<String> metaData = metaDataMap.keySet();
-            for (String meta : metaData) {
-                ColumnMetaDTO columnMetaDTO = new ColumnMetaDTO();
-                columnMetaDTO.setKey(meta);
-                Map<String, Object> map = (Map<String, Object>) metaDataMap.get(meta);
-                String type = StringUtils.isNotBlank((String) map.get("type")) ? (String) map.get("type") : "object";
-                columnMetaDTO.setType(type);
-                columnMetaDTOS.add(columnMetaDTO);
-            }
+            //只查询目标索引的 mapping，mapping 版本不变时使用缓存
+            String clusterKey = String.format("%s@%s", esSourceDTO.getUsername(), esSourceDTO.getUrl());
+            columnMetaDTOS = EsMappingCache.getColumnMetaData(clusterKey, index, client);
         } catch (Exception e) {
             log.error("doc acquisition exception", e);
         } finally {
@@ -345,6 +334,30 @@ public class EsClient<T> extends AbsNoSqlClient<T> {
         return list;
     }
 
+    /**
+     * 获取 es 下载器，通过 scroll 分页导出索引数据，readParallelism 大于 1 时使用 sliced scroll 并行读取
+     *
+     * @param iSource  数据源信息
+     * @param queryDTO 查询信息，tableName 或 schema 为索引，sql 为查询语句
+     * @return 下载器
+     */
+    @Override
+    public IDownloader getDownloader(ISourceDTO iSource, SqlQueryDTO queryDTO) {
+        ESSourceDTO esSourceDTO = (ESSourceDTO) iSource;
+        String index = StringUtils.isNotBlank(queryDTO.getSchema()) ? queryDTO.getSchema() : queryDTO.getTableName();
+        if (StringUtils.isBlank(index)) {
+            throw new DtLoaderException("The index of es is not specified, please specify tableName as the index in sqlQueryDTO");
+        }
+        Integer batchSize = ReflectUtil.fieldExists(SqlQueryDTO.class, "readBatchSize") ? queryDTO.getReadBatchSize() : null;
+        Integer parallelism = ReflectUtil.fieldExists(SqlQueryDTO.class, "readParallelism") ? queryDTO.getReadParallelism() : null;
+        // 下载器持有客户端直到关闭，不使用连接池
+        RestHighLevelClient client = getClient(esSourceDTO.getUrl(), esSourceDTO.getUsername(), esSourceDTO.getPassword(),
+                ReflectUtil.fieldExists(ESSourceDTO.class, "keyPath") ? esSourceDTO.getKeyPath() : null);
+        EsDownloader esDownloader = new EsDownloader(client, index, queryDTO.getSql(), batchSize, parallelism);
+        esDownloader.configure();
+        return esDownloader;
+    }
+
     private static RestHighLevelClient getClient(ESSourceDTO esSourceDTO) {
         String keyPath = ReflectUtil.fieldExists(ESSourceDTO.class, "keyPath") ? esSourceDTO.getKeyPath() : null;
         //开启 ssl 不开连接池
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.es7;
+
+import com.alibaba.fastjson.JSONObject;
+import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.indices.GetMappingsRequest;
+import org.elasticsearch.client.indices.GetMappingsResponse;
+import org.elasticsearch.cluster.metadata.MappingMetadata;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * es 字段信息缓存，按集群地址、用户名及索引缓存展开后的字段
+ * <p>
+ * 每次获取前查询索引的 mapping_version，版本不变时直接使用缓存，变化时只获取目标索引的 mapping；
+ * 无权限查询 mapping_version 时不缓存
+ *
+ * @author ：wangchuan
+ * date：Created in 下午4:00 2022/6/12
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class EsMappingCache {
+
+    /**
+     * 最多缓存的索引数
+     */
+    private static final int MAX_CACHE_SIZE = 2000;
+
+    private static final String ENDPOINT_MAPPING_VERSION_FORMAT = "/_cluster/state/metadata/%s";
+
+    private static final String MAPPING_VERSION_FILTER = "metadata.indices.*.mapping_version";
+
+    private static final String DEFAULT_TYPE = "object";
+
+    private static final Cache<String, CachedMapping> MAPPING_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHE_SIZE)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
+    /**
+     * 获取索引的字段信息，嵌套字段展开为以 . 分隔的路径
+     *
+     * @param clusterKey 集群标识
+     * @param index      索引或别名
+     * @param client     es 客户端
+     * @return 字段信息
+     * @throws IOException 请求异常
+     */
+    public static List<ColumnMetaDTO> getColumnMetaData(String clusterKey, String index, RestHighLevelClient client) throws IOException {
+        String cacheKey = String.format("%s#%s", clusterKey, index);
+        String version = getMappingVersion(client, index);
+        CachedMapping cached = Objects.isNull(version) ? null : MAPPING_CACHE.getIfPresent(cacheKey);
+        Map<String, String> fields;
+        if (Objects.nonNull(cached) && cached.version.equals(version)) {
+            fields = cached.fields;
+        } else {
+            fields = getFields(client, index);
+            if (Objects.nonNull(version)) {
+                MAPPING_CACHE.put(cacheKey, new CachedMapping(version, fields));
+            }
+        }
+        List<ColumnMetaDTO> columnMetaDTOS = new ArrayList<>(fields.size());
+        fields.forEach((key, type) -> {
+            ColumnMetaDTO columnMetaDTO = new ColumnMetaDTO();
+            columnMetaDTO.setKey(key);
+            columnMetaDTO.setType(type);
+            columnMetaDTOS.add(columnMetaDTO);
+        });
+        return columnMetaDTOS;
+    }
+
+    /**
+     * 查询索引的 mapping_version，别名或通配符对应多个索引时合并为一个版本
+     *
+     * @return mapping 版本，查询失败时返回 null
+     */
+    private static String getMappingVersion(RestHighLevelClient client, String index) {
+        try {
+            Request request = new Request("GET", String.format(ENDPOINT_MAPPING_VERSION_FORMAT, index));
+            request.addParameter("filter_path", MAPPING_VERSION_FILTER);
+            Response response = client.getLowLevelClient().performRequest(request);
+            JSONObject metadata = JSONObject.parseObject(EntityUtils.toString(response.getEntity())).getJSONObject("metadata");
+            JSONObject indices = Objects.isNull(metadata) ? null : metadata.getJSONObject("indices");
+            if (Objects.isNull(indices) || indices.isEmpty()) {
+                return null;
+            }
+            Map<String, Object> versions = new TreeMap<>();
+            indices.forEach((name, value) -> versions.put(name, ((JSONObject) value).get("mapping_version")));
+            return versions.toString();
+        } catch (Exception e) {
+            log.warn("get mapping version of es index {} failed, mapping will not be cached: {}", index, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 只获取目标索引的 mapping 并展开字段，多个索引的同名字段以第一个为准
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> getFields(RestHighLevelClient client, String index) throws IOException {
+        GetMappingsRequest request = new GetMappingsRequest().indices(index);
+        // 为了兼容7.x之前的版本，所以把参数设置为null
+        request.setMasterTimeout(null);
+        request.indicesOptions(null);
+        GetMappingsResponse res = client.indices().getMapping(request, RequestOptions.DEFAULT);
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (MappingMetadata data : res.mappings().values()) {
+            Object properties = data.getSourceAsMap().get("properties");
+            if (properties instanceof Map) {
+                flattenProperties(null, (Map<String, Object>) properties, fields);
+            }
+        }
+        return fields;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void flattenProperties(String prefix, Map<String, Object> properties, Map<String, String> fields) {
+        for (Map.Entry<String, Object> property : properties.entrySet()) {
+            String path = Objects.isNull(prefix) ? property.getKey() : prefix + "." + property.getKey();
+            Map<String, Object> field = (Map<String, Object>) property.getValue();
+            Object subProperties = field.get("properties");
+            if (subProperties instanceof Map) {
+                flattenProperties(path, (Map<String, Object>) subProperties, fields);
+                continue;
+            }
+            String type = (String) field.get("type");
+            fields.putIfAbsent(path, StringUtils.isNotBlank(type) ? type : DEFAULT_TYPE);
+        }
+    }
+
+    private static class CachedMapping {
+
+        private final String version;
+
+        private final Map<String, String> fields;
+
+        private CachedMapping(String version, Map<String, String> fields) {
+            this.version = version;
+            this.fields = fields;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.hdfs;
+
+import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
+import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
+import com.dtstack.dtcenter.loader.dto.HDFSContentSummary;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.fs.ContentSummary;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.security.UserGroupInformation;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * hdfs 文件内容摘要并行获取
+ * <p>
+ * 多个路径在有界线程池中并行获取，每个路径先通过 getFileStatus 判断是否存在及获取修改时间，
+ * 不包含子目录的目录按修改时间缓存摘要，修改时间不变时不再请求 NameNode 的 getContentSummary。
+ * 包含子目录的目录不缓存，子目录中文件变化时父目录的修改时间不会变化
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/17
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class HdfsContentSummaryCollector {
+
+    /**
+     * 单次请求的最大并行度
+     */
+    private static final int PARALLELISM = 8;
+
+    /**
+     * 线程池最大线程数
+     */
+    private static final int MAX_PARALLELISM = 16;
+
+    private static final ThreadPoolExecutor SUMMARY_EXECUTOR = new ThreadPoolExecutor(MAX_PARALLELISM, MAX_PARALLELISM, 60L,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DtClassThreadFactory("hdfsContentSummary"));
+
+    static {
+        SUMMARY_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 集群及用户 + 目录 - 摘要，追加写入不会修改目录的修改时间，通过过期时间限制缓存不一致的时长
+     */
+    private static final Cache<String, CachedSummary> SUMMARY_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * 获取多个路径的内容摘要，需要在认证后的用户下调用，工作线程在调用线程的用户下执行
+     *
+     * @param fs           文件系统
+     * @param hdfsDirPaths 路径
+     * @return 内容摘要，顺序与路径一致
+     */
+    public static List<HDFSContentSummary> collect(FileSystem fs, List<String> hdfsDirPaths) throws IOException, InterruptedException {
+        UserGroupInformation ugi = UserGroupInformation.getCurrentUser();
+        String cachePrefix = fs.getUri() + "|" + ugi.getUserName() + "|";
+        HDFSContentSummary[] summaries = new HDFSContentSummary[hdfsDirPaths.size()];
+        if (hdfsDirPaths.size() == 1) {
+            summaries[0] = getContentSummary(fs, cachePrefix, hdfsDirPaths.get(0));
+            return Arrays.asList(summaries);
+        }
+
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        int workerNum = Math.min(hdfsDirPaths.size(), PARALLELISM);
+        List<Future<?>> futures = new ArrayList<>(workerNum);
+        for (int i = 0; i < workerNum; i++) {
+            // 工作线程不会继承调用线程的 kerberos 认证信息，需要在当前用户下执行
+            futures.add(SUMMARY_EXECUTOR.submit(() -> ugi.doAs((PrivilegedExceptionAction<Void>) () -> {
+                int index;
+                while (failure.get() == null && (index = nextIndex.getAndIncrement()) < summaries.length) {
+                    try {
+                        summaries[index] = getContentSummary(fs, cachePrefix, hdfsDirPaths.get(index));
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+                return null;
+            })));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, e);
+            throw e;
+        } catch (ExecutionException e) {
+            failure.compareAndSet(null, e.getCause());
+        }
+        Throwable e = failure.get();
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        }
+        if (e != null) {
+            throw new DtLoaderException(e.getMessage(), e);
+        }
+        return Arrays.asList(summaries);
+    }
+
+    private static HDFSContentSummary getContentSummary(FileSystem fs, String cachePrefix, String hdfsDirPath) throws IOException {
+        Path hdfsPath = new Path(hdfsDirPath);
+        FileStatus fileStatus;
+        try {
+            fileStatus = fs.getFileStatus(hdfsPath);
+        } catch (FileNotFoundException e) {
+            // 路径不存在则返回空对象
+            log.warn("execute method getContentSummary: path {} not exists!", hdfsDirPath);
+            HDFSContentSummary hdfsContentSummary = HDFSContentSummary.builder()
+                    .directoryCount(0L)
+                    .fileCount(0L)
+                    .ModifyTime(0L)
+                    .spaceConsumed(0L)
+                    .build();
+            if (ReflectUtil.fieldExists(HDFSContentSummary.class, "isExists")) {
+                hdfsContentSummary.setIsExists(false);
+            }
+            return hdfsContentSummary;
+        }
+
+        long fileCount;
+        long directoryCount;
+        long length;
+        if (fileStatus.isFile()) {
+            // 文件的摘要与文件状态一致
+            fileCount = 1L;
+            directoryCount = 0L;
+            length = fileStatus.getLen();
+        } else {
+            String cacheKey = cachePrefix + fileStatus.getPath().toUri().getPath();
+            CachedSummary cachedSummary = SUMMARY_CACHE.getIfPresent(cacheKey);
+            if (cachedSummary != null && cachedSummary.modifyTime == fileStatus.getModificationTime()) {
+                fileCount = cachedSummary.fileCount;
+                directoryCount = 1L;
+                length = cachedSummary.length;
+            } else {
+                ContentSummary contentSummary = fs.getContentSummary(hdfsPath);
+                fileCount = contentSummary.getFileCount();
+                directoryCount = contentSummary.getDirectoryCount();
+                length = contentSummary.getLength();
+                if (directoryCount == 1L) {
+                    SUMMARY_CACHE.put(cacheKey, new CachedSummary(fileStatus.getModificationTime(), fileCount, length));
+                } else if (cachedSummary != null) {
+                    SUMMARY_CACHE.invalidate(cacheKey);
+                }
+            }
+        }
+        HDFSContentSummary hdfsContentSummary = HDFSContentSummary.builder()
+                .directoryCount(directoryCount)
+                .fileCount(fileCount)
+                .ModifyTime(fileStatus.getModificationTime())
+                .spaceConsumed(length).build();
+        if (ReflectUtil.fieldExists(HDFSContentSummary.class, "isExists")) {
+            hdfsContentSummary.setIsExists(true);
+        }
+        return hdfsContentSummary;
+    }
+
+    /**
+     * 不包含子目录的目录摘要
+     */
+    private static class CachedSummary {
+
+        private final long modifyTime;
+
+        private final long fileCount;
+
+        private final long length;
+
+        private CachedSummary(long modifyTime, long fileCount, long length) {
+            this.modifyTime = modifyTime;
+            this.fileCount = fileCount;
+            this.length = length;
+        }
+    }
+}
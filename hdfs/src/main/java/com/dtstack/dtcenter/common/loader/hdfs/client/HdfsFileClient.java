@@ -19,10 +19,11 @@
 package com.dtstack.dtcenter.common.loader.hdfs.client;
 
 import com.dtstack.dtcenter.common.loader.common.utils.DBUtil;
-import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
 import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HadoopConfUtil;
+import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsFileSystemCache.FileSystemHandle;
 import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsOperator;
 import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
+import com.dtstack.dtcenter.common.loader.hdfs.HdfsContentSummaryCollector;
 import com.dtstack.dtcenter.common.loader.hdfs.YarnConfUtil;
 import com.dtstack.dtcenter.common.loader.hdfs.downloader.HdfsFileDownload;
 import com.dtstack.dtcenter.common.loader.hdfs.downloader.HdfsORCDownload;
@@ -35,6 +36,7 @@ import com.dtstack.dtcenter.common.loader.hdfs.downloader.tableDownload.HiveText
 import com.dtstack.dtcenter.common.loader.hdfs.fileMerge.core.CombineMergeBuilder;
 import com.dtstack.dtcenter.common.loader.hdfs.fileMerge.core.CombineServer;
 import com.dtstack.dtcenter.common.loader.hdfs.hdfswriter.HdfsOrcWriter;
+import com.dtstack.dtcenter.common.loader.hdfs.hdfswriter.HdfsParallelImporter;
 import com.dtstack.dtcenter.common.loader.hdfs.hdfswriter.HdfsParquetWriter;
 import com.dtstack.dtcenter.common.loader.hdfs.hdfswriter.HdfsTextWriter;
 import com.dtstack.dtcenter.common.loader.hdfs.util.StringUtil;
@@ -54,7 +56,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.ContentSummary;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.FileUtil;
 import org.apache.hadoop.fs.LocatedFileStatus;
@@ -176,69 +177,77 @@ public class HdfsFileClient implements IHdfsFile {
     private org.apache.hadoop.fs.FileStatus getHadoopStatus(ISourceDTO source, String location) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
 
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        return HdfsOperator.getFileStatus(fs, location);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            return HdfsOperator.getFileStatus(fs, location);
+        }
     }
 
     @Override
     public boolean downloadFileFromHdfs(ISourceDTO source, String remotePath, String localDir) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        HdfsOperator.copyToLocal(fs, remotePath, localDir);
-        return true;
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            HdfsOperator.copyToLocal(fs, remotePath, localDir);
+            return true;
+        }
     }
 
     @Override
     public boolean uploadLocalFileToHdfs(ISourceDTO source, String localFilePath, String remotePath) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        HdfsOperator.uploadLocalFileToHdfs(fs, localFilePath, remotePath);
-        return true;
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            HdfsOperator.uploadLocalFileToHdfs(fs, localFilePath, remotePath);
+            return true;
+        }
     }
 
     @Override
     public boolean uploadInputStreamToHdfs(ISourceDTO source, byte[] bytes, String remotePath) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        return HdfsOperator.uploadInputStreamToHdfs(fs, bytes, remotePath);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            return HdfsOperator.uploadInputStreamToHdfs(fs, bytes, remotePath);
+        }
     }
 
     @Override
     public boolean createDir(ISourceDTO source, String remotePath, Short permission) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        return HdfsOperator.createDir(fs, remotePath, permission);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            return HdfsOperator.createDir(fs, remotePath, permission);
+        }
     }
 
     @Override
     public boolean isFileExist(ISourceDTO source, String remotePath) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        return HdfsOperator.isFileExist(fs, remotePath);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            return HdfsOperator.isFileExist(fs, remotePath);
+        }
     }
 
     @Override
     public boolean checkAndDelete(ISourceDTO source, String remotePath) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        return HdfsOperator.checkAndDelete(fs, remotePath);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            return HdfsOperator.checkAndDelete(fs, remotePath);
+        }
     }
 
     @Override
     public boolean delete(ISourceDTO source, String remotePath, boolean recursive) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        return KerberosLoginUtil.loginWithUGI(hdfsSourceDTO.getKerberosConfig()).doAs(
-                (PrivilegedAction<Boolean>) () -> {
-                    try {
-                        Configuration conf = HadoopConfUtil.getHdfsConf(hdfsSourceDTO.getDefaultFS(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getKerberosConfig());
-                        FileSystem fs = FileSystem.get(conf);
-                        log.info("delete hdfs file ,remotePath :{}", remotePath);
-                        return fs.delete(new Path(remotePath), recursive);
-                    } catch (Exception e) {
-                        throw new DtLoaderException(String.format("Target path deletion exception,%s", e.getMessage()), e);
-                    }
-                }
-        );
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            log.info("delete hdfs file ,remotePath :{}", remotePath);
+            return handle.getFileSystem().delete(new Path(remotePath), recursive);
+        } catch (Exception e) {
+            throw new DtLoaderException(String.format("Target path deletion exception,%s", e.getMessage()), e);
+        }
     }
 
     @Override
@@ -246,11 +255,11 @@ public class HdfsFileClient implements IHdfsFile {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
         return KerberosLoginUtil.loginWithUGI(hdfsSourceDTO.getKerberosConfig()).doAs(
                 (PrivilegedAction<Boolean>) () -> {
-                    try {
+                    try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
                         Path srcPath = new Path(src);
                         Path distPath = new Path(dist);
                         Configuration conf = HadoopConfUtil.getHdfsConf(hdfsSourceDTO.getDefaultFS(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getKerberosConfig());
-                        FileSystem fs = FileSystem.get(conf);
+                        FileSystem fs = handle.getFileSystem();
                         if (fs.exists(srcPath)) {
                             //判断是不是文件夹
                             if (fs.isDirectory(srcPath)) {
@@ -298,90 +307,112 @@ public class HdfsFileClient implements IHdfsFile {
     @Override
     public long getDirSize(ISourceDTO source, String remotePath) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        return HdfsOperator.getDirSize(fs, remotePath);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            return HdfsOperator.getDirSize(fs, remotePath);
+        }
     }
 
     @Override
     public boolean deleteFiles(ISourceDTO source, List<String> fileNames) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        return HdfsOperator.deleteFiles(fs, fileNames);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            return HdfsOperator.deleteFiles(fs, fileNames);
+        }
     }
 
     @Override
     public boolean isDirExist(ISourceDTO source, String remotePath) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        return HdfsOperator.isDirExist(fs, remotePath);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            return HdfsOperator.isDirExist(fs, remotePath);
+        }
     }
 
     @Override
     public boolean setPermission(ISourceDTO source, String remotePath, String mode) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        return HdfsOperator.setPermission(fs, remotePath, mode);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            return HdfsOperator.setPermission(fs, remotePath, mode);
+        }
     }
 
     @Override
     public boolean rename(ISourceDTO source, String src, String dist) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        return HdfsOperator.rename(fs, src, dist);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            return HdfsOperator.rename(fs, src, dist);
+        }
     }
 
     @Override
     public boolean copyFile(ISourceDTO source, String src, String dist, boolean isOverwrite) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        try {
-            return HdfsOperator.copyFile(fs, src, dist, isOverwrite);
-        } catch (IOException e) {
-            throw new DtLoaderException(String.format("Copying files in hdfs is abnormal : %s", e.getMessage()), e);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            try {
+                return HdfsOperator.copyFile(fs, src, dist, isOverwrite);
+            } catch (IOException e) {
+                throw new DtLoaderException(String.format("Copying files in hdfs is abnormal : %s", e.getMessage()), e);
+            }
         }
     }
 
     @Override
     public List<FileStatus> listStatus(ISourceDTO source, String remotePath) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        try {
-            return transferFileStatus(HdfsOperator.listStatus(fs, remotePath));
-        } catch (IOException e) {
-            throw new DtLoaderException(String.format("The status of the file or folder under the target path is abnormal : %s", e.getMessage()), e);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            try {
+                return transferFileStatus(HdfsOperator.listStatus(fs, remotePath));
+            } catch (IOException e) {
+                throw new DtLoaderException(String.format("The status of the file or folder under the target path is abnormal : %s", e.getMessage()), e);
+            }
         }
     }
 
     @Override
     public List<String> listAllFilePath(ISourceDTO source, String remotePath) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        try {
-            return HdfsOperator.listAllFilePath(fs, remotePath);
-        } catch (IOException e) {
-            throw new DtLoaderException(String.format("Obtaining all files in the target path is abnormal : %s", e.getMessage()), e);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            try {
+                return HdfsOperator.listAllFilePath(fs, remotePath);
+            } catch (IOException e) {
+                throw new DtLoaderException(String.format("Obtaining all files in the target path is abnormal : %s", e.getMessage()), e);
+            }
         }
     }
 
     @Override
     public List<FileStatus> listAllFiles(ISourceDTO source, String remotePath, boolean isIterate) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        return listFiles(fs, remotePath, isIterate);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            return listFiles(fs, remotePath, isIterate);
+        }
     }
 
     @Override
     public boolean copyToLocal(ISourceDTO source, String srcPath, String dstPath) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        return HdfsOperator.copyToLocal(fs, srcPath, dstPath);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            return HdfsOperator.copyToLocal(fs, srcPath, dstPath);
+        }
     }
 
     @Override
     public boolean copyFromLocal(ISourceDTO source, String srcPath, String dstPath, boolean overwrite) {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        return HdfsOperator.copyFromLocal(fs, srcPath, dstPath, overwrite);
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            return HdfsOperator.copyFromLocal(fs, srcPath, dstPath, overwrite);
+        }
     }
 
     @Override
@@ -538,43 +569,12 @@ public class HdfsFileClient implements IHdfsFile {
             throw new DtLoaderException("hdfs path cannot be empty！");
         }
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
-        List<HDFSContentSummary> hdfsContentSummaries = Lists.newArrayList();
-        // kerberos认证
+        // kerberos认证，摘要缓存及并行获取的线程都使用当前登录的 ugi
         return KerberosLoginUtil.loginWithUGI(hdfsSourceDTO.getKerberosConfig()).doAs(
                 (PrivilegedAction<List<HDFSContentSummary>>) () -> {
-                    try {
-                        Configuration conf = HadoopConfUtil.getHdfsConf(hdfsSourceDTO.getDefaultFS(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getKerberosConfig());
-                        FileSystem fs = FileSystem.get(conf);
-                        for (String HDFSDirPath : hdfsDirPaths) {
-                            Path hdfsPath = new Path(HDFSDirPath);
-                            // 判断路径是否存在，不存在则返回空对象
-                            HDFSContentSummary hdfsContentSummary;
-                            if (!fs.exists(hdfsPath)) {
-                                log.warn("execute method getContentSummary: path {} not exists!", HDFSDirPath);
-                                hdfsContentSummary = HDFSContentSummary.builder()
-                                        .directoryCount(0L)
-                                        .fileCount(0L)
-                                        .ModifyTime(0L)
-                                        .spaceConsumed(0L)
-                                        .build();
-                                if (ReflectUtil.fieldExists(hdfsContentSummary.getClass(), "isExists")) {
-                                    hdfsContentSummary.setIsExists(false);
-                                }
-                            } else {
-                                org.apache.hadoop.fs.FileStatus fileStatus = fs.getFileStatus(hdfsPath);
-                                ContentSummary contentSummary = fs.getContentSummary(hdfsPath);
-                                hdfsContentSummary = HDFSContentSummary.builder()
-                                        .directoryCount(contentSummary.getDirectoryCount())
-                                        .fileCount(contentSummary.getFileCount())
-                                        .ModifyTime(fileStatus.getModificationTime())
-                                        .spaceConsumed(contentSummary.getLength()).build();
-                                if (ReflectUtil.fieldExists(hdfsContentSummary.getClass(), "isExists")) {
-                                    hdfsContentSummary.setIsExists(true);
-                                }
-                            }
-                            hdfsContentSummaries.add(hdfsContentSummary);
-                        }
-                        return hdfsContentSummaries;
+                    try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+                        // 多个路径并行获取，不包含子目录且未修改的目录使用缓存的摘要
+                        return HdfsContentSummaryCollector.collect(handle.getFileSystem(), hdfsDirPaths);
                     } catch (Exception e) {
                         throw new DtLoaderException(String.format("Failed to obtain HDFS file information：%s", e.getMessage()), e);
                     }
@@ -583,6 +583,9 @@ public class HdfsFileClient implements IHdfsFile {
     }
 
     private int writeByPosWithFileFormat(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO) throws IOException {
+        if (HdfsParallelImporter.isParallel(hdfsWriterDTO)) {
+            return HdfsParallelImporter.writeByPos(source, hdfsWriterDTO);
+        }
         if (FileFormat.ORC.getVal().equals(hdfsWriterDTO.getFileFormat())) {
             return HdfsOrcWriter.writeByPos(source, hdfsWriterDTO);
         }
@@ -596,6 +599,9 @@ public class HdfsFileClient implements IHdfsFile {
     }
 
     private int writeByNameWithFileFormat(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO) throws IOException {
+        if (HdfsParallelImporter.isParallel(hdfsWriterDTO)) {
+            return HdfsParallelImporter.writeByName(source, hdfsWriterDTO);
+        }
         if (FileFormat.ORC.getVal().equals(hdfsWriterDTO.getFileFormat())) {
             return HdfsOrcWriter.writeByName(source, hdfsWriterDTO);
         }
@@ -621,56 +627,58 @@ public class HdfsFileClient implements IHdfsFile {
     private List<ColumnMetaDTO> getOrcColumnList(HdfsSourceDTO hdfsSourceDTO, SqlQueryDTO queryDTO) throws IOException {
         ArrayList<ColumnMetaDTO> columnList = new ArrayList<>();
         Configuration conf = HdfsOperator.getConfig(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        FileSystem fs = HdfsOperator.getFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS());
-        OrcFile.ReaderOptions readerOptions = OrcFile.readerOptions(conf);
-        readerOptions.filesystem(fs);
-        String fileName = hdfsSourceDTO.getDefaultFS() + PATH_DELIMITER + queryDTO.getTableName();
-        fileName = handleVariable(fileName);
-
-        Path path = new Path(fileName);
-        org.apache.hadoop.hive.ql.io.orc.Reader reader = null;
-        String typeStruct = null;
-        if (fs.isDirectory(path)) {
-            RemoteIterator<LocatedFileStatus> iterator = fs.listFiles(path, true);
-            while (iterator.hasNext()) {
-                org.apache.hadoop.fs.FileStatus fileStatus = iterator.next();
-                if (fileStatus.isFile() && fileStatus.getLen() > 49) {
-                    Path subPath = fileStatus.getPath();
-                    reader = OrcFile.createReader(subPath, readerOptions);
-                    typeStruct = reader.getObjectInspector().getTypeName();
-                    if (StringUtils.isNotEmpty(typeStruct)) {
-                        break;
+        try (FileSystemHandle handle = HdfsOperator.acquireFileSystem(hdfsSourceDTO.getKerberosConfig(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getDefaultFS())) {
+            FileSystem fs = handle.getFileSystem();
+            OrcFile.ReaderOptions readerOptions = OrcFile.readerOptions(conf);
+            readerOptions.filesystem(fs);
+            String fileName = hdfsSourceDTO.getDefaultFS() + PATH_DELIMITER + queryDTO.getTableName();
+            fileName = handleVariable(fileName);
+
+            Path path = new Path(fileName);
+            org.apache.hadoop.hive.ql.io.orc.Reader reader = null;
+            String typeStruct = null;
+            if (fs.isDirectory(path)) {
+                RemoteIterator<LocatedFileStatus> iterator = fs.listFiles(path, true);
+                while (iterator.hasNext()) {
+                    org.apache.hadoop.fs.FileStatus fileStatus = iterator.next();
+                    if (fileStatus.isFile() && fileStatus.getLen() > 49) {
+                        Path subPath = fileStatus.getPath();
+                        reader = OrcFile.createReader(subPath, readerOptions);
+                        typeStruct = reader.getObjectInspector().getTypeName();
+                        if (StringUtils.isNotEmpty(typeStruct)) {
+                            break;
+                        }
                     }
                 }
-            }
-            if (reader == null) {
-                throw new DtLoaderException("orcfile dir is empty!");
-            }
+                if (reader == null) {
+                    throw new DtLoaderException("orcfile dir is empty!");
+                }
 
-        } else {
-            reader = OrcFile.createReader(path, readerOptions);
-            typeStruct = reader.getObjectInspector().getTypeName();
-        }
+            } else {
+                reader = OrcFile.createReader(path, readerOptions);
+                typeStruct = reader.getObjectInspector().getTypeName();
+            }
 
-        if (StringUtils.isEmpty(typeStruct)) {
-            throw new DtLoaderException("can't retrieve type struct from " + path);
-        }
+            if (StringUtils.isEmpty(typeStruct)) {
+                throw new DtLoaderException("can't retrieve type struct from " + path);
+            }
 
-        int startIndex = typeStruct.indexOf("<") + 1;
-        int endIndex = typeStruct.lastIndexOf(">");
-        typeStruct = typeStruct.substring(startIndex, endIndex);
-        List<String> cols = StringUtil.splitIgnoreQuota(typeStruct, ',');
-        for (String col : cols) {
-            List<String> colNameAndType = StringUtil.splitIgnoreQuota(col, ':');
-            if (CollectionUtils.isEmpty(colNameAndType) || colNameAndType.size() != 2) {
-                continue;
+            int startIndex = typeStruct.indexOf("<") + 1;
+            int endIndex = typeStruct.lastIndexOf(">");
+            typeStruct = typeStruct.substring(startIndex, endIndex);
+            List<String> cols = StringUtil.splitIgnoreQuota(typeStruct, ',');
+            for (String col : cols) {
+                List<String> colNameAndType = StringUtil.splitIgnoreQuota(col, ':');
+                if (CollectionUtils.isEmpty(colNameAndType) || colNameAndType.size() != 2) {
+                    continue;
+                }
+                ColumnMetaDTO metaDTO = new ColumnMetaDTO();
+                metaDTO.setKey(colNameAndType.get(0));
+                metaDTO.setType(colNameAndType.get(1));
+                columnList.add(metaDTO);
             }
-            ColumnMetaDTO metaDTO = new ColumnMetaDTO();
-            metaDTO.setKey(colNameAndType.get(0));
-            metaDTO.setType(colNameAndType.get(1));
-            columnList.add(metaDTO);
+            return columnList;
         }
-        return columnList;
     }
 
     private static String handleVariable(String path) {
@@ -18,7 +18,7 @@
 
 package com.dtstack.dtcenter.common.loader.hdfs.downloader;
 
-import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
+import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsBatchReader;
 import com.dtstack.dtcenter.common.loader.hdfs.YarnConfUtil;
 import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
@@ -40,7 +40,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.security.PrivilegedAction;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -68,6 +67,7 @@ public class HdfsFileDownload implements IDownloader {
     private String defaultFs;
     private String hdfsConfig;
     private Map<String, Object> kerberosConfig;
+    private final HdfsBatchReader<String> batchReader;
     private Map<String, Object> yarnConf;
 
     private List<String> paths;
@@ -90,6 +90,7 @@ public class HdfsFileDownload implements IDownloader {
         this.path = path;
         this.yarnConf = yarnConf;
         this.kerberosConfig = kerberosConfig;
+        this.batchReader = new HdfsBatchReader<>(kerberosConfig, () -> recordReader != null && readNum <= READ_LIMIT && nextRecord(), this::readNextWithKerberos);
     }
 
     private List<String> checkPath(String tableLocation) throws IOException {
@@ -228,15 +229,12 @@ public class HdfsFileDownload implements IDownloader {
 
     @Override
     public String readNext() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<String>) ()->{
-                    try {
-                        return readNextWithKerberos();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Abnormal reading file,%s", e.getMessage()), e);
-                    }
-                });
+        return batchReader.next();
+    }
 
+    @Override
+    public List<String> readNextBatch(int maxRows) {
+        return batchReader.readNextBatch(maxRows);
     }
 
     private String readNextWithKerberos() {
@@ -256,14 +254,7 @@ public class HdfsFileDownload implements IDownloader {
 
     @Override
     public boolean reachedEnd() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<Boolean>) () -> {
-                    try {
-                        return recordReader == null || readNum > READ_LIMIT || !nextRecord();
-                    } catch (Exception e) {
-                        throw new DtLoaderException(String.format("Abnormal reading file,%s", e.getMessage()), e);
-                    }
-                });
+        return batchReader.reachedEnd();
     }
 
     @Override
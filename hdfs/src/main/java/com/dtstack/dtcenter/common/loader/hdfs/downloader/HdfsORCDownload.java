@@ -18,12 +18,11 @@
 
 package com.dtstack.dtcenter.common.loader.hdfs.downloader;
 
+import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsBatchReader;
 import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsOperator;
-import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
 import com.dtstack.dtcenter.common.loader.hdfs.YarnConfUtil;
 import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.dto.source.HdfsSourceDTO;
-import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
@@ -41,7 +40,6 @@ import org.apache.hadoop.mapred.RecordReader;
 import org.apache.hadoop.mapred.Reporter;
 
 import java.io.IOException;
-import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -83,12 +81,18 @@ public class HdfsORCDownload implements IDownloader {
 
     private Map<String, Object> kerberosConfig;
 
+    /**
+     * 批量读取，一批数据只进入一次 kerberos 认证上下文
+     */
+    private final HdfsBatchReader<List<String>> batchReader;
+
     public HdfsORCDownload(HdfsSourceDTO hdfsSourceDTO, String tableLocation, List<String> columnNames, List<String> partitionColumns, Map<String, Object> kerberosConfig){
         this.hdfsSourceDTO = hdfsSourceDTO;
         this.tableLocation = tableLocation;
         this.columnNames = columnNames;
         this.partitionColumns = partitionColumns;
         this.kerberosConfig = kerberosConfig;
+        this.batchReader = new HdfsBatchReader<>(kerberosConfig, () -> recordReader != null && nextRecord(), this::readNextWithKerberos);
     }
 
     @Override
@@ -129,14 +133,12 @@ public class HdfsORCDownload implements IDownloader {
 
     @Override
     public List<String> readNext() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<List<String>>) ()->{
-                    try {
-                        return readNextWithKerberos();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Abnormal reading file,%s", e.getMessage()), e);
-                    }
-                });
+        return batchReader.next();
+    }
+
+    @Override
+    public List<List<String>> readNextBatch(int maxRows) {
+        return batchReader.readNextBatch(maxRows);
     }
 
     private List<String> readNextWithKerberos() {
@@ -198,14 +200,7 @@ public class HdfsORCDownload implements IDownloader {
 
     @Override
     public boolean reachedEnd() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<Boolean>) ()->{
-                    try {
-                        return recordReader == null || !nextRecord();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Download file is abnormal,%s", e.getMessage()), e);
-                    }
-                });
+        return batchReader.reachedEnd();
     }
 
     @Override
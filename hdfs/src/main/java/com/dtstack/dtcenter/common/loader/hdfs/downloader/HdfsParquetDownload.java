@@ -18,8 +18,8 @@
 
 package com.dtstack.dtcenter.common.loader.hdfs.downloader;
 
+import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsBatchReader;
 import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsOperator;
-import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
 import com.dtstack.dtcenter.common.loader.hdfs.GroupTypeIgnoreCase;
 import com.dtstack.dtcenter.common.loader.hdfs.YarnConfUtil;
 import com.dtstack.dtcenter.loader.IDownloader;
@@ -45,7 +45,6 @@ import org.apache.parquet.schema.Type;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.security.PrivilegedAction;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -90,6 +89,11 @@ public class HdfsParquetDownload implements IDownloader {
 
     private Map<String, Object> kerberosConfig;
 
+    /**
+     * 批量读取，一批数据只进入一次 kerberos 认证上下文
+     */
+    private final HdfsBatchReader<List<String>> batchReader;
+
     private GroupReadSupport readSupport = new GroupReadSupport();
 
     private static final int JULIAN_EPOCH_OFFSET_DAYS = 2440588;
@@ -104,6 +108,7 @@ public class HdfsParquetDownload implements IDownloader {
         this.columnNames = columnNames;
         this.partitionColumns = partitionColumns;
         this.kerberosConfig = kerberosConfig;
+        this.batchReader = new HdfsBatchReader<>(kerberosConfig, () -> nextRecord(), this::readNextWithKerberos);
     }
 
     @Override
@@ -160,14 +165,12 @@ public class HdfsParquetDownload implements IDownloader {
 
     @Override
     public List<String> readNext() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<List<String>>) ()->{
-                    try {
-                        return readNextWithKerberos();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Abnormal reading file,%s", e.getMessage()), e);
-                    }
-                });
+        return batchReader.next();
+    }
+
+    @Override
+    public List<List<String>> readNextBatch(int maxRows) {
+        return batchReader.readNextBatch(maxRows);
     }
 
     private List<String> readNextWithKerberos(){
@@ -274,14 +277,7 @@ public class HdfsParquetDownload implements IDownloader {
 
     @Override
     public boolean reachedEnd() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<Boolean>) ()->{
-                    try {
-                        return !nextRecord();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Download file is abnormal,%s", e.getMessage()), e);
-                    }
-                });
+        return batchReader.reachedEnd();
     }
 
     @Override
@@ -1,10 +1,9 @@
 package com.dtstack.dtcenter.common.loader.hdfs.downloader.tableDownload;
 
 import com.alibaba.fastjson.JSON;
+import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsBatchReader;
 import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsOperator;
-import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
 import com.dtstack.dtcenter.loader.IDownloader;
-import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.google.common.collect.Lists;
 import jodd.util.StringUtil;
 import lombok.extern.slf4j.Slf4j;
@@ -27,7 +26,6 @@ import org.apache.hadoop.mapred.RecordReader;
 import org.apache.hadoop.mapred.Reporter;
 
 import java.io.IOException;
-import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -70,6 +68,11 @@ public class HiveORCDownload implements IDownloader {
 
     private final Map<String, Object> kerberosConfig;
 
+    /**
+     * 批量读取，一批数据只进入一次 kerberos 认证上下文
+     */
+    private final HdfsBatchReader<List<String>> batchReader;
+
     /**
      * 需要查询字段的索引
      */
@@ -90,6 +93,7 @@ public class HiveORCDownload implements IDownloader {
         this.needIndex = needIndex;
         this.partitions = partitions;
         this.kerberosConfig = kerberosConfig;
+        this.batchReader = new HdfsBatchReader<>(kerberosConfig, () -> recordReader != null && nextRecord(), this::readNextWithKerberos);
     }
 
     @Override
@@ -134,14 +138,12 @@ public class HiveORCDownload implements IDownloader {
 
     @Override
     public List<String> readNext() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<List<String>>) ()->{
-                    try {
-                        return readNextWithKerberos();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Abnormal reading file,%s", e.getMessage()), e);
-                    }
-                });
+        return batchReader.next();
+    }
+
+    @Override
+    public List<List<String>> readNextBatch(int maxRows) {
+        return batchReader.readNextBatch(maxRows);
     }
 
     public List<String> readNextWithKerberos() {
@@ -250,14 +252,7 @@ public class HiveORCDownload implements IDownloader {
 
     @Override
     public boolean reachedEnd() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<Boolean>) ()->{
-                    try {
-                        return recordReader == null || !nextRecord();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Download file is abnormal,%s", e.getMessage()), e);
-                    }
-                });
+        return batchReader.reachedEnd();
     }
 
     @Override
@@ -2,11 +2,10 @@ package com.dtstack.dtcenter.common.loader.hdfs.downloader.tableDownload;
 
 import com.dtstack.dtcenter.common.loader.common.enums.ColumnType;
 import com.dtstack.dtcenter.common.loader.common.utils.StringUtil;
+import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsBatchReader;
 import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsOperator;
-import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
 import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
-import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.google.common.collect.Lists;
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
@@ -28,7 +27,6 @@ import org.apache.parquet.schema.Type;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.security.PrivilegedAction;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -82,6 +80,11 @@ public class HiveParquetDownload implements IDownloader {
 
     private final Map<String, Object> kerberosConfig;
 
+    /**
+     * 批量读取，一批数据只进入一次 kerberos 认证上下文
+     */
+    private final HdfsBatchReader<List<String>> batchReader;
+
     /**
      * 按分区下载
      */
@@ -105,6 +108,7 @@ public class HiveParquetDownload implements IDownloader {
         this.filterPartition = filterPartition;
         this.partitions = partitions;
         this.kerberosConfig = kerberosConfig;
+        this.batchReader = new HdfsBatchReader<>(kerberosConfig, () -> nextRecord(), this::readNextWithKerberos);
     }
 
     @Override
@@ -170,14 +174,12 @@ public class HiveParquetDownload implements IDownloader {
 
     @Override
     public List<String> readNext() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<List<String>>) ()->{
-                    try {
-                        return readNextWithKerberos();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Abnormal reading file,%s", e.getMessage()), e);
-                    }
-                });
+        return batchReader.next();
+    }
+
+    @Override
+    public List<List<String>> readNextBatch(int maxRows) {
+        return batchReader.readNextBatch(maxRows);
     }
 
     private List<String> readNextWithKerberos() {
@@ -355,14 +357,7 @@ public class HiveParquetDownload implements IDownloader {
 
     @Override
     public boolean reachedEnd() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<Boolean>) ()->{
-                    try {
-                        return !nextRecord();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Download file is abnormal,%s", e.getMessage()), e);
-                    }
-                });
+        return batchReader.reachedEnd();
     }
 
     @Override
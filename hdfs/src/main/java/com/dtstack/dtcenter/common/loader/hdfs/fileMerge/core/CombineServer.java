@@ -18,6 +18,7 @@
 
 package com.dtstack.dtcenter.common.loader.hdfs.fileMerge.core;
 
+import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
 import com.dtstack.dtcenter.common.loader.hdfs.util.FileSystemUtils;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.google.gson.Gson;
@@ -27,14 +28,44 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.security.UserGroupInformation;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 public abstract class CombineServer {
 
+    /**
+     * 默认合并并行度
+     */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    /**
+     * 最大合并并行度
+     */
+    private static final int MAX_PARALLELISM = 16;
+
+    private static final ThreadPoolExecutor MERGE_EXECUTOR = new ThreadPoolExecutor(MAX_PARALLELISM, MAX_PARALLELISM, 60L,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DtClassThreadFactory("hdfsFileMerge"));
+
+    static {
+        MERGE_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
     /**
      * 需要合并的文件目录 源路径
      */
@@ -62,6 +93,11 @@ public abstract class CombineServer {
      */
     protected long maxCombinedFileSize;
 
+    /**
+     * 同时合并的文件组数量
+     */
+    protected int parallelism = DEFAULT_PARALLELISM;
+
     protected FileSystem fs;
 
     public CombineServer() {
@@ -78,30 +114,179 @@ public abstract class CombineServer {
         //对文件夹副本下的文件/文件夹进行数据划分
         splitFile(sourcePath, directors, copyFiles, combineFiles);
 
-        //源目录下假如存在文件夹 直接移动到 mergedTempPath目录下
-        for (FileStatus director : directors) {
-            FileSystemUtils.backupDirector(director.getPath(), new Path(mergedTempPath.toUri().getPath() + File.separator + director.getPath().getName()), fs, configuration);
+        if (!FileSystemUtils.isExists(fs, mergedTempPath)) {
+            fs.mkdirs(mergedTempPath);
         }
 
-        //源目录下超过阈值的大文件直接进行复制 不需要合并
-        for (FileStatus copyFile : copyFiles) {
-            FileSystemUtils.backupFile(copyFile.getPath(), mergedTempPath, fs, configuration);
+        //已经移动的文件夹及大文件，合并失败时移回源目录
+        List<Path> movedPaths = new ArrayList<>(directors.size() + copyFiles.size());
+        try {
+            //源目录下的文件夹及超过阈值的大文件不需要合并，通过 rename 直接移动到 mergedTempPath 目录下，不复制数据
+            for (FileStatus director : directors) {
+                FileSystemUtils.move(director.getPath(), new Path(mergedTempPath, director.getPath().getName()), fs);
+                movedPaths.add(director.getPath());
+            }
+            for (FileStatus copyFile : copyFiles) {
+                FileSystemUtils.move(copyFile.getPath(), new Path(mergedTempPath, copyFile.getPath().getName()), fs);
+                movedPaths.add(copyFile.getPath());
+            }
+
+            if (CollectionUtils.isEmpty(combineFiles)) {
+                log.info("There are no small files to be merged in the source directory");
+                return;
+            }
+
+            //小文件合并
+            combineInBins(combineFiles);
+        } catch (IOException | RuntimeException e) {
+            rollback(movedPaths);
+            throw e;
         }
+        log.info("merge {} to {} successful ", sourcePath, mergedTempPath);
+    }
+
+    /**
+     * 将小文件装箱后并行合并，每个箱子合并为一组文件，合并完成的箱子记录到检查点中，
+     * 中断后重新合并时跳过已经完成的箱子
+     */
+    private void combineInBins(List<FileStatus> combineFiles) throws IOException {
+        init(combineFiles);
+        List<List<FileStatus>> bins = pack(combineFiles, maxCombinedFileSize);
+        MergeCheckpoint checkpoint = MergeCheckpoint.load(fs, mergedTempPath, getSignature(combineFiles));
 
-        if (CollectionUtils.isEmpty(combineFiles)) {
-            log.info("There are no small files to be merged in the source directory");
-            return;
+        AtomicInteger nextBin = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        // 工作线程不会继承调用线程的 kerberos 认证信息，需要在当前用户下执行
+        UserGroupInformation ugi = UserGroupInformation.getCurrentUser();
+        int workerNum = Math.max(1, Math.min(bins.size(), Math.min(parallelism, MAX_PARALLELISM)));
+        log.info("merge {} small files of {} in {} bins, parallelism: {}", combineFiles.size(), sourcePath, bins.size(), workerNum);
+        List<Future<?>> futures = new ArrayList<>(workerNum);
+        for (int i = 0; i < workerNum; i++) {
+            futures.add(MERGE_EXECUTOR.submit(() -> ugi.doAs((PrivilegedExceptionAction<Void>) () -> {
+                runWorker(bins, nextBin, failure, checkpoint);
+                return null;
+            })));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, new DtLoaderException("hdfs file merge is interrupted", e));
+        } catch (ExecutionException e) {
+            failure.compareAndSet(null, e.getCause());
         }
 
-        //小文件合并
-        doCombine(combineFiles, mergedTempPath);
-        log.info("merge {} to {} successful ", sourcePath, mergedTempPath);
+        Throwable e = failure.get();
+        if (e != null) {
+            if (e instanceof DtLoaderException) {
+                throw (DtLoaderException) e;
+            }
+            throw new DtLoaderException(String.format("combine file failed,errorMessage :%s", e.getMessage()), e);
+        }
+        checkpoint.clear();
+    }
+
+    private void runWorker(List<List<FileStatus>> bins, AtomicInteger nextBin, AtomicReference<Throwable> failure, MergeCheckpoint checkpoint) {
+        int bin;
+        //任一箱子合并失败后，其他线程不再领取新的箱子
+        while (failure.get() == null && (bin = nextBin.getAndIncrement()) < bins.size()) {
+            if (checkpoint.isDone(bin)) {
+                continue;
+            }
+            try {
+                doCombine(bins.get(bin), checkpoint.getMergedFilePrefix(bin));
+                checkpoint.markDone(bin);
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }
     }
 
     /**
-     * 小文件合并操作
+     * 按首次适应递减算法将小文件装箱，每个箱子中文件大小之和不超过 maxCombinedFileSize，
+     * 相同大小的文件按名称排序，保证同一批小文件每次装箱的结果相同
+     *
+     * @param combineFiles        需要合并的小文件
+     * @param maxCombinedFileSize 合并后的文件的最大值
+     * @return 箱子列表
      */
-    protected abstract void doCombine(ArrayList<FileStatus> combineFiles, Path mergedTempPath) throws IOException;
+    static List<List<FileStatus>> pack(List<FileStatus> combineFiles, long maxCombinedFileSize) {
+        List<FileStatus> sortedFiles = new ArrayList<>(combineFiles);
+        sortedFiles.sort(Comparator.comparingLong(FileStatus::getLen).reversed()
+                .thenComparing(fileStatus -> fileStatus.getPath().getName()));
+        List<List<FileStatus>> bins = new ArrayList<>();
+        List<Long> remains = new ArrayList<>();
+        for (FileStatus fileStatus : sortedFiles) {
+            int target = -1;
+            for (int i = 0; i < bins.size(); i++) {
+                if (remains.get(i) >= fileStatus.getLen()) {
+                    target = i;
+                    break;
+                }
+            }
+            if (target < 0) {
+                bins.add(new ArrayList<>());
+                remains.add(maxCombinedFileSize);
+                target = bins.size() - 1;
+            }
+            bins.get(target).add(fileStatus);
+            remains.set(target, remains.get(target) - fileStatus.getLen());
+        }
+        return bins;
+    }
+
+    /**
+     * 合并计划的签名，由小文件的名称、大小、修改时间及合并后的文件大小组成，签名变化后检查点失效
+     */
+    private String getSignature(List<FileStatus> combineFiles) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+            combineFiles.stream()
+                    .sorted(Comparator.comparing(fileStatus -> fileStatus.getPath().getName()))
+                    .forEach(fileStatus -> messageDigest.update(String.format("%s:%s:%s\n", fileStatus.getPath().getName(),
+                            fileStatus.getLen(), fileStatus.getModificationTime()).getBytes(StandardCharsets.UTF_8)));
+            messageDigest.update(String.valueOf(maxCombinedFileSize).getBytes(StandardCharsets.UTF_8));
+            byte[] bytes = messageDigest.digest();
+            StringBuilder builder = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new DtLoaderException(String.format("digest merge plan error : %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 合并失败时将已经移动的文件夹及大文件移回源目录
+     */
+    private void rollback(List<Path> movedPaths) {
+        for (Path movedPath : movedPaths) {
+            Path mergedPath = new Path(mergedTempPath, movedPath.getName());
+            try {
+                if (!fs.rename(mergedPath, movedPath)) {
+                    log.error("rollback {} to {} failed", mergedPath, movedPath);
+                }
+            } catch (Exception e) {
+                log.error("rollback {} to {} failed: {}", mergedPath, movedPath, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 初始化合并文件的元信息，所有箱子共用
+     */
+    protected abstract void init(List<FileStatus> combineFiles) throws IOException;
+
+    /**
+     * 小文件合并操作，一个箱子中的小文件合并为一个或多个文件
+     *
+     * @param combineFiles   箱子中需要合并的小文件
+     * @param mergedFileName 合并文件名字前缀
+     */
+    protected abstract void doCombine(List<FileStatus> combineFiles, String mergedFileName) throws IOException;
 
     /**
      * 获取对应文件类型的后缀名
@@ -155,6 +340,10 @@ public abstract class CombineServer {
         this.maxCombinedFileSize = maxCombinedFileSize;
     }
 
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     public void setFs(FileSystem fs) {
         this.fs = fs;
     }
@@ -168,6 +357,7 @@ public abstract class CombineServer {
                 ", configuration=" + FileSystemUtils.printConfiguration(configuration) +
                 ", needCombineFileSizeLimit=" + needCombineFileSizeLimit +
                 ", maxCombinedFileSize=" + maxCombinedFileSize +
+                ", parallelism=" + parallelism +
                 '}';
     }
 }
@@ -37,8 +37,8 @@ import org.apache.orc.Writer;
 import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import static java.math.BigDecimal.ROUND_HALF_UP;
@@ -46,11 +46,6 @@ import static java.math.BigDecimal.ROUND_HALF_UP;
 @Slf4j
 public class OrcCombineServer extends CombineServer {
 
-    //文件编号
-    private int index;
-
-    private String mergedFileName;
-
     //orc文件的元信息
     private OrcMetaData metaData;
 
@@ -58,8 +53,9 @@ public class OrcCombineServer extends CombineServer {
     }
 
     @Override
-    protected void doCombine(ArrayList<FileStatus> combineFiles, Path mergedTempPath) throws IOException {
-        init(combineFiles);
+    protected void doCombine(List<FileStatus> combineFiles, String mergedFileName) throws IOException {
+        //文件编号
+        int index = 0;
 
         Writer writer = null;
         long currentCount = 0L;
@@ -107,20 +103,17 @@ public class OrcCombineServer extends CombineServer {
     /**
      * 初始化
      * 文件写入数量阈值 rowCountSplit
-     * 合并文件名字前缀
      *
      * @param combineFiles
      * @throws IOException
      */
-    private void init(ArrayList<FileStatus> combineFiles) throws IOException {
+    @Override
+    protected void init(List<FileStatus> combineFiles) throws IOException {
 
         FileStatus fileStatus = combineFiles.stream()
                 .sorted(Comparator.comparing(FileStatus::getLen).reversed())
                 .collect(Collectors.toList()).get(0);
 
-        this.index = 0;
-        this.mergedFileName = System.currentTimeMillis() + "";
-
         metaData = getFileMetaData(fileStatus);
     }
 
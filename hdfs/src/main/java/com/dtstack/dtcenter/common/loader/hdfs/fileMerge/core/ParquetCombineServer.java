@@ -41,7 +41,6 @@ import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -51,18 +50,15 @@ import static java.math.BigDecimal.ROUND_HALF_UP;
 @Slf4j
 public class ParquetCombineServer extends CombineServer {
 
-    private int index;
-
-    private String mergedFileName;
-
     private ParquetMetaData metadata;
 
     public ParquetCombineServer() {
     }
 
     @Override
-    protected void doCombine(ArrayList<FileStatus> combineFiles, Path mergedTempPath) throws IOException {
-        init(combineFiles);
+    protected void doCombine(List<FileStatus> combineFiles, String mergedFileName) throws IOException {
+        //文件编号
+        int index = 0;
 
         List<Path> paths = combineFiles.stream().map(FileStatus::getPath).collect(Collectors.toList());
 
@@ -107,16 +103,14 @@ public class ParquetCombineServer extends CombineServer {
     /**
      * 初始化
      * 文件写入数量阈值 rowCountSplit
-     * 合并文件名字前缀
      */
-    private void init(ArrayList<FileStatus> combineFiles) throws IOException {
+    @Override
+    protected void init(List<FileStatus> combineFiles) throws IOException {
 
         FileStatus fileStatus = combineFiles.stream()
                 .sorted(Comparator.comparing(FileStatus::getLen).reversed())
                 .collect(Collectors.toList()).get(0);
 
-        this.index = 0;
-        this.mergedFileName = System.currentTimeMillis() + "";
         this.metadata = getFileMetaData(fileStatus);
     }
 
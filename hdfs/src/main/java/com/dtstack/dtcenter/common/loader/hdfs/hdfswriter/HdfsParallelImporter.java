@@ -0,0 +1,548 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.common.loader.hdfs.hdfswriter;
+
+import com.csvreader.CsvReader;
+import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
+import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
+import com.dtstack.dtcenter.common.loader.common.utils.TableUtil;
+import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HadoopConfUtil;
+import com.dtstack.dtcenter.common.loader.hdfs.OrcColumnTypeConverter;
+import com.dtstack.dtcenter.loader.dto.HDFSImportColumn;
+import com.dtstack.dtcenter.loader.dto.HdfsWriterDTO;
+import com.dtstack.dtcenter.loader.dto.source.HdfsSourceDTO;
+import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
+import com.dtstack.dtcenter.loader.enums.FileFormat;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import com.google.common.io.ByteStreams;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.BOMInputStream;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.security.UserGroupInformation;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.security.PrivilegedExceptionAction;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地文件并行导入 hdfs
+ * <p>
+ * 跳过标题行后按字节范围切分源文件，范围边界对齐到换行符之后，多个线程依次领取范围并行解析、转换，
+ * 每个范围写入 hdfsDirPath 下的一个 part 文件；任一范围写入失败时其他线程停止写入，并删除本次导入的所有 part 文件
+ *
+ * @author ：wangchuan
+ * date：Created in 下午3:00 2022/6/14
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class HdfsParallelImporter {
+
+    /**
+     * 默认导入并行度
+     */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    /**
+     * 最大导入并行度
+     */
+    private static final int MAX_PARALLELISM = 16;
+
+    /**
+     * 单次导入最多生成的 part 文件数量
+     */
+    private static final int MAX_PART_NUM = 10000;
+
+    /**
+     * part 文件名称：part-序号-导入批次
+     */
+    private static final String PART_FILE_NAME = "part-%05d-%s%s";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte NEWLINE = '\n';
+
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private static final ThreadPoolExecutor IMPORT_EXECUTOR = new ThreadPoolExecutor(MAX_PARALLELISM, MAX_PARALLELISM, 60L,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DtClassThreadFactory("hdfsParallelImport"));
+
+    static {
+        IMPORT_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 是否并行导入，需要设置并行度或 part 文件大小，且源文件编码中换行符为单字节
+     *
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @return 是否并行导入
+     */
+    public static boolean isParallel(HdfsWriterDTO hdfsWriterDTO) {
+        if (!ReflectUtil.fieldExists(HdfsWriterDTO.class, "parallelism")) {
+            return false;
+        }
+        Integer parallelism = hdfsWriterDTO.getParallelism();
+        Long targetFileSize = hdfsWriterDTO.getTargetFileSize();
+        if ((parallelism == null || parallelism <= 1) && (targetFileSize == null || targetFileSize <= 0)) {
+            return false;
+        }
+        if (!isLineSplittable(hdfsWriterDTO.getOriCharSet())) {
+            log.warn("file {} with charset {} cannot be split by line, import it in single thread", hdfsWriterDTO.getFromFileName(), hdfsWriterDTO.getOriCharSet());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 按位置并行写入
+     *
+     * @param source        数据源信息
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @return 写入条数
+     * @throws IOException io 异常
+     */
+    public static int writeByPos(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO) throws IOException {
+        int startLine = hdfsWriterDTO.getStartLine();
+        // 首行是标题则内容从下一行开始
+        if (BooleanUtils.isTrue(hdfsWriterDTO.getTopLineIsTitle())) {
+            startLine++;
+        }
+        return write(source, hdfsWriterDTO, Math.max(startLine - 1, 0), false);
+    }
+
+    /**
+     * 按名称并行写入，标题行在切分前读取
+     *
+     * @param source        数据源信息
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @return 写入条数
+     * @throws IOException io 异常
+     */
+    public static int writeByName(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO) throws IOException {
+        return write(source, hdfsWriterDTO, Math.max(hdfsWriterDTO.getStartLine(), 0), true);
+    }
+
+    private static int write(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO, int skipRecords, boolean byName) throws IOException {
+        PartWriter partWriter = getPartWriter(source, hdfsWriterDTO, byName);
+        File file = getFromFile(hdfsWriterDTO.getFromFileName());
+        Charset charset = Charset.forName(hdfsWriterDTO.getOriCharSet());
+        char delim = HdfsWriter.getDelim(hdfsWriterDTO.getFromLineDelimiter());
+
+        SkippedLines skipped = skipRecords(file, skipRecords);
+        String[] header = byName && skipped.lastLine != null ? parseLine(skipped.lastLine, charset, delim) : null;
+        List<long[]> ranges = split(file, skipped.offset, hdfsWriterDTO);
+
+        String batch = UUID.randomUUID().toString();
+        String suffix = FileFormat.PARQUET.getVal().equals(hdfsWriterDTO.getFileFormat()) ? ".parquet" : "";
+        List<Path> paths = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            paths.add(new Path(hdfsWriterDTO.getHdfsDirPath(), String.format(PART_FILE_NAME, i, batch, suffix)));
+        }
+
+        ImportJob job = new ImportJob(ranges, paths);
+        // 工作线程不会继承调用线程的 kerberos 认证信息，需要在当前用户下执行
+        UserGroupInformation ugi = UserGroupInformation.getCurrentUser();
+        int workerNum = Math.min(ranges.size(), getParallelism(hdfsWriterDTO));
+        List<Future<?>> futures = new ArrayList<>(workerNum);
+        for (int i = 0; i < workerNum; i++) {
+            futures.add(IMPORT_EXECUTOR.submit(() -> ugi.doAs((PrivilegedExceptionAction<Void>) () -> {
+                runWorker(job, hdfsWriterDTO, partWriter, file, charset, delim, header);
+                return null;
+            })));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail(new DtLoaderException("hdfs parallel import is interrupted", e));
+        } catch (ExecutionException e) {
+            job.fail(e.getCause());
+        }
+
+        if (job.failure != null) {
+            deleteParts(source, paths);
+            if (job.failure instanceof DtLoaderException) {
+                throw (DtLoaderException) job.failure;
+            }
+            throw new DtLoaderException(String.format("hdfs parallel import error: %s", job.failure.getMessage()), job.failure);
+        }
+
+        Map<String, Integer> partRowCounts = new LinkedHashMap<>();
+        int writeLineNum = 0;
+        for (int i = 0; i < paths.size(); i++) {
+            partRowCounts.put(paths.get(i).toString(), job.rowCounts[i]);
+            writeLineNum += job.rowCounts[i];
+        }
+        hdfsWriterDTO.setPartRowCounts(partRowCounts);
+        log.info("import file {} into {} part files of {}, rows: {}", hdfsWriterDTO.getFromFileName(), paths.size(), hdfsWriterDTO.getHdfsDirPath(), writeLineNum);
+        return writeLineNum;
+    }
+
+    private static void runWorker(ImportJob job, HdfsWriterDTO hdfsWriterDTO, PartWriter partWriter, File file, Charset charset,
+                                  char delim, String[] header) {
+        if (!job.register()) {
+            return;
+        }
+        int part = -1;
+        try {
+            // SimpleDateFormat 非线程安全，每个线程使用独立的写入配置
+            HdfsWriterDTO partWriterDTO = copyWriterDTO(hdfsWriterDTO);
+            while (job.failure == null && (part = job.nextPart.getAndIncrement()) < job.ranges.size()) {
+                long[] range = job.ranges.get(part);
+                CsvReader reader = openRange(file, range[0], range[1], charset, delim);
+                try {
+                    job.rowCounts[part] = partWriter.write(partWriterDTO, reader, job.paths.get(part), header);
+                } finally {
+                    reader.close();
+                }
+            }
+        } catch (Throwable e) {
+            String message = part < 0 ? e.getMessage() : String.format("bytes [%s, %s) of file %s failed to write to %s: %s",
+                    job.ranges.get(part)[0], job.ranges.get(part)[1], file.getPath(), job.paths.get(part), e.getMessage());
+            job.fail(new DtLoaderException(message, e));
+        } finally {
+            job.unregister();
+        }
+    }
+
+    /**
+     * 获取对应存储格式的 part 文件写入方法
+     */
+    private static PartWriter getPartWriter(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO, boolean byName) {
+        String fileFormat = hdfsWriterDTO.getFileFormat();
+        if (FileFormat.ORC.getVal().equals(fileFormat)) {
+            // 字段类型转换会修改字段列表，只在切分前处理一次
+            TableUtil.dealColumnType(hdfsWriterDTO.getColumnsList(), OrcColumnTypeConverter::apply);
+            return byName ? (dto, reader, path, header) -> HdfsOrcWriter.writeByName(source, dto, reader, path, 0, header)
+                    : (dto, reader, path, header) -> HdfsOrcWriter.writeByPos(source, dto, reader, path, 0);
+        }
+        if (FileFormat.PARQUET.getVal().equals(fileFormat)) {
+            return byName ? (dto, reader, path, header) -> HdfsParquetWriter.writeByName(source, dto, reader, path, 0, header)
+                    : (dto, reader, path, header) -> HdfsParquetWriter.writeByPos(source, dto, reader, path, 0);
+        }
+        if (FileFormat.TEXT.getVal().equals(fileFormat)) {
+            return byName ? (dto, reader, path, header) -> HdfsTextWriter.writeByName(source, dto, reader, path, 0, header)
+                    : (dto, reader, path, header) -> HdfsTextWriter.writeByPos(source, dto, reader, path, 0);
+        }
+        throw new DtLoaderException("This storage type file is not supported for writing to hdfs");
+    }
+
+    private static int getParallelism(HdfsWriterDTO hdfsWriterDTO) {
+        Integer parallelism = hdfsWriterDTO.getParallelism();
+        if (parallelism == null || parallelism <= 0) {
+            return DEFAULT_PARALLELISM;
+        }
+        return Math.min(parallelism, MAX_PARALLELISM);
+    }
+
+    /**
+     * 换行符编码为单字节 '\n' 时才能按字节切分，如 UTF-8、GBK，UTF-16 等编码不支持
+     */
+    private static boolean isLineSplittable(String charsetName) {
+        try {
+            byte[] newline = "\n".getBytes(charsetName);
+            return newline.length == 1 && newline[0] == NEWLINE;
+        } catch (UnsupportedEncodingException e) {
+            return false;
+        }
+    }
+
+    private static File getFromFile(String fromFileName) {
+        File fromFile = new File(fromFileName);
+        if (!fromFile.exists()) {
+            throw new DtLoaderException("file is not exist");
+        }
+        if (fromFile.isDirectory()) {
+            throw new DtLoaderException("Cannot select folder");
+        }
+        return fromFile;
+    }
+
+    /**
+     * 跳过数据开始前的行，与 CsvReader 一致，空行不计入行数
+     *
+     * @param file    源文件
+     * @param records 跳过的行数
+     * @return 数据开始的位置及跳过的最后一行
+     */
+    private static SkippedLines skipRecords(File file, int records) throws IOException {
+        long offset = 0;
+        byte[] lastLine = null;
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+            int skipped = 0;
+            int b;
+            while (skipped < records && (b = in.read()) != -1) {
+                offset++;
+                if (b != NEWLINE) {
+                    line.write(b);
+                    continue;
+                }
+                if (!isEmptyLine(line)) {
+                    skipped++;
+                    lastLine = line.toByteArray();
+                }
+                line.reset();
+            }
+            // 最后一行没有换行符
+            if (skipped < records && !isEmptyLine(line)) {
+                lastLine = line.toByteArray();
+            }
+        }
+        return new SkippedLines(offset, lastLine);
+    }
+
+    private static boolean isEmptyLine(ByteArrayOutputStream line) {
+        return line.size() == 0 || (line.size() == 1 && line.toByteArray()[0] == CARRIAGE_RETURN);
+    }
+
+    private static String[] parseLine(byte[] line, Charset charset, char delim) throws IOException {
+        CsvReader reader = new CsvReader(new InputStreamReader(new BOMInputStream(new ByteArrayInputStream(line)), charset), delim);
+        try {
+            return reader.readRecord() ? reader.getValues() : new String[0];
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 按 part 大小切分数据范围，范围结束位置对齐到换行符之后
+     *
+     * @param file          源文件
+     * @param dataOffset    数据开始的位置
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @return 数据范围 [start, end)
+     */
+    private static List<long[]> split(File file, long dataOffset, HdfsWriterDTO hdfsWriterDTO) throws IOException {
+        long length = file.length();
+        List<long[]> ranges = new ArrayList<>();
+        if (dataOffset >= length) {
+            return ranges;
+        }
+        long dataLength = length - dataOffset;
+        Long targetFileSize = hdfsWriterDTO.getTargetFileSize();
+        long partSize = targetFileSize != null && targetFileSize > 0 ? targetFileSize : divideCeil(dataLength, getParallelism(hdfsWriterDTO));
+        partSize = Math.max(partSize, divideCeil(dataLength, MAX_PART_NUM));
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            long start = dataOffset;
+            while (start < length) {
+                long end = length - start <= partSize ? length : alignToLine(randomAccessFile, start + partSize, length);
+                ranges.add(new long[]{start, end});
+                start = end;
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * 从 position - 1 开始查找换行符，返回换行符之后的位置，position 恰好是行首时返回 position
+     */
+    private static long alignToLine(RandomAccessFile randomAccessFile, long position, long length) throws IOException {
+        long current = position - 1;
+        randomAccessFile.seek(current);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = randomAccessFile.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == NEWLINE) {
+                    return current + i + 1;
+                }
+            }
+            current += read;
+        }
+        return length;
+    }
+
+    private static long divideCeil(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    private static CsvReader openRange(File file, long start, long end, Charset charset, char delim) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        InputStream in;
+        try {
+            channel.position(start);
+            in = ByteStreams.limit(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE), end - start);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        // 只有文件开头可能包含 BOM
+        if (start == 0) {
+            in = new BOMInputStream(in);
+        }
+        return new CsvReader(new InputStreamReader(in, charset), delim);
+    }
+
+    private static HdfsWriterDTO copyWriterDTO(HdfsWriterDTO hdfsWriterDTO) {
+        HdfsWriterDTO copy = new HdfsWriterDTO();
+        copy.setHdfsDirPath(hdfsWriterDTO.getHdfsDirPath());
+        copy.setFromLineDelimiter(hdfsWriterDTO.getFromLineDelimiter());
+        copy.setToLineDelimiter(hdfsWriterDTO.getToLineDelimiter());
+        copy.setFromFileName(hdfsWriterDTO.getFromFileName());
+        copy.setOriCharSet(hdfsWriterDTO.getOriCharSet());
+        copy.setStartLine(hdfsWriterDTO.getStartLine());
+        copy.setTopLineIsTitle(hdfsWriterDTO.getTopLineIsTitle());
+        copy.setColumnsList(hdfsWriterDTO.getColumnsList());
+        copy.setFileFormat(hdfsWriterDTO.getFileFormat());
+        copy.setSetDefault(hdfsWriterDTO.getSetDefault());
+        if (hdfsWriterDTO.getKeyList() != null) {
+            List<HDFSImportColumn> keyList = new ArrayList<>(hdfsWriterDTO.getKeyList().size());
+            for (HDFSImportColumn importColumn : hdfsWriterDTO.getKeyList()) {
+                HDFSImportColumn column = new HDFSImportColumn();
+                column.setKey(importColumn.getKey());
+                column.setFormat(importColumn.getFormat());
+                if (importColumn.getDateFormat() != null) {
+                    column.setDateFormat((SimpleDateFormat) importColumn.getDateFormat().clone());
+                }
+                keyList.add(column);
+            }
+            copy.setKeyList(keyList);
+        }
+        return copy;
+    }
+
+    private static void deleteParts(ISourceDTO source, List<Path> paths) {
+        HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
+        try {
+            FileSystem fs = FileSystem.get(HadoopConfUtil.getHdfsConf(hdfsSourceDTO.getDefaultFS(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getKerberosConfig()));
+            for (Path path : paths) {
+                if (fs.exists(path)) {
+                    fs.delete(path, false);
+                }
+            }
+        } catch (Exception e) {
+            log.error("delete part files of failed import error: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * part 文件写入方法
+     */
+    @FunctionalInterface
+    private interface PartWriter {
+
+        /**
+         * 将 reader 中的数据写入 part 文件
+         *
+         * @param partWriterDTO 当前线程的写入配置
+         * @param reader        数据范围 reader
+         * @param path          part 文件
+         * @param header        标题行，按位置写入时为 null
+         * @return 写入条数
+         * @throws IOException io 异常
+         */
+        int write(HdfsWriterDTO partWriterDTO, CsvReader reader, Path path, String[] header) throws IOException;
+    }
+
+    /**
+     * 跳过的行信息
+     */
+    private static class SkippedLines {
+
+        private final long offset;
+
+        private final byte[] lastLine;
+
+        private SkippedLines(long offset, byte[] lastLine) {
+            this.offset = offset;
+            this.lastLine = lastLine;
+        }
+    }
+
+    /**
+     * 一次并行导入的状态，失败时中断其他正在写入的线程
+     */
+    private static class ImportJob {
+
+        private final List<long[]> ranges;
+
+        private final List<Path> paths;
+
+        private final int[] rowCounts;
+
+        private final AtomicInteger nextPart = new AtomicInteger();
+
+        private final Set<Thread> runningThreads = new HashSet<>();
+
+        private volatile Throwable failure;
+
+        private ImportJob(List<long[]> ranges, List<Path> paths) {
+            this.ranges = ranges;
+            this.paths = paths;
+            this.rowCounts = new int[ranges.size()];
+        }
+
+        private synchronized boolean register() {
+            if (failure != null) {
+                return false;
+            }
+            runningThreads.add(Thread.currentThread());
+            return true;
+        }
+
+        /**
+         * 在持有锁时移除，保证失败时不会中断已经归还到线程池的线程
+         */
+        private synchronized void unregister() {
+            runningThreads.remove(Thread.currentThread());
+        }
+
+        private synchronized void fail(Throwable e) {
+            if (failure != null) {
+                return;
+            }
+            failure = e;
+            for (Thread thread : runningThreads) {
+                if (thread != Thread.currentThread()) {
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+}
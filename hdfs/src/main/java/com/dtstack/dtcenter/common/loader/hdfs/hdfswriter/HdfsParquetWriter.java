@@ -52,7 +52,6 @@ import org.apache.parquet.schema.PrimitiveType;
 import org.apache.parquet.schema.Types;
 
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.text.ParseException;
@@ -85,25 +84,41 @@ public class HdfsParquetWriter {
      * @throws IOException io 异常
      */
     public static int writeByPos(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO) throws IOException {
-        HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
         int startLine = hdfsWriterDTO.getStartLine();
         //首行是标题则内容从下一行开始
         if (BooleanUtils.isTrue(hdfsWriterDTO.getTopLineIsTitle())) {
             startLine++;
         }
 
+        CsvReader reader = HdfsWriter.getCsvReader(hdfsWriterDTO);
+        try {
+            return writeByPos(source, hdfsWriterDTO, reader, getWritePath(hdfsWriterDTO), startLine);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 按位置将 reader 中的数据写入指定文件
+     *
+     * @param source        数据源信息
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @param reader        源文件 reader，由调用方关闭
+     * @param path          写入的 hdfs 文件
+     * @param startLine     数据开始的行，之前的行跳过
+     * @return 写入条数
+     * @throws IOException io 异常
+     */
+    static int writeByPos(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO, CsvReader reader, Path path, int startLine) throws IOException {
+        HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
         MessageType schema = buildSchema(hdfsWriterDTO.getColumnsList());
-        ParquetWriter<Group> writer = getWriter(hdfsSourceDTO, hdfsWriterDTO.getHdfsDirPath(), hdfsWriterDTO.getColumnsList());
+        ParquetWriter<Group> writer = getWriter(hdfsSourceDTO, path, hdfsWriterDTO.getColumnsList());
         Map<String, Map<String, Integer>> decimalColInfo = getDecimalColInfo(hdfsWriterDTO.getColumnsList());
 
         int currLineNum = 0;
         int writeLineNum = 0;
         Group group;
-        InputStreamReader inputStreamReader = null;
-        CsvReader reader = null;
         try {
-            inputStreamReader = HdfsWriter.getReader(hdfsWriterDTO.getFromFileName(), hdfsWriterDTO.getOriCharSet());
-            reader = new CsvReader(inputStreamReader, HdfsWriter.getDelim(hdfsWriterDTO.getFromLineDelimiter()));
             while (reader.readRecord()) {
                 currLineNum++;
                 if (currLineNum < startLine) {
@@ -189,7 +204,7 @@ public class HdfsParquetWriter {
         } catch (Exception e) {
             throw new DtLoaderException("The" + currLineNum + "row data is abnormal:" + e.getMessage(), e);
         } finally {
-            closeResource(writer, inputStreamReader, reader);
+            writer.close();
         }
 
         return writeLineNum;
@@ -204,21 +219,37 @@ public class HdfsParquetWriter {
      * @throws IOException io 异常
      */
     public static int writeByName(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO) throws IOException {
+        CsvReader reader = HdfsWriter.getCsvReader(hdfsWriterDTO);
+        try {
+            return writeByName(source, hdfsWriterDTO, reader, getWritePath(hdfsWriterDTO), hdfsWriterDTO.getStartLine(), null);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 按名称将 reader 中的数据写入指定文件
+     *
+     * @param source        数据源信息
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @param reader        源文件 reader，由调用方关闭
+     * @param path          写入的 hdfs 文件
+     * @param startLine     标题行所在的行，之前的行跳过
+     * @param header        标题行，为 null 时从 reader 中读取
+     * @return 写入条数
+     * @throws IOException io 异常
+     */
+    static int writeByName(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO, CsvReader reader, Path path, int startLine, String[] header) throws IOException {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
         MessageType schema = buildSchema(hdfsWriterDTO.getColumnsList());
-        ParquetWriter<Group> writer = getWriter(hdfsSourceDTO, hdfsWriterDTO.getHdfsDirPath(), hdfsWriterDTO.getColumnsList());
+        ParquetWriter<Group> writer = getWriter(hdfsSourceDTO, path, hdfsWriterDTO.getColumnsList());
         Map<String, Map<String, Integer>> decimalColInfo = getDecimalColInfo(hdfsWriterDTO.getColumnsList());
 
         int currLineNum = 0;
         int writeLineNum = 0;
-        int startLine = hdfsWriterDTO.getStartLine();
         Group group;
-        List<Integer> indexList = Lists.newArrayList();
-        InputStreamReader inputStreamReader = null;
-        CsvReader reader = null;
+        List<Integer> indexList = header == null ? Lists.newArrayList() : getIndexList(hdfsWriterDTO, header);
         try {
-            inputStreamReader = HdfsWriter.getReader(hdfsWriterDTO.getFromFileName(), hdfsWriterDTO.getOriCharSet());
-            reader = new CsvReader(inputStreamReader, HdfsWriter.getDelim(hdfsWriterDTO.getFromLineDelimiter()));
             while (reader.readRecord()) {
                 if (currLineNum < (startLine - 1)) {
                     currLineNum++;
@@ -229,26 +260,7 @@ public class HdfsParquetWriter {
 
                 // 首行为标题行
                 if (currLineNum == (startLine - 1)) {
-                    for (HDFSImportColumn importColumn : hdfsWriterDTO.getKeyList()) {
-                        if (StringUtils.isBlank(importColumn.getKey())) {
-                            indexList.add(-1);
-                        } else {
-                            boolean isMatch = false;
-                            for (int i = 0; i < columnArr.length; i++) {
-                                String name = columnArr[i];
-                                if (name.equals(importColumn.getKey())) {
-                                    indexList.add(i);
-                                    isMatch = true;
-                                    break;
-                                }
-                            }
-
-                            if (!isMatch) {
-                                indexList.add(-1);
-                            }
-                        }
-                    }
-
+                    indexList = getIndexList(hdfsWriterDTO, columnArr);
                     currLineNum++;
                     continue;
                 }
@@ -331,17 +343,57 @@ public class HdfsParquetWriter {
         } catch (Exception e) {
             throw new DtLoaderException("the" + currLineNum + "row data is abnormal:" + e.getMessage(), e);
         } finally {
-            closeResource(writer, inputStreamReader, reader);
+            writer.close();
         }
 
         return writeLineNum;
     }
 
-    private static ParquetWriter<Group> getWriter(HdfsSourceDTO sourceDTO, String hdfsDirPath, List<ColumnMetaDTO> columnsList) throws IOException {
+    /**
+     * 根据标题行计算出需要使用的索引位置，未匹配到的字段为 -1
+     *
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @param columnArr     标题行
+     * @return 索引位置
+     */
+    private static List<Integer> getIndexList(HdfsWriterDTO hdfsWriterDTO, String[] columnArr) {
+        List<Integer> indexList = Lists.newArrayList();
+        for (HDFSImportColumn importColumn : hdfsWriterDTO.getKeyList()) {
+            if (StringUtils.isBlank(importColumn.getKey())) {
+                indexList.add(-1);
+            } else {
+                boolean isMatch = false;
+                for (int i = 0; i < columnArr.length; i++) {
+                    String name = columnArr[i];
+                    if (name.equals(importColumn.getKey())) {
+                        indexList.add(i);
+                        isMatch = true;
+                        break;
+                    }
+                }
+
+                if (!isMatch) {
+                    indexList.add(-1);
+                }
+            }
+        }
+        return indexList;
+    }
+
+    /**
+     * 生成写入的 hdfs 文件路径
+     *
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @return 文件路径
+     */
+    private static Path getWritePath(HdfsWriterDTO hdfsWriterDTO) {
+        return new Path(hdfsWriterDTO.getHdfsDirPath(), "part-" + UUID.randomUUID().toString() + ".parquet");
+    }
+
+    private static ParquetWriter<Group> getWriter(HdfsSourceDTO sourceDTO, Path writePath, List<ColumnMetaDTO> columnsList) throws IOException {
         Configuration conf = HadoopConfUtil.getHdfsConf(sourceDTO.getDefaultFS(), sourceDTO.getConfig(), sourceDTO.getKerberosConfig());
         MessageType schema = buildSchema(columnsList);
         GroupWriteSupport.setSchema(schema, conf);
-        Path writePath = new Path(hdfsDirPath, "part-" + UUID.randomUUID().toString() + ".parquet");
 
         ExampleParquetWriter.Builder builder = ExampleParquetWriter.builder(writePath)
                 .withWriteMode(ParquetFileWriter.Mode.CREATE)
@@ -353,20 +405,6 @@ public class HdfsParquetWriter {
         return builder.build();
     }
 
-    private static void closeResource(ParquetWriter<Group> writer, InputStreamReader inputStreamReader, CsvReader reader) throws IOException {
-        if (writer != null) {
-            writer.close();
-        }
-
-        if (inputStreamReader != null) {
-            inputStreamReader.close();
-        }
-
-        if (reader != null) {
-            reader.close();
-        }
-    }
-
     private static Map<String, Map<String, Integer>> getDecimalColInfo(List<ColumnMetaDTO> columnsList) {
         Map<String, Map<String, Integer>> decimalColInfo = new HashMap<>();
 
@@ -37,7 +37,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.text.ParseException;
 import java.util.List;
@@ -71,7 +70,6 @@ public class HdfsTextWriter {
      * @throws IOException io 异常
      */
     public static int writeByPos(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO) throws IOException {
-        HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
         int startLine = hdfsWriterDTO.getStartLine();
         //首行是标题则内容从下一行开始
         if (BooleanUtils.isTrue(hdfsWriterDTO.getTopLineIsTitle())) {
@@ -79,22 +77,38 @@ public class HdfsTextWriter {
         }
 
         //FIXME 暂时根据uuid生成文件名称--需要改成和hive原始的名称eg: part-0000
-        final String hdfsPath = hdfsWriterDTO.getHdfsDirPath() + "/" + UUID.randomUUID();
+        final Path p = new Path(hdfsWriterDTO.getHdfsDirPath() + "/" + UUID.randomUUID());
+        final CsvReader reader = HdfsWriter.getCsvReader(hdfsWriterDTO);
+        try {
+            return writeByPos(source, hdfsWriterDTO, reader, p, startLine);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 按位置将 reader 中的数据写入指定文件
+     *
+     * @param source        数据源信息
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @param reader        源文件 reader，由调用方关闭
+     * @param p             写入的 hdfs 文件
+     * @param startLine     数据开始的行，之前的行跳过
+     * @return 写入数据条数
+     * @throws IOException io 异常
+     */
+    static int writeByPos(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO, CsvReader reader, Path p, int startLine) throws IOException {
+        HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
         final boolean overwrite = false;
 
         final Configuration conf = HadoopConfUtil.getHdfsConf(hdfsSourceDTO.getDefaultFS(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getKerberosConfig());
         final FileSystem fs = FileSystem.get(conf);
-        final Path p = new Path(hdfsPath);
         final OutputStream stream = fs.create(p, overwrite);
 
         int writeLineNum = 0;
         int currLineNum = 0;
 
-        InputStreamReader inputStreamReader = null;
-        CsvReader reader = null;
         try {
-            inputStreamReader = HdfsWriter.getReader(hdfsWriterDTO.getFromFileName(), hdfsWriterDTO.getOriCharSet());
-            reader = new CsvReader(inputStreamReader, HdfsWriter.getDelim(hdfsWriterDTO.getFromLineDelimiter()));
             while (reader.readRecord()) {
                 currLineNum++;
                 if (currLineNum < startLine) {
@@ -114,14 +128,6 @@ public class HdfsTextWriter {
             throw new DtLoaderException("the" + currLineNum + "row data is abnormal, please check, data import failed", e);
         } finally {
             stream.close();
-
-            if (inputStreamReader != null) {
-                inputStreamReader.close();
-            }
-
-            if (reader != null) {
-                reader.close();
-            }
         }
 
         return writeLineNum;
@@ -136,24 +142,39 @@ public class HdfsTextWriter {
      * @throws IOException io异常
      */
     public static int writeByName(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO) throws IOException {
+        final Path p = new Path(hdfsWriterDTO.getHdfsDirPath() + "/" + UUID.randomUUID());
+        final CsvReader reader = HdfsWriter.getCsvReader(hdfsWriterDTO);
+        try {
+            return writeByName(source, hdfsWriterDTO, reader, p, hdfsWriterDTO.getStartLine(), null);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 按名称将 reader 中的数据写入指定文件
+     *
+     * @param source        数据源信息
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @param reader        源文件 reader，由调用方关闭
+     * @param p             写入的 hdfs 文件
+     * @param startLine     标题行所在的行，之前的行跳过
+     * @param header        标题行，为 null 时从 reader 中读取
+     * @return 写入数据条数
+     * @throws IOException io异常
+     */
+    static int writeByName(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO, CsvReader reader, Path p, int startLine, String[] header) throws IOException {
         HdfsSourceDTO hdfsSourceDTO = (HdfsSourceDTO) source;
         final boolean overwrite = false;
         final Configuration conf = HadoopConfUtil.getHdfsConf(hdfsSourceDTO.getDefaultFS(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getKerberosConfig());
         final FileSystem fs = FileSystem.get(conf);
-        final String hdfsPath = hdfsWriterDTO.getHdfsDirPath() + "/" + UUID.randomUUID();
-        final Path p = new Path(hdfsPath);
         final OutputStream stream = fs.create(p, overwrite);
 
         int currLineNum = 0;
         int writeLineNum = 0;
-        int startLine = hdfsWriterDTO.getStartLine();
-        final List<Integer> indexList = Lists.newArrayList();
+        List<Integer> indexList = header == null ? Lists.newArrayList() : getIndexList(hdfsWriterDTO, header);
 
-        InputStreamReader inputStreamReader = null;
-        CsvReader reader = null;
         try {
-            inputStreamReader = HdfsWriter.getReader(hdfsWriterDTO.getFromFileName(), hdfsWriterDTO.getOriCharSet());
-            reader = new CsvReader(inputStreamReader, HdfsWriter.getDelim(hdfsWriterDTO.getFromLineDelimiter()));
             while (reader.readRecord()) {
                 if (currLineNum < (startLine - 1)) {
                     currLineNum++;
@@ -163,27 +184,7 @@ public class HdfsTextWriter {
                 final String[] columnArr = reader.getValues();
                 // 首行为标题行
                 if (currLineNum == (startLine - 1)) {
-                    // 计算出需要使用的索引位置
-                    for (final HDFSImportColumn importColum : hdfsWriterDTO.getKeyList()) {
-                        if (StringUtils.isBlank(importColum.getKey())) {
-                            indexList.add(-1);
-                        } else {
-                            boolean isMatch = false;
-                            for (int i = 0; i < columnArr.length; i++) {
-                                final String name = columnArr[i];
-                                if (name.equals(importColum.getKey())) {
-                                    indexList.add(i);
-                                    isMatch = true;
-                                    break;
-                                }
-                            }
-
-                            if (!isMatch) {
-                                indexList.add(-1);
-                            }
-                        }
-                    }
-
+                    indexList = getIndexList(hdfsWriterDTO, columnArr);
                     currLineNum++;
                     continue;
                 }
@@ -222,16 +223,39 @@ public class HdfsTextWriter {
             throw new DtLoaderException("(The" + currLineNum + "row data is abnormal, please check, data import failed)", e);
         } finally {
             stream.close();
+        }
+        return writeLineNum;
+    }
 
-            if (inputStreamReader != null) {
-                inputStreamReader.close();
-            }
+    /**
+     * 根据标题行计算出需要使用的索引位置，未匹配到的字段为 -1
+     *
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @param columnArr     标题行
+     * @return 索引位置
+     */
+    private static List<Integer> getIndexList(HdfsWriterDTO hdfsWriterDTO, String[] columnArr) {
+        final List<Integer> indexList = Lists.newArrayList();
+        for (final HDFSImportColumn importColum : hdfsWriterDTO.getKeyList()) {
+            if (StringUtils.isBlank(importColum.getKey())) {
+                indexList.add(-1);
+            } else {
+                boolean isMatch = false;
+                for (int i = 0; i < columnArr.length; i++) {
+                    final String name = columnArr[i];
+                    if (name.equals(importColum.getKey())) {
+                        indexList.add(i);
+                        isMatch = true;
+                        break;
+                    }
+                }
 
-            if (reader != null) {
-                reader.close();
+                if (!isMatch) {
+                    indexList.add(-1);
+                }
             }
         }
-        return writeLineNum;
+        return indexList;
     }
 
     private static String transformColumn(final List<ColumnMetaDTO> tableColumns, final List<HDFSImportColumn> keyList, final String[] columnValArr, final String delimiter, HdfsWriterDTO hdfsWriterDTO) throws ParseException {
@@ -65,6 +65,21 @@ public class FileSystemUtils {
         }
     }
 
+    /**
+     * 通过 rename 移动文件或文件夹，只修改 namenode 元数据，不复制数据
+     */
+    public static void move(Path sourcePath, Path targetPath, FileSystem fs) throws IOException {
+        if (!isExists(fs, sourcePath)) {
+            throw new DtLoaderException(sourcePath.toString() + " is not exists");
+        }
+        if (isExists(fs, targetPath)) {
+            throw new DtLoaderException(targetPath.toString() + " is already exists");
+        }
+        if (!fs.rename(sourcePath, targetPath)) {
+            throw new DtLoaderException("move " + sourcePath.toString() + " to " + targetPath.toString() + " failed");
+        }
+    }
+
     public static boolean isExists(FileSystem fs, Path path) throws IOException {
         return fs.exists(path);
     }
@@ -395,10 +395,13 @@ public class HiveClient extends AbsRdbmsClient {
         transformDelim(table);
         Configuration conf = HadoopConfUtil.getHdfsConf(hive1SourceDTO.getDefaultFS(), hive1SourceDTO.getConfig(), hive1SourceDTO.getKerberosConfig());
         List<String> finalPartitions = partitions;
+        // 并行读取配置，兼容没有该字段的老版本 core
+        int parallelism = ReflectUtil.fieldExists(SqlQueryDTO.class, "readParallelism") && Objects.nonNull(queryDTO.getReadParallelism()) ? queryDTO.getReadParallelism() : 1;
+        boolean ordered = !ReflectUtil.fieldExists(SqlQueryDTO.class, "orderedRead") || !Boolean.FALSE.equals(queryDTO.getOrderedRead());
         return KerberosLoginUtil.loginWithUGI(hive1SourceDTO.getKerberosConfig()).doAs(
                 (PrivilegedAction<IDownloader>) () -> {
                     try {
-                        return createDownloader(table.getStoreType(), conf, table.getPath(), commonColumn, table.getDelim(), partitionColumns, needIndex, queryDTO.getPartitionColumns(), finalPartitions, hive1SourceDTO.getKerberosConfig());
+                        return createDownloader(table.getStoreType(), conf, table.getPath(), commonColumn, table.getDelim(), partitionColumns, needIndex, queryDTO.getPartitionColumns(), finalPartitions, hive1SourceDTO.getKerberosConfig(), parallelism, ordered);
                     } catch (Exception e) {
                         throw new DtLoaderException(String.format("create downloader exception,%s", e.getMessage()), e);
                     }
@@ -434,6 +437,8 @@ public class HiveClient extends AbsRdbmsClient {
      * @param filterPartitions 需要查询的分区
      * @param partitions       全部分区
      * @param kerberosConfig   kerberos 配置
+     * @param parallelism      并行读取线程数，大于 1 时开启并行读取
+     * @param ordered          并行读取时是否保证数据顺序
      * @return downloader
      * @throws Exception 异常信息
      */
@@ -441,7 +446,7 @@ public class HiveClient extends AbsRdbmsClient {
                                                   List<ColumnMetaDTO> columns, String fieldDelimiter,
                                                   ArrayList<String> partitionColumns, List<Integer> needIndex,
                                                   Map<String, String> filterPartitions, List<String> partitions,
-                                                  Map<String, Object> kerberosConfig) throws Exception {
+                                                  Map<String, Object> kerberosConfig, int parallelism, boolean ordered) throws Exception {
         // 根据存储格式创建对应的hiveDownloader
         if (StringUtils.isBlank(storageMode)) {
             throw new DtLoaderException("Hive table reads for this storage type are not supported");
@@ -451,6 +456,7 @@ public class HiveClient extends AbsRdbmsClient {
         if (StringUtils.containsIgnoreCase(storageMode, "text")) {
             HiveTextDownload hiveTextDownload = new HiveTextDownload(conf, tableLocation, columnNames,
                     fieldDelimiter, partitionColumns, filterPartitions, needIndex, partitions, kerberosConfig);
+            hiveTextDownload.setParallel(parallelism, ordered);
             hiveTextDownload.configure();
             return hiveTextDownload;
         }
@@ -458,6 +464,7 @@ public class HiveClient extends AbsRdbmsClient {
         if (StringUtils.containsIgnoreCase(storageMode, "orc")) {
             HiveORCDownload hiveORCDownload = new HiveORCDownload(conf, tableLocation, columnNames,
                     partitionColumns, needIndex, partitions, kerberosConfig);
+            hiveORCDownload.setParallel(parallelism, ordered);
             hiveORCDownload.configure();
             return hiveORCDownload;
         }
@@ -465,6 +472,7 @@ public class HiveClient extends AbsRdbmsClient {
         if (StringUtils.containsIgnoreCase(storageMode, "parquet")) {
             HiveParquetDownload hiveParquetDownload = new HiveParquetDownload(conf, tableLocation, columns,
                     partitionColumns, needIndex, filterPartitions, partitions, kerberosConfig);
+            hiveParquetDownload.setParallel(parallelism, ordered);
             hiveParquetDownload.configure();
             return hiveParquetDownload;
         }
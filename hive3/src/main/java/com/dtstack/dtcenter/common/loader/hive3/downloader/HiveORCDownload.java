@@ -19,10 +19,10 @@
 package com.dtstack.dtcenter.common.loader.hive3.downloader;
 
 import com.alibaba.fastjson.JSON;
+import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsBatchReader;
 import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsOperator;
-import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
+import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsParallelReader;
 import com.dtstack.dtcenter.loader.IDownloader;
-import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.google.common.collect.Lists;
 import jodd.util.StringUtil;
 import lombok.extern.slf4j.Slf4j;
@@ -45,7 +45,6 @@ import org.apache.hadoop.mapred.RecordReader;
 import org.apache.hadoop.mapred.Reporter;
 
 import java.io.IOException;
-import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -88,6 +87,11 @@ public class HiveORCDownload implements IDownloader {
 
     private final Map<String, Object> kerberosConfig;
 
+    /**
+     * 批量读取，一批数据只进入一次 kerberos 认证上下文
+     */
+    private final HdfsBatchReader<List<String>> batchReader;
+
     /**
      * 需要查询字段的索引
      */
@@ -98,6 +102,18 @@ public class HiveORCDownload implements IDownloader {
      */
     private final List<String> partitions;
 
+    /**
+     * 并行读取线程数，大于 1 时开启并行读取
+     */
+    private int parallelism = 1;
+
+    /**
+     * 并行读取时是否保证数据顺序
+     */
+    private boolean ordered = true;
+
+    private HdfsParallelReader<InputSplit> parallelReader;
+
     public HiveORCDownload(Configuration configuration, String tableLocation, List<String> columnNames,
                            List<String> partitionColumns, List<Integer> needIndex,
                            List<String> partitions, Map<String, Object> kerberosConfig){
@@ -108,6 +124,7 @@ public class HiveORCDownload implements IDownloader {
         this.needIndex = needIndex;
         this.partitions = partitions;
         this.kerberosConfig = kerberosConfig;
+        this.batchReader = new HdfsBatchReader<>(kerberosConfig, () -> recordReader != null && nextRecord(), this::readNextWithKerberos);
     }
 
     @Override
@@ -126,6 +143,9 @@ public class HiveORCDownload implements IDownloader {
         }
         FileInputFormat.setInputPaths(conf, targetFilePath);
         splits = inputFormat.getSplits(conf, SPLIT_NUM);
+        if (parallelism > 1) {
+            return configureParallel();
+        }
         if(ArrayUtils.isNotEmpty(splits)){
             boolean isInit = initRecordReader();
             if (isInit) {
@@ -141,6 +161,67 @@ public class HiveORCDownload implements IDownloader {
         return true;
     }
 
+    /**
+     * 设置并行读取，需要在 configure 之前调用
+     *
+     * @param parallelism 并行读取线程数，大于 1 时开启
+     * @param ordered     是否保证与串行读取一致的数据顺序
+     */
+    public void setParallel(int parallelism, boolean ordered) {
+        this.parallelism = parallelism;
+        this.ordered = ordered;
+    }
+
+    /**
+     * 过滤掉不存在分区的切片，交给读取线程预读
+     *
+     * @return 是否初始化成功
+     */
+    private boolean configureParallel() throws Exception {
+        List<InputSplit> readSplits = Lists.newArrayList();
+        if (ArrayUtils.isNotEmpty(splits)) {
+            for (InputSplit split : splits) {
+                if (isPartitionExists(((OrcSplit) split).getPath().toString())) {
+                    readSplits.add(split);
+                }
+            }
+        }
+        if (CollectionUtils.isNotEmpty(readSplits)) {
+            Properties p = new Properties();
+            p.setProperty("columns", StringUtil.join(columnNames,","));
+            orcSerde.initialize(conf, p);
+            this.inspector = (StructObjectInspector) orcSerde.getObjectInspector();
+            fields = inspector.getAllStructFieldRefs();
+        }
+        parallelReader = new HdfsParallelReader<>(readSplits, this::openSplit, parallelism, ordered, kerberosConfig);
+        parallelReader.start();
+        return true;
+    }
+
+    /**
+     * 在读取线程中打开切片，不使用下载器的共享状态
+     *
+     * @param split orc 切片
+     * @return 行迭代器
+     */
+    private HdfsParallelReader.RowIterator openSplit(InputSplit split) throws IOException {
+        RecordReader splitReader = new OrcInputFormat().getRecordReader(split, new JobConf(conf), Reporter.NULL);
+        Object splitKey = splitReader.createKey();
+        Object splitValue = splitReader.createValue();
+        List<String> partData = getPartitionData(split);
+        return new HdfsParallelReader.RowIterator() {
+            @Override
+            public List<String> next() throws IOException {
+                return splitReader.next(splitKey, splitValue) ? buildRow(splitValue, partData) : null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                splitReader.close();
+            }
+        };
+    }
+
     @Override
     public List<String> getMetaInfo(){
         List<String> metaInfo = new ArrayList<>(columnNames);
@@ -152,26 +233,42 @@ public class HiveORCDownload implements IDownloader {
 
     @Override
     public List<String> readNext() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<List<String>>) ()->{
-                    try {
-                        return readNextWithKerberos();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Abnormal reading file,%s", e.getMessage()), e);
-                    }
-                });
+        if (parallelReader != null) {
+            return parallelReader.next();
+        }
+        return batchReader.next();
+    }
+
+    @Override
+    public List<List<String>> readNextBatch(int maxRows) {
+        if (parallelReader != null) {
+            return parallelReader.nextBatch(maxRows);
+        }
+        return batchReader.readNextBatch(maxRows);
     }
 
     public List<String> readNextWithKerberos() {
-        List<String> row = new ArrayList<>();
+        return buildRow(value, getPartitionData(currentSplit));
+    }
 
-        // 分区字段的值
+    /**
+     * 获取切片的分区字段的值
+     *
+     * @param split orc 切片
+     * @return 分区字段的值
+     */
+    private List<String> getPartitionData(InputSplit split) {
         List<String> partitions = Lists.newArrayList();
         if(CollectionUtils.isNotEmpty(partitionColumns)){
-            String path = ((OrcSplit)currentSplit).getPath().toString();
+            String path = ((OrcSplit)split).getPath().toString();
             List<String> partData = HdfsOperator.parsePartitionDataFromUrl(path,partitionColumns);
             partitions.addAll(partData);
         }
+        return partitions;
+    }
+
+    private List<String> buildRow(Object struct, List<String> partitions) {
+        List<String> row = new ArrayList<>();
 
         // needIndex不为空表示获取指定字段
         if (CollectionUtils.isNotEmpty(needIndex)) {
@@ -186,7 +283,7 @@ public class HiveORCDownload implements IDownloader {
                         row.add(null);
                     }
                 } else if (index < columnNames.size()) {
-                    row.add(getFieldByIndex(index));
+                    row.add(getFieldByIndex(struct, index));
                 } else {
                     row.add(null);
                 }
@@ -194,7 +291,7 @@ public class HiveORCDownload implements IDownloader {
             // needIndex为空表示获取所有字段
         } else {
             for (int index = 0; index < columnNames.size(); index++) {
-                row.add(getFieldByIndex(index));
+                row.add(getFieldByIndex(struct, index));
             }
             if(CollectionUtils.isNotEmpty(partitionColumns)){
                 row.addAll(partitions);
@@ -205,12 +302,12 @@ public class HiveORCDownload implements IDownloader {
     }
 
     // 根据index获取字段值
-    private String getFieldByIndex(Integer index) {
+    private String getFieldByIndex(Object struct, Integer index) {
         if (index > fields.size() -1) {
             return null;
         }
         StructField field = fields.get(index);
-        Object data = inspector.getStructFieldData(value, field);
+        Object data = inspector.getStructFieldData(struct, field);
         // 处理 Map 类型
         if (data instanceof Map) {
             return convertMap((Map) data);
@@ -268,18 +365,17 @@ public class HiveORCDownload implements IDownloader {
 
     @Override
     public boolean reachedEnd() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<Boolean>) ()->{
-                    try {
-                        return recordReader == null || !nextRecord();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Download file is abnormal,%s", e.getMessage()), e);
-                    }
-                });
+        if (parallelReader != null) {
+            return !parallelReader.hasNext();
+        }
+        return batchReader.reachedEnd();
     }
 
     @Override
     public boolean close() throws IOException {
+        if (parallelReader != null) {
+            parallelReader.close();
+        }
         if(recordReader != null){
             recordReader.close();
         }
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.hbase;
+
+import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * hbase 按 region 并行扫描
+ * <p>
+ * 按 region 边界拆分扫描范围，多个线程依次领取 region 并行扫描，扫描线程中直接将 Result 转换为结果行，
+ * 结果按 region 顺序合并，与单线程扫描的顺序一致；前面的 region 行数已满足 limit 时后面的 region 停止扫描
+ *
+ * @author ：wangchuan
+ * date：Created in 下午2:00 2022/6/13
+ * company: www.dtstack.com
+ */
+public class HbaseRegionScanner {
+
+    /**
+     * 默认扫描并行度
+     */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    /**
+     * 默认每次 rpc 返回的行数
+     */
+    public static final int DEFAULT_CACHING = 1000;
+
+    /**
+     * 最大扫描并行度
+     */
+    private static final int MAX_PARALLELISM = 16;
+
+    private static final ThreadPoolExecutor SCAN_EXECUTOR = new ThreadPoolExecutor(MAX_PARALLELISM, MAX_PARALLELISM, 60L,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DtClassThreadFactory("hbaseRegionScan"));
+
+    static {
+        SCAN_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 并行扫描
+     *
+     * @param connection  hbase 连接
+     * @param tableName   表名
+     * @param template    扫描条件，包含列、过滤器、起止 rowkey 及 caching、batch
+     * @param limit       最多返回的行数
+     * @param parallelism 并行度
+     * @param converter   结果行转换，在扫描线程中执行
+     * @param <T>         结果行类型
+     * @return 按 rowkey 顺序的结果行
+     * @throws IOException 扫描异常
+     */
+    public static <T> List<T> scan(Connection connection, TableName tableName, Scan template, long limit, int parallelism,
+                                   Function<Result, T> converter) throws IOException {
+        List<Scan> regionScans = splitByRegion(connection, tableName, template);
+        List<List<T>> regionRows = new ArrayList<>(regionScans.size());
+        for (int i = 0; i < regionScans.size(); i++) {
+            regionRows.add(new ArrayList<>());
+        }
+        RegionProgress progress = new RegionProgress(regionScans.size(), limit);
+        AtomicInteger nextRegion = new AtomicInteger();
+        int workerNum = Math.min(regionScans.size(), Math.max(1, Math.min(parallelism, MAX_PARALLELISM)));
+        if (workerNum <= 1) {
+            runWorker(connection, tableName, regionScans, nextRegion, progress, converter, regionRows);
+        } else {
+            List<Future<?>> futures = new ArrayList<>(workerNum);
+            for (int i = 0; i < workerNum; i++) {
+                futures.add(SCAN_EXECUTOR.submit(() -> {
+                    runWorker(connection, tableName, regionScans, nextRegion, progress, converter, regionRows);
+                    return null;
+                }));
+            }
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DtLoaderException("hbase region scan is interrupted", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new DtLoaderException(String.format("hbase region scan error: %s", cause.getMessage()), cause);
+            } finally {
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+        List<T> rows = new ArrayList<>();
+        for (List<T> regionRow : regionRows) {
+            for (T row : regionRow) {
+                if (rows.size() >= limit) {
+                    return rows;
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static <T> void runWorker(Connection connection, TableName tableName, List<Scan> regionScans, AtomicInteger nextRegion,
+                                      RegionProgress progress, Function<Result, T> converter, List<List<T>> regionRows) throws IOException {
+        int region;
+        while ((region = nextRegion.getAndIncrement()) < regionScans.size()) {
+            List<T> rows = regionRows.get(region);
+            try {
+                if (!progress.shouldStop(0)) {
+                    scanRegion(connection, tableName, regionScans.get(region), progress, converter, rows);
+                }
+            } finally {
+                progress.done(region, rows.size());
+            }
+        }
+    }
+
+    /**
+     * 扫描单个 region，设置 batch 时一行会拆分为多个 Result，合并后再转换
+     */
+    private static <T> void scanRegion(Connection connection, TableName tableName, Scan scan, RegionProgress progress,
+                                       Function<Result, T> converter, List<T> rows) throws IOException {
+        try (Table table = connection.getTable(tableName);
+             ResultScanner scanner = table.getScanner(scan)) {
+            List<Cell> cells = new ArrayList<>();
+            byte[] currentRow = null;
+            for (Result result : scanner) {
+                if (result.isEmpty()) {
+                    continue;
+                }
+                if (currentRow != null && !Bytes.equals(currentRow, result.getRow())) {
+                    rows.add(converter.apply(Result.create(cells)));
+                    cells = new ArrayList<>();
+                    if (progress.shouldStop(rows.size())) {
+                        return;
+                    }
+                }
+                currentRow = result.getRow();
+                Collections.addAll(cells, result.rawCells());
+            }
+            if (currentRow != null) {
+                rows.add(converter.apply(Result.create(cells)));
+            }
+        }
+    }
+
+    /**
+     * 按 region 边界拆分扫描范围
+     */
+    private static List<Scan> splitByRegion(Connection connection, TableName tableName, Scan template) throws IOException {
+        Pair<byte[][], byte[][]> startEndKeys;
+        try (RegionLocator locator = connection.getRegionLocator(tableName)) {
+            startEndKeys = locator.getStartEndKeys();
+        }
+        byte[] startRow = template.getStartRow();
+        byte[] stopRow = template.getStopRow();
+        List<Scan> scans = new ArrayList<>(startEndKeys.getFirst().length);
+        for (int i = 0; i < startEndKeys.getFirst().length; i++) {
+            byte[] regionStart = startEndKeys.getFirst()[i];
+            byte[] regionEnd = startEndKeys.getSecond()[i];
+            // 跳过与扫描范围没有交集的 region
+            if (stopRow.length > 0 && Bytes.compareTo(regionStart, stopRow) >= 0) {
+                continue;
+            }
+            if (regionEnd.length > 0 && Bytes.compareTo(regionEnd, startRow) <= 0) {
+                continue;
+            }
+            Scan scan = new Scan(template);
+            scan.setStartRow(Bytes.compareTo(regionStart, startRow) > 0 ? regionStart : startRow);
+            boolean useRegionEnd = stopRow.length == 0 || (regionEnd.length > 0 && Bytes.compareTo(regionEnd, stopRow) < 0);
+            scan.setStopRow(useRegionEnd ? regionEnd : stopRow);
+            scans.add(scan);
+        }
+        return scans;
+    }
+
+    /**
+     * region 扫描进度，记录从第一个 region 开始连续完成的 region 的总行数
+     */
+    private static class RegionProgress {
+
+        private final boolean[] done;
+
+        private final long[] counts;
+
+        private final long limit;
+
+        private int finishedPrefix = 0;
+
+        private volatile long finishedPrefixCount = 0;
+
+        private RegionProgress(int regionNum, long limit) {
+            this.done = new boolean[regionNum];
+            this.counts = new long[regionNum];
+            this.limit = limit;
+        }
+
+        private synchronized void done(int region, long count) {
+            done[region] = true;
+            counts[region] = count;
+            long prefixCount = finishedPrefixCount;
+            while (finishedPrefix < done.length && done[finishedPrefix]) {
+                prefixCount += counts[finishedPrefix++];
+            }
+            finishedPrefixCount = prefixCount;
+        }
+
+        /**
+         * 当前 region 或前面已完成的 region 行数满足 limit 时停止扫描，正在扫描的 region 总在已完成前缀之后
+         */
+        private boolean shouldStop(long regionCount) {
+            return regionCount >= limit || finishedPrefixCount >= limit || Thread.currentThread().isInterrupted();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.dtstack.dtcenter.common.loader.kafka.pool;
+
+import com.dtstack.dtcenter.common.loader.common.Pool;
+import com.dtstack.dtcenter.loader.dto.source.KafkaSourceDTO;
+import kafka.admin.AdminClient;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+/**
+ * kafka admin client 连接池，用于查询消费者组等管理信息
+ *
+ * @author ：wangchuan
+ * date：Created in 上午11:20 2022/6/8
+ * company: www.dtstack.com
+ */
+public class KafkaAdminPool extends Pool<AdminClient> {
+
+    public KafkaAdminPool(GenericObjectPoolConfig config, KafkaSourceDTO sourceDTO) {
+        super(config, new KafkaAdminPoolFactory(sourceDTO));
+    }
+}
@@ -0,0 +1,204 @@
+package com.dtstack.dtcenter.common.loader.kafka.pool;
+
+import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
+import com.dtstack.dtcenter.common.loader.common.Pool;
+import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
+import com.dtstack.dtcenter.loader.cache.pool.config.PoolConfig;
+import com.dtstack.dtcenter.loader.dto.source.KafkaSourceDTO;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections.MapUtils;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * kafka 连接池管理，按数据源维度缓存 consumer 和 admin client 连接池
+ * <p>
+ * 开启 kerberos 时 jaas 配置依赖系统变量，多个数据源之间会相互覆盖，不使用连接池；
+ * 连接池没有使用中的对象且闲置超过 poolIdleTimeout 后关闭
+ *
+ * @author ：wangchuan
+ * date：Created in 上午11:20 2022/6/8
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class KafkaPoolManager {
+
+    private static final KafkaPoolManager MANAGER = new KafkaPoolManager();
+
+    private static final String KAFKA_KEY = "url:%s,brokerUrls:%s,username:%s,password:%s";
+
+    /**
+     * 闲置连接池检查间隔，单位：秒
+     */
+    private static final long EVICT_INTERVAL_SECONDS = 60;
+
+    /**
+     * 数据源 key 摘要 - 连接池，key 中包含密码，只保存摘要
+     */
+    private final Map<String, ManagedPool<KafkaConsumerPool>> consumerPoolMap = new ConcurrentHashMap<>();
+
+    private final Map<String, ManagedPool<KafkaAdminPool>> adminPoolMap = new ConcurrentHashMap<>();
+
+    private KafkaPoolManager() {
+        ScheduledExecutorService evictor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new DtClassThreadFactory("kafkaPoolEvictor").newThread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdlePools, EVICT_INTERVAL_SECONDS, EVICT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static KafkaPoolManager getInstance() {
+        return MANAGER;
+    }
+
+    /**
+     * 获取 consumer 连接池
+     *
+     * @param sourceDTO 数据源信息
+     * @return consumer 连接池，未开启连接池时返回 null
+     */
+    public KafkaConsumerPool getConsumerPool(KafkaSourceDTO sourceDTO) {
+        if (!isOpenPool(sourceDTO)) {
+            return null;
+        }
+        return getPool(consumerPoolMap, sourceDTO, () -> {
+            KafkaConsumerPool pool = new KafkaConsumerPool(buildPoolConfig(sourceDTO.getPoolConfig()), sourceDTO);
+            pool.addObjects(sourceDTO.getPoolConfig().getMinimumIdle());
+            log.info("Init kafka consumer pool, brokerUrls : {}, username : {}", sourceDTO.getBrokerUrls(), sourceDTO.getUsername());
+            return pool;
+        });
+    }
+
+    /**
+     * 获取 admin client 连接池
+     *
+     * @param sourceDTO 数据源信息
+     * @return admin client 连接池，未开启连接池时返回 null
+     */
+    public KafkaAdminPool getAdminPool(KafkaSourceDTO sourceDTO) {
+        if (!isOpenPool(sourceDTO)) {
+            return null;
+        }
+        return getPool(adminPoolMap, sourceDTO, () -> {
+            KafkaAdminPool pool = new KafkaAdminPool(buildPoolConfig(sourceDTO.getPoolConfig()), sourceDTO);
+            log.info("Init kafka admin client pool, brokerUrls : {}, username : {}", sourceDTO.getBrokerUrls(), sourceDTO.getUsername());
+            return pool;
+        });
+    }
+
+    private <P extends Pool<?>> P getPool(Map<String, ManagedPool<P>> poolMap, KafkaSourceDTO sourceDTO, Supplier<P> creator) {
+        String name = String.format("brokerUrls:%s,username:%s", sourceDTO.getBrokerUrls(), sourceDTO.getUsername());
+        Long poolIdleTimeout = ReflectUtil.fieldExists(PoolConfig.class, "poolIdleTimeout") ? sourceDTO.getPoolConfig().getPoolIdleTimeout() : null;
+        ManagedPool<P> pool = poolMap.computeIfAbsent(digest(getPrimaryKey(sourceDTO)),
+                key -> new ManagedPool<>(name, creator.get(), Optional.ofNullable(poolIdleTimeout).orElse(0L)));
+        pool.lastAccessTime = System.currentTimeMillis();
+        return pool.pool;
+    }
+
+    /**
+     * 关闭闲置超时的连接池
+     */
+    private void evictIdlePools() {
+        try {
+            long now = System.currentTimeMillis();
+            evictIdlePools(consumerPoolMap, now);
+            evictIdlePools(adminPoolMap, now);
+        } catch (Throwable e) {
+            log.error("evict idle kafka pool error: {}", e.getMessage(), e);
+        }
+    }
+
+    private <P extends Pool<?>> void evictIdlePools(Map<String, ManagedPool<P>> poolMap, long now) {
+        for (Map.Entry<String, ManagedPool<P>> entry : poolMap.entrySet()) {
+            ManagedPool<P> pool = entry.getValue();
+            if (pool.idleTimeout > 0 && pool.isIdle() && now - pool.lastAccessTime > pool.idleTimeout
+                    && poolMap.remove(entry.getKey(), pool)) {
+                log.info("close idle kafka pool: {}", pool.name);
+                pool.pool.destroy();
+            }
+        }
+    }
+
+    /**
+     * 是否开启连接池，传入连接池配置且未开启 kerberos 时开启
+     *
+     * @param sourceDTO 数据源信息
+     * @return 是否开启
+     */
+    private boolean isOpenPool(KafkaSourceDTO sourceDTO) {
+        return ReflectUtil.fieldExists(KafkaSourceDTO.class, "poolConfig")
+                && Objects.nonNull(sourceDTO.getPoolConfig())
+                && MapUtils.isEmpty(sourceDTO.getKerberosConfig());
+    }
+
+    private GenericObjectPoolConfig buildPoolConfig(PoolConfig poolConfig) {
+        GenericObjectPoolConfig config = new GenericObjectPoolConfig();
+        config.setMaxWaitMillis(poolConfig.getConnectionTimeout());
+        config.setMinIdle(poolConfig.getMinimumIdle());
+        config.setMaxIdle(poolConfig.getMaximumPoolSize());
+        config.setMaxTotal(poolConfig.getMaximumPoolSize());
+        config.setTimeBetweenEvictionRunsMillis(poolConfig.getIdleTimeout() / 10);
+        config.setMinEvictableIdleTimeMillis(poolConfig.getIdleTimeout());
+        // 闲置实例校验标识，如果校验失败会删除当前实例
+        config.setTestWhileIdle(Boolean.TRUE);
+        return config;
+    }
+
+    private String getPrimaryKey(KafkaSourceDTO sourceDTO) {
+        return String.format(KAFKA_KEY, sourceDTO.getUrl(), sourceDTO.getBrokerUrls(), sourceDTO.getUsername(), sourceDTO.getPassword());
+    }
+
+    private static String digest(String poolKey) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = messageDigest.digest(poolKey.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new DtLoaderException(String.format("digest kafka pool key error : %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 被管理的连接池，记录最后访问时间
+     */
+    private static class ManagedPool<P extends Pool<?>> {
+
+        private final String name;
+
+        private final P pool;
+
+        private final long idleTimeout;
+
+        private volatile long lastAccessTime = System.currentTimeMillis();
+
+        private ManagedPool(String name, P pool, long idleTimeout) {
+            this.name = name;
+            this.pool = pool;
+            this.idleTimeout = idleTimeout;
+        }
+
+        /**
+         * 没有使用中的对象及等待获取对象的线程
+         */
+        private boolean isIdle() {
+            return pool.getNumActive() <= 0 && pool.getNumWaiters() <= 0;
+        }
+    }
+}
@@ -458,10 +458,13 @@ public class InceptorClient extends AbsRdbmsClient {
         }
         Configuration conf = HadoopConfUtil.getHdfsConf(inceptorSourceDTO.getDefaultFS(), inceptorSourceDTO.getConfig(), inceptorSourceDTO.getKerberosConfig());
         List<String> finalPartitions = partitions;
+        // 并行读取配置，兼容没有该字段的老版本 core
+        int parallelism = ReflectUtil.fieldExists(SqlQueryDTO.class, "readParallelism") && Objects.nonNull(queryDTO.getReadParallelism()) ? queryDTO.getReadParallelism() : 1;
+        boolean ordered = !ReflectUtil.fieldExists(SqlQueryDTO.class, "orderedRead") || !Boolean.FALSE.equals(queryDTO.getOrderedRead());
         return KerberosLoginUtil.loginWithUGI(inceptorSourceDTO.getKerberosConfig()).doAs(
                 (PrivilegedAction<IDownloader>) () -> {
                     try {
-                        return createDownloader(table.getStoreType(), conf, table.getPath(), commonColumn, table.getDelim(), partitionColumns, needIndex, queryDTO.getPartitionColumns(), finalPartitions, inceptorSourceDTO.getKerberosConfig());
+                        return createDownloader(table.getStoreType(), conf, table.getPath(), commonColumn, table.getDelim(), partitionColumns, needIndex, queryDTO.getPartitionColumns(), finalPartitions, inceptorSourceDTO.getKerberosConfig(), parallelism, ordered);
                     } catch (Exception e) {
                         throw new DtLoaderException(String.format("create downloader exception,%s", e.getMessage()), e);
                     }
@@ -482,6 +485,8 @@ public class InceptorClient extends AbsRdbmsClient {
      * @param filterPartitions 需要查询的分区
      * @param partitions       全部分区
      * @param kerberosConfig   kerberos 配置
+     * @param parallelism      并行读取线程数，大于 1 时开启并行读取
+     * @param ordered          并行读取时是否保证数据顺序
      * @return downloader
      * @throws Exception 异常信息
      */
@@ -489,7 +494,7 @@ public class InceptorClient extends AbsRdbmsClient {
                                          String fieldDelimiter,
                                          ArrayList<String> partitionColumns, List<Integer> needIndex,
                                          Map<String, String> filterPartitions, List<String> partitions,
-                                         Map<String, Object> kerberosConfig) throws Exception {
+                                         Map<String, Object> kerberosConfig, int parallelism, boolean ordered) throws Exception {
         // 根据存储格式创建对应的inceptorDownloader
         if (StringUtils.isBlank(storageMode)) {
             throw new DtLoaderException("inceptor table reads for this storage type are not supported");
@@ -498,6 +503,7 @@ public class InceptorClient extends AbsRdbmsClient {
         if (StringUtils.containsIgnoreCase(storageMode, "text")) {
             InceptorTextDownload inceptorTextDownload = new InceptorTextDownload(conf, tableLocation, columnNames,
                     fieldDelimiter, partitionColumns, filterPartitions, needIndex, kerberosConfig);
+            inceptorTextDownload.setParallel(parallelism, ordered);
             inceptorTextDownload.configure();
             return inceptorTextDownload;
         }
@@ -505,6 +511,7 @@ public class InceptorClient extends AbsRdbmsClient {
         if (StringUtils.containsIgnoreCase(storageMode, "orc")) {
             InceptorORCDownload inceptorORCDownload = new InceptorORCDownload(conf, tableLocation, columnNames,
                     partitionColumns, needIndex, partitions, kerberosConfig);
+            inceptorORCDownload.setParallel(parallelism, ordered);
             inceptorORCDownload.configure();
             return inceptorORCDownload;
         }
@@ -512,6 +519,7 @@ public class InceptorClient extends AbsRdbmsClient {
         if (StringUtils.containsIgnoreCase(storageMode, "parquet")) {
             InceptorParquetDownload inceptorParquetDownload = new InceptorParquetDownload(conf, tableLocation, columns,
                     partitionColumns, needIndex, filterPartitions, partitions, kerberosConfig);
+            inceptorParquetDownload.setParallel(parallelism, ordered);
             inceptorParquetDownload.configure();
             return inceptorParquetDownload;
         }
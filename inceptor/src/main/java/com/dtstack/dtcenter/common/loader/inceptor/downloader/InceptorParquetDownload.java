@@ -1,13 +1,13 @@
 package com.dtstack.dtcenter.common.loader.inceptor.downloader;
 
 import com.dtstack.dtcenter.common.loader.common.utils.StringUtil;
+import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsBatchReader;
 import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsOperator;
-import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
+import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsParallelReader;
 import com.dtstack.dtcenter.common.loader.inceptor.GroupTypeIgnoreCase;
 import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
 import com.dtstack.dtcenter.common.loader.common.enums.ColumnType;
-import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.google.common.collect.Lists;
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
@@ -18,6 +18,7 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.PathFilter;
 import org.apache.parquet.example.data.Group;
 import org.apache.parquet.hadoop.ParquetReader;
 import org.apache.parquet.hadoop.example.GroupReadSupport;
@@ -29,7 +30,6 @@ import org.apache.parquet.schema.Type;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.security.PrivilegedAction;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -78,6 +78,11 @@ public class InceptorParquetDownload implements IDownloader {
 
     private final Map<String, Object> kerberosConfig;
 
+    /**
+     * 批量读取，一批数据只进入一次 kerberos 认证上下文
+     */
+    private final HdfsBatchReader<List<String>> batchReader;
+
     /**
      * 按分区下载
      */
@@ -90,6 +95,23 @@ public class InceptorParquetDownload implements IDownloader {
 
     private static final String IMPALA_INSERT_STAGING = "_impala_insert_staging";
 
+    /**
+     * 剔除隐藏系统文件和无关文件
+     */
+    private static final PathFilter PATH_FILTER = path -> !path.getName().startsWith(".") && !path.getName().startsWith("_SUCCESS") && !path.getName().startsWith(IMPALA_INSERT_STAGING) && !path.getName().startsWith("_common_metadata") && !path.getName().startsWith("_metadata");
+
+    /**
+     * 并行读取线程数，大于 1 时开启并行读取
+     */
+    private int parallelism = 1;
+
+    /**
+     * 并行读取时是否保证数据顺序
+     */
+    private boolean ordered = true;
+
+    private HdfsParallelReader<String> parallelReader;
+
     public InceptorParquetDownload(Configuration conf, String tableLocation, List<ColumnMetaDTO> columns, List<String> partitionColumns, List<Integer> needIndex, Map<String, String> filterPartition,
                                    List<String> partitions, Map<String, Object> kerberosConfig){
         this.conf = conf;
@@ -100,17 +122,74 @@ public class InceptorParquetDownload implements IDownloader {
         this.filterPartition = filterPartition;
         this.partitions = partitions;
         this.kerberosConfig = kerberosConfig;
+        this.batchReader = new HdfsBatchReader<>(kerberosConfig, () -> nextRecord(), this::readNextWithKerberos);
     }
 
     @Override
     public boolean configure() throws Exception {
         paths = Lists.newArrayList();
         FileSystem fs =  FileSystem.get(conf);
+        if (parallelism > 1) {
+            return configureParallel(fs);
+        }
         // 递归获取表路径下所有文件
         getAllPartitionPath(tableLocation, paths, fs);
         return true;
     }
 
+    /**
+     * 设置并行读取，需要在 configure 之前调用
+     *
+     * @param parallelism 并行读取线程数，大于 1 时开启
+     * @param ordered     是否保证与串行读取一致的数据顺序
+     */
+    public void setParallel(int parallelism, boolean ordered) {
+        this.parallelism = parallelism;
+        this.ordered = ordered;
+    }
+
+    /**
+     * 并行列出分区目录，每个文件作为一个切片交给读取线程预读
+     *
+     * @param fs HDFS 文件系统
+     * @return 是否初始化成功
+     */
+    private boolean configureParallel(FileSystem fs) throws IOException {
+        List<String> files = Lists.newArrayList();
+        for (String file : HdfsOperator.listAllFilePathParallel(fs, tableLocation, PATH_FILTER, parallelism)) {
+            // 如果分区不存在或者不需要该分区则进行跳过
+            if (isPartitionExists(file) && isRequiredPartition(file)) {
+                files.add(file);
+            }
+        }
+        parallelReader = new HdfsParallelReader<>(files, this::openFile, parallelism, ordered, kerberosConfig);
+        parallelReader.start();
+        return true;
+    }
+
+    /**
+     * 在读取线程中打开文件，不使用下载器的共享状态
+     *
+     * @param file 文件路径
+     * @return 行迭代器
+     */
+    private HdfsParallelReader.RowIterator openFile(String file) throws IOException {
+        ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), new Path(file)).withConf(conf).build();
+        List<String> partData = CollectionUtils.isNotEmpty(partitionColumns) ? HdfsOperator.parsePartitionDataFromUrl(file, partitionColumns) : null;
+        return new HdfsParallelReader.RowIterator() {
+            @Override
+            public List<String> next() throws IOException {
+                Group line = reader.read();
+                return line == null ? null : buildRow(line, partData);
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
     private void nextSplitRecordReader() throws Exception{
         if (currFileIndex > paths.size() - 1) {
             return;
@@ -119,7 +198,7 @@ public class InceptorParquetDownload implements IDownloader {
         currFile = paths.get(currFileIndex);
 
         // 如果分区不存在或者不需要该分区则进行跳过
-        if (!isPartitionExists() || !isRequiredPartition()){
+        if (!isPartitionExists(currFile) || !isRequiredPartition(currFile)){
             currFileIndex++;
             nextSplitRecordReader();
             return;
@@ -165,57 +244,62 @@ public class InceptorParquetDownload implements IDownloader {
 
     @Override
     public List<String> readNext() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<List<String>>) ()->{
-                    try {
-                        return readNextWithKerberos();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Abnormal reading file,%s", e.getMessage()), e);
-                    }
-                });
+        if (parallelReader != null) {
+            return parallelReader.next();
+        }
+        return batchReader.next();
+    }
+
+    @Override
+    public List<List<String>> readNextBatch(int maxRows) {
+        if (parallelReader != null) {
+            return parallelReader.nextBatch(maxRows);
+        }
+        return batchReader.readNextBatch(maxRows);
     }
 
     private List<String> readNextWithKerberos() {
-        List<String> line = null;
-        if (currentLine != null){
-            line = new ArrayList<>();
-            // needIndex不为空表示获取指定字段
-            if (CollectionUtils.isNotEmpty(needIndex)) {
-                for (Integer index : needIndex) {
-                    // 表示该字段为分区字段
-                    if (index > columns.size() - 1 && CollectionUtils.isNotEmpty(currentPartData)) {
-                        // 分区字段的索引
-                        int partIndex = index - columns.size();
-                        if (partIndex < currentPartData.size()) {
-                            line.add(currentPartData.get(partIndex));
-                        } else {
-                            line.add(null);
-                        }
-                    } else if (index < columns.size()) {
-                        Integer fieldIndex = isFieldExists(columns.get(index).getKey());
-                        if (fieldIndex != -1) {
-                            line.add(getFieldByIndex(columns.get(index).getType(), fieldIndex));
-                        }else {
-                            line.add(null);
-                        }
+        return currentLine == null ? null : buildRow(currentLine, currentPartData);
+    }
+
+    private List<String> buildRow(Group group, List<String> partData) {
+        List<String> line = new ArrayList<>();
+        // needIndex不为空表示获取指定字段
+        if (CollectionUtils.isNotEmpty(needIndex)) {
+            for (Integer index : needIndex) {
+                // 表示该字段为分区字段
+                if (index > columns.size() - 1 && CollectionUtils.isNotEmpty(partData)) {
+                    // 分区字段的索引
+                    int partIndex = index - columns.size();
+                    if (partIndex < partData.size()) {
+                        line.add(partData.get(partIndex));
                     } else {
                         line.add(null);
                     }
-                }
-                // needIndex为空表示获取所有字段
-            } else {
-                for (int index = 0; index < columns.size(); index++) {
-                    Integer fieldIndex = isFieldExists(columns.get(index).getKey());
+                } else if (index < columns.size()) {
+                    Integer fieldIndex = isFieldExists(group, columns.get(index).getKey());
                     if (fieldIndex != -1) {
-                        line.add(getFieldByIndex(columns.get(index).getType(), fieldIndex));
+                        line.add(getFieldByIndex(group, columns.get(index).getType(), fieldIndex));
                     }else {
                         line.add(null);
                     }
+                } else {
+                    line.add(null);
                 }
-                if(CollectionUtils.isNotEmpty(partitionColumns)){
-                    line.addAll(currentPartData);
+            }
+            // needIndex为空表示获取所有字段
+        } else {
+            for (int index = 0; index < columns.size(); index++) {
+                Integer fieldIndex = isFieldExists(group, columns.get(index).getKey());
+                if (fieldIndex != -1) {
+                    line.add(getFieldByIndex(group, columns.get(index).getType(), fieldIndex));
+                }else {
+                    line.add(null);
                 }
             }
+            if(CollectionUtils.isNotEmpty(partitionColumns)){
+                line.addAll(partData);
+            }
         }
         return line;
     }
@@ -226,11 +310,12 @@ public class InceptorParquetDownload implements IDownloader {
      * currentLine.getType().getFields()返回值的size可能会不同，导致数组越界异常!
      * bug 连接：http://redmine.prod.dtstack.cn/issues/33045
      *
+     * @param group      当前行
      * @param columnName 字段名
      * @return 字段索引
      */
-    private Integer isFieldExists (String columnName) {
-        GroupTypeIgnoreCase groupType = new GroupTypeIgnoreCase(currentLine.getType());
+    private Integer isFieldExists (Group group, String columnName) {
+        GroupTypeIgnoreCase groupType = new GroupTypeIgnoreCase(group.getType());
         if (!groupType.containsField(columnName)) {
             return -1;
         }
@@ -238,70 +323,70 @@ public class InceptorParquetDownload implements IDownloader {
     }
 
     // 获取指定index下的字段值
-    private String getFieldByIndex(String type, int index) {
+    private String getFieldByIndex(Group group, String type, int index) {
         Object data = null;
         ColumnType columnType = ColumnType.fromString(type);
 
         try {
-            if (index == -1 || currentLine.getFieldRepetitionCount(index) == 0) {
+            if (index == -1 || group.getFieldRepetitionCount(index) == 0) {
                 return null;
             }
 
-            Type colSchemaType = currentLine.getType().getType(index);
+            Type colSchemaType = group.getType().getType(index);
             switch (columnType.name().toLowerCase()) {
                 case "tinyint":
                 case "smallint":
                 case "int":
-                    data = currentLine.getInteger(index, 0);
+                    data = group.getInteger(index, 0);
                     break;
                 case "bigint":
-                    data = currentLine.getLong(index, 0);
+                    data = group.getLong(index, 0);
                     break;
                 case "float":
-                    data = currentLine.getFloat(index, 0);
+                    data = group.getFloat(index, 0);
                     break;
                 case "double":
-                    data = currentLine.getDouble(index, 0);
+                    data = group.getDouble(index, 0);
                     break;
                 case "binary":
-                    Binary binaryData = currentLine.getBinary(index, 0);
+                    Binary binaryData = group.getBinary(index, 0);
                     data = StringUtil.encodeHex(binaryData.getBytes());
                     break;
                 case "char":
                 case "varchar":
                 case "string":
-                    data = currentLine.getString(index, 0);
+                    data = group.getString(index, 0);
                     break;
                 case "boolean":
-                    data = currentLine.getBoolean(index, 0);
+                    data = group.getBoolean(index, 0);
                     break;
                 case "timestamp": {
-                    long time = getTimestampMillis(currentLine.getInt96(index, 0));
+                    long time = getTimestampMillis(group.getInt96(index, 0));
                     data = new Timestamp(time);
                     break;
                 }
                 case "decimal": {
                     DecimalMetadata dm = ((PrimitiveType) colSchemaType).getDecimalMetadata();
-                    String primitiveTypeName = currentLine.getType().getType(index).asPrimitiveType().getPrimitiveTypeName().name();
+                    String primitiveTypeName = group.getType().getType(index).asPrimitiveType().getPrimitiveTypeName().name();
                     if (ColumnType.INT32.name().equals(primitiveTypeName)) {
-                        int intVal = currentLine.getInteger(index, 0);
+                        int intVal = group.getInteger(index, 0);
                         data = longToDecimalStr(intVal, dm.getScale());
                     } else if (ColumnType.INT64.name().equals(primitiveTypeName)) {
-                        long longVal = currentLine.getLong(index, 0);
+                        long longVal = group.getLong(index, 0);
                         data = longToDecimalStr(longVal, dm.getScale());
                     } else {
-                        Binary binary = currentLine.getBinary(index, 0);
+                        Binary binary = group.getBinary(index, 0);
                         data = binaryToDecimalStr(binary, dm.getScale());
                     }
                     break;
                 }
                 case "date": {
-                    String val = currentLine.getValueToString(index, 0);
+                    String val = group.getValueToString(index, 0);
                     data = new Timestamp(Integer.parseInt(val) * MILLIS_IN_DAY).toString().substring(0, 10);
                     break;
                 }
                 default:
-                    data = currentLine.getValueToString(index, 0);
+                    data = group.getValueToString(index, 0);
                     break;
             }
         } catch (Exception e) {
@@ -350,18 +435,17 @@ public class InceptorParquetDownload implements IDownloader {
 
     @Override
     public boolean reachedEnd() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<Boolean>) ()->{
-                    try {
-                        return !nextRecord();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Download file is abnormal,%s", e.getMessage()), e);
-                    }
-                });
+        if (parallelReader != null) {
+            return !parallelReader.hasNext();
+        }
+        return batchReader.reachedEnd();
     }
 
     @Override
     public boolean close() throws Exception {
+        if (parallelReader != null) {
+            parallelReader.close();
+        }
         if (build != null){
             build.close();
         }
@@ -387,7 +471,7 @@ public class InceptorParquetDownload implements IDownloader {
             return;
         }
         //剔除隐藏系统文件和无关文件
-        FileStatus[] fsStatus = fs.listStatus(inputPath, path -> !path.getName().startsWith(".") && !path.getName().startsWith("_SUCCESS") && !path.getName().startsWith(IMPALA_INSERT_STAGING) && !path.getName().startsWith("_common_metadata") && !path.getName().startsWith("_metadata"));
+        FileStatus[] fsStatus = fs.listStatus(inputPath, PATH_FILTER);
         if(fsStatus == null || fsStatus.length == 0){
             return;
         }
@@ -403,9 +487,10 @@ public class InceptorParquetDownload implements IDownloader {
     /**
      * 判断分区是否存在
      *
+     * @param path hdfs 文件路径
      * @return 分区是否存在
      */
-    private boolean isPartitionExists() {
+    private boolean isPartitionExists(String path) {
         // 如果 partitions 为 null，表示非分区表，返回 true
         if (Objects.isNull(partitions)) {
             return true;
@@ -414,7 +499,7 @@ public class InceptorParquetDownload implements IDownloader {
         if (CollectionUtils.isEmpty(partitions)) {
             return false;
         }
-        String curPathPartition = getCurPathPartition();
+        String curPathPartition = getCurPathPartition(path);
         if (StringUtils.isBlank(curPathPartition)) {
             return false;
         }
@@ -424,11 +509,12 @@ public class InceptorParquetDownload implements IDownloader {
     /**
      * 获取当前路径的分区路径
      *
+     * @param path hdfs 文件路径
      * @return 分区
      */
-    private String getCurPathPartition() {
+    private String getCurPathPartition(String path) {
         StringBuilder curPart = new StringBuilder();
-        for (String part : currFile.split("/")) {
+        for (String part : path.split("/")) {
             if(part.contains("=")){
                 curPart.append(part).append("/");
             }
@@ -443,13 +529,14 @@ public class InceptorParquetDownload implements IDownloader {
     /**
      * 判断是否是指定的分区，支持多级分区
      *
+     * @param path hdfs 文件路径
      * @return 是否需要该分区
      */
-    private boolean isRequiredPartition(){
+    private boolean isRequiredPartition(String path){
         if (filterPartition != null && !filterPartition.isEmpty()) {
             //获取当前路径下的分区信息
             Map<String,String> partColDataMap = new HashMap<>();
-            for (String part : currFile.split("/")) {
+            for (String part : path.split("/")) {
                 if(part.contains("=")){
                     String[] parts = part.split("=");
                     partColDataMap.put(parts[0],parts[1]);
@@ -1,9 +1,9 @@
 package com.dtstack.dtcenter.common.loader.inceptor.downloader;
 
+import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsBatchReader;
 import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsOperator;
-import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
+import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HdfsParallelReader;
 import com.dtstack.dtcenter.loader.IDownloader;
-import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.CollectionUtils;
@@ -11,6 +11,7 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.PathFilter;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapred.FileInputFormat;
@@ -21,7 +22,6 @@ import org.apache.hadoop.mapred.Reporter;
 import org.apache.hadoop.mapred.TextInputFormat;
 
 import java.io.IOException;
-import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -37,6 +37,11 @@ public class InceptorTextDownload implements IDownloader {
 
     private static final String IMPALA_INSERT_STAGING = "_impala_insert_staging";
 
+    /**
+     * 剔除隐藏系统文件和无关文件
+     */
+    private static final PathFilter PATH_FILTER = path -> !path.getName().startsWith(".") && !path.getName().startsWith("_SUCCESS") && !path.getName().startsWith(IMPALA_INSERT_STAGING) && !path.getName().startsWith("_common_metadata") && !path.getName().startsWith("_metadata");
+
     private TextInputFormat inputFormat;
     private JobConf conf;
     private LongWritable key;
@@ -61,6 +66,11 @@ public class InceptorTextDownload implements IDownloader {
     private int splitIndex = 0;
     private List<String> partitionColumns;
     private Map<String, Object> kerberosConfig;
+
+    /**
+     * 批量读取，一批数据只进入一次 kerberos 认证上下文
+     */
+    private final HdfsBatchReader<List<String>> batchReader;
     /**
      * 按分区下载
      */
@@ -71,6 +81,18 @@ public class InceptorTextDownload implements IDownloader {
      */
     private List<String> currentPartData;
 
+    /**
+     * 并行读取线程数，大于 1 时开启并行读取
+     */
+    private int parallelism = 1;
+
+    /**
+     * 并行读取时是否保证数据顺序
+     */
+    private boolean ordered = true;
+
+    private HdfsParallelReader<String> parallelReader;
+
     public InceptorTextDownload(Configuration configuration, String tableLocation, List<String> columnNames, String fieldDelimiter,
                                 List<String> partitionColumns, Map<String, String> filterPartition, List<Integer> needIndex, Map<String, Object> kerberosConfig){
         this.tableLocation = tableLocation;
@@ -80,6 +102,7 @@ public class InceptorTextDownload implements IDownloader {
         this.configuration = configuration;
         this.filterPartition = filterPartition;
         this.kerberosConfig = kerberosConfig;
+        this.batchReader = new HdfsBatchReader<>(kerberosConfig, () -> recordReader != null && nextRecord(), this::readNextWithKerberos);
         this.needIndex = needIndex;
     }
 
@@ -89,6 +112,9 @@ public class InceptorTextDownload implements IDownloader {
         conf = new JobConf(configuration);
         paths = Lists.newArrayList();
         FileSystem fs =  FileSystem.get(conf);
+        if (parallelism > 1) {
+            return configureParallel(fs);
+        }
         // 递归获取表路径下所有文件
         getAllPartitionPath(tableLocation, paths, fs);
         // 有可能表结构还存在metaStore中，但是表路径被删除，但是此时不应该报错
@@ -115,7 +141,7 @@ public class InceptorTextDownload implements IDownloader {
             return;
         }
         //剔除隐藏系统文件和无关文件
-        FileStatus[] fsStatus = fs.listStatus(inputPath, path -> !path.getName().startsWith(".") && !path.getName().startsWith("_SUCCESS") && !path.getName().startsWith(IMPALA_INSERT_STAGING) && !path.getName().startsWith("_common_metadata") && !path.getName().startsWith("_metadata"));
+        FileStatus[] fsStatus = fs.listStatus(inputPath, PATH_FILTER);
         if(fsStatus == null || fsStatus.length == 0){
             return;
         }
@@ -128,6 +154,81 @@ public class InceptorTextDownload implements IDownloader {
         }
     }
 
+    /**
+     * 设置并行读取，需要在 configure 之前调用
+     *
+     * @param parallelism 并行读取线程数，大于 1 时开启
+     * @param ordered     是否保证与串行读取一致的数据顺序
+     */
+    public void setParallel(int parallelism, boolean ordered) {
+        this.parallelism = parallelism;
+        this.ordered = ordered;
+    }
+
+    /**
+     * 并行列出分区目录，每个文件作为一个切片交给读取线程预读
+     *
+     * @param fs HDFS 文件系统
+     * @return 是否初始化成功
+     */
+    private boolean configureParallel(FileSystem fs) throws IOException {
+        List<String> files = Lists.newArrayList();
+        for (String file : HdfsOperator.listAllFilePathParallel(fs, tableLocation, PATH_FILTER, parallelism)) {
+            // 不需要该分区则进行跳过
+            if (isRequiredPartition(file)) {
+                files.add(file);
+            }
+        }
+        parallelReader = new HdfsParallelReader<>(files, this::openFile, parallelism, ordered, kerberosConfig);
+        parallelReader.start();
+        return true;
+    }
+
+    /**
+     * 在读取线程中打开文件，不使用下载器的共享状态
+     *
+     * @param file 文件路径
+     * @return 行迭代器
+     */
+    private HdfsParallelReader.RowIterator openFile(String file) throws IOException {
+        JobConf jobConf = new JobConf(configuration);
+        FileInputFormat.setInputPaths(jobConf, new Path(file));
+        TextInputFormat textInputFormat = new TextInputFormat();
+        textInputFormat.configure(jobConf);
+        InputSplit[] fileSplits = textInputFormat.getSplits(jobConf, SPLIT_NUM);
+        List<String> partData = CollectionUtils.isNotEmpty(partitionColumns) ? HdfsOperator.parsePartitionDataFromUrl(file, partitionColumns) : null;
+        return new HdfsParallelReader.RowIterator() {
+            private final LongWritable lineKey = new LongWritable();
+            private final Text lineValue = new Text();
+            private RecordReader<LongWritable, Text> reader;
+            private int index = 0;
+
+            @Override
+            public List<String> next() throws IOException {
+                while (true) {
+                    if (reader == null) {
+                        if (index >= fileSplits.length) {
+                            return null;
+                        }
+                        reader = textInputFormat.getRecordReader(fileSplits[index++], jobConf, Reporter.NULL);
+                    }
+                    if (reader.next(lineKey, lineValue)) {
+                        return buildRow(lineValue.toString(), partData);
+                    }
+                    reader.close();
+                    reader = null;
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        };
+    }
+
     private boolean nextRecordReader() throws IOException {
 
         if(!nextFile()){
@@ -175,7 +276,7 @@ public class InceptorTextDownload implements IDownloader {
             currentPartData = HdfsOperator.parsePartitionDataFromUrl(currFile,partitionColumns);
         }
 
-        if (!isRequiredPartition()){
+        if (!isRequiredPartition(currFile)){
             currFileIndex++;
             splitIndex = 0;
             nextFile();
@@ -221,24 +322,32 @@ public class InceptorTextDownload implements IDownloader {
 
     @Override
     public List<String> readNext(){
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<List<String>>) ()->{
-                    try {
-                        return readNextWithKerberos();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Abnormal reading file，%s", e.getMessage()), e);
-                    }
-                });
+        if (parallelReader != null) {
+            return parallelReader.next();
+        }
+        return batchReader.next();
+    }
+
+    @Override
+    public List<List<String>> readNextBatch(int maxRows) {
+        if (parallelReader != null) {
+            return parallelReader.nextBatch(maxRows);
+        }
+        return batchReader.readNextBatch(maxRows);
     }
 
     public List<String> readNextWithKerberos(){
         readNum++;
         String line = value.toString();
         value.clear();
+        return buildRow(line, currentPartData);
+    }
+
+    private List<String> buildRow(String line, List<String> partData) {
         String[] fields = line.split(fieldDelimiter, -1);
         List<String> row = Lists.newArrayList(fields);
         if(CollectionUtils.isNotEmpty(partitionColumns)){
-            row.addAll(currentPartData);
+            row.addAll(partData);
         }
         if (CollectionUtils.isNotEmpty(needIndex)) {
             List<String> rowNew = Lists.newArrayList();
@@ -256,19 +365,18 @@ public class InceptorTextDownload implements IDownloader {
 
     @Override
     public boolean reachedEnd() {
-        return KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
-                (PrivilegedAction<Boolean>) ()->{
-                    try {
-                        return recordReader == null || !nextRecord();
-                    } catch (Exception e){
-                        throw new DtLoaderException(String.format("Download file is abnormal,%s", e.getMessage()), e);
-                    }
-                });
+        if (parallelReader != null) {
+            return !parallelReader.hasNext();
+        }
+        return batchReader.reachedEnd();
 
     }
 
     @Override
     public boolean close() throws IOException {
+        if (parallelReader != null) {
+            parallelReader.close();
+        }
         if(recordReader != null){
             recordReader.close();
         }
@@ -282,13 +390,15 @@ public class InceptorTextDownload implements IDownloader {
 
     /**
      * 判断是否是指定的分区，支持多级分区
-     * @return
+     *
+     * @param path hdfs 文件路径
+     * @return 是否需要该分区
      */
-    private boolean isRequiredPartition(){
+    private boolean isRequiredPartition(String path){
         if (filterPartition != null && !filterPartition.isEmpty()) {
             //获取当前路径下的分区信息
             Map<String,String> partColDataMap = new HashMap<>();
-            for (String part : currFile.split("/")) {
+            for (String part : path.split("/")) {
                 if(part.contains("=")){
                     String[] parts = part.split("=");
                     partColDataMap.put(parts[0],parts[1]);
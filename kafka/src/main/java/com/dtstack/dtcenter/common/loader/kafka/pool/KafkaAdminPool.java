@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.common.loader.kafka.pool;
+
+import com.dtstack.dtcenter.common.loader.common.Pool;
+import com.dtstack.dtcenter.loader.dto.source.KafkaSourceDTO;
+import kafka.admin.AdminClient;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+/**
+ * kafka admin client 连接池，用于查询消费者组等管理信息
+ *
+ * @author ：wangchuan
+ * date：Created in 上午11:20 2022/6/8
+ * company: www.dtstack.com
+ */
+public class KafkaAdminPool extends Pool<AdminClient> {
+
+    public KafkaAdminPool(GenericObjectPoolConfig config, KafkaSourceDTO sourceDTO) {
+        super(config, new KafkaAdminPoolFactory(sourceDTO));
+    }
+}
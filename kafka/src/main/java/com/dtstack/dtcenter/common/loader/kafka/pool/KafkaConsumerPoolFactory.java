@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.common.loader.kafka.pool;
+
+import com.dtstack.dtcenter.common.loader.kafka.util.KafkaUtil;
+import com.dtstack.dtcenter.loader.dto.source.KafkaSourceDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+
+import java.util.Properties;
+
+/**
+ * kafka consumer 连接池工厂
+ *
+ * @author ：wangchuan
+ * date：Created in 上午11:20 2022/6/8
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class KafkaConsumerPoolFactory implements PooledObjectFactory<KafkaConsumer<String, String>> {
+
+    private final KafkaSourceDTO sourceDTO;
+
+    public KafkaConsumerPoolFactory(KafkaSourceDTO sourceDTO) {
+        this.sourceDTO = sourceDTO;
+    }
+
+    @Override
+    public PooledObject<KafkaConsumer<String, String>> makeObject() {
+        Properties props = KafkaUtil.initProperties(sourceDTO);
+        try {
+            return new DefaultPooledObject<>(new KafkaConsumer<>(props));
+        } finally {
+            KafkaUtil.destroyProperty();
+        }
+    }
+
+    @Override
+    public void destroyObject(PooledObject<KafkaConsumer<String, String>> pooledObject) {
+        KafkaConsumer<String, String> consumer = pooledObject.getObject();
+        try {
+            consumer.close();
+        } catch (Exception e) {
+            log.error("close kafka consumer error: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 闲置检测时拉取一次 topic 元数据，失败则认为 consumer 已不可用
+     *
+     * @param pooledObject 池化对象
+     * @return 是否可用
+     */
+    @Override
+    public boolean validateObject(PooledObject<KafkaConsumer<String, String>> pooledObject) {
+        try {
+            return pooledObject.getObject().listTopics() != null;
+        } catch (Exception e) {
+            log.warn("kafka consumer validate failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void activateObject(PooledObject<KafkaConsumer<String, String>> pooledObject) {
+        // nothing
+    }
+
+    /**
+     * 归还时取消分区订阅，避免影响下一次使用
+     *
+     * @param pooledObject 池化对象
+     */
+    @Override
+    public void passivateObject(PooledObject<KafkaConsumer<String, String>> pooledObject) {
+        pooledObject.getObject().unsubscribe();
+    }
+}
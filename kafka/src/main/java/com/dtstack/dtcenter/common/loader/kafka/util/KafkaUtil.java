@@ -21,6 +21,9 @@ package com.dtstack.dtcenter.common.loader.kafka.util;
 import com.dtstack.dtcenter.common.loader.common.utils.TelUtil;
 import com.dtstack.dtcenter.common.loader.kafka.KafkaConsistent;
 import com.dtstack.dtcenter.common.loader.kafka.enums.EConsumeType;
+import com.dtstack.dtcenter.common.loader.kafka.pool.KafkaAdminPool;
+import com.dtstack.dtcenter.common.loader.kafka.pool.KafkaConsumerPool;
+import com.dtstack.dtcenter.common.loader.kafka.pool.KafkaPoolManager;
 import com.dtstack.dtcenter.loader.dto.KafkaConsumerDTO;
 import com.dtstack.dtcenter.loader.dto.KafkaOffsetDTO;
 import com.dtstack.dtcenter.loader.dto.KafkaPartitionDTO;
@@ -60,6 +63,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.function.Function;
 
 /**
  * @company: www.dtstack.com
@@ -165,10 +169,9 @@ public class KafkaUtil {
      * @return topic 列表
      */
     public static List<String> getTopicList(KafkaSourceDTO kafkaSourceDTO) {
-        Properties defaultKafkaConfig = initProperties(kafkaSourceDTO);
         List<String> results = Lists.newArrayList();
-        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(defaultKafkaConfig)) {
-            Map<String, List<PartitionInfo>> topics = consumer.listTopics();
+        try {
+            Map<String, List<PartitionInfo>> topics = executeWithConsumer(kafkaSourceDTO, KafkaConsumer::listTopics);
             if (topics != null) {
                 results.addAll(topics.keySet());
             }
@@ -207,41 +210,44 @@ public class KafkaUtil {
      * @return kafka 每个分区的最大最小 offset
      */
     public static List<KafkaOffsetDTO> getPartitionOffset(KafkaSourceDTO sourceDTO, String topic) {
-        Properties defaultKafkaConfig = initProperties(sourceDTO);
-        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(defaultKafkaConfig)) {
+        try {
+            return executeWithConsumer(sourceDTO, consumer -> getPartitionOffset(consumer, topic));
+        } catch (Exception e) {
+            throw new DtLoaderException(e.getMessage(), e);
+        } finally {
+            destroyProperty();
+        }
+    }
+
+    private static List<KafkaOffsetDTO> getPartitionOffset(KafkaConsumer<String, String> consumer, String topic) {
             List<TopicPartition> partitions = new ArrayList<>();
             List<PartitionInfo> allPartitionInfo = consumer.partitionsFor(topic);
             for (PartitionInfo partitionInfo : allPartitionInfo) {
-                partitions.add(new TopicPartition(partitionInfo.topic(), partitionInfo.partition()));
-            }
-
-            Map<Integer, KafkaOffsetDTO> kafkaOffsetDTOMap = new HashMap<>();
-            Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(partitions);
-            for (Map.Entry<TopicPartition, Long> entry : beginningOffsets.entrySet()) {
-                KafkaOffsetDTO offsetDTO = new KafkaOffsetDTO();
-                offsetDTO.setPartition(entry.getKey().partition());
-                offsetDTO.setFirstOffset(entry.getValue());
-                offsetDTO.setLastOffset(entry.getValue());
-                kafkaOffsetDTOMap.put(entry.getKey().partition(), offsetDTO);
-            }
+            partitions.add(new TopicPartition(partitionInfo.topic(), partitionInfo.partition()));
+        }
 
-            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
-            for (Map.Entry<TopicPartition, Long> entry : endOffsets.entrySet()) {
-                KafkaOffsetDTO offsetDTO = kafkaOffsetDTOMap.getOrDefault(entry.getKey().partition(),
-                        new KafkaOffsetDTO());
-                offsetDTO.setPartition(entry.getKey().partition());
-                offsetDTO.setFirstOffset(null == offsetDTO.getFirstOffset() ? entry.getValue() :
-                        offsetDTO.getFirstOffset());
-                offsetDTO.setLastOffset(entry.getValue());
-                kafkaOffsetDTOMap.put(entry.getKey().partition(), offsetDTO);
-            }
+        Map<Integer, KafkaOffsetDTO> kafkaOffsetDTOMap = new HashMap<>();
+        Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(partitions);
+        for (Map.Entry<TopicPartition, Long> entry : beginningOffsets.entrySet()) {
+            KafkaOffsetDTO offsetDTO = new KafkaOffsetDTO();
+            offsetDTO.setPartition(entry.getKey().partition());
+            offsetDTO.setFirstOffset(entry.getValue());
+            offsetDTO.setLastOffset(entry.getValue());
+            kafkaOffsetDTOMap.put(entry.getKey().partition(), offsetDTO);
+        }
 
-            return new ArrayList<>(kafkaOffsetDTOMap.values());
-        } catch (Exception e) {
-            throw new DtLoaderException(e.getMessage(), e);
-        } finally {
-            destroyProperty();
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+        for (Map.Entry<TopicPartition, Long> entry : endOffsets.entrySet()) {
+            KafkaOffsetDTO offsetDTO = kafkaOffsetDTOMap.getOrDefault(entry.getKey().partition(),
+                    new KafkaOffsetDTO());
+            offsetDTO.setPartition(entry.getKey().partition());
+            offsetDTO.setFirstOffset(null == offsetDTO.getFirstOffset() ? entry.getValue() :
+                    offsetDTO.getFirstOffset());
+            offsetDTO.setLastOffset(entry.getValue());
+            kafkaOffsetDTOMap.put(entry.getKey().partition(), offsetDTO);
         }
+
+        return new ArrayList<>(kafkaOffsetDTOMap.values());
     }
 
     /**
@@ -251,10 +257,8 @@ public class KafkaUtil {
      * @return 是否连通
      */
     public static boolean checkConnection(KafkaSourceDTO sourceDTO) {
-        Properties props = initProperties(sourceDTO);
-        /* 定义consumer */
-        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
-            consumer.listTopics();
+        try {
+            executeWithConsumer(sourceDTO, KafkaConsumer::listTopics);
         } catch (Exception e) {
             throw new DtLoaderException(String.format("connect kafka fail: %s", e.getMessage()), e);
         } finally {
@@ -263,7 +267,7 @@ public class KafkaUtil {
         return true;
     }
 
-    private static void destroyProperty() {
+    public static void destroyProperty() {
         System.clearProperty("java.security.auth.login.config");
         System.clearProperty("javax.security.auth.useSubjectCredsOnly");
     }
@@ -288,7 +292,7 @@ public class KafkaUtil {
      * @param sourceDTO 数据源信息
      * @return kafka 配置
      */
-    private synchronized static Properties initProperties(KafkaSourceDTO sourceDTO) {
+    public synchronized static Properties initProperties(KafkaSourceDTO sourceDTO) {
         String brokerUrls = getKafkaBroker(sourceDTO);
         log.info("Initialize Kafka configuration information, brokerUrls : {}, kerberosConfig : {}", brokerUrls, sourceDTO.getKerberosConfig());
         Properties props = new Properties();
@@ -406,11 +410,10 @@ public class KafkaUtil {
     }
 
     public static List<KafkaPartitionDTO> getPartitions (KafkaSourceDTO sourceDTO, String topic) {
-        Properties defaultKafkaConfig = initProperties(sourceDTO);
         List<KafkaPartitionDTO> partitionDTOS = Lists.newArrayList();
-        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(defaultKafkaConfig)) {
+        try {
             // PartitionInfo没有实现序列化接口，不能使用 fastJson 进行拷贝
-            List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+            List<PartitionInfo> partitions = executeWithConsumer(sourceDTO, consumer -> consumer.partitionsFor(topic));
             if (CollectionUtils.isEmpty(partitions)) {
                 return partitionDTOS;
             }
@@ -437,6 +440,8 @@ public class KafkaUtil {
             return partitionDTOS;
         } catch (Exception e) {
             throw new DtLoaderException(String.format("Get topic: %s partition information is exception：%s", topic, e.getMessage()), e);
+        } finally {
+            destroyProperty();
         }
     }
 
@@ -550,45 +555,43 @@ public class KafkaUtil {
      * @return 消费者组列表
      */
     public static List<String> listConsumerGroup(KafkaSourceDTO sourceDTO, String topic) {
-        List<String> consumerGroups = new ArrayList<>();
-        Properties prop = initProperties(sourceDTO);
-        // 获取kafka client
-        kafka.admin.AdminClient adminClient = kafka.admin.AdminClient.create(prop);
         try {
-            // scala seq 转 java list
-            List<GroupOverview> groups = JavaConversions.seqAsJavaList(adminClient.listAllConsumerGroupsFlattened().toSeq());
-            groups.forEach(group -> consumerGroups.add(group.groupId()));
-            // 不指定topic 全部返回
-            if (StringUtils.isBlank(topic)) {
-                return consumerGroups;
-            }
-            List<String> consumerGroupsByTopic = Lists.newArrayList();
-            for (String groupId : consumerGroups) {
-                kafka.admin.AdminClient.ConsumerGroupSummary groupSummary = adminClient.describeConsumerGroup(groupId, 5000L);
-                // 消费者组不存在的情况
-                if (Objects.isNull(groupSummary) || "Dead".equals(groupSummary.state())) {
-                    continue;
-                }
-                Map<TopicPartition, Object> offsets = JavaConversions.mapAsJavaMap(adminClient.listGroupOffsets(groupId));
-                for (TopicPartition topicPartition : offsets.keySet()) {
-                    if (topic.equals(topicPartition.topic())) {
-                        consumerGroupsByTopic.add(groupId);
-                        break;
-                    }
-                }
-            }
-            return consumerGroupsByTopic;
+            return executeWithAdmin(sourceDTO, adminClient -> listConsumerGroup(adminClient, topic));
         } catch (Exception e){
             log.error("listConsumerGroup error:{}", e.getMessage(), e);
         } finally {
-            if (Objects.nonNull(adminClient)) {
-                adminClient.close();
-            }
             destroyProperty();
         }
         return Lists.newArrayList();
     }
 
+    private static List<String> listConsumerGroup(kafka.admin.AdminClient adminClient, String topic) {
+        List<String> consumerGroups = new ArrayList<>();
+        // scala seq 转 java list
+        List<GroupOverview> groups = JavaConversions.seqAsJavaList(adminClient.listAllConsumerGroupsFlattened().toSeq());
+        groups.forEach(group -> consumerGroups.add(group.groupId()));
+        // 不指定topic 全部返回
+        if (StringUtils.isBlank(topic)) {
+            return consumerGroups;
+        }
+        List<String> consumerGroupsByTopic = Lists.newArrayList();
+        for (String groupId : consumerGroups) {
+            kafka.admin.AdminClient.ConsumerGroupSummary groupSummary = adminClient.describeConsumerGroup(groupId, 5000L);
+            // 消费者组不存在的情况
+            if (Objects.isNull(groupSummary) || "Dead".equals(groupSummary.state())) {
+                continue;
+            }
+            Map<TopicPartition, Object> offsets = JavaConversions.mapAsJavaMap(adminClient.listGroupOffsets(groupId));
+            for (TopicPartition topicPartition : offsets.keySet()) {
+                if (topic.equals(topicPartition.topic())) {
+                    consumerGroupsByTopic.add(groupId);
+                    break;
+                }
+            }
+        }
+        return consumerGroupsByTopic;
+    }
+
     /**
      * 获取 kafka 消费者组详细信息
      *
@@ -598,86 +601,163 @@ public class KafkaUtil {
      * @return 消费者组详细信息
      */
     public static List<KafkaConsumerDTO> getGroupInfoByGroupId(KafkaSourceDTO sourceDTO, String groupId, String srcTopic) {
+        try {
+            return executeWithAdmin(sourceDTO, adminClient ->
+                    executeWithConsumer(sourceDTO, consumer -> getGroupInfoByGroupId(adminClient, consumer, groupId, srcTopic)));
+        } catch (Exception e) {
+            log.error("getGroupInfoByGroupId error:{}", e.getMessage(), e);
+        } finally {
+            destroyProperty();
+        }
+        return Lists.newArrayList();
+    }
+
+    private static List<KafkaConsumerDTO> getGroupInfoByGroupId(kafka.admin.AdminClient adminClient, KafkaConsumer<String, String> consumer,
+                                                                String groupId, String srcTopic) {
         List<KafkaConsumerDTO> result = Lists.newArrayList();
-        Properties prop = initProperties(sourceDTO);
-        // 获取kafka client
-        kafka.admin.AdminClient adminClient = kafka.admin.AdminClient.create(prop);
-        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(prop)){
-
-            if (StringUtils.isNotBlank(groupId)) {
-                kafka.admin.AdminClient.ConsumerGroupSummary groupSummary = adminClient.describeConsumerGroup(groupId, 5000L);
-                // 消费者组不存在的情况
-                if (Objects.isNull(groupSummary) || "Dead".equals(groupSummary.state())) {
-                    return result;
-                }
-            }else {
-                // groupId 为空的时候获取所有的分区
-                List<PartitionInfo> allPartitions = consumer.partitionsFor(srcTopic);
-                for (PartitionInfo partitionInfo : allPartitions) {
-                    TopicPartition topicPartition = new TopicPartition(partitionInfo.topic(), partitionInfo.partition());
-                    // 指定当前分区
-                    consumer.assign(Lists.newArrayList(topicPartition));
-                    consumer.seekToEnd(Lists.newArrayList(topicPartition));
-                    long logEndOffset = consumer.position(topicPartition);
-                    String brokerHost = Objects.isNull(partitionInfo.leader()) ? null : partitionInfo.leader().host();
-                    // 组装kafka consumer 信息
-                    KafkaConsumerDTO kafkaConsumerDTO = KafkaConsumerDTO.builder()
-                            .groupId(groupId)
-                            .topic(partitionInfo.topic())
-                            .partition(partitionInfo.partition())
-                            .logEndOffset(logEndOffset)
-                            .brokerHost(brokerHost)
-                            .build();
-                    result.add(kafkaConsumerDTO);
-                }
+        if (StringUtils.isNotBlank(groupId)) {
+            kafka.admin.AdminClient.ConsumerGroupSummary groupSummary = adminClient.describeConsumerGroup(groupId, 5000L);
+            // 消费者组不存在的情况
+            if (Objects.isNull(groupSummary) || "Dead".equals(groupSummary.state())) {
                 return result;
             }
-
-            Map<TopicPartition, Object> offsets = JavaConversions.mapAsJavaMap(adminClient.listGroupOffsets(groupId));
-            for (TopicPartition topicPartition : offsets.keySet()) {
-                String topic = topicPartition.topic();
-                // 过滤指定topic 下的 partition
-                if (StringUtils.isNotBlank(srcTopic) && !srcTopic.equals(topic)) {
-                    continue;
-                }
-                int partition = topicPartition.partition();
-                // 当前消费位置
-                Long currentOffset = (Long) offsets.get(topicPartition);
-                List<TopicPartition> singleTopicPartition = Lists.newArrayList(topicPartition);
+        }else {
+            // groupId 为空的时候获取所有的分区
+            List<PartitionInfo> allPartitions = consumer.partitionsFor(srcTopic);
+            for (PartitionInfo partitionInfo : allPartitions) {
+                TopicPartition topicPartition = new TopicPartition(partitionInfo.topic(), partitionInfo.partition());
                 // 指定当前分区
-                consumer.assign(singleTopicPartition);
-                consumer.seekToEnd(singleTopicPartition);
+                consumer.assign(Lists.newArrayList(topicPartition));
+                consumer.seekToEnd(Lists.newArrayList(topicPartition));
                 long logEndOffset = consumer.position(topicPartition);
-
-                List<PartitionInfo> partitions = consumer.partitionsFor(topic);
-
+                String brokerHost = Objects.isNull(partitionInfo.leader()) ? null : partitionInfo.leader().host();
                 // 组装kafka consumer 信息
                 KafkaConsumerDTO kafkaConsumerDTO = KafkaConsumerDTO.builder()
                         .groupId(groupId)
-                        .topic(topic)
-                        .partition(partition)
-                        .currentOffset(currentOffset)
+                        .topic(partitionInfo.topic())
+                        .partition(partitionInfo.partition())
                         .logEndOffset(logEndOffset)
-                        .lag(logEndOffset - currentOffset)
+                        .brokerHost(brokerHost)
                         .build();
+                result.add(kafkaConsumerDTO);
+            }
+            return result;
+        }
 
-                // 查询当前分区 leader 所在机器的host
-                for (PartitionInfo partitionInfo : partitions) {
-                    if (partition == partitionInfo.partition() && Objects.nonNull(partitionInfo.leader())) {
-                        kafkaConsumerDTO.setBrokerHost(partitionInfo.leader().host());
-                        break;
-                    }
+        Map<TopicPartition, Object> offsets = JavaConversions.mapAsJavaMap(adminClient.listGroupOffsets(groupId));
+        for (TopicPartition topicPartition : offsets.keySet()) {
+            String topic = topicPartition.topic();
+            // 过滤指定topic 下的 partition
+            if (StringUtils.isNotBlank(srcTopic) && !srcTopic.equals(topic)) {
+                continue;
+            }
+            int partition = topicPartition.partition();
+            // 当前消费位置
+            Long currentOffset = (Long) offsets.get(topicPartition);
+            List<TopicPartition> singleTopicPartition = Lists.newArrayList(topicPartition);
+            // 指定当前分区
+            consumer.assign(singleTopicPartition);
+            consumer.seekToEnd(singleTopicPartition);
+            long logEndOffset = consumer.position(topicPartition);
+
+            List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+
+            // 组装kafka consumer 信息
+            KafkaConsumerDTO kafkaConsumerDTO = KafkaConsumerDTO.builder()
+                    .groupId(groupId)
+                    .topic(topic)
+                    .partition(partition)
+                    .currentOffset(currentOffset)
+                    .logEndOffset(logEndOffset)
+                    .lag(logEndOffset - currentOffset)
+                    .build();
+
+            // 查询当前分区 leader 所在机器的host
+            for (PartitionInfo partitionInfo : partitions) {
+                if (partition == partitionInfo.partition() && Objects.nonNull(partitionInfo.leader())) {
+                    kafkaConsumerDTO.setBrokerHost(partitionInfo.leader().host());
+                    break;
                 }
-                result.add(kafkaConsumerDTO);
             }
-        } catch (Exception e) {
-            log.error("getGroupInfoByGroupId error:{}", e.getMessage(), e);
-        } finally {
-            if (Objects.nonNull(adminClient)) {
+            result.add(kafkaConsumerDTO);
+        }
+        return result;
+    }
+
+    /**
+     * 使用 kafka consumer 执行操作，开启连接池时从连接池中获取，执行异常时将 consumer 从连接池中销毁
+     *
+     * @param sourceDTO 数据源信息
+     * @param function  执行的操作
+     * @param <T>       返回值类型
+     * @return 执行结果
+     */
+    private static <T> T executeWithConsumer(KafkaSourceDTO sourceDTO, Function<KafkaConsumer<String, String>, T> function) {
+        KafkaConsumerPool consumerPool = KafkaPoolManager.getInstance().getConsumerPool(sourceDTO);
+        if (Objects.isNull(consumerPool)) {
+            try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(initProperties(sourceDTO))) {
+                return function.apply(consumer);
+            }
+        }
+        KafkaConsumer<String, String> consumer;
+        try {
+            consumer = consumerPool.getResource();
+        } catch (DtLoaderException e) {
+            // 连接池在获取 consumer 前因闲置被关闭，重新获取连接池
+            if (!consumerPool.isClosed()) {
+                throw e;
+            }
+            consumerPool = KafkaPoolManager.getInstance().getConsumerPool(sourceDTO);
+            consumer = consumerPool.getResource();
+        }
+        T result;
+        try {
+            result = function.apply(consumer);
+        } catch (RuntimeException e) {
+            consumerPool.returnBrokenResource(consumer);
+            throw e;
+        }
+        consumerPool.returnResource(consumer);
+        return result;
+    }
+
+    /**
+     * 使用 kafka admin client 执行操作，开启连接池时从连接池中获取，执行异常时将 admin client 从连接池中销毁
+     *
+     * @param sourceDTO 数据源信息
+     * @param function  执行的操作
+     * @param <T>       返回值类型
+     * @return 执行结果
+     */
+    private static <T> T executeWithAdmin(KafkaSourceDTO sourceDTO, Function<kafka.admin.AdminClient, T> function) {
+        KafkaAdminPool adminPool = KafkaPoolManager.getInstance().getAdminPool(sourceDTO);
+        if (Objects.isNull(adminPool)) {
+            kafka.admin.AdminClient adminClient = kafka.admin.AdminClient.create(initProperties(sourceDTO));
+            try {
+                return function.apply(adminClient);
+            } finally {
                 adminClient.close();
             }
-            destroyProperty();
         }
+        kafka.admin.AdminClient adminClient;
+        try {
+            adminClient = adminPool.getResource();
+        } catch (DtLoaderException e) {
+            // 连接池在获取 admin client 前因闲置被关闭，重新获取连接池
+            if (!adminPool.isClosed()) {
+                throw e;
+            }
+            adminPool = KafkaPoolManager.getInstance().getAdminPool(sourceDTO);
+            adminClient = adminPool.getResource();
+        }
+        T result;
+        try {
+            result = function.apply(adminClient);
+        } catch (RuntimeException e) {
+            adminPool.returnBrokenResource(adminClient);
+            throw e;
+        }
+        adminPool.returnResource(adminClient);
         return result;
     }
 }
@@ -22,7 +22,9 @@ import com.dtstack.dtcenter.common.loader.common.DtClassConsistent;
 import com.dtstack.dtcenter.common.loader.common.utils.Xml2JsonUtil;
 import com.dtstack.dtcenter.common.loader.common.utils.ZipUtil;
 import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosConfigUtil;
+import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
 import com.dtstack.dtcenter.loader.client.IKerberos;
+import com.dtstack.dtcenter.loader.dto.KerberosLoginMetricsDTO;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.dtstack.dtcenter.loader.kerberos.HadoopConfTool;
 import lombok.extern.slf4j.Slf4j;
@@ -99,4 +101,9 @@ public class AbsKerberosClient implements IKerberos {
         }
         return KerberosConfigUtil.getPrincipals(keytabPath);
     }
+
+    @Override
+    public List<KerberosLoginMetricsDTO> getLoginMetrics() {
+        return KerberosLoginUtil.getLoginMetrics();
+    }
 }
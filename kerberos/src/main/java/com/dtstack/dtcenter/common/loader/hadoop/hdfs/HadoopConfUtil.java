@@ -20,13 +20,22 @@ package com.dtstack.dtcenter.common.loader.hadoop.hdfs;
 
 import com.alibaba.fastjson.JSONObject;
 import com.dtstack.dtcenter.common.loader.common.DtClassConsistent;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * @company: www.dtstack.com
@@ -45,6 +54,19 @@ public class HadoopConfUtil {
      */
     private static Configuration defaultConfiguration = new Configuration(false);
 
+    /**
+     * 配置指纹中各个参数的分隔符
+     */
+    private static final String FINGERPRINT_SEPARATOR = "\u0001";
+
+    /**
+     * 组装好的 Hdfs 配置缓存，key 为数据源配置的指纹。缓存中的配置不对外暴露，每次获取时返回拷贝
+     */
+    private static final Cache<String, Configuration> CONF_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(200)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
+
     /**
      * 获取默认集群信息
      *
@@ -87,22 +109,70 @@ public class HadoopConfUtil {
      * @return
      */
     public static Configuration getHdfsConf(String defaultFS, String config, Map<String, Object> kerberosConfig) {
-        Configuration conf = new Configuration(false);
-        // 设置默认属性
-        setHadoopDefaultConfig(conf, defaultFS, kerberosConfig);
-        return combineHdfsConfig(conf, config, kerberosConfig);
+        return getCachedConf(fingerprint(defaultFS, config, kerberosConfig), () -> {
+            Configuration conf = new Configuration(false);
+            // 设置默认属性
+            setHadoopDefaultConfig(conf, defaultFS, kerberosConfig);
+            return combineHdfsConfig(conf, config, kerberosConfig);
+        });
     }
 
     public static Configuration getHdfsConf(String tbdsUsername, String tbdsSecureId, String tbdsSecureKey, String defaultFS, String config, Map<String, Object> kerberosConfig) {
-        Configuration conf = new Configuration(false);
-        //tdbs 校验
-        conf.set("hadoop.security.authentication", "tbds");
-        conf.set("hadoop_security_authentication_tbds_username", tbdsUsername);
-        conf.set("hadoop_security_authentication_tbds_secureid", tbdsSecureId);
-        conf.set("hadoop_security_authentication_tbds_securekey", tbdsSecureKey);
-        // 设置默认属性
-        setHadoopDefaultConfig(conf, defaultFS, kerberosConfig);
-        return combineHdfsConfig(conf, config, kerberosConfig);
+        String fingerprint = digest(tbdsUsername, tbdsSecureId, tbdsSecureKey, fingerprint(defaultFS, config, kerberosConfig));
+        return getCachedConf(fingerprint, () -> {
+            Configuration conf = new Configuration(false);
+            //tdbs 校验
+            conf.set("hadoop.security.authentication", "tbds");
+            conf.set("hadoop_security_authentication_tbds_username", tbdsUsername);
+            conf.set("hadoop_security_authentication_tbds_secureid", tbdsSecureId);
+            conf.set("hadoop_security_authentication_tbds_securekey", tbdsSecureKey);
+            // 设置默认属性
+            setHadoopDefaultConfig(conf, defaultFS, kerberosConfig);
+            return combineHdfsConfig(conf, config, kerberosConfig);
+        });
+    }
+
+    /**
+     * 数据源配置的指纹，相同的 defaultFS、config 及 kerberosConfig 得到相同的指纹，kerberosConfig 与 key 的顺序无关
+     *
+     * @param defaultFS      defaultFS
+     * @param config         hadoop 配置 json
+     * @param kerberosConfig kerberos 配置
+     * @return 指纹
+     */
+    public static String fingerprint(String defaultFS, String config, Map<String, Object> kerberosConfig) {
+        String kerberos = MapUtils.isEmpty(kerberosConfig) ? "" : new TreeMap<>(kerberosConfig).toString();
+        return digest(defaultFS, config, kerberos);
+    }
+
+    /**
+     * 获取缓存的配置，不存在时创建；返回缓存配置的拷贝，调用方修改配置不影响缓存
+     */
+    private static Configuration getCachedConf(String fingerprint, Supplier<Configuration> creator) {
+        Configuration conf = CONF_CACHE.getIfPresent(fingerprint);
+        if (conf == null) {
+            conf = creator.get();
+            // 没有任何 hdfs 配置时直接使用默认配置，和之前保持一致
+            if (conf == defaultConfiguration) {
+                return defaultConfiguration;
+            }
+            CONF_CACHE.put(fingerprint, conf);
+        }
+        return new Configuration(conf);
+    }
+
+    private static String digest(String... parts) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = messageDigest.digest(String.join(FINGERPRINT_SEPARATOR, parts).getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new DtLoaderException(String.format("digest hadoop configuration error : %s", e.getMessage()), e);
+        }
     }
 
     /**
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.hadoop.hdfs;
+
+import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * hdfs 文件批量读取，一批数据只进入一次 kerberos 认证上下文，避免逐行获取 UGI 及 doAs
+ * <p>
+ * 下载器的 readNextBatch 直接读取整批数据；逐行读取时 reachedEnd 预读一批数据放入缓存，readNext 从缓存中获取
+ *
+ * @param <T> 行数据类型
+ * @author ：wangchuan
+ * date：Created in 下午2:00 2022/6/18
+ * company: www.dtstack.com
+ */
+public class HdfsBatchReader<T> {
+
+    /**
+     * 逐行读取时每次预读的行数
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final Map<String, Object> kerberosConfig;
+
+    /**
+     * 移动到下一行，返回是否还有数据
+     */
+    private final Callable<Boolean> nextRecord;
+
+    /**
+     * 读取当前行
+     */
+    private final Callable<T> readRecord;
+
+    /**
+     * 逐行读取时的预读缓存
+     */
+    private final List<T> buffer = new ArrayList<>(DEFAULT_BATCH_SIZE);
+
+    /**
+     * readNextBatch 返回的集合，每次调用复用
+     */
+    private final List<T> batch = new ArrayList<>();
+
+    private int position = 0;
+
+    private boolean end = false;
+
+    public HdfsBatchReader(Map<String, Object> kerberosConfig, Callable<Boolean> nextRecord, Callable<T> readRecord) {
+        this.kerberosConfig = kerberosConfig;
+        this.nextRecord = nextRecord;
+        this.readRecord = readRecord;
+    }
+
+    /**
+     * 是否读取结束，缓存为空时预读下一批数据
+     *
+     * @return 是否读取结束
+     */
+    public boolean reachedEnd() {
+        if (position < buffer.size()) {
+            return false;
+        }
+        buffer.clear();
+        position = 0;
+        read(DEFAULT_BATCH_SIZE, buffer);
+        return buffer.isEmpty();
+    }
+
+    /**
+     * 逐行读取，需要先调用 {@link #reachedEnd()}
+     *
+     * @return 行数据，读取结束时返回 null
+     */
+    public T next() {
+        if (reachedEnd()) {
+            return null;
+        }
+        return buffer.get(position++);
+    }
+
+    /**
+     * 读取下一批数据，先返回逐行读取时预读的数据
+     *
+     * @param maxRows 最多读取的行数
+     * @return 行数据，返回的集合在下次调用后失效，读取结束时返回空集合
+     */
+    public List<T> readNextBatch(int maxRows) {
+        batch.clear();
+        while (position < buffer.size() && batch.size() < maxRows) {
+            batch.add(buffer.get(position++));
+        }
+        read(maxRows - batch.size(), batch);
+        return batch;
+    }
+
+    private void read(int maxRows, List<T> rows) {
+        if (end || maxRows <= 0) {
+            return;
+        }
+        KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs(
+                (PrivilegedAction<Void>) () -> {
+                    try {
+                        for (int i = 0; i < maxRows; i++) {
+                            if (!nextRecord.call()) {
+                                end = true;
+                                break;
+                            }
+                            rows.add(readRecord.call());
+                        }
+                    } catch (Exception e) {
+                        throw new DtLoaderException(String.format("Abnormal reading file,%s", e.getMessage()), e);
+                    }
+                    return null;
+                });
+    }
+}
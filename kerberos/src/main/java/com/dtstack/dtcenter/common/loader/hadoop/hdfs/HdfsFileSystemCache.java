@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.hadoop.hdfs;
+
+import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
+import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import com.dtstack.dtcenter.loader.source.DataSourceType;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.security.UserGroupInformation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.PrivilegedExceptionAction;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hdfs FileSystem 缓存
+ * <p>
+ * hadoop 的 FileSystem 缓存在配置中被禁用，之前每次调用都会创建新的 FileSystem 且不会关闭。
+ * 这里按数据源配置指纹及登录的 UGI 缓存 FileSystem，调用方通过 {@link #acquire} 获取 {@link FileSystemHandle}，
+ * 使用完后调用 close 释放；没有被持有且闲置超过 {@link #IDLE_TIMEOUT} 的 FileSystem 由后台线程关闭，
+ * 数量超过上限时关闭最久未使用的空闲 FileSystem
+ *
+ * @author ：wangchuan
+ * date：Created in 下午4:00 2022/6/18
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class HdfsFileSystemCache {
+
+    /**
+     * FileSystem 数量上限
+     */
+    static final int MAX_FILE_SYSTEM_NUM = 100;
+
+    /**
+     * FileSystem 闲置超时时间，单位：毫秒
+     */
+    private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * 闲置 FileSystem 检查间隔，单位：秒
+     */
+    private static final long EVICT_INTERVAL_SECONDS = 60;
+
+    /**
+     * 获取时 FileSystem 恰好被关闭的重试次数
+     */
+    private static final int CLOSED_RETRY_TIMES = 2;
+
+    private static final Map<CacheKey, CachedFileSystem> FILE_SYSTEMS = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService EVICTOR = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new DtClassThreadFactory("hdfsFileSystemEvictor").newThread(r);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        EVICTOR.scheduleWithFixedDelay(HdfsFileSystemCache::evictIdle, EVICT_INTERVAL_SECONDS, EVICT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 获取数据源对应的 FileSystem，不存在时在 kerberos 认证上下文中创建
+     *
+     * @param defaultFS      defaultFS
+     * @param config         hadoop 配置 json
+     * @param kerberosConfig kerberos 配置
+     * @return FileSystem 句柄，使用完后需要关闭
+     */
+    public static FileSystemHandle acquire(String defaultFS, String config, Map<String, Object> kerberosConfig) {
+        UserGroupInformation ugi = KerberosLoginUtil.loginWithUGI(kerberosConfig);
+        CacheKey key = new CacheKey(HadoopConfUtil.fingerprint(defaultFS, config, kerberosConfig), ugi);
+        for (int i = 0; ; i++) {
+            CachedFileSystem cached = FILE_SYSTEMS.computeIfAbsent(key, k -> create(ugi, defaultFS, config, kerberosConfig));
+            if (cached.retain()) {
+                // 先持有再淘汰，避免刚创建的 FileSystem 被当做空闲的淘汰
+                if (FILE_SYSTEMS.size() > MAX_FILE_SYSTEM_NUM) {
+                    evictLeastRecentlyUsed();
+                }
+                return new FileSystemHandle(cached);
+            }
+            // 获取前被淘汰关闭，重新创建
+            FILE_SYSTEMS.remove(key, cached);
+            if (i >= CLOSED_RETRY_TIMES) {
+                throw new DtLoaderException("get hdfs FileSystem failed, FileSystem is closed");
+            }
+        }
+    }
+
+    /**
+     * 关闭所有没有被持有的 FileSystem
+     */
+    public static void closeIdle() {
+        FILE_SYSTEMS.forEach((key, cached) -> close(key, cached, 0L, "close idle"));
+    }
+
+    private static CachedFileSystem create(UserGroupInformation ugi, String defaultFS, String config, Map<String, Object> kerberosConfig) {
+        Configuration conf = HadoopConfUtil.getHdfsConf(defaultFS, config, kerberosConfig);
+        log.info("create hdfs FileSystem, defaultFS : {}, config : {}, kerberosConfig : {}", defaultFS, config, kerberosConfig);
+        try {
+            // 加锁原因：UGI.doAs 没有锁，如果已经认证成功，在 FileSystem.get(conf) 执行前别的线程进行 kerberos 认证，此时 fs 正常获取，但是是不可用的
+            synchronized (DataSourceType.class) {
+                return new CachedFileSystem(ugi.doAs((PrivilegedExceptionAction<FileSystem>) () -> FileSystem.get(conf)));
+            }
+        } catch (Exception e) {
+            throw new DtLoaderException(String.format("Hdfs check connect error,%s", e.getMessage()), e);
+        }
+    }
+
+    private static void evictIdle() {
+        try {
+            evictIdle(IDLE_TIMEOUT);
+        } catch (Throwable e) {
+            log.error("evict idle hdfs FileSystem error: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 关闭没有被持有且闲置超过 idleTimeout 的 FileSystem
+     *
+     * @param idleTimeout 闲置超时时间，单位：毫秒
+     */
+    static void evictIdle(long idleTimeout) {
+        FILE_SYSTEMS.forEach((key, cached) -> close(key, cached, idleTimeout, "idle timeout"));
+    }
+
+    private static void evictLeastRecentlyUsed() {
+        while (FILE_SYSTEMS.size() > MAX_FILE_SYSTEM_NUM) {
+            Optional<Map.Entry<CacheKey, CachedFileSystem>> eldest = FILE_SYSTEMS.entrySet().stream()
+                    .filter(entry -> entry.getValue().refCount == 0)
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastAccessTime));
+            if (!eldest.isPresent() || !close(eldest.get().getKey(), eldest.get().getValue(), 0L, "exceeds max FileSystem num")) {
+                log.warn("hdfs FileSystem num {} exceeds {}, but all FileSystems are in use", FILE_SYSTEMS.size(), MAX_FILE_SYSTEM_NUM);
+                return;
+            }
+        }
+    }
+
+    private static boolean close(CacheKey key, CachedFileSystem cached, long idleTimeout, String reason) {
+        if (!cached.markClosed(idleTimeout)) {
+            return false;
+        }
+        FILE_SYSTEMS.remove(key, cached);
+        log.info("close hdfs FileSystem: {}, reason: {}", cached.fileSystem.getUri(), reason);
+        try {
+            cached.fileSystem.close();
+        } catch (IOException e) {
+            log.warn("close hdfs FileSystem {} error: {}", cached.fileSystem.getUri(), e.getMessage(), e);
+        }
+        return true;
+    }
+
+    /**
+     * FileSystem 句柄，关闭句柄只释放引用，FileSystem 由缓存统一关闭
+     */
+    public static class FileSystemHandle implements Closeable {
+
+        private final CachedFileSystem cached;
+
+        private boolean released = false;
+
+        private FileSystemHandle(CachedFileSystem cached) {
+            this.cached = cached;
+        }
+
+        public FileSystem getFileSystem() {
+            return cached.fileSystem;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!released) {
+                released = true;
+                cached.release();
+            }
+        }
+    }
+
+    /**
+     * 被缓存的 FileSystem，记录引用数及最后访问时间
+     */
+    private static class CachedFileSystem {
+
+        private final FileSystem fileSystem;
+
+        private int refCount = 0;
+
+        private volatile long lastAccessTime = System.currentTimeMillis();
+
+        private boolean closed = false;
+
+        private CachedFileSystem(FileSystem fileSystem) {
+            this.fileSystem = fileSystem;
+        }
+
+        private synchronized boolean retain() {
+            if (closed) {
+                return false;
+            }
+            refCount++;
+            lastAccessTime = System.currentTimeMillis();
+            return true;
+        }
+
+        private synchronized void release() {
+            refCount--;
+            lastAccessTime = System.currentTimeMillis();
+        }
+
+        /**
+         * 没有被持有且闲置超时时标记为关闭
+         */
+        private synchronized boolean markClosed(long idleTimeout) {
+            if (closed || refCount > 0 || System.currentTimeMillis() - lastAccessTime < idleTimeout) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+    }
+
+    /**
+     * 缓存 key，UGI 续期后会重新创建 FileSystem，旧的 FileSystem 闲置后关闭
+     */
+    private static class CacheKey {
+
+        private final String fingerprint;
+
+        private final UserGroupInformation ugi;
+
+        private CacheKey(String fingerprint, UserGroupInformation ugi) {
+            this.fingerprint = fingerprint;
+            this.ugi = ugi;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey cacheKey = (CacheKey) o;
+            return fingerprint.equals(cacheKey.fingerprint) && ugi.equals(cacheKey.ugi);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fingerprint, ugi);
+        }
+    }
+}
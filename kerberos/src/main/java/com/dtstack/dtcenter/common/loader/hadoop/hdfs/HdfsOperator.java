@@ -18,12 +18,14 @@
 
 package com.dtstack.dtcenter.common.loader.hadoop.hdfs;
 
+import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
 import com.dtstack.dtcenter.common.loader.common.exception.IErrorPattern;
 import com.dtstack.dtcenter.common.loader.common.service.ErrorAdapterImpl;
 import com.dtstack.dtcenter.common.loader.common.service.IErrorAdapter;
 import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.dtstack.dtcenter.loader.source.DataSourceType;
+import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.tuple.MutablePair;
@@ -35,6 +37,7 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.LocatedFileStatus;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.PathFilter;
 import org.apache.hadoop.fs.RemoteIterator;
 import org.apache.hadoop.fs.permission.FsPermission;
 import org.apache.hadoop.io.IOUtils;
@@ -47,6 +50,10 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -78,9 +85,8 @@ public class HdfsOperator {
      * @return
      */
     public static boolean checkConnection(String defaultFS, String config, Map<String, Object> kerberosConfig) {
-        try {
-            FileSystem fs = getFileSystem(kerberosConfig, config, defaultFS);
-            fs.getStatus(new Path("/"));
+        try (HdfsFileSystemCache.FileSystemHandle handle = acquireFileSystem(kerberosConfig, config, defaultFS)) {
+            handle.getFileSystem().getStatus(new Path("/"));
             return Boolean.TRUE;
         } catch (Exception e) {
             throw new DtLoaderException(ERROR_ADAPTER.connAdapter(e.getMessage(), ERROR_PATTERN), e);
@@ -115,6 +121,18 @@ public class HdfsOperator {
         }
     }
 
+    /**
+     * 从缓存中获取 Hdfs FileSystem，同一数据源及登录用户复用同一个 FileSystem，使用完后需要关闭句柄
+     *
+     * @param kerberosConfig kerberos 配置
+     * @param config         hadoop 配置 json
+     * @param defaultFS      defaultFS
+     * @return FileSystem 句柄
+     */
+    public static HdfsFileSystemCache.FileSystemHandle acquireFileSystem(Map<String, Object> kerberosConfig, String config, String defaultFS) {
+        return HdfsFileSystemCache.acquire(defaultFS, config, kerberosConfig);
+    }
+
     /**
      * 获取 Config 信息
      *
@@ -405,6 +423,72 @@ public class HdfsOperator {
         }
     }
 
+    /**
+     * 并行递归列出文件夹下的所有文件，同一层级的文件夹并发调用 listStatus，返回顺序与串行递归一致
+     *
+     * @param fs          HDFS 文件系统
+     * @param remotePath  文件夹路径
+     * @param filter      文件过滤器，对每一层级都生效
+     * @param parallelism 并发数
+     * @return 所有文件路径
+     */
+    public static List<String> listAllFilePathParallel(FileSystem fs, String remotePath, PathFilter filter, int parallelism) throws IOException {
+        log.info("parallel list HDFS {} file, parallelism : {}", remotePath, parallelism);
+        Path rootPath = new Path(remotePath);
+        if (!fs.exists(rootPath)) {
+            return new ArrayList<>();
+        }
+        Map<Path, FileStatus[]> children = new HashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), new DtClassThreadFactory("hdfsListStatus"));
+        try {
+            List<Path> currentLevel = Lists.newArrayList(rootPath);
+            while (!currentLevel.isEmpty()) {
+                List<Future<FileStatus[]>> futures = new ArrayList<>(currentLevel.size());
+                for (Path path : currentLevel) {
+                    futures.add(executor.submit(() -> fs.listStatus(path, filter)));
+                }
+                List<Path> nextLevel = new ArrayList<>();
+                for (int i = 0; i < currentLevel.size(); i++) {
+                    FileStatus[] statuses = futures.get(i).get();
+                    children.put(currentLevel.get(i), statuses);
+                    if (statuses == null) {
+                        continue;
+                    }
+                    for (FileStatus status : statuses) {
+                        if (!status.isFile()) {
+                            nextLevel.add(status.getPath());
+                        }
+                    }
+                }
+                currentLevel = nextLevel;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DtLoaderException(String.format("list HDFS file interrupted : %s", remotePath), e);
+        } catch (ExecutionException e) {
+            throw new IOException(String.format("list HDFS file failed : %s", e.getCause().getMessage()), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        List<String> pathList = new ArrayList<>();
+        collectFilePath(rootPath, children, pathList);
+        return pathList;
+    }
+
+    private static void collectFilePath(Path path, Map<Path, FileStatus[]> children, List<String> pathList) {
+        FileStatus[] statuses = children.get(path);
+        if (statuses == null) {
+            return;
+        }
+        for (FileStatus status : statuses) {
+            if (status.isFile()) {
+                pathList.add(status.getPath().toString());
+            } else {
+                collectFilePath(status.getPath(), children, pathList);
+            }
+        }
+    }
+
     /**
      * 设置 HDFS 文件权限
      *
@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.common.loader.hadoop.hdfs;
+
+import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
+import com.dtstack.dtcenter.common.loader.hadoop.util.KerberosLoginUtil;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * hdfs 文件并行读取，多个线程同时读取不同的切片，读取结果放入有界队列，调用方按 hasNext/next 逐行获取
+ * <p>
+ * 有序模式下每个切片单独一个队列，按切片顺序消费，与串行读取的数据顺序一致，最多预读 parallelism 个切片；
+ * 无序模式下所有切片共用一个队列，先读完的切片先返回
+ *
+ * @param <S> 切片类型，如文件路径、InputSplit
+ * @author ：wangchuan
+ * date：Created in 下午3:00 2022/6/9
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class HdfsParallelReader<S> implements Closeable {
+
+    /**
+     * 每次放入队列的行数
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    /**
+     * 每个切片队列最多缓存的批次数
+     */
+    private static final int QUEUE_CHUNK_NUM = 4;
+
+    /**
+     * 读取线程闲置多久后退出，单位：秒
+     */
+    private static final long KEEP_ALIVE_SECONDS = 30L;
+
+    /**
+     * 读取线程向队列放入数据的等待时间，超时后检查读取器是否已关闭
+     */
+    private static final long OFFER_TIMEOUT_MS = 500L;
+
+    /**
+     * 切片读取结束标识
+     */
+    private static final List<List<String>> END_OF_SPLIT = Collections.emptyList();
+
+    private final List<S> splits;
+
+    private final SplitReader<S> splitReader;
+
+    private final int parallelism;
+
+    private final boolean ordered;
+
+    private final Map<String, Object> kerberosConfig;
+
+    private final ExecutorService executor;
+
+    /**
+     * 有序模式下每个切片一个队列，无序模式下只有一个队列
+     */
+    private final List<BlockingQueue<List<List<String>>>> queues = new ArrayList<>();
+
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    /**
+     * 已提交读取的切片数
+     */
+    private int submitted = 0;
+
+    /**
+     * 有序模式下当前消费的切片，无序模式下已读取结束的切片数
+     */
+    private int current = 0;
+
+    private Iterator<List<String>> currentChunk = Collections.emptyIterator();
+
+    private volatile boolean closed = false;
+
+    public HdfsParallelReader(List<S> splits, SplitReader<S> splitReader, int parallelism, boolean ordered, Map<String, Object> kerberosConfig) {
+        this.splits = splits;
+        this.splitReader = splitReader;
+        this.parallelism = Math.max(1, parallelism);
+        this.ordered = ordered;
+        this.kerberosConfig = kerberosConfig;
+        // 调用方未关闭读取器时，守护线程不阻止 jvm 退出，闲置后自动回收
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(this.parallelism, this.parallelism, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new DtClassThreadFactory("hdfsParallelReader").newThread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+        threadPool.allowCoreThreadTimeOut(true);
+        this.executor = threadPool;
+    }
+
+    /**
+     * 开始读取，有序模式下只提交 parallelism 个切片，后续切片在前面的切片消费完后提交
+     */
+    public void start() {
+        if (ordered) {
+            while (submitted < splits.size() && submitted < parallelism) {
+                submitNext();
+            }
+            return;
+        }
+        queues.add(new ArrayBlockingQueue<>(parallelism * QUEUE_CHUNK_NUM));
+        while (submitted < splits.size()) {
+            submitNext();
+        }
+    }
+
+    /**
+     * 是否还有数据，没有数据时会阻塞等待读取线程
+     *
+     * @return 是否还有数据
+     */
+    public boolean hasNext() {
+        while (!currentChunk.hasNext()) {
+            if (closed || current >= splits.size()) {
+                return false;
+            }
+            List<List<String>> chunk = takeChunk(queues.get(ordered ? current : 0));
+            if (chunk == END_OF_SPLIT) {
+                throwIfError();
+                current++;
+                if (ordered && submitted < splits.size()) {
+                    submitNext();
+                }
+                continue;
+            }
+            currentChunk = chunk.iterator();
+        }
+        return true;
+    }
+
+    /**
+     * 获取下一行数据
+     *
+     * @return 下一行数据，没有数据时返回 null
+     */
+    public List<String> next() {
+        return hasNext() ? currentChunk.next() : null;
+    }
+
+    /**
+     * 获取下一批数据
+     *
+     * @param maxRows 最多获取的行数
+     * @return 行数据，没有数据时返回空集合
+     */
+    public List<List<String>> nextBatch(int maxRows) {
+        List<List<String>> rows = new ArrayList<>(Math.min(maxRows, CHUNK_SIZE));
+        while (rows.size() < maxRows && hasNext()) {
+            rows.add(currentChunk.next());
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+        queues.clear();
+    }
+
+    private void submitNext() {
+        S split = splits.get(submitted);
+        BlockingQueue<List<List<String>>> queue;
+        if (ordered) {
+            queue = new ArrayBlockingQueue<>(QUEUE_CHUNK_NUM);
+            queues.add(queue);
+        } else {
+            queue = queues.get(0);
+        }
+        submitted++;
+        executor.execute(() -> readSplit(split, queue));
+    }
+
+    private void readSplit(S split, BlockingQueue<List<List<String>>> queue) {
+        try {
+            KerberosLoginUtil.loginWithUGI(kerberosConfig).doAs((PrivilegedExceptionAction<Void>) () -> {
+                try (RowIterator iterator = splitReader.open(split)) {
+                    List<List<String>> chunk = new ArrayList<>(CHUNK_SIZE);
+                    List<String> row;
+                    while (!closed && (row = iterator.next()) != null) {
+                        chunk.add(row);
+                        if (chunk.size() >= CHUNK_SIZE) {
+                            if (!offer(queue, chunk)) {
+                                return null;
+                            }
+                            chunk = new ArrayList<>(CHUNK_SIZE);
+                        }
+                    }
+                    if (!chunk.isEmpty()) {
+                        offer(queue, chunk);
+                    }
+                }
+                return null;
+            });
+        } catch (Throwable e) {
+            if (!closed) {
+                log.error("read split {} error: {}", split, e.getMessage(), e);
+                error.compareAndSet(null, e);
+            }
+        } finally {
+            try {
+                offer(queue, END_OF_SPLIT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 向队列放入数据，队列已满时定时检查读取器是否已关闭，避免读取线程一直阻塞
+     *
+     * @param queue 队列
+     * @param chunk 数据
+     * @return 是否放入成功，读取器关闭时返回 false
+     * @throws InterruptedException 线程被中断
+     */
+    private boolean offer(BlockingQueue<List<List<String>>> queue, List<List<String>> chunk) throws InterruptedException {
+        while (!closed) {
+            if (queue.offer(chunk, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<List<String>> takeChunk(BlockingQueue<List<List<String>>> queue) {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DtLoaderException("interrupted while waiting for hdfs split data", e);
+        }
+    }
+
+    private void throwIfError() {
+        Throwable throwable = error.get();
+        if (Objects.nonNull(throwable)) {
+            throw new DtLoaderException(String.format("Abnormal reading file,%s", throwable.getMessage()), throwable);
+        }
+    }
+
+    /**
+     * 切片读取器，每个切片在读取线程中打开，需要保证不同切片之间没有共享的可变状态
+     *
+     * @param <S> 切片类型
+     */
+    @FunctionalInterface
+    public interface SplitReader<S> {
+
+        /**
+         * 打开切片
+         *
+         * @param split 切片
+         * @return 行迭代器
+         * @throws Exception 异常
+         */
+        RowIterator open(S split) throws Exception;
+    }
+
+    /**
+     * 切片的行迭代器
+     */
+    public interface RowIterator extends Closeable {
+
+        /**
+         * 读取下一行
+         *
+         * @return 下一行数据，读取结束返回 null
+         * @throws IOException 异常
+         */
+        List<String> next() throws IOException;
+    }
+}
@@ -20,6 +20,7 @@ package com.dtstack.dtcenter.common.loader.hadoop.util;
 
 import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
 import com.dtstack.dtcenter.common.loader.hadoop.hdfs.HadoopConfUtil;
+import com.dtstack.dtcenter.loader.dto.KerberosLoginMetricsDTO;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.dtstack.dtcenter.loader.kerberos.HadoopConfTool;
 import com.dtstack.dtcenter.loader.source.DataSourceType;
@@ -30,18 +31,31 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.security.UserGroupInformation;
 import sun.security.krb5.Config;
 
-import java.util.Iterator;
+import javax.security.auth.Subject;
+import javax.security.auth.kerberos.KerberosPrincipal;
+import javax.security.auth.kerberos.KerberosTicket;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @company: www.dtstack.com
  * @Author ：Nanqi
  * @Date ：Created in 15:59 2020/9/1
  * @Description：Kerberos 登录相关操作
+ * <p>
+ * UGI 按 principal 和 keytab 缓存，命中缓存时不加锁；未命中时同一个 principal 只有一个线程登录，
+ * 后台线程在 TGT 过期前重新登录并替换缓存，闲置超时的 UGI 从缓存中移除
  */
 @Slf4j
 public class KerberosLoginUtil {
@@ -51,34 +65,87 @@ public class KerberosLoginUtil {
     private static final String SECURITY_TO_LOCAL = "hadoop.security.auth_to_local";
     private static final String SECURITY_TO_LOCAL_DEFAULT = "RULE:[1:$1] RULE:[2:$1]";
 
-    private static ConcurrentHashMap<String, UGICacheData> UGI_INFO = new ConcurrentHashMap<>();
+    /**
+     * TGT 有效期过去该比例后续期，和 hadoop UGI 保持一致
+     */
+    private static final float TICKET_RENEW_WINDOW = 0.80f;
+
+    /**
+     * 获取不到 TGT 时的续期间隔，单位：毫秒
+     */
+    private static final long DEFAULT_RENEW_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * UGI 闲置超时时间，单位：毫秒
+     */
+    private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(30);
+
+    /**
+     * 续期检查间隔，单位：秒
+     */
+    private static final long RENEW_CHECK_INTERVAL_SECONDS = 10;
 
-    private static final ScheduledExecutorService SCHEDULED_THREAD_POOL_EXECUTOR = new ScheduledThreadPoolExecutor(1, new DtClassThreadFactory("ugiCacheFactory"));
+    private static final ConcurrentHashMap<String, UGICacheData> UGI_INFO = new ConcurrentHashMap<>();
+
+    /**
+     * 每个 principal 的登录锁，避免同一个 principal 并发登录；
+     * 锁不随 UGI 缓存清除，否则持有旧锁的线程和获取到新锁的线程会同时登录
+     */
+    private static final ConcurrentHashMap<String, Object> LOGIN_LOCKS = new ConcurrentHashMap<>();
+
+    private static final ConcurrentHashMap<String, LoginStats> LOGIN_STATS = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService SCHEDULED_THREAD_POOL_EXECUTOR = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new DtClassThreadFactory("ugiRenewFactory").newThread(r);
+        thread.setDaemon(true);
+        return thread;
+    });
 
     static {
-        SCHEDULED_THREAD_POOL_EXECUTOR.scheduleAtFixedRate(new KerberosLoginUtil.CacheTimerTask(), 0, 10, TimeUnit.SECONDS);
+        SCHEDULED_THREAD_POOL_EXECUTOR.scheduleWithFixedDelay(new KerberosLoginUtil.RenewTimerTask(), RENEW_CHECK_INTERVAL_SECONDS, RENEW_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
     }
 
-    static class CacheTimerTask implements Runnable {
+    static class RenewTimerTask implements Runnable {
         @Override
         public void run() {
-            Iterator<String> iterator = UGI_INFO.keySet().iterator();
-            while (iterator.hasNext()) {
-                clearKey(iterator.next());
+            for (Map.Entry<String, UGICacheData> entry : UGI_INFO.entrySet()) {
+                try {
+                    renewOrClear(entry.getKey(), entry.getValue());
+                } catch (Throwable e) {
+                    log.error("KerberosLogin RENEW UGI {} error: {}", entry.getKey(), e.getMessage(), e);
+                }
             }
         }
 
-        private void clearKey(String principal) {
-            UGICacheData ugiCacheData = UGI_INFO.get(principal);
-            if (ugiCacheData == null || ugiCacheData.getUgi() == null) {
-                UGI_INFO.remove(principal);
-                log.info("KerberosLogin CLEAR UGI {}", principal);
+        private void renewOrClear(String key, UGICacheData cacheData) {
+            long now = System.currentTimeMillis();
+            if (now - cacheData.getLastAccessTime() > IDLE_TIMEOUT) {
+                if (UGI_INFO.remove(key, cacheData)) {
+                    LOGIN_STATS.remove(key);
+                    log.info("KerberosLogin CLEAR UGI {}", key);
+                }
                 return;
             }
-
-            if (System.currentTimeMillis() > ugiCacheData.getTimeoutStamp()) {
-                UGI_INFO.remove(principal);
-                log.info("KerberosLogin CLEAR UGI {}", principal);
+            if (now < cacheData.getRenewTimeStamp()) {
+                return;
+            }
+            synchronized (getLoginLock(key)) {
+                if (UGI_INFO.get(key) != cacheData) {
+                    return;
+                }
+                try {
+                    UGICacheData renewed = login(key, cacheData.getPrincipal(), cacheData.getKeytab(), cacheData.getKrb5Conf(), cacheData.getConfMap());
+                    renewed.setLastAccessTime(cacheData.getLastAccessTime());
+                    UGI_INFO.replace(key, cacheData, renewed);
+                    getStats(key, cacheData.getPrincipal(), cacheData.getKeytab()).renewCount.increment();
+                    log.info("KerberosLogin RENEW UGI {}", key);
+                } catch (Exception e) {
+                    // 续期失败下次检查时重试，TGT 已经过期则移除缓存，由调用方重新登录并感知异常
+                    log.warn("KerberosLogin RENEW UGI {} failed: {}", key, e.getMessage(), e);
+                    if (Objects.nonNull(cacheData.getTgtEndTime()) && now >= cacheData.getTgtEndTime()) {
+                        UGI_INFO.remove(key, cacheData);
+                    }
+                }
             }
         }
     }
@@ -101,53 +168,90 @@ public class KerberosLoginUtil {
     }
 
     public static UserGroupInformation loginWithUGI(Map<String, Object> confMap, String principal, String keytab, String krb5Conf) {
-        synchronized (DataSourceType.class) {
-            // 非 Kerberos 认证，需要重新刷 UGI 信息
-            if (MapUtils.isEmpty(confMap)) {
-                try {
-                    UserGroupInformation currentUser = UserGroupInformation.getCurrentUser();
-                    if (UserGroupInformation.isSecurityEnabled() || !UserGroupInformation.AuthenticationMethod.SIMPLE.equals(currentUser.getAuthenticationMethod())) {
+        // 非 Kerberos 认证，需要重新刷 UGI 信息
+        if (MapUtils.isEmpty(confMap)) {
+            try {
+                UserGroupInformation currentUser = UserGroupInformation.getCurrentUser();
+                if (UserGroupInformation.isSecurityEnabled() || !UserGroupInformation.AuthenticationMethod.SIMPLE.equals(currentUser.getAuthenticationMethod())) {
+                    synchronized (DataSourceType.class) {
                         Config.refresh();
                         UserGroupInformation.setConfiguration(HadoopConfUtil.getDefaultConfiguration());
                     }
-                    return currentUser;
-                } catch (Exception e) {
-                    throw new DtLoaderException(String.format("simple login failed,%s", e.getMessage()), e);
                 }
+                return currentUser;
+            } catch (Exception e) {
+                throw new DtLoaderException(String.format("simple login failed,%s", e.getMessage()), e);
             }
+        }
 
-            //Kerberos 认证属性
-            principal = MapUtils.getString(confMap, principal);
-            keytab = MapUtils.getString(confMap, keytab);
-            krb5Conf = MapUtils.getString(confMap, krb5Conf);
-            // 兼容历史逻辑
-            if (StringUtils.isNotEmpty(keytab) && !keytab.contains("/")) {
-                keytab = MapUtils.getString(confMap, "keytabPath");
-            }
-            // 如果前端没传 Principal 则直接从 Keytab 中获取第一个 Principal
-            if (StringUtils.isEmpty(principal) && StringUtils.isNotEmpty(keytab)) {
-                principal = KerberosConfigUtil.getPrincipals(keytab).get(0);
-            }
-            // 校验 Principal 和 Keytab 文件
-            if (StringUtils.isEmpty(principal) || StringUtils.isEmpty(keytab)) {
-                throw new DtLoaderException("Kerberos Login fail, principal or keytab is null");
-            }
+        //Kerberos 认证属性
+        principal = MapUtils.getString(confMap, principal);
+        keytab = MapUtils.getString(confMap, keytab);
+        krb5Conf = MapUtils.getString(confMap, krb5Conf);
+        // 兼容历史逻辑
+        if (StringUtils.isNotEmpty(keytab) && !keytab.contains("/")) {
+            keytab = MapUtils.getString(confMap, "keytabPath");
+        }
+        // 如果前端没传 Principal 则直接从 Keytab 中获取第一个 Principal
+        if (StringUtils.isEmpty(principal) && StringUtils.isNotEmpty(keytab)) {
+            principal = KerberosConfigUtil.getPrincipals(keytab).get(0);
+        }
+        // 校验 Principal 和 Keytab 文件
+        if (StringUtils.isEmpty(principal) || StringUtils.isEmpty(keytab)) {
+            throw new DtLoaderException("Kerberos Login fail, principal or keytab is null");
+        }
 
-            // 因为 Hive 需要下载，所有优先设置 ResourceManager Principal
-            if (confMap.get(HadoopConfTool.RM_PRINCIPAL) == null) {
-                confMap.put(HadoopConfTool.RM_PRINCIPAL, principal);
-            }
+        // 因为 Hive 需要下载，所有优先设置 ResourceManager Principal
+        if (confMap.get(HadoopConfTool.RM_PRINCIPAL) == null) {
+            confMap.put(HadoopConfTool.RM_PRINCIPAL, principal);
+        }
 
-            // 处理 auth_to_local 规则，兼容所有 principal 短名处理
-            confMap.put(SECURITY_TO_LOCAL, SECURITY_TO_LOCAL_DEFAULT);
+        // 处理 auth_to_local 规则，兼容所有 principal 短名处理
+        confMap.put(SECURITY_TO_LOCAL, SECURITY_TO_LOCAL_DEFAULT);
 
-            // 判断缓存UGI，如果存在则直接使用
-            UGICacheData cacheData = UGI_INFO.get(principal + "_" + keytab);
-            if (cacheData != null) {
-                return cacheData.getUgi();
+        // 判断缓存UGI，如果存在则直接使用
+        String key = principal + "_" + keytab;
+        UGICacheData cacheData = UGI_INFO.get(key);
+        if (cacheData == null) {
+            synchronized (getLoginLock(key)) {
+                cacheData = UGI_INFO.get(key);
+                if (cacheData == null) {
+                    cacheData = login(key, principal, keytab, krb5Conf, new HashMap<>(confMap));
+                    UGI_INFO.put(key, cacheData);
+                    return cacheData.getUgi();
+                }
             }
+        }
+        cacheData.setLastAccessTime(System.currentTimeMillis());
+        getStats(key, principal, keytab).cacheHitCount.increment();
+        return cacheData.getUgi();
+    }
 
-            try {
+    /**
+     * 获取当前插件中 Kerberos 登录的运行指标
+     *
+     * @return Kerberos 登录指标
+     */
+    public static List<KerberosLoginMetricsDTO> getLoginMetrics() {
+        List<KerberosLoginMetricsDTO> metrics = new ArrayList<>(LOGIN_STATS.size());
+        for (Map.Entry<String, LoginStats> entry : LOGIN_STATS.entrySet()) {
+            metrics.add(entry.getValue().getMetrics(UGI_INFO.get(entry.getKey())));
+        }
+        return metrics;
+    }
+
+    /**
+     * 使用 keytab 登录，返回新的缓存信息
+     * <p>
+     * krb5 配置及 UGI 的 Configuration 都是 JVM 全局的，登录过程仍然需要全局加锁；
+     * 续期没有使用 checkTGTAndReloginFromKeytab，hadoop 2.x 中该方法使用静态的 keytab 信息，多个 principal 时会登录到错误的用户
+     */
+    private static UGICacheData login(String key, String principal, String keytab, String krb5Conf, Map<String, Object> confMap) {
+        LoginStats stats = getStats(key, principal, keytab);
+        long start = System.nanoTime();
+        try {
+            UserGroupInformation ugi;
+            synchronized (DataSourceType.class) {
                 // 设置 Krb5 配置文件
                 if (StringUtils.isNotEmpty(krb5Conf)) {
                     System.setProperty(HadoopConfTool.KEY_JAVA_SECURITY_KRB5_CONF, krb5Conf);
@@ -159,13 +263,107 @@ public class KerberosLoginUtil {
                 Configuration config = KerberosConfigUtil.getConfig(confMap);
                 config.set("hadoop.security.authentication", "Kerberos");
                 UserGroupInformation.setConfiguration(config);
-                UserGroupInformation ugi = UserGroupInformation.loginUserFromKeytabAndReturnUGI(principal, keytab);
-                UGI_INFO.put(principal + "_" + keytab, new UGICacheData(ugi));
+                ugi = UserGroupInformation.loginUserFromKeytabAndReturnUGI(principal, keytab);
                 log.info("login kerberos success, currentUser={}", UserGroupInformation.getCurrentUser());
-                return ugi;
-            } catch (Exception var6) {
-                throw new DtLoaderException("login kerberos failed", var6);
             }
+            stats.recordLogin(System.nanoTime() - start);
+
+            long now = System.currentTimeMillis();
+            KerberosTicket tgt = getTGT(ugi);
+            Long tgtEndTime = null;
+            long renewTimeStamp = now + DEFAULT_RENEW_INTERVAL;
+            if (Objects.nonNull(tgt)) {
+                long startTime = tgt.getStartTime().getTime();
+                tgtEndTime = tgt.getEndTime().getTime();
+                renewTimeStamp = startTime + (long) ((tgtEndTime - startTime) * TICKET_RENEW_WINDOW);
+            }
+            UGICacheData cacheData = new UGICacheData(principal, keytab, krb5Conf, confMap, ugi, now, tgtEndTime, renewTimeStamp);
+            cacheData.setLastAccessTime(now);
+            return cacheData;
+        } catch (Exception e) {
+            stats.loginFailCount.increment();
+            throw new DtLoaderException("login kerberos failed", e);
+        }
+    }
+
+    /**
+     * 获取 UGI 中的 TGT，获取不到时返回 null
+     */
+    private static KerberosTicket getTGT(UserGroupInformation ugi) {
+        Subject subject = ugi.doAs((PrivilegedAction<Subject>) () -> Subject.getSubject(AccessController.getContext()));
+        if (Objects.isNull(subject)) {
+            return null;
+        }
+        for (KerberosTicket ticket : subject.getPrivateCredentials(KerberosTicket.class)) {
+            KerberosPrincipal server = ticket.getServer();
+            if (server.getName().equals("krbtgt/" + server.getRealm() + "@" + server.getRealm())) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    private static Object getLoginLock(String key) {
+        Object lock = LOGIN_LOCKS.get(key);
+        return Objects.nonNull(lock) ? lock : LOGIN_LOCKS.computeIfAbsent(key, k -> new Object());
+    }
+
+    private static LoginStats getStats(String key, String principal, String keytab) {
+        // 缓存命中时走无锁的 get，jdk8 中 computeIfAbsent 即使 key 已存在也会锁住所在的桶
+        LoginStats stats = LOGIN_STATS.get(key);
+        return Objects.nonNull(stats) ? stats : LOGIN_STATS.computeIfAbsent(key, k -> new LoginStats(principal, keytab));
+    }
+
+    /**
+     * 登录统计信息，UGI 续期后保留
+     */
+    private static class LoginStats {
+
+        private final String principal;
+
+        private final String keytab;
+
+        private final LongAdder cacheHitCount = new LongAdder();
+
+        private final LongAdder loginCount = new LongAdder();
+
+        private final LongAdder loginFailCount = new LongAdder();
+
+        private final LongAdder renewCount = new LongAdder();
+
+        private final LongAdder loginNanos = new LongAdder();
+
+        private final AtomicLong maxLoginNanos = new AtomicLong();
+
+        private volatile long lastLoginTime;
+
+        private LoginStats(String principal, String keytab) {
+            this.principal = principal;
+            this.keytab = keytab;
+        }
+
+        private void recordLogin(long cost) {
+            loginCount.increment();
+            loginNanos.add(cost);
+            maxLoginNanos.accumulateAndGet(cost, Math::max);
+            lastLoginTime = System.currentTimeMillis();
+        }
+
+        private KerberosLoginMetricsDTO getMetrics(UGICacheData cacheData) {
+            long count = loginCount.sum();
+            return KerberosLoginMetricsDTO.builder()
+                    .principal(principal)
+                    .keytab(keytab)
+                    .cacheHitCount(cacheHitCount.sum())
+                    .loginCount(count)
+                    .loginFailCount(loginFailCount.sum())
+                    .renewCount(renewCount.sum())
+                    .avgLoginMillis(count == 0 ? 0D : loginNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1))
+                    .maxLoginMillis(TimeUnit.NANOSECONDS.toMillis(maxLoginNanos.get()))
+                    .lastLoginTime(lastLoginTime)
+                    .tgtEndTime(Objects.isNull(cacheData) ? null : cacheData.getTgtEndTime())
+                    .lastAccessTime(Objects.isNull(cacheData) ? null : cacheData.getLastAccessTime())
+                    .build();
         }
     }
 }
@@ -21,6 +21,8 @@ package com.dtstack.dtcenter.common.loader.hadoop.util;
 import lombok.Data;
 import org.apache.hadoop.security.UserGroupInformation;
 
+import java.util.Map;
+
 /**
  * @company: www.dtstack.com
  * @Author ：Nanqi
@@ -30,17 +32,47 @@ import org.apache.hadoop.security.UserGroupInformation;
 @Data
 public class UGICacheData {
     /**
-     * 过期时间戳 只有头结点才存在
+     * 登录的 principal
+     */
+    private final String principal;
+
+    /**
+     * keytab 文件路径
      */
-    private Long timeoutStamp;
+    private final String keytab;
+
+    /**
+     * krb5.conf 文件路径
+     */
+    private final String krb5Conf;
+
+    /**
+     * 登录时使用的 Kerberos 配置，续期时使用同样的配置重新登录
+     */
+    private final Map<String, Object> confMap;
 
     /**
      * UGI 信息
      */
-    private UserGroupInformation ugi;
+    private final UserGroupInformation ugi;
 
-    public UGICacheData(UserGroupInformation ugi) {
-        this.ugi = ugi;
-        timeoutStamp = System.currentTimeMillis() + 10 * 1000;
-    }
+    /**
+     * 登录时间
+     */
+    private final long loginTime;
+
+    /**
+     * TGT 过期时间，获取不到 TGT 时为空
+     */
+    private final Long tgtEndTime;
+
+    /**
+     * 续期时间戳，到达后由后台线程重新登录
+     */
+    private final long renewTimeStamp;
+
+    /**
+     * 最后一次获取 UGI 的时间，闲置超时后从缓存中移除
+     */
+    private volatile long lastAccessTime;
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.common.loader.hadoop.hdfs;
+
+import org.apache.hadoop.conf.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * hadoop 配置缓存测试
+ *
+ * @author ：wangchuan
+ * date：Created in 下午4:00 2022/6/20
+ * company: www.dtstack.com
+ */
+public class HadoopConfUtilTest {
+
+    private static final String DEFAULT_FS = "hdfs://ns1";
+
+    /**
+     * 相同的数据源配置得到相同的指纹，kerberos 配置与 key 的顺序无关，指纹中不包含明文配置
+     */
+    @Test
+    public void fingerprint() {
+        String config = "{\"dfs.nameservices\":\"ns1\",\"password\":\"secret\"}";
+        Map<String, Object> kerberosConfig = new LinkedHashMap<>();
+        kerberosConfig.put("principal", "hdfs/host@DTSTACK.COM");
+        kerberosConfig.put("principalFile", "/keytab/hdfs.keytab");
+        Map<String, Object> reversedKerberosConfig = new LinkedHashMap<>();
+        reversedKerberosConfig.put("principalFile", "/keytab/hdfs.keytab");
+        reversedKerberosConfig.put("principal", "hdfs/host@DTSTACK.COM");
+
+        String fingerprint = HadoopConfUtil.fingerprint(DEFAULT_FS, config, kerberosConfig);
+        Assert.assertEquals(fingerprint, HadoopConfUtil.fingerprint(DEFAULT_FS, config, reversedKerberosConfig));
+        Assert.assertTrue(fingerprint.matches("[0-9a-f]{64}"));
+
+        Assert.assertNotEquals(fingerprint, HadoopConfUtil.fingerprint("hdfs://ns2", config, kerberosConfig));
+        Assert.assertNotEquals(fingerprint, HadoopConfUtil.fingerprint(DEFAULT_FS, "{\"dfs.nameservices\":\"ns2\"}", kerberosConfig));
+        Assert.assertNotEquals(fingerprint, HadoopConfUtil.fingerprint(DEFAULT_FS, config, null));
+        // 参数之间有分隔符，拼接结果相同的不同参数得到不同的指纹
+        Assert.assertNotEquals(HadoopConfUtil.fingerprint("ab", "c", null), HadoopConfUtil.fingerprint("a", "bc", null));
+        Assert.assertEquals(HadoopConfUtil.fingerprint(DEFAULT_FS, config, null), HadoopConfUtil.fingerprint(DEFAULT_FS, config, new LinkedHashMap<>()));
+    }
+
+    /**
+     * 相同的数据源配置使用缓存，每次返回缓存配置的拷贝
+     */
+    @Test
+    public void getHdfsConfCopyOnRead() {
+        String config = String.format("{\"dfs.nameservices\":\"%s\"}", UUID.randomUUID());
+        Configuration conf = HadoopConfUtil.getHdfsConf(DEFAULT_FS, config, null);
+        Configuration other = HadoopConfUtil.getHdfsConf(DEFAULT_FS, config, null);
+        Assert.assertNotSame(conf, other);
+        Assert.assertEquals(DEFAULT_FS, conf.get("fs.defaultFS"));
+        Assert.assertEquals(conf.get("dfs.nameservices"), other.get("dfs.nameservices"));
+        Assert.assertTrue(conf.getBoolean("fs.hdfs.impl.disable.cache", false));
+    }
+
+    /**
+     * 修改返回的配置不影响缓存中的配置
+     */
+    @Test
+    public void getHdfsConfMutationNotLeak() {
+        String config = String.format("{\"dfs.nameservices\":\"%s\"}", UUID.randomUUID());
+        Configuration conf = HadoopConfUtil.getHdfsConf(DEFAULT_FS, config, null);
+        String nameservices = conf.get("dfs.nameservices");
+        conf.set("dfs.nameservices", "changed");
+        conf.set("dfs.client.changed", "true");
+        conf.unset("fs.defaultFS");
+
+        Configuration cached = HadoopConfUtil.getHdfsConf(DEFAULT_FS, config, null);
+        Assert.assertEquals(nameservices, cached.get("dfs.nameservices"));
+        Assert.assertNull(cached.get("dfs.client.changed"));
+        Assert.assertEquals(DEFAULT_FS, cached.get("fs.defaultFS"));
+    }
+
+    /**
+     * tbds 认证信息参与指纹计算，不同的认证信息使用不同的缓存
+     */
+    @Test
+    public void getTbdsHdfsConf() {
+        String config = String.format("{\"dfs.nameservices\":\"%s\"}", UUID.randomUUID());
+        Configuration conf = HadoopConfUtil.getHdfsConf("user", "id", "key1", DEFAULT_FS, config, null);
+        Configuration other = HadoopConfUtil.getHdfsConf("user", "id", "key2", DEFAULT_FS, config, null);
+        Assert.assertEquals("key1", conf.get("hadoop_security_authentication_tbds_securekey"));
+        Assert.assertEquals("key2", other.get("hadoop_security_authentication_tbds_securekey"));
+        Assert.assertNull(HadoopConfUtil.getHdfsConf(DEFAULT_FS, config, null).get("hadoop_security_authentication_tbds_securekey"));
+    }
+
+    /**
+     * 没有任何 hdfs 配置时使用默认配置
+     */
+    @Test
+    public void getHdfsConfWithoutConfig() {
+        Assert.assertSame(HadoopConfUtil.getDefaultConfiguration(), HadoopConfUtil.getHdfsConf(null, null, null));
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.common.loader.hadoop.hdfs;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hdfs FileSystem 缓存测试，使用本地文件系统并记录 FileSystem 是否被关闭
+ *
+ * @author ：wangchuan
+ * date：Created in 下午4:00 2022/6/20
+ * company: www.dtstack.com
+ */
+public class HdfsFileSystemCacheTest {
+
+    private static final String DEFAULT_FS = "file:///";
+
+    @Before
+    public void setUp() {
+        HdfsFileSystemCache.closeIdle();
+    }
+
+    @After
+    public void tearDown() {
+        HdfsFileSystemCache.closeIdle();
+    }
+
+    /**
+     * 相同数据源共用 FileSystem，所有句柄释放后才会被关闭，重复关闭句柄只释放一次引用
+     */
+    @Test
+    public void refCount() throws IOException {
+        String config = newConfig();
+        HdfsFileSystemCache.FileSystemHandle handle = HdfsFileSystemCache.acquire(DEFAULT_FS, config, null);
+        HdfsFileSystemCache.FileSystemHandle other = HdfsFileSystemCache.acquire(DEFAULT_FS, config, null);
+        TrackingLocalFileSystem fileSystem = tracking(handle);
+        Assert.assertSame(fileSystem, other.getFileSystem());
+
+        handle.close();
+        handle.close();
+        HdfsFileSystemCache.closeIdle();
+        Assert.assertFalse(fileSystem.closed);
+        Assert.assertTrue(other.getFileSystem().exists(new Path("/")));
+
+        other.close();
+        HdfsFileSystemCache.closeIdle();
+        Assert.assertTrue(fileSystem.closed);
+
+        try (HdfsFileSystemCache.FileSystemHandle recreated = HdfsFileSystemCache.acquire(DEFAULT_FS, config, null)) {
+            Assert.assertNotSame(fileSystem, recreated.getFileSystem());
+            Assert.assertFalse(tracking(recreated).closed);
+        }
+    }
+
+    /**
+     * 没有被持有且闲置超时的 FileSystem 被关闭
+     */
+    @Test
+    public void evictIdle() throws InterruptedException {
+        TrackingLocalFileSystem fileSystem;
+        try (HdfsFileSystemCache.FileSystemHandle handle = HdfsFileSystemCache.acquire(DEFAULT_FS, newConfig(), null)) {
+            fileSystem = tracking(handle);
+        }
+        HdfsFileSystemCache.evictIdle(TimeUnit.MINUTES.toMillis(10));
+        Assert.assertFalse(fileSystem.closed);
+
+        TimeUnit.MILLISECONDS.sleep(20);
+        HdfsFileSystemCache.evictIdle(10);
+        Assert.assertTrue(fileSystem.closed);
+    }
+
+    /**
+     * 被持有的 FileSystem 闲置超时也不会被关闭
+     */
+    @Test
+    public void evictIdleInUse() throws InterruptedException, IOException {
+        try (HdfsFileSystemCache.FileSystemHandle handle = HdfsFileSystemCache.acquire(DEFAULT_FS, newConfig(), null)) {
+            TimeUnit.MILLISECONDS.sleep(20);
+            HdfsFileSystemCache.evictIdle(10);
+            Assert.assertFalse(tracking(handle).closed);
+            Assert.assertTrue(handle.getFileSystem().exists(new Path("/")));
+        }
+    }
+
+    /**
+     * 数量超过上限时关闭最久未使用的空闲 FileSystem，被持有的 FileSystem 不会被关闭
+     */
+    @Test
+    public void evictLeastRecentlyUsed() throws InterruptedException, IOException {
+        HdfsFileSystemCache.FileSystemHandle inUse = HdfsFileSystemCache.acquire(DEFAULT_FS, newConfig(), null);
+        TimeUnit.MILLISECONDS.sleep(5);
+        TrackingLocalFileSystem eldest;
+        try (HdfsFileSystemCache.FileSystemHandle handle = HdfsFileSystemCache.acquire(DEFAULT_FS, newConfig(), null)) {
+            eldest = tracking(handle);
+        }
+        TimeUnit.MILLISECONDS.sleep(5);
+
+        List<TrackingLocalFileSystem> others = new ArrayList<>();
+        for (int i = 2; i < HdfsFileSystemCache.MAX_FILE_SYSTEM_NUM; i++) {
+            try (HdfsFileSystemCache.FileSystemHandle handle = HdfsFileSystemCache.acquire(DEFAULT_FS, newConfig(), null)) {
+                others.add(tracking(handle));
+            }
+        }
+        Assert.assertFalse(eldest.closed);
+
+        try (HdfsFileSystemCache.FileSystemHandle handle = HdfsFileSystemCache.acquire(DEFAULT_FS, newConfig(), null)) {
+            Assert.assertFalse(tracking(handle).closed);
+        }
+        Assert.assertTrue(eldest.closed);
+        Assert.assertFalse(tracking(inUse).closed);
+        Assert.assertTrue(inUse.getFileSystem().exists(new Path("/")));
+        for (TrackingLocalFileSystem other : others) {
+            Assert.assertFalse(other.closed);
+        }
+        inUse.close();
+    }
+
+    /**
+     * 所有 FileSystem 都被持有时超过上限也不会关闭
+     */
+    @Test
+    public void evictLeastRecentlyUsedAllInUse() {
+        List<HdfsFileSystemCache.FileSystemHandle> handles = new ArrayList<>();
+        try {
+            for (int i = 0; i <= HdfsFileSystemCache.MAX_FILE_SYSTEM_NUM; i++) {
+                handles.add(HdfsFileSystemCache.acquire(DEFAULT_FS, newConfig(), null));
+            }
+            for (HdfsFileSystemCache.FileSystemHandle handle : handles) {
+                Assert.assertFalse(tracking(handle).closed);
+            }
+        } finally {
+            handles.forEach(HdfsFileSystemCache.FileSystemHandle::close);
+        }
+    }
+
+    /**
+     * 每次使用不同的配置，对应缓存中不同的 FileSystem
+     */
+    private static String newConfig() {
+        return String.format("{\"fs.file.impl\":\"%s\",\"test.id\":\"%s\"}", TrackingLocalFileSystem.class.getName(), UUID.randomUUID());
+    }
+
+    private static TrackingLocalFileSystem tracking(HdfsFileSystemCache.FileSystemHandle handle) {
+        FileSystem fileSystem = handle.getFileSystem();
+        Assert.assertTrue(fileSystem instanceof TrackingLocalFileSystem);
+        return (TrackingLocalFileSystem) fileSystem;
+    }
+
+    /**
+     * 记录是否被关闭的本地文件系统
+     */
+    public static class TrackingLocalFileSystem extends LocalFileSystem {
+
+        private volatile boolean closed = false;
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -18,6 +18,7 @@
 
 package com.dtstack.dtcenter.common.loader.kylin;
 
+import com.dtstack.dtcenter.common.loader.common.utils.PreparedSql;
 import com.dtstack.dtcenter.common.loader.common.utils.SqlFormatUtil;
 import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.dto.Column;
@@ -54,6 +55,8 @@ public class KylinDownloader implements IDownloader {
 
     private String sql;
 
+    private PreparedSql preparedSql;
+
     private String schema;
 
     private Statement statement;
@@ -64,7 +67,8 @@ public class KylinDownloader implements IDownloader {
 
     public KylinDownloader(Connection connection, String sql, String schema) {
         this.connection = connection;
-        this.sql = SqlFormatUtil.formatSql(sql);
+        this.preparedSql = SqlFormatUtil.prepare(sql);
+        this.sql = preparedSql.getSql();
         this.schema = schema;
     }
 
@@ -78,8 +82,8 @@ public class KylinDownloader implements IDownloader {
         pageNum = 1;
         statement = connection.createStatement();
 
-        String countSQL = String.format("SELECT COUNT(*) FROM (%s) temp", sql);
-        String showColumns = String.format("SELECT * FROM (%s) t limit 1", sql);
+        String countSQL = preparedSql.wrap("SELECT COUNT(*) FROM (%s) temp");
+        String showColumns = preparedSql.wrap("SELECT * FROM (%s) t limit 1");
         ResultSet totalResultSet = null;
         ResultSet columnsResultSet = null;
         try {
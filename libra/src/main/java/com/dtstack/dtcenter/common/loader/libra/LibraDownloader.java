@@ -18,7 +18,10 @@
 
 package com.dtstack.dtcenter.common.loader.libra;
 
+import com.dtstack.dtcenter.common.loader.common.utils.PreparedSql;
 import com.dtstack.dtcenter.common.loader.common.utils.SqlFormatUtil;
+import com.dtstack.dtcenter.common.loader.rdbms.IPageDialect;
+import com.dtstack.dtcenter.common.loader.rdbms.RdbmsPagination;
 import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.google.common.collect.Lists;
@@ -28,7 +31,6 @@ import org.apache.commons.lang3.StringUtils;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.Statement;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -41,7 +43,7 @@ import java.util.Objects;
  * company: www.dtstack.com
  */
 @Slf4j
-public class LibraDownloader implements IDownloader {
+public class LibraDownloader implements IDownloader, IPageDialect {
 
     private final List<String> columnNames = Lists.newArrayList();
 
@@ -49,6 +51,8 @@ public class LibraDownloader implements IDownloader {
 
     private final String sql;
 
+    private final PreparedSql preparedSql;
+
     private final String schema;
 
     private Statement statement;
@@ -61,12 +65,15 @@ public class LibraDownloader implements IDownloader {
 
     private int columnCount;
 
+    private RdbmsPagination pagination;
+
     // 切换 schema 命令
     private static final String SWITCH_SCHEMA = "set search_path to %s";
 
     public LibraDownloader(Connection connection, String sql, String schema) {
         this.connection = connection;
-        this.sql = SqlFormatUtil.formatSql(sql);
+        this.preparedSql = SqlFormatUtil.prepare(sql);
+        this.sql = preparedSql.getSql();
         this.schema = schema;
     }
 
@@ -86,8 +93,8 @@ public class LibraDownloader implements IDownloader {
             }
         }
 
-        String countSQL = String.format("SELECT COUNT(1) FROM (%s) temp", sql);
-        String showColumns = String.format("SELECT * FROM (%s) t limit 1", sql);
+        String countSQL = preparedSql.wrap("SELECT COUNT(1) FROM (%s) temp");
+        String showColumns = preparedSql.wrap("SELECT * FROM (%s) t limit 1");
         ResultSet totalResultSet = null;
         ResultSet columnsResultSet = null;
         try {
@@ -104,6 +111,9 @@ public class LibraDownloader implements IDownloader {
             }
             // 获取总页数
             pageAll = (int) Math.ceil(totalLine / (double) pageSize);
+            // 优先使用主键或唯一索引分页
+            pagination = new RdbmsPagination(connection, sql, schema, this, pageSize);
+            pagination.init(getMetaInfo());
         } catch (Exception e) {
             throw new DtLoaderException("build Libra downloader message exception : " + e.getMessage(), e);
         } finally {
@@ -124,38 +134,41 @@ public class LibraDownloader implements IDownloader {
 
     @Override
     public List<List<String>> readNext() {
-        //分页查询，一次一百条
-        String limitSQL = String.format("SELECT * FROM (%s) t limit %s offset %s", sql, pageSize, pageSize * (pageNum - 1));
-        List<List<String>> pageTemp = new ArrayList<>(100);
-
-        try (ResultSet resultSet = statement.executeQuery(limitSQL)) {
-            while (resultSet.next()) {
-                List<String> columns = new ArrayList<>(columnCount);
-                for (int i = 1; i <= columnCount; i++) {
-                    columns.add(resultSet.getString(i));
-                }
-                pageTemp.add(columns);
-            }
-        } catch (Exception e) {
-            throw new DtLoaderException("read Libra message exception : " + e.getMessage(), e);
-        }
-
+        List<List<String>> pageTemp = pagination.readNext();
         pageNum++;
         return pageTemp;
     }
 
     @Override
     public boolean reachedEnd() {
-        return pageAll < pageNum;
+        return pageAll < pageNum || pagination.reachedEnd();
     }
 
     @Override
     public boolean close() throws Exception {
+        if (pagination != null) {
+            pagination.close();
+        }
         statement.close();
         connection.close();
         return true;
     }
 
+    @Override
+    public String quote(String identifier) {
+        return String.format("\"%s\"", identifier);
+    }
+
+    @Override
+    public String limitSql(String sql, String where, String orderBy, int limit) {
+        return String.format("SELECT * FROM (%s) t%s ORDER BY %s LIMIT %s", sql, where, orderBy, limit);
+    }
+
+    @Override
+    public String offsetSql(String sql, List<String> columns, int offset, int limit) {
+        return String.format("SELECT * FROM (%s) t limit %s offset %s", sql, limit, offset);
+    }
+
     @Override
     public String getFileName() {
         return null;
@@ -20,6 +20,7 @@ package com.dtstack.dtcenter.common.loader.mysql5;
 
 import com.dtstack.dtcenter.common.loader.common.DtClassConsistent;
 import com.dtstack.dtcenter.common.loader.common.utils.DBUtil;
+import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
 import com.dtstack.dtcenter.common.loader.rdbms.AbsRdbmsClient;
 import com.dtstack.dtcenter.common.loader.rdbms.ConnFactory;
 import com.dtstack.dtcenter.loader.IDownloader;
@@ -162,7 +163,13 @@ public class MysqlClient extends AbsRdbmsClient {
     @Override
     public IDownloader getDownloader(ISourceDTO source, SqlQueryDTO queryDTO) throws Exception {
         Mysql5SourceDTO mysql5SourceDTO = (Mysql5SourceDTO) source;
-        MysqlDownloader mysqlDownloader = new MysqlDownloader(getCon(source), queryDTO.getSql(), mysql5SourceDTO.getSchema());
+        MysqlDownloader mysqlDownloader;
+        if (ReflectUtil.fieldExists(SqlQueryDTO.class, "streamingRead")) {
+            mysqlDownloader = new MysqlDownloader(getCon(source), queryDTO.getSql(), mysql5SourceDTO.getSchema(),
+                    queryDTO.getStreamingRead(), queryDTO.getReadBatchSize(), queryDTO.getFetchSize());
+        } else {
+            mysqlDownloader = new MysqlDownloader(getCon(source), queryDTO.getSql(), mysql5SourceDTO.getSchema());
+        }
         mysqlDownloader.configure();
         return mysqlDownloader;
     }
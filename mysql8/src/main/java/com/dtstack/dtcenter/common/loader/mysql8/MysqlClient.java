@@ -20,6 +20,7 @@ package com.dtstack.dtcenter.common.loader.mysql8;
 
 import com.dtstack.dtcenter.common.loader.common.DtClassConsistent;
 import com.dtstack.dtcenter.common.loader.common.utils.DBUtil;
+import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
 import com.dtstack.dtcenter.common.loader.rdbms.AbsRdbmsClient;
 import com.dtstack.dtcenter.common.loader.rdbms.ConnFactory;
 import com.dtstack.dtcenter.loader.IDownloader;
@@ -108,7 +109,13 @@ public class MysqlClient extends AbsRdbmsClient {
     @Override
     public IDownloader getDownloader(ISourceDTO source, SqlQueryDTO queryDTO) throws Exception {
         Mysql8SourceDTO mysql8SourceDTO = (Mysql8SourceDTO) source;
-        MysqlDownloader mysqlDownloader = new MysqlDownloader(getCon(source), queryDTO.getSql(), mysql8SourceDTO.getSchema());
+        MysqlDownloader mysqlDownloader;
+        if (ReflectUtil.fieldExists(SqlQueryDTO.class, "streamingRead")) {
+            mysqlDownloader = new MysqlDownloader(getCon(source), queryDTO.getSql(), mysql8SourceDTO.getSchema(),
+                    queryDTO.getStreamingRead(), queryDTO.getReadBatchSize(), queryDTO.getFetchSize());
+        } else {
+            mysqlDownloader = new MysqlDownloader(getCon(source), queryDTO.getSql(), mysql8SourceDTO.getSchema());
+        }
         mysqlDownloader.configure();
         return mysqlDownloader;
     }
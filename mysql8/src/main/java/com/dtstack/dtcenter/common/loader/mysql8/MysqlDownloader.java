@@ -18,11 +18,14 @@
 
 package com.dtstack.dtcenter.common.loader.mysql8;
 
+import com.dtstack.dtcenter.common.loader.common.enums.SqlDialect;
+import com.dtstack.dtcenter.common.loader.common.utils.PreparedSql;
 import com.dtstack.dtcenter.common.loader.common.utils.SqlFormatUtil;
 import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.dto.Column;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.sql.Connection;
@@ -31,6 +34,7 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -55,6 +59,8 @@ public class MysqlDownloader implements IDownloader {
 
     private String sql;
 
+    private PreparedSql preparedSql;
+
     private String schema;
 
     private Statement statement;
@@ -63,10 +69,45 @@ public class MysqlDownloader implements IDownloader {
 
     private int columnCount;
 
+    /**
+     * 是否使用游标流式读取
+     */
+    private boolean streamingRead;
+
+    /**
+     * JDBC 每次从服务端拉取的条数，仅在开启 useCursorFetch 时生效
+     */
+    private Integer fetchSize;
+
+    /**
+     * 流式读取的结果集
+     */
+    private ResultSet resultSet;
+
+    /**
+     * 流式读取时游标是否还有下一行
+     */
+    private boolean hasNext;
+
+    // 默认每次 readNext 返回的条数
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    // 开启服务端游标的 jdbc 参数
+    private static final String USE_CURSOR_FETCH = "useCursorFetch=true";
+
     public MysqlDownloader(Connection connection, String sql, String schema) {
+        this(connection, sql, schema, false, null, null);
+    }
+
+    public MysqlDownloader(Connection connection, String sql, String schema, Boolean streamingRead, Integer readBatchSize, Integer fetchSize) {
         this.connection = connection;
-        this.sql = SqlFormatUtil.formatSql(sql);
+        // mysql 字符串中 \ 为转义符
+        this.preparedSql = SqlFormatUtil.prepare(sql, SqlDialect.MYSQL);
+        this.sql = preparedSql.getSql();
         this.schema = schema;
+        this.streamingRead = BooleanUtils.isTrue(streamingRead);
+        this.pageSize = Objects.nonNull(readBatchSize) && readBatchSize > 0 ? readBatchSize : DEFAULT_PAGE_SIZE;
+        this.fetchSize = fetchSize;
     }
 
     @Override
@@ -75,17 +116,20 @@ public class MysqlDownloader implements IDownloader {
             throw new DtLoaderException("file is not exist");
         }
         totalLine = 0;
-        pageSize = 100;
         pageNum = 1;
-        statement = connection.createStatement();
+        statement = streamingRead ?
+                connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY) : connection.createStatement();
 
         if (StringUtils.isNotEmpty(schema)) {
             //选择schema
             String useSchema = String.format("USE %s", schema);
             statement.execute(useSchema);
         }
-        String countSQL = String.format("SELECT COUNT(*) FROM (%s) temp", sql);
-        String showColumns = String.format("SELECT * FROM (%s) t limit 1", sql);
+        if (streamingRead) {
+            return configureStreaming();
+        }
+        String countSQL = preparedSql.wrap("SELECT COUNT(*) FROM (%s) temp");
+        String showColumns = preparedSql.wrap("SELECT * FROM (%s) t limit 1");
 
         ResultSet totalResultSet = null;
         ResultSet columnsResultSet = null;
@@ -121,6 +165,45 @@ public class MysqlDownloader implements IDownloader {
         return true;
     }
 
+    /**
+     * 流式读取：只执行一次查询，通过游标逐批返回数据，不再统计总条数
+     *
+     * @return 是否配置成功
+     */
+    private boolean configureStreaming() {
+        try {
+            // 开启 useCursorFetch 时使用服务端游标按 fetchSize 拉取，否则使用 Integer.MIN_VALUE 逐行流式读取
+            statement.setFetchSize(useCursorFetch() && Objects.nonNull(fetchSize) && fetchSize > 0 ? fetchSize : Integer.MIN_VALUE);
+            resultSet = statement.executeQuery(sql);
+            columnCount = resultSet.getMetaData().getColumnCount();
+            columnNames = new ArrayList<>();
+            for (int i = 1; i <= columnCount; i++) {
+                Column column = new Column();
+                column.setName(resultSet.getMetaData().getColumnName(i));
+                column.setType(resultSet.getMetaData().getColumnTypeName(i));
+                column.setIndex(i);
+                columnNames.add(column);
+            }
+            hasNext = resultSet.next();
+        } catch (Exception e) {
+            throw new DtLoaderException("build Mysql downloader message exception : " + e.getMessage(), e);
+        }
+        return true;
+    }
+
+    /**
+     * 判断当前连接是否开启了 useCursorFetch
+     *
+     * @return 是否开启
+     */
+    private boolean useCursorFetch() {
+        try {
+            return StringUtils.containsIgnoreCase(connection.getMetaData().getURL(), USE_CURSOR_FETCH);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     @Override
     public List<String> getMetaInfo() {
         if (CollectionUtils.isNotEmpty(columnNames)) {
@@ -131,9 +214,12 @@ public class MysqlDownloader implements IDownloader {
 
     @Override
     public List<List<String>> readNext() {
+        if (streamingRead) {
+            return readNextFromCursor();
+        }
         //分页查询，一次一百条
         String limitSQL = String.format("SELECT * FROM (%s) t limit %s,%s", sql, pageSize * (pageNum - 1), pageSize);
-        List<List<String>> pageTemp = new ArrayList<>(100);
+        List<List<String>> pageTemp = new ArrayList<>(pageSize);
 
         try (ResultSet resultSet = statement.executeQuery(limitSQL)) {
             while (resultSet.next()) {
@@ -151,13 +237,42 @@ public class MysqlDownloader implements IDownloader {
         return pageTemp;
     }
 
+    /**
+     * 从游标中读取下一批数据
+     *
+     * @return 下一批数据
+     */
+    private List<List<String>> readNextFromCursor() {
+        List<List<String>> pageTemp = new ArrayList<>(pageSize);
+        try {
+            while (hasNext && pageTemp.size() < pageSize) {
+                List<String> columns = new ArrayList<>(columnCount);
+                for (int i = 1; i <= columnCount; i++) {
+                    columns.add(resultSet.getString(i));
+                }
+                pageTemp.add(columns);
+                hasNext = resultSet.next();
+            }
+        } catch (Exception e) {
+            throw new DtLoaderException("read Mysql message exception : " + e.getMessage(), e);
+        }
+        pageNum++;
+        return pageTemp;
+    }
+
     @Override
     public boolean reachedEnd() {
+        if (streamingRead) {
+            return !hasNext;
+        }
         return pageAll < pageNum;
     }
 
     @Override
     public boolean close() throws Exception {
+        if (resultSet != null) {
+            resultSet.close();
+        }
         statement.close();
         connection.close();
         return true;
@@ -18,7 +18,11 @@
 
 package com.dtstack.dtcenter.common.loader.oceanbase;
 
+import com.dtstack.dtcenter.common.loader.common.enums.SqlDialect;
+import com.dtstack.dtcenter.common.loader.common.utils.PreparedSql;
 import com.dtstack.dtcenter.common.loader.common.utils.SqlFormatUtil;
+import com.dtstack.dtcenter.common.loader.rdbms.IPageDialect;
+import com.dtstack.dtcenter.common.loader.rdbms.RdbmsPagination;
 import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.dto.Column;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
@@ -40,7 +44,7 @@ import java.util.stream.Collectors;
  * @Description：OceanBase表下载
  */
 
-public class OceanBaseDownloader implements IDownloader {
+public class OceanBaseDownloader implements IDownloader, IPageDialect {
 
     private int pageNum;
 
@@ -54,6 +58,8 @@ public class OceanBaseDownloader implements IDownloader {
 
     private String sql;
 
+    private PreparedSql preparedSql;
+
 
     private Statement statement;
 
@@ -61,9 +67,13 @@ public class OceanBaseDownloader implements IDownloader {
 
     private int columnCount;
 
+    private RdbmsPagination pagination;
+
     public OceanBaseDownloader(Connection connection, String sql) {
         this.connection = connection;
-        this.sql = SqlFormatUtil.formatSql(sql);
+        // mysql 字符串中 \ 为转义符
+        this.preparedSql = SqlFormatUtil.prepare(sql, SqlDialect.MYSQL);
+        this.sql = preparedSql.getSql();
     }
 
     @Override
@@ -76,8 +86,8 @@ public class OceanBaseDownloader implements IDownloader {
         pageNum = 1;
         statement = connection.createStatement();
 
-        String countSQL = String.format("SELECT COUNT(*) FROM (%s) temp", sql);
-        String showColumns = String.format("SELECT * FROM (%s) t limit 1", sql);
+        String countSQL = preparedSql.wrap("SELECT COUNT(*) FROM (%s) temp");
+        String showColumns = preparedSql.wrap("SELECT * FROM (%s) t limit 1");
 
         ResultSet totalResultSet = null;
         ResultSet columnsResultSet = null;
@@ -100,6 +110,9 @@ public class OceanBaseDownloader implements IDownloader {
             }
             //获取总页数
             pageAll = (int) Math.ceil(totalLine / (double) pageSize);
+            // 优先使用主键或唯一索引分页
+            pagination = new RdbmsPagination(connection, sql, null, this, pageSize);
+            pagination.init(getMetaInfo());
         } catch (Exception e) {
             throw new DtLoaderException("build OceanBase downloader message exception : " + e.getMessage(), e);
         } finally {
@@ -123,38 +136,41 @@ public class OceanBaseDownloader implements IDownloader {
 
     @Override
     public List<List<String>> readNext() {
-        //分页查询，一次一百条
-        String limitSQL = String.format("SELECT * FROM (%s) t limit %s,%s", sql, pageSize * (pageNum - 1), pageSize);
-        List<List<String>> pageTemp = new ArrayList<>(100);
-
-        try (ResultSet resultSet = statement.executeQuery(limitSQL)) {
-            while (resultSet.next()) {
-                List<String> columns = new ArrayList<>(columnCount);
-                for (int i = 1; i <= columnCount; i++) {
-                    columns.add(resultSet.getString(i));
-                }
-                pageTemp.add(columns);
-            }
-        } catch (Exception e) {
-            throw new DtLoaderException("read OceanBase message exception : " + e.getMessage(), e);
-        }
-
+        List<List<String>> pageTemp = pagination.readNext();
         pageNum++;
         return pageTemp;
     }
 
     @Override
     public boolean reachedEnd() {
-        return pageAll < pageNum;
+        return pageAll < pageNum || pagination.reachedEnd();
     }
 
     @Override
     public boolean close() throws Exception {
+        if (pagination != null) {
+            pagination.close();
+        }
         statement.close();
         connection.close();
         return true;
     }
 
+    @Override
+    public String quote(String identifier) {
+        return String.format("`%s`", identifier);
+    }
+
+    @Override
+    public String limitSql(String sql, String where, String orderBy, int limit) {
+        return String.format("SELECT * FROM (%s) t%s ORDER BY %s LIMIT %s", sql, where, orderBy, limit);
+    }
+
+    @Override
+    public String offsetSql(String sql, List<String> columns, int offset, int limit) {
+        return String.format("SELECT * FROM (%s) t limit %s,%s", sql, offset, limit);
+    }
+
     @Override
     public String getFileName() {
         return null;
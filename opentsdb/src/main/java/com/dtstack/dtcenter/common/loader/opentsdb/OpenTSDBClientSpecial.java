@@ -20,11 +20,14 @@ package com.dtstack.dtcenter.common.loader.opentsdb;
 
 import com.dtstack.dtcenter.common.loader.opentsdb.tsdb.OpenTSDBConnFactory;
 import com.dtstack.dtcenter.common.loader.opentsdb.tsdb.TSDB;
+import com.dtstack.dtcenter.common.loader.opentsdb.tsdb.TSDBClientManager;
 import com.dtstack.dtcenter.loader.client.ITsdb;
 import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
+import com.dtstack.dtcenter.loader.dto.source.OpenTSDBSourceDTO;
 import com.dtstack.dtcenter.loader.dto.tsdb.QueryResult;
 import com.dtstack.dtcenter.loader.dto.tsdb.Suggest;
 import com.dtstack.dtcenter.loader.dto.tsdb.TsdbPoint;
+import com.dtstack.dtcenter.loader.dto.tsdb.TsdbPutConfig;
 import com.dtstack.dtcenter.loader.dto.tsdb.TsdbQuery;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 
@@ -51,6 +54,18 @@ public class OpenTSDBClientSpecial implements ITsdb {
         }
     }
 
+    @Override
+    public Boolean putAsync(ISourceDTO source, Collection<TsdbPoint> points, TsdbPutConfig putConfig) {
+        TSDBClientManager.getInstance().putAsync((OpenTSDBSourceDTO) source, points, putConfig);
+        return true;
+    }
+
+    @Override
+    public Boolean flush(ISourceDTO source) {
+        TSDBClientManager.getInstance().flush((OpenTSDBSourceDTO) source);
+        return true;
+    }
+
     @Override
     public List<QueryResult> query(ISourceDTO source, TsdbQuery query) {
         try (TSDB openTSDBClient = OpenTSDBConnFactory.getOpenTSDBClient(source)) {
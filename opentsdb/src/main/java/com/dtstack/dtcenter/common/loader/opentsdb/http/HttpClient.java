@@ -25,6 +25,7 @@ import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 
@@ -37,7 +38,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -62,15 +63,15 @@ public class HttpClient {
     private final HttpAddressManager httpAddressManager;
 
     /**
-     * 清除空闲连接服务
+     * 清除空闲连接定时任务
      */
-    private final ScheduledExecutorService clearConnService;
+    private final ScheduledFuture<?> clearConnTask;
 
-    HttpClient(OpenTSDBSourceDTO sourceDTO, CloseableHttpAsyncClient httpclient, ScheduledExecutorService clearConnService) {
+    HttpClient(OpenTSDBSourceDTO sourceDTO, CloseableHttpAsyncClient httpclient, ScheduledFuture<?> clearConnTask) {
         this.httpclient = httpclient;
         this.httpAddressManager = HttpAddressManager.createHttpAddressManager(sourceDTO);
         this.unCompletedTaskNum = new AtomicInteger(0);
-        this.clearConnService = clearConnService;
+        this.clearConnTask = clearConnTask;
     }
 
     public void close() throws IOException {
@@ -100,16 +101,20 @@ public class HttpClient {
                 }
             }
         }
-        clearConnService.shutdownNow();
+        clearConnTask.cancel(false);
         // 关闭
         httpclient.close();
     }
 
+    /**
+     * 是否没有未完成的请求
+     */
+    public boolean isIdle() {
+        return unCompletedTaskNum.get() == 0;
+    }
+
     private HttpResponse execute(HttpEntityEnclosingRequestBase request, String json) {
-        if (json != null && json.length() > 0) {
-            request.addHeader("Content-Type", "application/json");
-            request.setEntity(generateStringEntity(json));
-        }
+        setJsonEntity(request, json);
         unCompletedTaskNum.incrementAndGet();
         Future<HttpResponse> future = httpclient.execute(request, null);
         try {
@@ -121,6 +126,13 @@ public class HttpClient {
         }
     }
 
+    private void setJsonEntity(HttpEntityEnclosingRequestBase request, String json) {
+        if (json != null && json.length() > 0) {
+            request.addHeader("Content-Type", "application/json");
+            request.setEntity(generateStringEntity(json));
+        }
+    }
+
     private StringEntity generateStringEntity(String json) {
         return new StringEntity(json, DEFAULT_CHARSET);
     }
@@ -140,6 +152,53 @@ public class HttpClient {
         return execute(request, json);
     }
 
+    /**
+     * 异步发送 post 请求，不等待返回结果，请求结束后回调
+     *
+     * @param apiPath  api 路径
+     * @param json     请求体
+     * @param callback 回调
+     * @return 请求结果
+     */
+    public Future<HttpResponse> postAsync(String apiPath, String json, FutureCallback<HttpResponse> callback) {
+        final HttpPost request = new HttpPost(createURI(getUrl(apiPath), null));
+        setJsonEntity(request, json);
+        unCompletedTaskNum.incrementAndGet();
+        try {
+            return httpclient.execute(request, new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse result) {
+                    try {
+                        callback.completed(result);
+                    } finally {
+                        unCompletedTaskNum.decrementAndGet();
+                    }
+                }
+
+                @Override
+                public void failed(Exception ex) {
+                    try {
+                        callback.failed(ex);
+                    } finally {
+                        unCompletedTaskNum.decrementAndGet();
+                    }
+                }
+
+                @Override
+                public void cancelled() {
+                    try {
+                        callback.cancelled();
+                    } finally {
+                        unCompletedTaskNum.decrementAndGet();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            unCompletedTaskNum.decrementAndGet();
+            throw e;
+        }
+    }
+
     private URI createURI(String httpFullAPI, Map<String, String> params) {
         URIBuilder builder;
         try {
@@ -18,8 +18,9 @@
 
 package com.dtstack.dtcenter.common.loader.opentsdb.http;
 
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
@@ -44,9 +45,14 @@ import org.apache.http.nio.reactor.IOReactorException;
 public class HttpClientFactory {
 
     /**
-     * http IO 线程数，默认一个，后面如果需要支持池化 再做修改
+     * http IO 线程数，客户端按数据源缓存复用，异步写入时多个批次并行发送
      */
-    private static final Integer IO_THREAD_COUNT = 1;
+    private static final Integer IO_THREAD_COUNT = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+
+    /**
+     * 默认最大连接数，同时也是每个地址的最大连接数
+     */
+    public static final Integer DEFAULT_MAX_CONNECTIONS = 16;
 
     /**
      * HTTP连接超时时间，单位：秒
@@ -63,7 +69,27 @@ public class HttpClientFactory {
      */
     private static final Integer HTTP_CONNECTION_REQUEST_TIMEOUT = 90;
 
+    /**
+     * 所有 http client 共用的空闲连接清理线程
+     */
+    private static final ScheduledExecutorService CLEAR_CONN_SERVICE = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new DtClassThreadFactory("Loader-close-connection").newThread(r);
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public static HttpClient createHttpClient(OpenTSDBSourceDTO sourceDTO) {
+        return createHttpClient(sourceDTO, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * 创建 http client
+     *
+     * @param sourceDTO      数据源信息
+     * @param maxConnections 最大连接数
+     * @return http client
+     */
+    public static HttpClient createHttpClient(OpenTSDBSourceDTO sourceDTO, int maxConnections) {
 
         // 创建 ConnectingIOReactor
         ConnectingIOReactor ioReactor = initIOReactorConfig();
@@ -75,15 +101,18 @@ public class HttpClientFactory {
                         .build();
         // 创建链接管理器
         PoolingNHttpClientConnectionManager cm = new PoolingNHttpClientConnectionManager(ioReactor, sessionStrategyRegistry);
+        // 默认每个地址只有两个连接，并行发送时需要调大
+        cm.setMaxTotal(maxConnections);
+        cm.setDefaultMaxPerRoute(maxConnections);
 
         // 创建HttpAsyncClient
         CloseableHttpAsyncClient httpAsyncClient = createPoolingHttpClient(cm);
 
         // 启动定时调度
-        ScheduledExecutorService clearConnService = initFixedCycleCloseConnection(cm);
+        ScheduledFuture<?> clearConnTask = initFixedCycleCloseConnection(cm);
 
         // 组合生产HttpClientImpl
-        return new HttpClient(sourceDTO, httpAsyncClient, clearConnService);
+        return new HttpClient(sourceDTO, httpAsyncClient, clearConnTask);
     }
 
 
@@ -120,15 +149,14 @@ public class HttpClientFactory {
     }
 
     /**
-     * 初始化周期调度线程池去关闭无用连接
+     * 在共用的清理线程中定时关闭无用连接
      *
      * @param cm connection 管理器
-     * @return 周期调度线程池
+     * @return 定时任务，关闭 http client 时取消
      */
-    private static ScheduledExecutorService initFixedCycleCloseConnection(final PoolingNHttpClientConnectionManager cm) {
+    private static ScheduledFuture<?> initFixedCycleCloseConnection(final PoolingNHttpClientConnectionManager cm) {
         // 定时关闭所有空闲链接
-        ScheduledExecutorService connectionGcService = Executors.newSingleThreadScheduledExecutor(new DtClassThreadFactory("Loader-close-connection"));
-        connectionGcService.scheduleAtFixedRate(() -> {
+        return CLEAR_CONN_SERVICE.scheduleAtFixedRate(() -> {
             try {
                 if (log.isDebugEnabled()) {
                     log.debug("Close idle connections, fixed cycle operation");
@@ -138,7 +166,6 @@ public class HttpClientFactory {
                 log.error("", ex);
             }
         }, 30, 30, TimeUnit.SECONDS);
-        return connectionGcService;
     }
 
     /**
@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.opentsdb.tsdb;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.dtstack.dtcenter.common.loader.opentsdb.http.HttpAPI;
+import com.dtstack.dtcenter.common.loader.opentsdb.http.HttpClient;
+import com.dtstack.dtcenter.common.loader.opentsdb.http.response.ResultResponse;
+import com.dtstack.dtcenter.loader.dto.tsdb.TsdbPoint;
+import com.dtstack.dtcenter.loader.dto.tsdb.TsdbPutConfig;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpResponse;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * TSDB 异步写入器
+ * <p>
+ * 点位先写入缓冲区，缓冲区达到 batchSize 时由写入线程发送，未达到时由定时任务每隔 flushInterval 发送；
+ * 批次通过异步 http 请求并行发送，发送中的批次达到 maxInFlight 时写入线程阻塞等待，缓冲区不会无限增长
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/16
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class AsyncPointWriter {
+
+    private final HttpClient httpClient;
+
+    private final int batchSize;
+
+    /**
+     * 发送中批次的许可
+     */
+    private final Semaphore inFlightPermits;
+
+    /**
+     * 缓冲区，由当前对象锁保护
+     */
+    private List<TsdbPoint> buffer;
+
+    /**
+     * 已从缓冲区取出但还未发送完成的批次数，由 pendingLock 保护
+     */
+    private int pendingBatches;
+
+    private final Object pendingLock = new Object();
+
+    /**
+     * 上次 flush 之后发送失败的点位数及最后一次失败原因
+     */
+    private final AtomicLong failedPoints = new AtomicLong();
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final ScheduledFuture<?> flushTask;
+
+    AsyncPointWriter(HttpClient httpClient, TsdbPutConfig putConfig, ScheduledExecutorService scheduler) {
+        TsdbPutConfig defaultConfig = TsdbPutConfig.builder().build();
+        TsdbPutConfig config = Optional.ofNullable(putConfig).orElse(defaultConfig);
+        this.httpClient = httpClient;
+        this.batchSize = Math.max(1, Optional.ofNullable(config.getBatchSize()).orElse(defaultConfig.getBatchSize()));
+        this.inFlightPermits = new Semaphore(Math.max(1, Optional.ofNullable(config.getMaxInFlight()).orElse(defaultConfig.getMaxInFlight())));
+        this.buffer = new ArrayList<>(batchSize);
+        long flushInterval = Math.max(1L, Optional.ofNullable(config.getFlushInterval()).orElse(defaultConfig.getFlushInterval()));
+        this.flushTask = scheduler.scheduleWithFixedDelay(this::flushByInterval, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 写入缓冲区，缓冲区满时发送，发送中的批次达到上限时阻塞
+     *
+     * @param points 点位
+     */
+    public void put(Collection<TsdbPoint> points) {
+        for (TsdbPoint point : points) {
+            List<TsdbPoint> batch = null;
+            synchronized (this) {
+                buffer.add(point);
+                if (buffer.size() >= batchSize) {
+                    batch = takeBuffer();
+                }
+            }
+            if (Objects.nonNull(batch)) {
+                acquire(batch);
+                send(batch);
+            }
+        }
+    }
+
+    /**
+     * 发送缓冲区中的点位并等待所有批次发送完成，存在发送失败的点位时抛出异常
+     */
+    public void flush() {
+        List<TsdbPoint> batch;
+        synchronized (this) {
+            batch = buffer.isEmpty() ? null : takeBuffer();
+        }
+        if (Objects.nonNull(batch)) {
+            acquire(batch);
+            send(batch);
+        }
+        synchronized (pendingLock) {
+            while (pendingBatches > 0) {
+                try {
+                    pendingLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DtLoaderException("wait for tsdb async put is interrupted", e);
+                }
+            }
+        }
+        Throwable lastFailure = failure.getAndSet(null);
+        if (Objects.nonNull(lastFailure)) {
+            throw new DtLoaderException(String.format("%s points failed to put asynchronously, last error: %s",
+                    failedPoints.getAndSet(0), lastFailure.getMessage()), lastFailure);
+        }
+    }
+
+    /**
+     * 缓冲区为空且没有发送中的批次
+     */
+    public boolean isIdle() {
+        synchronized (this) {
+            if (!buffer.isEmpty()) {
+                return false;
+            }
+        }
+        synchronized (pendingLock) {
+            return pendingBatches == 0;
+        }
+    }
+
+    public void close() {
+        flushTask.cancel(false);
+    }
+
+    /**
+     * 定时发送缓冲区中的点位，发送中的批次已满时等待下次发送，不阻塞定时线程
+     */
+    private void flushByInterval() {
+        try {
+            if (!inFlightPermits.tryAcquire()) {
+                return;
+            }
+            List<TsdbPoint> batch;
+            synchronized (this) {
+                batch = buffer.isEmpty() ? null : takeBuffer();
+            }
+            if (Objects.isNull(batch)) {
+                inFlightPermits.release();
+                return;
+            }
+            send(batch);
+        } catch (Throwable e) {
+            log.error("flush tsdb points error: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 取出缓冲区，需要持有当前对象锁；在同一个锁内增加发送中的批次数，
+     * 避免其他线程 flush 时看到缓冲区已空而批次还没有计入，提前返回
+     */
+    private List<TsdbPoint> takeBuffer() {
+        List<TsdbPoint> batch = buffer;
+        buffer = new ArrayList<>(batchSize);
+        synchronized (pendingLock) {
+            pendingBatches++;
+        }
+        return batch;
+    }
+
+    private void acquire(List<TsdbPoint> batch) {
+        try {
+            inFlightPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            onFailure(batch, e);
+            completePending();
+            throw new DtLoaderException("wait for tsdb async put is interrupted", e);
+        }
+    }
+
+    /**
+     * 发送批次，调用前需要通过 takeBuffer 取出批次并获取发送许可，发送结束后释放
+     */
+    private void send(List<TsdbPoint> batch) {
+        try {
+            String jsonBody = JSON.toJSONString(batch, SerializerFeature.DisableCircularReferenceDetect);
+            httpClient.postAsync(HttpAPI.PUT, jsonBody, new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse result) {
+                    try {
+                        ResultResponse resultResponse = ResultResponse.simplify(result);
+                        if (!resultResponse.isSuccess()) {
+                            onFailure(batch, new DtLoaderException(String.format("put points failed, status code: %s, response: %s",
+                                    resultResponse.getStatusCode(), resultResponse.getContent())));
+                        }
+                    } catch (Exception e) {
+                        onFailure(batch, e);
+                    } finally {
+                        finish();
+                    }
+                }
+
+                @Override
+                public void failed(Exception ex) {
+                    onFailure(batch, ex);
+                    finish();
+                }
+
+                @Override
+                public void cancelled() {
+                    onFailure(batch, new DtLoaderException("put points is cancelled"));
+                    finish();
+                }
+            });
+        } catch (Throwable e) {
+            // 请求没有发出时回调不会执行，需要在这里释放许可
+            onFailure(batch, e);
+            finish();
+        }
+    }
+
+    private void onFailure(List<TsdbPoint> batch, Throwable e) {
+        failedPoints.addAndGet(batch.size());
+        failure.set(e);
+        log.error("put {} points asynchronously failed: {}", batch.size(), e.getMessage(), e);
+    }
+
+    private void finish() {
+        inFlightPermits.release();
+        completePending();
+    }
+
+    private void completePending() {
+        synchronized (pendingLock) {
+            pendingBatches--;
+            if (pendingBatches == 0) {
+                pendingLock.notifyAll();
+            }
+        }
+    }
+}
@@ -33,13 +33,13 @@ import lombok.extern.slf4j.Slf4j;
 public class OpenTSDBConnFactory {
 
     /**
-     * 获取 openTSDB Client，暂不支持连接池
+     * 获取 openTSDB Client，同一数据源共用 http client 及连接池，关闭 Client 时只释放引用
      *
      * @param source 数据源连接信息
      * @return TSDB Client
      */
     public static TSDB getOpenTSDBClient(ISourceDTO source) {
         OpenTSDBSourceDTO openTSDBSourceDTO = (OpenTSDBSourceDTO) source;
-        return new TSDBClient(openTSDBSourceDTO);
+        return TSDBClientManager.getInstance().getClient(openTSDBSourceDTO);
     }
 }
@@ -46,6 +46,7 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * TSDB Client
@@ -63,13 +64,34 @@ public class TSDBClient implements TSDB {
 
     private static final String EMPTY_HOLDER = new JSONObject().toJSONString();
 
+    /**
+     * 共享 http client 的释放方法，为空时关闭 TSDB Client 会同时关闭 http client
+     */
+    private final Runnable releaser;
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
     public TSDBClient(OpenTSDBSourceDTO sourceDTO) {
         this.url = sourceDTO.getUrl();
         this.httpclient = HttpClientFactory.createHttpClient(sourceDTO);
         this.httpclient.start();
+        this.releaser = null;
         log.info("The tsdb client has started. url:{}", sourceDTO.getUrl());
     }
 
+    /**
+     * 使用共享的 http client 创建 TSDB Client，关闭时只释放对 http client 的引用
+     *
+     * @param url        地址
+     * @param httpclient 已启动的 http client
+     * @param releaser   释放方法
+     */
+    public TSDBClient(String url, HttpClient httpclient, Runnable releaser) {
+        this.url = url;
+        this.httpclient = httpclient;
+        this.releaser = releaser;
+    }
+
     /**
      * 检查连通性
      */
@@ -298,6 +320,12 @@ public class TSDBClient implements TSDB {
 
     @Override
     public void close(boolean force) throws IOException {
+        if (releaser != null) {
+            if (closed.compareAndSet(false, true)) {
+                releaser.run();
+            }
+            return;
+        }
         httpclient.close(force);
         log.info("The tsdb client has closed.");
     }
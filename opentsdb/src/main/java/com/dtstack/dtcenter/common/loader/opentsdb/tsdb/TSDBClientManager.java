@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.opentsdb.tsdb;
+
+import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
+import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
+import com.dtstack.dtcenter.common.loader.opentsdb.http.HttpClient;
+import com.dtstack.dtcenter.common.loader.opentsdb.http.HttpClientFactory;
+import com.dtstack.dtcenter.loader.cache.pool.config.PoolConfig;
+import com.dtstack.dtcenter.loader.dto.source.OpenTSDBSourceDTO;
+import com.dtstack.dtcenter.loader.dto.tsdb.TsdbPoint;
+import com.dtstack.dtcenter.loader.dto.tsdb.TsdbPutConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TSDB 客户端管理
+ * <p>
+ * 同一数据源的请求共用一个异步 http client 及其连接池，不再每次请求创建、关闭；
+ * http client 没有使用中的请求、异步写入的点位全部发送且闲置超过 poolIdleTimeout 后关闭
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/16
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class TSDBClientManager {
+
+    private static final TSDBClientManager MANAGER = new TSDBClientManager();
+
+    /**
+     * 闲置客户端检查间隔，单位：秒
+     */
+    private static final long EVICT_INTERVAL_SECONDS = 60;
+
+    private static final String CLIENT_KEY = "url:%s,maxConnections:%s";
+
+    /**
+     * 数据源 key - 客户端
+     */
+    private final Map<String, ManagedClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * 闲置客户端检查及异步写入定时发送共用的调度线程
+     */
+    private final ScheduledExecutorService scheduler;
+
+    private TSDBClientManager() {
+        scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new DtClassThreadFactory("tsdbClientManager").newThread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::evictIdleClients, EVICT_INTERVAL_SECONDS, EVICT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static TSDBClientManager getInstance() {
+        return MANAGER;
+    }
+
+    /**
+     * 获取 TSDB Client，关闭时只释放对共享 http client 的引用
+     *
+     * @param sourceDTO 数据源信息
+     * @return TSDB Client
+     */
+    public TSDB getClient(OpenTSDBSourceDTO sourceDTO) {
+        ManagedClient client = acquire(sourceDTO, null);
+        return new TSDBClient(sourceDTO.getUrl(), client.httpClient, client::release);
+    }
+
+    /**
+     * 异步写入点位
+     *
+     * @param sourceDTO 数据源信息
+     * @param points    点位
+     * @param putConfig 异步写入配置，同一数据源以第一次写入时的配置为准
+     */
+    public void putAsync(OpenTSDBSourceDTO sourceDTO, Collection<TsdbPoint> points, TsdbPutConfig putConfig) {
+        ManagedClient client = acquire(sourceDTO, Optional.ofNullable(putConfig).orElse(TsdbPutConfig.builder().build()));
+        try {
+            client.writer.put(points);
+        } finally {
+            client.release();
+        }
+    }
+
+    /**
+     * 发送数据源缓冲区中的点位并等待发送完成，没有异步写入时直接返回
+     *
+     * @param sourceDTO 数据源信息
+     */
+    public void flush(OpenTSDBSourceDTO sourceDTO) {
+        ManagedClient client = clients.computeIfPresent(getKey(sourceDTO), (key, managedClient) -> {
+            managedClient.borrow();
+            return managedClient;
+        });
+        if (Objects.isNull(client)) {
+            return;
+        }
+        try {
+            if (Objects.nonNull(client.writer)) {
+                client.writer.flush();
+            }
+        } finally {
+            client.release();
+        }
+    }
+
+    /**
+     * 在 compute 中创建客户端并增加引用，与闲置检查互斥，不会获取到正在关闭的客户端
+     */
+    private ManagedClient acquire(OpenTSDBSourceDTO sourceDTO, TsdbPutConfig putConfig) {
+        return clients.compute(getKey(sourceDTO), (key, client) -> {
+            if (Objects.isNull(client)) {
+                client = new ManagedClient(sourceDTO);
+                log.info("The shared tsdb client has started. url:{}", sourceDTO.getUrl());
+            }
+            if (Objects.nonNull(putConfig) && Objects.isNull(client.writer)) {
+                client.writer = new AsyncPointWriter(client.httpClient, putConfig, scheduler);
+            }
+            client.borrow();
+            return client;
+        });
+    }
+
+    private void evictIdleClients() {
+        try {
+            long now = System.currentTimeMillis();
+            for (String key : clients.keySet()) {
+                ManagedClient[] evicted = new ManagedClient[1];
+                clients.computeIfPresent(key, (k, client) -> {
+                    if (client.isIdle(now)) {
+                        evicted[0] = client;
+                        return null;
+                    }
+                    return client;
+                });
+                if (Objects.nonNull(evicted[0])) {
+                    log.info("close idle tsdb client: {}", key);
+                    evicted[0].close();
+                }
+            }
+        } catch (Throwable e) {
+            log.error("evict idle tsdb client error: {}", e.getMessage(), e);
+        }
+    }
+
+    private static PoolConfig getPoolConfig(OpenTSDBSourceDTO sourceDTO) {
+        if (!ReflectUtil.fieldExists(OpenTSDBSourceDTO.class, "poolConfig")) {
+            return null;
+        }
+        return sourceDTO.getPoolConfig();
+    }
+
+    private static int getMaxConnections(OpenTSDBSourceDTO sourceDTO) {
+        PoolConfig poolConfig = getPoolConfig(sourceDTO);
+        if (Objects.isNull(poolConfig) || Objects.isNull(poolConfig.getMaximumPoolSize()) || poolConfig.getMaximumPoolSize() <= 0) {
+            return HttpClientFactory.DEFAULT_MAX_CONNECTIONS;
+        }
+        return poolConfig.getMaximumPoolSize();
+    }
+
+    private static String getKey(OpenTSDBSourceDTO sourceDTO) {
+        return String.format(CLIENT_KEY, sourceDTO.getUrl(), getMaxConnections(sourceDTO));
+    }
+
+    /**
+     * 被管理的客户端，记录引用数及访问时间
+     */
+    private static class ManagedClient {
+
+        private final HttpClient httpClient;
+
+        private final long idleTimeout;
+
+        private final AtomicInteger borrowers = new AtomicInteger();
+
+        private volatile long lastAccessTime = System.currentTimeMillis();
+
+        /**
+         * 异步写入器，第一次异步写入时创建
+         */
+        private volatile AsyncPointWriter writer;
+
+        private ManagedClient(OpenTSDBSourceDTO sourceDTO) {
+            this.httpClient = HttpClientFactory.createHttpClient(sourceDTO, getMaxConnections(sourceDTO));
+            this.httpClient.start();
+            PoolConfig poolConfig = getPoolConfig(sourceDTO);
+            this.idleTimeout = Objects.isNull(poolConfig) || Objects.isNull(poolConfig.getPoolIdleTimeout())
+                    ? PoolConfig.builder().build().getPoolIdleTimeout() : poolConfig.getPoolIdleTimeout();
+        }
+
+        private void borrow() {
+            borrowers.incrementAndGet();
+            lastAccessTime = System.currentTimeMillis();
+        }
+
+        private void release() {
+            lastAccessTime = System.currentTimeMillis();
+            borrowers.decrementAndGet();
+        }
+
+        private boolean isIdle(long now) {
+            return idleTimeout > 0
+                    && now - lastAccessTime > idleTimeout
+                    && borrowers.get() == 0
+                    && httpClient.isIdle()
+                    && (Objects.isNull(writer) || writer.isIdle());
+        }
+
+        private void close() {
+            if (Objects.nonNull(writer)) {
+                writer.close();
+            }
+            try {
+                httpClient.close(true);
+            } catch (Exception e) {
+                log.warn("close tsdb client error: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
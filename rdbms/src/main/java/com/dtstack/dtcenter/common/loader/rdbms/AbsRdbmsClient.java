@@ -26,14 +26,17 @@ import com.dtstack.dtcenter.common.loader.common.utils.DBUtil;
 import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
 import com.dtstack.dtcenter.common.loader.common.utils.SearchUtil;
 import com.dtstack.dtcenter.common.loader.common.utils.StringUtil;
+import com.dtstack.dtcenter.common.loader.rdbms.pool.HikariPoolManager;
 import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.cache.connection.CacheConnectionHelper;
 import com.dtstack.dtcenter.loader.client.IClient;
 import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
 import com.dtstack.dtcenter.loader.dto.Database;
+import com.dtstack.dtcenter.loader.dto.PoolMetricsDTO;
 import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
 import com.dtstack.dtcenter.loader.dto.Table;
 import com.dtstack.dtcenter.loader.dto.TableInfo;
+import com.dtstack.dtcenter.loader.dto.batch.RowBatch;
 import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
 import com.dtstack.dtcenter.loader.dto.source.RdbmsSourceDTO;
 import com.dtstack.dtcenter.loader.enums.ConnectionClearStatus;
@@ -163,6 +166,22 @@ public abstract class AbsRdbmsClient<T> implements IClient<T> {
         return executeQuery(rdbmsSourceDTO, queryDTO, clearStatus);
     }
 
+    /**
+     * 列式查询直接读取结果集，不经过 {@link #executeQuery(ISourceDTO, SqlQueryDTO)}，字段同样使用 {@link #dealResult(Object)} 处理。
+     * 子类重写 executeQuery 改变查询逻辑时需同时重写该方法，否则列式查询不会使用重写后的逻辑
+     */
+    @Override
+    public RowBatch executeQueryBatch(ISourceDTO iSource, SqlQueryDTO queryDTO) {
+        Integer clearStatus = beforeQuery(iSource, queryDTO, true);
+        RdbmsSourceDTO rdbmsSourceDTO = (RdbmsSourceDTO) iSource;
+        try {
+            Boolean setMaxRow = ReflectUtil.fieldExists(SqlQueryDTO.class, "setMaxRow") ? queryDTO.getSetMaxRow() : null;
+            return DBUtil.executeQueryBatch(rdbmsSourceDTO.getConnection(), queryDTO.getSql(), queryDTO.getLimit(), queryDTO.getPreFields(), queryDTO.getQueryTimeout(), setMaxRow, this::dealResult);
+        } finally {
+            DBUtil.closeDBResources(null, null, DBUtil.clearAfterGetConnection(rdbmsSourceDTO, clearStatus));
+        }
+    }
+
     @Override
     public Boolean executeSqlWithoutResultSet(ISourceDTO iSource, SqlQueryDTO queryDTO) {
         Integer clearStatus = beforeQuery(iSource, queryDTO, true);
@@ -902,6 +921,11 @@ public abstract class AbsRdbmsClient<T> implements IClient<T> {
         return tableInfo;
     }
 
+    @Override
+    public List<PoolMetricsDTO> getPoolMetrics() {
+        return HikariPoolManager.getInstance().getPoolMetrics();
+    }
+
     /**
      * 获取特殊处理关键字、库表名等时的左右符号, 默认使用双引号
      *
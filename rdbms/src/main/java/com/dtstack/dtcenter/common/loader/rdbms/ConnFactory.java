@@ -25,6 +25,8 @@ import com.dtstack.dtcenter.common.loader.common.service.IErrorAdapter;
 import com.dtstack.dtcenter.common.loader.common.utils.DBUtil;
 import com.dtstack.dtcenter.common.loader.common.utils.PropertiesUtil;
 import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
+import com.dtstack.dtcenter.common.loader.rdbms.pool.HikariPoolManager;
+import com.dtstack.dtcenter.loader.cache.pool.config.PoolConfig;
 import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
 import com.dtstack.dtcenter.loader.dto.source.RdbmsSourceDTO;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
@@ -37,7 +39,6 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.Statement;
 import java.util.Properties;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -62,12 +63,12 @@ public class ConnFactory {
 
     protected String testSql;
 
-    private static ConcurrentHashMap<String, Object> hikariDataSources = new ConcurrentHashMap<>();
-
     private AtomicBoolean isFirstLoaded = new AtomicBoolean(true);
 
     private static final String CP_POOL_KEY = "url:%s,username:%s,password:%s,properties:%s";
 
+    private static final String CP_POOL_NAME = "url:%s,username:%s";
+
     /**
      * 线程池 - 用于部分数据源获取连接超时处理
      */
@@ -135,18 +136,9 @@ public class ConnFactory {
         RdbmsSourceDTO rdbmsSourceDTO = (RdbmsSourceDTO) source;
         String poolKey = getPrimaryKey(rdbmsSourceDTO);
         log.info("datasource connected(Hikari), url : {}, userName : {}, kerberosConfig : {}", rdbmsSourceDTO.getUrl(), rdbmsSourceDTO.getUsername(), rdbmsSourceDTO.getKerberosConfig());
-        HikariDataSource hikariData = (HikariDataSource) hikariDataSources.get(poolKey);
-        if (hikariData == null) {
-            synchronized (ConnFactory.class) {
-                hikariData = (HikariDataSource) hikariDataSources.get(poolKey);
-                if (hikariData == null) {
-                    hikariData = transHikari(source);
-                    hikariDataSources.put(poolKey, hikariData);
-                }
-            }
-        }
-
-        return hikariData.getConnection();
+        String poolName = String.format(CP_POOL_NAME, rdbmsSourceDTO.getUrl(), rdbmsSourceDTO.getUsername());
+        Long poolIdleTimeout = ReflectUtil.fieldExists(PoolConfig.class, "poolIdleTimeout") ? rdbmsSourceDTO.getPoolConfig().getPoolIdleTimeout() : null;
+        return HikariPoolManager.getInstance().getConnection(poolKey, poolName, poolIdleTimeout, () -> transHikari(source));
     }
 
     /**
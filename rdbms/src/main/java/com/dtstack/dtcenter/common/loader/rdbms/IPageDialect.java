@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.common.loader.rdbms;
+
+import java.util.List;
+
+/**
+ * 分页方言，各数据源下载器只需提供字段引用符及分页语法，分页逻辑由 {@link RdbmsPagination} 统一处理
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:30 2022/6/1
+ * company: www.dtstack.com
+ */
+public interface IPageDialect {
+
+    /**
+     * 给字段名添加引用符
+     *
+     * @param identifier 字段名
+     * @return 添加引用符后的字段名
+     */
+    String quote(String identifier);
+
+    /**
+     * 构建取前 limit 条数据的 sql，原始 sql 需要作为别名为 t 的子查询
+     *
+     * @param sql     原始 sql
+     * @param where   过滤条件，以 " WHERE " 开头，没有过滤条件时为空字符串
+     * @param orderBy 排序字段
+     * @param limit   返回条数
+     * @return 分页 sql
+     */
+    String limitSql(String sql, String where, String orderBy, int limit);
+
+    /**
+     * 构建 offset 分页 sql，没有主键或唯一索引时使用
+     *
+     * @param sql     原始 sql
+     * @param columns 结果集字段名
+     * @param offset  起始行
+     * @param limit   返回条数
+     * @return 分页 sql
+     */
+    String offsetSql(String sql, List<String> columns, int offset, int limit);
+
+    /**
+     * 是否支持按主键/唯一索引分页，主键不唯一的数据源需要返回 false
+     *
+     * @return 是否支持
+     */
+    default boolean supportKeyset() {
+        return true;
+    }
+}
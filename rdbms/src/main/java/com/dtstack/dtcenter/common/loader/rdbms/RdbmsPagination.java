@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.common.loader.rdbms;
+
+import com.dtstack.dtcenter.common.loader.common.utils.DBUtil;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * rdbms 下载分页引擎
+ * <p>
+ * 当 sql 为单表查询且表存在单字段主键或非空唯一索引时，使用 where key > lastSeen order by key 的方式分页，
+ * 深分页和首页的查询代价一致；否则回退到各数据源原有的 offset 分页
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:30 2022/6/1
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class RdbmsPagination {
+
+    // 单表查询匹配，group 1 为查询字段列表，group 2 为表名
+    private static final Pattern SINGLE_TABLE_PATTERN = Pattern.compile(
+            "(?is)^\\s*select\\s+(.+?)\\s+from\\s+([^\\s,()]+)(?:\\s+(?:as\\s+)?[a-z_][\\w$]*)?(?:\\s+where\\s+.+)?$");
+
+    // 包含以下关键字时结果集与原表不是一一对应关系，不使用主键分页
+    private static final Pattern UNSUPPORTED_KEYWORD_PATTERN = Pattern.compile(
+            "(?i)\\b(join|union|intersect|except|minus|group\\s+by|order\\s+by|having|distinct|limit|offset|top|fetch|rownum)\\b");
+
+    // 查询字段别名匹配，group 1 为表达式，group 2 为别名
+    private static final Pattern SELECT_ALIAS_PATTERN = Pattern.compile(
+            "(?is)^(.+?)\\s+(?:as\\s+)?([\\w$]+|`[^`]+`|\"[^\"]+\"|\\[[^\\]]+])$");
+
+    // 不带别名的字段引用，可带表名或 schema 前缀
+    private static final Pattern PLAIN_COLUMN_PATTERN = Pattern.compile("^[\\w$`\"\\[\\].]+$");
+
+    // 标识符引用符
+    private static final String IDENTIFIER_QUOTES = "`\"[]";
+
+    // 主键分页过滤条件
+    private static final String KEYSET_WHERE = " WHERE %s > ?";
+
+    // 子查询别名
+    private static final String SUB_QUERY_ALIAS = "t.";
+
+    private final Connection connection;
+
+    private final String sql;
+
+    private final String schema;
+
+    private final IPageDialect dialect;
+
+    private final int pageSize;
+
+    private List<String> columnNames;
+
+    private int columnCount;
+
+    /**
+     * 分页字段在结果集中的位置，从 1 开始，为 null 时使用 offset 分页
+     */
+    private Integer keyIndex;
+
+    /**
+     * 分页字段，已添加引用符
+     */
+    private String quotedKey;
+
+    /**
+     * 上一页最后一行的分页字段值
+     */
+    private Object lastKey;
+
+    private Statement statement;
+
+    private PreparedStatement nextPageStatement;
+
+    private int pageNum = 1;
+
+    private boolean reachedEnd = false;
+
+    public RdbmsPagination(Connection connection, String sql, String schema, IPageDialect dialect, int pageSize) {
+        this.connection = connection;
+        this.sql = sql;
+        this.schema = schema;
+        this.dialect = dialect;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * 初始化分页信息，探测主键或唯一索引
+     *
+     * @param columnNames 结果集字段名
+     */
+    public void init(List<String> columnNames) {
+        this.columnNames = columnNames;
+        this.columnCount = columnNames.size();
+        try {
+            statement = connection.createStatement();
+        } catch (SQLException e) {
+            throw new DtLoaderException(String.format("create statement error : %s", e.getMessage()), e);
+        }
+        if (!dialect.supportKeyset()) {
+            return;
+        }
+        try {
+            String keyColumn = detectKeyColumn();
+            if (StringUtils.isBlank(keyColumn)) {
+                return;
+            }
+            for (int i = 0; i < columnCount; i++) {
+                if (keyColumn.equalsIgnoreCase(columnNames.get(i))) {
+                    keyIndex = i + 1;
+                    quotedKey = SUB_QUERY_ALIAS + dialect.quote(columnNames.get(i));
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("detect primary key or unique index error, use offset pagination. {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 读取下一页数据
+     *
+     * @return 下一页数据
+     */
+    public List<List<String>> readNext() {
+        List<List<String>> pageTemp = new ArrayList<>(pageSize);
+        ResultSet resultSet = null;
+        try {
+            if (Objects.isNull(keyIndex)) {
+                resultSet = statement.executeQuery(dialect.offsetSql(sql, columnNames, pageSize * (pageNum - 1), pageSize));
+            } else if (pageNum == 1) {
+                resultSet = statement.executeQuery(dialect.limitSql(sql, "", quotedKey, pageSize));
+            } else {
+                if (Objects.isNull(nextPageStatement)) {
+                    nextPageStatement = connection.prepareStatement(dialect.limitSql(sql, String.format(KEYSET_WHERE, quotedKey), quotedKey, pageSize));
+                }
+                nextPageStatement.setObject(1, lastKey);
+                resultSet = nextPageStatement.executeQuery();
+            }
+            while (resultSet.next()) {
+                List<String> columns = new ArrayList<>(columnCount);
+                for (int i = 1; i <= columnCount; i++) {
+                    columns.add(resultSet.getString(i));
+                }
+                if (Objects.nonNull(keyIndex)) {
+                    lastKey = resultSet.getObject(keyIndex);
+                }
+                pageTemp.add(columns);
+            }
+        } catch (Exception e) {
+            throw new DtLoaderException(String.format("read page %s exception : %s", pageNum, e.getMessage()), e);
+        } finally {
+            DBUtil.closeDBResources(resultSet, null, null);
+        }
+        reachedEnd = pageTemp.size() < pageSize;
+        pageNum++;
+        return pageTemp;
+    }
+
+    /**
+     * 最后一次读取的数据不足一页时表示已经读完
+     *
+     * @return 是否读完
+     */
+    public boolean reachedEnd() {
+        return reachedEnd;
+    }
+
+    /**
+     * 关闭分页使用的 statement，不关闭连接
+     */
+    public void close() {
+        DBUtil.closeDBResources(null, nextPageStatement, null);
+        DBUtil.closeDBResources(null, statement, null);
+    }
+
+    /**
+     * 通过 DatabaseMetaData 探测单字段主键，没有时使用单字段非空唯一索引
+     *
+     * @return 分页字段，不存在时返回 null
+     * @throws SQLException 异常
+     */
+    private String detectKeyColumn() throws SQLException {
+        if (UNSUPPORTED_KEYWORD_PATTERN.matcher(sql).find()) {
+            return null;
+        }
+        Matcher matcher = SINGLE_TABLE_PATTERN.matcher(sql);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String[] identifiers = matcher.group(2).split("\\.");
+        String table = unquote(identifiers[identifiers.length - 1]);
+        String tableSchema = identifiers.length > 1 ? unquote(identifiers[identifiers.length - 2]) : schema;
+        DatabaseMetaData metaData = connection.getMetaData();
+        // 不同数据库 schema 对应 catalog 或 schema，表名大小写也不一致，依次尝试
+        List<String[]> candidates = Lists.newArrayList(
+                new String[]{null, tableSchema, table},
+                new String[]{tableSchema, null, table},
+                new String[]{null, StringUtils.upperCase(tableSchema), StringUtils.upperCase(table)});
+        for (String[] candidate : candidates) {
+            String keyColumn = getSingleKeyColumn(metaData, candidate[0], candidate[1], candidate[2]);
+            if (StringUtils.isNotBlank(keyColumn)) {
+                return selectKeyColumn(matcher.group(1), keyColumn) ? keyColumn : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 判断分页字段是否以原始字段名出现在查询字段中，查询字段为 * 时同样满足。
+     * 分页字段被设置了别名，或其他表达式使用了分页字段名作为别名时，结果集中的同名字段不再是主键，需要使用 offset 分页
+     *
+     * @param selectList 查询字段列表
+     * @param keyColumn  分页字段
+     * @return 是否可以使用主键分页
+     */
+    private static boolean selectKeyColumn(String selectList, String keyColumn) {
+        boolean selected = false;
+        for (String item : splitSelectList(selectList)) {
+            String expression = item;
+            String alias = null;
+            Matcher aliasMatcher = SELECT_ALIAS_PATTERN.matcher(item);
+            if (aliasMatcher.matches()) {
+                expression = aliasMatcher.group(1).trim();
+                alias = unquote(aliasMatcher.group(2));
+            }
+            boolean isKeyColumn = PLAIN_COLUMN_PATTERN.matcher(expression).matches()
+                    && keyColumn.equalsIgnoreCase(unquote(StringUtils.substringAfterLast("." + expression, ".")));
+            if (alias == null && ("*".equals(expression) || expression.endsWith(".*"))) {
+                selected = true;
+            } else if (isKeyColumn) {
+                // 主键字段被设置为其他别名时不计入
+                selected = selected || alias == null || keyColumn.equalsIgnoreCase(alias);
+            } else if (keyColumn.equalsIgnoreCase(alias)) {
+                // 其他表达式占用了主键字段名
+                return false;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * 按最外层的逗号拆分查询字段，忽略括号及引号内的逗号
+     *
+     * @param selectList 查询字段列表
+     * @return 查询字段
+     */
+    private static List<String> splitSelectList(String selectList) {
+        List<String> items = Lists.newArrayList();
+        int depth = 0;
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i < selectList.length(); i++) {
+            char c = selectList.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                items.add(selectList.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        items.add(selectList.substring(start).trim());
+        return items;
+    }
+
+    private String getSingleKeyColumn(DatabaseMetaData metaData, String catalog, String schemaName, String table) throws SQLException {
+        List<String> primaryKeys = Lists.newArrayList();
+        try (ResultSet rs = metaData.getPrimaryKeys(catalog, schemaName, table)) {
+            while (rs.next()) {
+                primaryKeys.add(rs.getString("COLUMN_NAME"));
+            }
+        }
+        if (primaryKeys.size() == 1) {
+            return primaryKeys.get(0);
+        }
+        if (!primaryKeys.isEmpty()) {
+            return null;
+        }
+        Map<String, List<String>> uniqueIndexes = Maps.newHashMap();
+        try (ResultSet rs = metaData.getIndexInfo(catalog, schemaName, table, true, true)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String columnName = rs.getString("COLUMN_NAME");
+                if (StringUtils.isNoneBlank(indexName, columnName)) {
+                    uniqueIndexes.computeIfAbsent(indexName, k -> Lists.newArrayList()).add(columnName);
+                }
+            }
+        }
+        for (List<String> indexColumns : uniqueIndexes.values()) {
+            if (indexColumns.size() == 1 && isNotNullColumn(metaData, catalog, schemaName, table, indexColumns.get(0))) {
+                return indexColumns.get(0);
+            }
+        }
+        return null;
+    }
+
+    private boolean isNotNullColumn(DatabaseMetaData metaData, String catalog, String schemaName, String table, String column) throws SQLException {
+        try (ResultSet rs = metaData.getColumns(catalog, schemaName, table, column)) {
+            return rs.next() && rs.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls;
+        }
+    }
+
+    private static String unquote(String identifier) {
+        return StringUtils.strip(identifier, IDENTIFIER_QUOTES);
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.common.loader.rdbms.pool;
+
+import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
+import com.dtstack.dtcenter.loader.dto.PoolMetricsDTO;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hikari 连接池管理
+ * <p>
+ * 连接池按数据源的 key 创建，同一个 key 只会创建一个连接池，不同 key 之间互不阻塞；
+ * 连接池没有使用中的连接且闲置超过 poolIdleTimeout 后关闭，连接池数量超过上限时关闭最久未使用的空闲连接池
+ *
+ * @author ：wangchuan
+ * date：Created in 下午4:00 2022/6/10
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class HikariPoolManager {
+
+    private static final HikariPoolManager MANAGER = new HikariPoolManager();
+
+    /**
+     * 连接池数量上限
+     */
+    private static final int MAX_POOL_NUM = 200;
+
+    /**
+     * 闲置连接池检查间隔，单位：秒
+     */
+    private static final long EVICT_INTERVAL_SECONDS = 60;
+
+    /**
+     * 获取连接时连接池恰好被关闭的重试次数
+     */
+    private static final int CLOSED_RETRY_TIMES = 2;
+
+    /**
+     * 数据源 key 摘要 - 连接池，key 中包含密码，只保存摘要
+     */
+    private final Map<String, ManagedPool> pools = new ConcurrentHashMap<>();
+
+    private HikariPoolManager() {
+        ScheduledExecutorService evictor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new DtClassThreadFactory("hikariPoolEvictor").newThread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdlePools, EVICT_INTERVAL_SECONDS, EVICT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static HikariPoolManager getInstance() {
+        return MANAGER;
+    }
+
+    /**
+     * 从连接池获取连接，连接池不存在时创建
+     *
+     * @param poolKey         数据源唯一 key
+     * @param poolName        连接池名称，用于日志及指标，不能包含密码
+     * @param poolIdleTimeout 连接池闲置多久后关闭，单位：毫秒，小于等于 0 时不关闭
+     * @param creator         连接池创建方法
+     * @return 连接
+     * @throws SQLException 获取连接异常
+     */
+    public Connection getConnection(String poolKey, String poolName, Long poolIdleTimeout, Supplier<HikariDataSource> creator) throws SQLException {
+        String key = digest(poolKey);
+        for (int i = 0; ; i++) {
+            ManagedPool pool = pools.computeIfAbsent(key, k -> {
+                log.info("create hikari pool: {}", poolName);
+                return new ManagedPool(poolName, creator.get(), Optional.ofNullable(poolIdleTimeout).orElse(0L));
+            });
+            if (pools.size() > MAX_POOL_NUM) {
+                evictLeastRecentlyUsed();
+            }
+            try {
+                return pool.borrow();
+            } catch (SQLException e) {
+                // 连接池在获取连接前被淘汰关闭，重新创建
+                if (!pool.dataSource.isClosed() || i >= CLOSED_RETRY_TIMES) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取所有连接池的运行指标
+     *
+     * @return 连接池指标
+     */
+    public List<PoolMetricsDTO> getPoolMetrics() {
+        List<PoolMetricsDTO> metrics = new ArrayList<>(pools.size());
+        for (ManagedPool pool : pools.values()) {
+            metrics.add(pool.getMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * 关闭闲置超时的连接池
+     */
+    private void evictIdlePools() {
+        try {
+            long now = System.currentTimeMillis();
+            for (Map.Entry<String, ManagedPool> entry : pools.entrySet()) {
+                ManagedPool pool = entry.getValue();
+                if (pool.idleTimeout > 0 && pool.isIdle() && now - pool.lastAccessTime > pool.idleTimeout) {
+                    close(entry.getKey(), pool, "idle timeout");
+                }
+            }
+        } catch (Throwable e) {
+            log.error("evict idle hikari pool error: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 连接池数量超过上限时关闭最久未使用的空闲连接池
+     */
+    private void evictLeastRecentlyUsed() {
+        while (pools.size() > MAX_POOL_NUM) {
+            Optional<Map.Entry<String, ManagedPool>> eldest = pools.entrySet().stream()
+                    .filter(entry -> entry.getValue().isIdle())
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastAccessTime));
+            if (!eldest.isPresent()) {
+                log.warn("hikari pool num {} exceeds {}, but all pools are in use", pools.size(), MAX_POOL_NUM);
+                return;
+            }
+            close(eldest.get().getKey(), eldest.get().getValue(), "exceeds max pool num");
+        }
+    }
+
+    private void close(String key, ManagedPool pool, String reason) {
+        // 先从缓存中移除，避免后续请求获取到已关闭的连接池
+        if (pools.remove(key, pool)) {
+            log.info("close hikari pool: {}, reason: {}", pool.name, reason);
+            pool.dataSource.close();
+        }
+    }
+
+    private static String digest(String poolKey) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = messageDigest.digest(poolKey.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new DtLoaderException(String.format("digest hikari pool key error : %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * 被管理的连接池，记录访问时间及获取连接耗时
+     */
+    private static class ManagedPool {
+
+        private final String name;
+
+        private final HikariDataSource dataSource;
+
+        private final long idleTimeout;
+
+        private final long createTime = System.currentTimeMillis();
+
+        private volatile long lastAccessTime = createTime;
+
+        private final LongAdder borrowCount = new LongAdder();
+
+        private final LongAdder borrowNanos = new LongAdder();
+
+        private final AtomicLong maxBorrowNanos = new AtomicLong();
+
+        private ManagedPool(String name, HikariDataSource dataSource, long idleTimeout) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.idleTimeout = idleTimeout;
+        }
+
+        private Connection borrow() throws SQLException {
+            lastAccessTime = System.currentTimeMillis();
+            long start = System.nanoTime();
+            Connection connection = dataSource.getConnection();
+            long cost = System.nanoTime() - start;
+            borrowCount.increment();
+            borrowNanos.add(cost);
+            maxBorrowNanos.accumulateAndGet(cost, Math::max);
+            return connection;
+        }
+
+        /**
+         * 没有使用中的连接及等待获取连接的线程
+         */
+        private boolean isIdle() {
+            HikariPoolMXBean poolMXBean = dataSource.getHikariPoolMXBean();
+            return Objects.isNull(poolMXBean)
+                    || (poolMXBean.getActiveConnections() == 0 && poolMXBean.getThreadsAwaitingConnection() == 0);
+        }
+
+        private PoolMetricsDTO getMetrics() {
+            HikariPoolMXBean poolMXBean = dataSource.getHikariPoolMXBean();
+            long count = borrowCount.sum();
+            return PoolMetricsDTO.builder()
+                    .poolName(name)
+                    .activeConnections(Objects.isNull(poolMXBean) ? 0 : poolMXBean.getActiveConnections())
+                    .idleConnections(Objects.isNull(poolMXBean) ? 0 : poolMXBean.getIdleConnections())
+                    .totalConnections(Objects.isNull(poolMXBean) ? 0 : poolMXBean.getTotalConnections())
+                    .threadsAwaitingConnection(Objects.isNull(poolMXBean) ? 0 : poolMXBean.getThreadsAwaitingConnection())
+                    .maximumPoolSize(dataSource.getMaximumPoolSize())
+                    .borrowCount(count)
+                    .avgBorrowMillis(count == 0 ? 0D : borrowNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1))
+                    .maxBorrowMillis(TimeUnit.NANOSECONDS.toMillis(maxBorrowNanos.get()))
+                    .createTime(createTime)
+                    .lastAccessTime(lastAccessTime)
+                    .build();
+        }
+    }
+}
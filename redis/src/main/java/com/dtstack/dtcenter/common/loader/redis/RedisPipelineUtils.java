@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.redis;
+
+import com.dtstack.dtcenter.loader.enums.RedisDataType;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections.CollectionUtils;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisCommands;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.util.JedisClusterCRC16;
+import redis.clients.util.SafeEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Redis pipeline 工具类，批量获取 key 的类型及值，每批只有一次网络往返
+ * <p>
+ * 集群模式下按 key 所在的 master 节点分组，在节点连接上执行 pipeline；
+ * slot 迁移中返回 MOVED/ASK 的 key 通过集群客户端单独获取
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/12
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class RedisPipelineUtils {
+
+    /**
+     * 每次 pipeline 的最大命令数
+     */
+    private static final int PIPELINE_BATCH_SIZE = 500;
+
+    /**
+     * redis 集群 slot 数量
+     */
+    private static final int SLOT_COUNT = 16384;
+
+    /**
+     * 批量获取 key 的类型
+     *
+     * @param jedis    执行 pipeline 的节点连接，为 null 时逐个通过 fallback 获取
+     * @param fallback pipeline 返回错误时使用的客户端
+     * @param keys     key
+     * @return key - 类型，顺序与 keys 一致
+     */
+    public static Map<String, String> getTypes(Jedis jedis, JedisCommands fallback, List<String> keys) {
+        Map<String, String> types = new LinkedHashMap<>();
+        if (CollectionUtils.isEmpty(keys)) {
+            return types;
+        }
+        if (Objects.isNull(jedis)) {
+            keys.forEach(key -> types.put(key, fallback.type(key)));
+            return types;
+        }
+        for (List<String> batch : Lists.partition(keys, PIPELINE_BATCH_SIZE)) {
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<String>> responses = new ArrayList<>(batch.size());
+            batch.forEach(key -> responses.add(pipeline.type(key)));
+            pipeline.sync();
+            for (int i = 0; i < batch.size(); i++) {
+                String key = batch.get(i);
+                types.put(key, getResponse(responses.get(i), () -> fallback.type(key)));
+            }
+        }
+        return types;
+    }
+
+    /**
+     * 批量获取 key 的值
+     *
+     * @param jedis    执行 pipeline 的节点连接，为 null 时逐个通过 fallback 获取
+     * @param fallback pipeline 返回错误时使用的客户端
+     * @param keys     key
+     * @param dataType key 类型
+     * @param limit    list、zset 类型获取的最大下标，-1 表示全部
+     * @return key - 值
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> getValues(Jedis jedis, JedisCommands fallback, List<String> keys, RedisDataType dataType, long limit) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (CollectionUtils.isEmpty(keys)) {
+            return values;
+        }
+        if (Objects.isNull(jedis)) {
+            keys.forEach(key -> values.put(key, convertValue(getValue(fallback, key, dataType, limit), dataType)));
+            return values;
+        }
+        for (List<String> batch : Lists.partition(keys, PIPELINE_BATCH_SIZE)) {
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<?>> responses = new ArrayList<>(batch.size());
+            batch.forEach(key -> responses.add(getValue(pipeline, key, dataType, limit)));
+            pipeline.sync();
+            for (int i = 0; i < batch.size(); i++) {
+                String key = batch.get(i);
+                Object value = getResponse((Response<Object>) responses.get(i), () -> getValue(fallback, key, dataType, limit));
+                values.put(key, convertValue(value, dataType));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 将 key 按所在的 master 节点分组
+     *
+     * @param cluster 集群客户端
+     * @param keys    key
+     * @return master 节点连接池 - key，无法确定节点的 key 对应的连接池为 null
+     */
+    public static Map<JedisPool, List<String>> groupByMaster(JedisCluster cluster, List<String> keys) {
+        JedisPool[] slotPools = getSlotPools(cluster);
+        Map<JedisPool, List<String>> groups = new LinkedHashMap<>();
+        for (String key : keys) {
+            groups.computeIfAbsent(slotPools[JedisClusterCRC16.getSlot(key)], k -> new ArrayList<>()).add(key);
+        }
+        return groups;
+    }
+
+    /**
+     * 获取集群所有 master 节点的连接池
+     *
+     * @param cluster 集群客户端
+     * @return master 节点连接池
+     */
+    public static Collection<JedisPool> getMasterPools(JedisCluster cluster) {
+        Set<JedisPool> masters = new LinkedHashSet<>();
+        for (JedisPool pool : getSlotPools(cluster)) {
+            if (Objects.nonNull(pool)) {
+                masters.add(pool);
+            }
+        }
+        return masters;
+    }
+
+    /**
+     * 通过 CLUSTER SLOTS 获取每个 slot 所在 master 节点的连接池
+     */
+    @SuppressWarnings("unchecked")
+    private static JedisPool[] getSlotPools(JedisCluster cluster) {
+        Map<String, JedisPool> nodes = cluster.getClusterNodes();
+        for (Map.Entry<String, JedisPool> node : nodes.entrySet()) {
+            try (Jedis jedis = node.getValue().getResource()) {
+                JedisPool[] slotPools = new JedisPool[SLOT_COUNT];
+                for (Object slotInfoObj : jedis.clusterSlots()) {
+                    List<Object> slotInfo = (List<Object>) slotInfoObj;
+                    List<Object> master = (List<Object>) slotInfo.get(2);
+                    String nodeKey = SafeEncoder.encode((byte[]) master.get(0)) + ":" + master.get(1);
+                    Arrays.fill(slotPools, ((Long) slotInfo.get(0)).intValue(), ((Long) slotInfo.get(1)).intValue() + 1, nodes.get(nodeKey));
+                }
+                return slotPools;
+            } catch (JedisException e) {
+                log.warn("get redis cluster slots from node {} failed: {}", node.getKey(), e.getMessage());
+            }
+        }
+        throw new DtLoaderException("get redis cluster slots failed, no available node");
+    }
+
+    private static Response<?> getValue(Pipeline pipeline, String key, RedisDataType dataType, long limit) {
+        switch (dataType) {
+            case STRING:
+                return pipeline.get(key);
+            case HASH:
+                return pipeline.hgetAll(key);
+            case LIST:
+                return pipeline.lrange(key, 0, limit);
+            case SET:
+                return pipeline.smembers(key);
+            case ZSET:
+                return pipeline.zrange(key, 0, limit);
+            default:
+                throw new DtLoaderException("Unsupported dataType");
+        }
+    }
+
+    private static Object getValue(JedisCommands commands, String key, RedisDataType dataType, long limit) {
+        switch (dataType) {
+            case STRING:
+                return commands.get(key);
+            case HASH:
+                return commands.hgetAll(key);
+            case LIST:
+                return commands.lrange(key, 0, limit);
+            case SET:
+                return commands.smembers(key);
+            case ZSET:
+                return commands.zrange(key, 0, limit);
+            default:
+                throw new DtLoaderException("Unsupported dataType");
+        }
+    }
+
+    /**
+     * 转换为与逐个查询时一致的返回格式
+     */
+    @SuppressWarnings("unchecked")
+    private static Object convertValue(Object value, RedisDataType dataType) {
+        switch (dataType) {
+            case HASH:
+                return Objects.isNull(value) ? new ArrayList<>() : new ArrayList<>(((Map<String, String>) value).entrySet());
+            case LIST:
+            case SET:
+                return Objects.isNull(value) ? new ArrayList<>() : new ArrayList<>((Collection<String>) value);
+            case ZSET:
+                return Objects.isNull(value) ? new HashSet<>() : value;
+            default:
+                return value;
+        }
+    }
+
+    private static <T> T getResponse(Response<T> response, Supplier<T> fallback) {
+        try {
+            return response.get();
+        } catch (JedisDataException e) {
+            // 集群 slot 迁移时节点返回 MOVED/ASK，交给集群客户端重定向
+            return fallback.get();
+        }
+    }
+}
@@ -18,6 +18,7 @@
 
 package com.dtstack.dtcenter.common.loader.redis;
 
+import com.dtstack.dtcenter.common.loader.common.DtClassThreadFactory;
 import com.dtstack.dtcenter.common.loader.common.exception.IErrorPattern;
 import com.dtstack.dtcenter.common.loader.common.service.ErrorAdapterImpl;
 import com.dtstack.dtcenter.common.loader.common.service.IErrorAdapter;
@@ -47,20 +48,25 @@ import redis.clients.jedis.JedisPoolConfig;
 import redis.clients.jedis.JedisSentinelPool;
 import redis.clients.jedis.ScanParams;
 import redis.clients.jedis.ScanResult;
-import redis.clients.jedis.Tuple;
 import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.util.Pool;
 
 import java.io.Closeable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -80,6 +86,16 @@ public class RedisUtils {
 
     private static final int LIMIT_MAX_KEY = 1000;
 
+    /**
+     * 每次 SCAN 遍历的 key 数量
+     */
+    private static final int SCAN_COUNT = 1000;
+
+    /**
+     * 集群模式并行扫描的最大线程数
+     */
+    private static final int MAX_SCAN_THREADS = 16;
+
     private static final IErrorPattern ERROR_PATTERN = new RedisErrorPattern();
 
     // 异常适配器
@@ -193,10 +209,10 @@ public class RedisUtils {
                 jedis = redisPool.getResource();
                 int db = StringUtils.isEmpty(redisSourceDTO.getSchema()) ? 0 : Integer.parseInt(redisSourceDTO.getSchema());
                 jedis.select(db);
-                return getRedisValues(jedis, queryDTO, jedis::scan);
+                return getRedisValues(jedis, queryDTO);
             } else {
                 jedisCluster = getRedisCluster(redisSourceDTO);
-                return getRedisValues(jedisCluster, queryDTO, jedisCluster::scan);
+                return getRedisValues(jedisCluster, queryDTO);
             }
         } finally {
             // 关闭
@@ -218,10 +234,10 @@ public class RedisUtils {
                 jedis = redisPool.getResource();
                 int db = StringUtils.isEmpty(redisSourceDTO.getSchema()) ? 0 : Integer.parseInt(redisSourceDTO.getSchema());
                 jedis.select(db);
-                return previewRedisKeys(jedis, queryDTO, jedis::scan);
+                return previewRedisKeys(jedis, queryDTO);
             } else {
                 jedisCluster = getRedisCluster(redisSourceDTO);
-                return previewRedisKeys(jedisCluster, queryDTO, jedisCluster::scan);
+                return previewRedisKeys(jedisCluster, queryDTO);
             }
         } finally {
             // 关闭
@@ -232,223 +248,155 @@ public class RedisUtils {
 
     /**
      * 校验传入的key 类型是否一致
-     * @param jedis
-     * @param keys
+     * @param keyTypes key - 类型
      * @param dataType
      */
-    private static void checkKeysType(JedisCommands jedis, List<String> keys, RedisDataType dataType) {
-        for (String key : keys) {
-            String type = jedis.type(key);
-            AssertUtils.isTrue(dataType.name().equalsIgnoreCase(type), String.format("redis key :%s,expect type:%s, actual type: %s", key, dataType.name(), type));
+    private static void checkKeysType(Map<String, String> keyTypes, RedisDataType dataType) {
+        for (Map.Entry<String, String> keyType : keyTypes.entrySet()) {
+            AssertUtils.isTrue(dataType.name().equalsIgnoreCase(keyType.getValue()), String.format("redis key :%s,expect type:%s, actual type: %s", keyType.getKey(), dataType.name(), keyType.getValue()));
         }
     }
 
     /**
      * 获取所有的key ,模糊查询
+     * @param commands 单机/哨兵模式为 Jedis，集群模式为 JedisCluster
      * @param queryDTO
-     * @param function
      * @return
      */
-    public static List<String> getRedisKeys(JedisCommands jedis, RedisQueryDTO queryDTO, BiFunction<String, ScanParams, ScanResult<String>> function) {
-        List<String> list = new ArrayList<>();
+    public static List<String> getRedisKeys(JedisCommands commands, RedisQueryDTO queryDTO) {
         //如果不是模糊查询，校验传入的key 类型是否一致
         if (!RedisCompareOp.LIKE.equals(queryDTO.getRedisCompareOp())) {
-            checkKeysType(jedis, queryDTO.getKeys(), queryDTO.getRedisDataType());
+            checkKeysType(executeBatch(commands, queryDTO.getKeys(), (jedis, keys) -> RedisPipelineUtils.getTypes(jedis, commands, keys)), queryDTO.getRedisDataType());
             return queryDTO.getKeys();
         }
+        List<String> list = new ArrayList<>();
         String dataType = queryDTO.getRedisDataType().name();
+        int keyLimit = getKeyLimit(queryDTO);
         for (String key : queryDTO.getKeys()) {
-            String cursor = ScanParams.SCAN_POINTER_START;
             ScanParams scanParam = new ScanParams();
             scanParam.match(key);
-            int count = 0;
-            int keyLimit = queryDTO.getKeyLimit() != null && queryDTO.getKeyLimit() > 0 ? queryDTO.getKeyLimit() : LIMIT_MAX_KEY;
-            do {
-                ScanResult<String> scan = function.apply(cursor, scanParam);
-                for (String scanKey : scan.getResult()) {
-                    if (dataType.equalsIgnoreCase(jedis.type(scanKey))) {
-                        list.add(scanKey);
-                        if (++count >= keyLimit) {
-                            return list;
-                        }
-                    }
-                }
-                cursor = scan.getStringCursor();
-            } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+            list.addAll(scanKeys(commands, scanParam, dataType, keyLimit - list.size()));
+            if (list.size() >= keyLimit) {
+                break;
+            }
         }
         list.sort(Comparator.naturalOrder());
         return list;
     }
 
-    public static List<String> previewRedisKeys(JedisCommands jedis, RedisQueryDTO queryDTO, BiFunction<String, ScanParams, ScanResult<String>> function) {
-        List<String> list = new ArrayList<>();
+    public static List<String> previewRedisKeys(JedisCommands commands, RedisQueryDTO queryDTO) {
         String dataType = queryDTO.getRedisDataType().name();
-        int keyLimit = queryDTO.getKeyLimit() != null && queryDTO.getKeyLimit() > 0 ? queryDTO.getKeyLimit() : LIMIT_MAX_KEY;
-        String cursor = ScanParams.SCAN_POINTER_START;
         ScanParams scanParam = new ScanParams();
         if (queryDTO.getKeyPattern() != null) {
             scanParam.match(queryDTO.getKeyPattern() + "*");
         }
-        int count = 0;
-        do {
-            ScanResult<String> scan = function.apply(cursor, scanParam);
-            for (String scanKey : scan.getResult()) {
-                if (dataType.equalsIgnoreCase(jedis.type(scanKey))) {
-                    list.add(scanKey);
-                    if (++count >= keyLimit) {
-                        return list;
-                    }
-                }
-            }
-            cursor = scan.getStringCursor();
-        } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
-
+        List<String> list = scanKeys(commands, scanParam, dataType, getKeyLimit(queryDTO));
         list.sort(Comparator.naturalOrder());
         return list;
     }
 
-
-
-
-    private static Map<String, Object> getRedisValues(JedisCommands jedis, RedisQueryDTO queryDTO, BiFunction<String, ScanParams, ScanResult<String>> function) {
-
-        List<String> keys = getRedisKeys(jedis, queryDTO, function);
-
-        RedisDataType dataType = queryDTO.getRedisDataType();
-        Map<String, Object> result;
-        Integer limit = queryDTO.getResultLimit() != null && queryDTO.getResultLimit() > 0 ? queryDTO.getResultLimit() - 1 : -1;
-        switch (dataType) {
-            case STRING:
-                result = getStringRedisValue(jedis, keys);
-                break;
-            case HASH:
-                result = getHashRedisValue(jedis, keys);
-                break;
-            case LIST:
-                result = getListRedisValue(jedis, keys, limit);
-                break;
-            case SET:
-                result = getSetRedisValue(jedis, keys);
-                break;
-            case ZSET:
-                result = getSortSetRedisValue(jedis, keys, limit);
-                break;
-            default:
-                throw new DtLoaderException("Unsupported dataType");
-        }
-        return result;
+    private static int getKeyLimit(RedisQueryDTO queryDTO) {
+        return queryDTO.getKeyLimit() != null && queryDTO.getKeyLimit() > 0 ? queryDTO.getKeyLimit() : LIMIT_MAX_KEY;
     }
 
-
     /**
-     * 查询 string 类型
-     * @param jedis
-     * @param keys
-     * @return
+     * 扫描指定类型的 key，集群模式下并行扫描所有 master 节点
+     * @param commands 单机/哨兵模式为 Jedis，集群模式为 JedisCluster
+     * @param scanParam 扫描参数
+     * @param dataType key 类型
+     * @param keyLimit 最多返回的 key 数量
+     * @return key
      */
-    private static Map<String, Object> getStringRedisValue(JedisCommands jedis, List<String> keys) {
-        Map<String, Object> resultMap = new HashMap<>();
-        if (CollectionUtils.isEmpty(keys)) {
-            return resultMap;
+    private static List<String> scanKeys(JedisCommands commands, ScanParams scanParam, String dataType, int keyLimit) {
+        scanParam.count(SCAN_COUNT);
+        AtomicInteger count = new AtomicInteger();
+        if (commands instanceof Jedis) {
+            return scanNode((Jedis) commands, commands, scanParam, dataType, keyLimit, count);
         }
-        for (String key : keys) {
-            String result = jedis.get(key);
-            resultMap.put(key, result);
+        JedisCluster cluster = (JedisCluster) commands;
+        Collection<JedisPool> masters = RedisPipelineUtils.getMasterPools(cluster);
+        if (masters.isEmpty()) {
+            return new ArrayList<>();
         }
-        return resultMap;
-    }
-
-    /**
-     * 查询list类型
-     * @param jedis
-     * @param keys
-     * @return
-     */
-    private static Map<String, Object> getListRedisValue(JedisCommands jedis, List<String> keys, Integer limit) {
-        Map<String, Object> resultMap = new HashMap<>();
-        if (CollectionUtils.isEmpty(keys)) {
-            return resultMap;
-        }
-        for (String key : keys) {
-            List<String> result = jedis.lrange(key, 0, limit);
-            result = CollectionUtils.isEmpty(result) ? new ArrayList<>() : result;
-            resultMap.put(key, result);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(masters.size(), MAX_SCAN_THREADS), new DtClassThreadFactory("redisClusterScan"));
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>(masters.size());
+            for (JedisPool master : masters) {
+                futures.add(executor.submit(() -> {
+                    try (Jedis jedis = master.getResource()) {
+                        return scanNode(jedis, cluster, scanParam, dataType, keyLimit, count);
+                    }
+                }));
+            }
+            List<String> list = new ArrayList<>();
+            for (Future<List<String>> future : futures) {
+                list.addAll(future.get());
+            }
+            return list;
+        } catch (ExecutionException e) {
+            throw new DtLoaderException(String.format("scan redis cluster keys error,%s", e.getCause().getMessage()), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DtLoaderException("scan redis cluster keys is interrupted", e);
+        } finally {
+            executor.shutdownNow();
         }
-        return resultMap;
     }
 
     /**
-     * 查询set 类型， smembers
-     * @param jedis
-     * @param keys
-     * @return
+     * 扫描单个节点，每页 key 的类型通过一次 pipeline 获取
+     * @param count 所有节点已经扫描到的 key 数量
      */
-    private static Map<String, Object> getSetRedisValue(JedisCommands jedis, List<String> keys) {
-        Map<String, Object> resultMap = new HashMap<>();
-        if (CollectionUtils.isEmpty(keys)) {
-            return resultMap;
-        }
-        ScanParams scanParams = new ScanParams();
-        for (String key : keys) {
-            String cursor = ScanParams.SCAN_POINTER_START;
-            List<String> list = new ArrayList<>();
-            do {
-                ScanResult<String> scanResult = jedis.sscan(key, cursor, scanParams);
-                List<String> result = scanResult.getResult();
-                list.addAll(result);
-                cursor = scanResult.getStringCursor();
-            } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
-            resultMap.put(key, list);
-        }
-        return resultMap;
+    private static List<String> scanNode(Jedis jedis, JedisCommands fallback, ScanParams scanParam, String dataType, int keyLimit, AtomicInteger count) {
+        List<String> list = new ArrayList<>();
+        String cursor = ScanParams.SCAN_POINTER_START;
+        do {
+            ScanResult<String> scan = jedis.scan(cursor, scanParam);
+            Map<String, String> keyTypes = RedisPipelineUtils.getTypes(jedis, fallback, scan.getResult());
+            for (Map.Entry<String, String> keyType : keyTypes.entrySet()) {
+                if (dataType.equalsIgnoreCase(keyType.getValue())) {
+                    if (count.incrementAndGet() > keyLimit) {
+                        return list;
+                    }
+                    list.add(keyType.getKey());
+                }
+            }
+            cursor = scan.getStringCursor();
+        } while (!ScanParams.SCAN_POINTER_START.equals(cursor) && count.get() < keyLimit);
+        return list;
     }
 
     /**
-     * 查询zset 类型，zrange
-     * @param jedis
-     * @param keys
-     * @return
+     * 按节点分组批量执行，单机/哨兵模式只有一个节点，集群模式按 key 所在的 master 节点分组
+     * @param commands 单机/哨兵模式为 Jedis，集群模式为 JedisCluster
+     * @param keys key
+     * @param action 在节点上执行的批量操作
+     * @return key - 结果
      */
-    private static Map<String, Object> getSortSetRedisValue(JedisCommands jedis, List<String> keys, Integer limit) {
-        Map<String, Object> resultMap = new HashMap<>();
-        if (CollectionUtils.isEmpty(keys)) {
-            return resultMap;
+    private static <T> Map<String, T> executeBatch(JedisCommands commands, List<String> keys, BiFunction<Jedis, List<String>, Map<String, T>> action) {
+        if (commands instanceof Jedis) {
+            return action.apply((Jedis) commands, keys);
         }
-        for (String key : keys) {
-            Set<String> result = jedis.zrange(key, 0, limit);
-            result = CollectionUtils.isEmpty(result) ? new HashSet<>() : result;
-            resultMap.put(key, result);
+        Map<String, T> result = new LinkedHashMap<>();
+        for (Map.Entry<JedisPool, List<String>> group : RedisPipelineUtils.groupByMaster((JedisCluster) commands, keys).entrySet()) {
+            if (Objects.isNull(group.getKey())) {
+                result.putAll(action.apply(null, group.getValue()));
+                continue;
+            }
+            try (Jedis jedis = group.getKey().getResource()) {
+                result.putAll(action.apply(jedis, group.getValue()));
+            }
         }
-        return resultMap;
+        return result;
     }
 
+    private static Map<String, Object> getRedisValues(JedisCommands commands, RedisQueryDTO queryDTO) {
 
-    /**
-     * 查询hash 类型的表
-     * @param jedis
-     * @param keys
-     * @return
-     */
-    private static Map<String, Object> getHashRedisValue(JedisCommands jedis, List<String> keys) {
-        Map<String, Object> resultMap = new HashMap<>();
-        if (CollectionUtils.isEmpty(keys)) {
-            return resultMap;
-        }
-        ScanParams scanParams = new ScanParams();
-        for (String key : keys) {
-            String cursor = ScanParams.SCAN_POINTER_START;
-            List<Map.Entry<String, String>> list = new ArrayList<>();
-            do {
-                ScanResult<Map.Entry<String, String>> scanResult = jedis.hscan(key, cursor, scanParams);
-                List<Map.Entry<String, String>> tuples = scanResult.getResult();
-                if (CollectionUtils.isNotEmpty(tuples)) {
-                    list.addAll(tuples);
-                }
-                resultMap.put(key, list);
-                cursor = scanResult.getStringCursor();
-            } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
-        }
-        return resultMap;
+        List<String> keys = getRedisKeys(commands, queryDTO);
+
+        RedisDataType dataType = queryDTO.getRedisDataType();
+        long limit = queryDTO.getResultLimit() != null && queryDTO.getResultLimit() > 0 ? queryDTO.getResultLimit() - 1 : -1;
+        return new HashMap<>(executeBatch(commands, keys, (jedis, nodeKeys) -> RedisPipelineUtils.getValues(jedis, commands, nodeKeys, dataType, limit)));
     }
 
     private static boolean checkConnectionStandalone(ISourceDTO source) {
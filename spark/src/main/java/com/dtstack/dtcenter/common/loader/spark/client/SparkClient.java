@@ -428,10 +428,13 @@ public class SparkClient<T> extends AbsRdbmsClient<T> {
         }
         Configuration conf = HadoopConfUtil.getHdfsConf(sparkSourceDTO.getDefaultFS(), sparkSourceDTO.getConfig(), sparkSourceDTO.getKerberosConfig());
         List<String> finalPartitions = partitions;
+        // 并行读取配置，兼容没有该字段的老版本 core
+        int parallelism = ReflectUtil.fieldExists(SqlQueryDTO.class, "readParallelism") && Objects.nonNull(queryDTO.getReadParallelism()) ? queryDTO.getReadParallelism() : 1;
+        boolean ordered = !ReflectUtil.fieldExists(SqlQueryDTO.class, "orderedRead") || !Boolean.FALSE.equals(queryDTO.getOrderedRead());
         return KerberosLoginUtil.loginWithUGI(sparkSourceDTO.getKerberosConfig()).doAs(
                 (PrivilegedAction<IDownloader>) () -> {
                     try {
-                        return createDownloader(table.getStoreType(), conf, table.getPath(), commonColumn, table.getDelim(), partitionColumns, needIndex, queryDTO.getPartitionColumns(), finalPartitions, sparkSourceDTO.getKerberosConfig());
+                        return createDownloader(table.getStoreType(), conf, table.getPath(), commonColumn, table.getDelim(), partitionColumns, needIndex, queryDTO.getPartitionColumns(), finalPartitions, sparkSourceDTO.getKerberosConfig(), parallelism, ordered);
                     } catch (Exception e) {
                         throw new DtLoaderException(String.format("create downloader exception,%s", e.getMessage()), e);
                     }
@@ -452,6 +455,8 @@ public class SparkClient<T> extends AbsRdbmsClient<T> {
      * @param filterPartitions 需要查询的分区
      * @param partitions       全部分区
      * @param kerberosConfig   kerberos 配置
+     * @param parallelism      并行读取线程数，大于 1 时开启并行读取
+     * @param ordered          并行读取时是否保证数据顺序
      * @return downloader
      * @throws Exception 异常信息
      */
@@ -459,7 +464,7 @@ public class SparkClient<T> extends AbsRdbmsClient<T> {
                                                   List<ColumnMetaDTO> columns, String fieldDelimiter,
                                                   ArrayList<String> partitionColumns, List<Integer> needIndex,
                                                   Map<String, String> filterPartitions, List<String> partitions,
-                                                  Map<String, Object> kerberosConfig) throws Exception {
+                                                  Map<String, Object> kerberosConfig, int parallelism, boolean ordered) throws Exception {
         // 根据存储格式创建对应的hiveDownloader
         if (StringUtils.isBlank(storageMode)) {
             throw new DtLoaderException("Hive table reads for this storage type are not supported");
@@ -469,6 +474,7 @@ public class SparkClient<T> extends AbsRdbmsClient<T> {
         if (StringUtils.containsIgnoreCase(storageMode, "text")) {
             SparkTextDownload sparkTextDownload = new SparkTextDownload(conf, tableLocation, columnNames,
                     fieldDelimiter, partitionColumns, filterPartitions, needIndex, partitions, kerberosConfig);
+            sparkTextDownload.setParallel(parallelism, ordered);
             sparkTextDownload.configure();
             return sparkTextDownload;
         }
@@ -476,6 +482,7 @@ public class SparkClient<T> extends AbsRdbmsClient<T> {
         if (StringUtils.containsIgnoreCase(storageMode, "orc")) {
             SparkORCDownload sparkORCDownload = new SparkORCDownload(conf, tableLocation, columnNames,
                     partitionColumns, needIndex, partitions, kerberosConfig);
+            sparkORCDownload.setParallel(parallelism, ordered);
             sparkORCDownload.configure();
             return sparkORCDownload;
         }
@@ -483,6 +490,7 @@ public class SparkClient<T> extends AbsRdbmsClient<T> {
         if (StringUtils.containsIgnoreCase(storageMode, "parquet")) {
             SparkParquetDownload sparkParquetDownload = new SparkParquetDownload(conf, tableLocation, columns,
                     partitionColumns, needIndex, filterPartitions, partitions, kerberosConfig);
+            sparkParquetDownload.setParallel(parallelism, ordered);
             sparkParquetDownload.configure();
             return sparkParquetDownload;
         }
@@ -18,7 +18,11 @@
 
 package com.dtstack.dtcenter.common.loader.sqlserver;
 
+import com.dtstack.dtcenter.common.loader.common.enums.SqlDialect;
+import com.dtstack.dtcenter.common.loader.common.utils.PreparedSql;
 import com.dtstack.dtcenter.common.loader.common.utils.SqlFormatUtil;
+import com.dtstack.dtcenter.common.loader.rdbms.IPageDialect;
+import com.dtstack.dtcenter.common.loader.rdbms.RdbmsPagination;
 import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.dto.Column;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
@@ -40,7 +44,7 @@ import java.util.stream.Collectors;
  * @Description：SqlServer2017表下载
  */
 
-public class SqlServerDownloader implements IDownloader {
+public class SqlServerDownloader implements IDownloader, IPageDialect {
 
     private int pageNum;
 
@@ -54,6 +58,8 @@ public class SqlServerDownloader implements IDownloader {
 
     private String sql;
 
+    private PreparedSql preparedSql;
+
     private String schema;
 
     private Statement statement;
@@ -62,9 +68,13 @@ public class SqlServerDownloader implements IDownloader {
 
     private int columnCount;
 
+    private RdbmsPagination pagination;
+
     public SqlServerDownloader(Connection connection, String sql, String schema) {
         this.connection = connection;
-        this.sql = SqlFormatUtil.formatSql(sql);
+        // sql server 中 [] 为标识符引用符
+        this.preparedSql = SqlFormatUtil.prepare(sql, SqlDialect.SQL_SERVER);
+        this.sql = preparedSql.getSql();
         this.schema = schema;
     }
 
@@ -82,8 +92,8 @@ public class SqlServerDownloader implements IDownloader {
             String useSchema = String.format("USE %s", schema);
             statement.execute(useSchema);
         }
-        String countSQL = String.format("SELECT COUNT(*) FROM (%s) temp", sql);
-        String showColumns = String.format("SELECT top 1 * FROM (%s) t", sql);
+        String countSQL = preparedSql.wrap("SELECT COUNT(*) FROM (%s) temp");
+        String showColumns = preparedSql.wrap("SELECT top 1 * FROM (%s) t");
 
         ResultSet totalResultSet = null;
         ResultSet columnsResultSet = null;
@@ -106,6 +116,9 @@ public class SqlServerDownloader implements IDownloader {
             }
             //获取总页数
             pageAll = (int) Math.ceil(totalLine / (double) pageSize);
+            // 优先使用主键或唯一索引分页
+            pagination = new RdbmsPagination(connection, sql, schema, this, pageSize);
+            pagination.init(getMetaInfo());
         } catch (Exception e) {
             throw new DtLoaderException("build SqlServer downloader message exception : " + e.getMessage(), e);
         } finally {
@@ -129,41 +142,42 @@ public class SqlServerDownloader implements IDownloader {
 
     @Override
     public List<List<String>> readNext() {
-        //分页查询，一次一百条
-        //todo 没找到适合的分页
-        String limitSQL = String.format("select top %s * from (%s) as t where t.%s not in (select top %s m.%s from " +
-                "(%s) m) ", pageSize * pageNum - pageSize * (pageNum - 1), sql, columnNames.get(0).getName(),
-                pageSize * (pageNum - 1), columnNames.get(0).getName(), sql);
-        List<List<String>> pageTemp = new ArrayList<>(100);
-
-        try (ResultSet resultSet = statement.executeQuery(limitSQL)) {
-            while (resultSet.next()) {
-                List<String> columns = new ArrayList<>(columnCount);
-                for (int i = 1; i <= columnCount; i++) {
-                    columns.add(resultSet.getString(i));
-                }
-                pageTemp.add(columns);
-            }
-        } catch (Exception e) {
-            throw new DtLoaderException("read SqlServer message exception: " + e.getMessage(), e);
-        }
-
+        List<List<String>> pageTemp = pagination.readNext();
         pageNum++;
         return pageTemp;
     }
 
     @Override
     public boolean reachedEnd() {
-        return pageAll < pageNum;
+        return pageAll < pageNum || pagination.reachedEnd();
     }
 
     @Override
     public boolean close() throws Exception {
+        if (pagination != null) {
+            pagination.close();
+        }
         statement.close();
         connection.close();
         return true;
     }
 
+    @Override
+    public String quote(String identifier) {
+        return String.format("[%s]", identifier);
+    }
+
+    @Override
+    public String limitSql(String sql, String where, String orderBy, int limit) {
+        return String.format("SELECT TOP %s * FROM (%s) t%s ORDER BY %s", limit, sql, where, orderBy);
+    }
+
+    @Override
+    public String offsetSql(String sql, List<String> columns, int offset, int limit) {
+        return String.format("select top %s * from (%s) as t where t.%s not in (select top %s m.%s from " +
+                "(%s) m) ", limit, sql, columns.get(0), offset, columns.get(0), sql);
+    }
+
     @Override
     public String getFileName() {
         return null;
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.common.loader.tbds.hbase;
+
+import com.dtstack.dtcenter.loader.dto.HbaseBatchConfig;
+import com.dtstack.dtcenter.loader.dto.HbaseCellDTO;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import com.google.common.collect.Lists;
+import org.apache.commons.lang.StringUtils;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * hbase 批量操作工具，写入及删除通过 BufferedMutator 批量提交，获取通过 Table#get(List) 批量请求
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/13
+ * company: www.dtstack.com
+ */
+public class HbaseBatchUtils {
+
+    /**
+     * 批量写入
+     *
+     * @param connection hbase 连接
+     * @param tableName  表名
+     * @param cells      写入的单元格
+     * @param config     批量操作配置
+     * @throws IOException 写入异常
+     */
+    public static void put(Connection connection, String tableName, List<HbaseCellDTO> cells, HbaseBatchConfig config) throws IOException {
+        Map<String, Put> puts = new LinkedHashMap<>();
+        for (HbaseCellDTO cell : cells) {
+            checkRowKey(cell);
+            if (StringUtils.isBlank(cell.getFamily()) || StringUtils.isBlank(cell.getQualifier())) {
+                throw new DtLoaderException(String.format("family and qualifier of rowKey %s cannot be empty", cell.getRowKey()));
+            }
+            Put put = puts.computeIfAbsent(cell.getRowKey(), rowKey -> new Put(Bytes.toBytes(rowKey)));
+            byte[] value = Objects.isNull(cell.getValue()) ? null : Bytes.toBytes(cell.getValue());
+            if (Objects.isNull(cell.getTimestamp())) {
+                put.addColumn(Bytes.toBytes(cell.getFamily()), Bytes.toBytes(cell.getQualifier()), value);
+            } else {
+                put.addColumn(Bytes.toBytes(cell.getFamily()), Bytes.toBytes(cell.getQualifier()), cell.getTimestamp(), value);
+            }
+        }
+        mutate(connection, tableName, new ArrayList<>(puts.values()), config);
+    }
+
+    /**
+     * 批量删除
+     *
+     * @param connection hbase 连接
+     * @param tableName  表名
+     * @param cells      删除的单元格
+     * @param config     批量操作配置
+     * @throws IOException 删除异常
+     */
+    public static void delete(Connection connection, String tableName, List<HbaseCellDTO> cells, HbaseBatchConfig config) throws IOException {
+        Map<String, Delete> deletes = new LinkedHashMap<>();
+        for (HbaseCellDTO cell : cells) {
+            checkRowKey(cell);
+            Delete delete = deletes.computeIfAbsent(cell.getRowKey(), rowKey -> new Delete(Bytes.toBytes(rowKey)));
+            if (StringUtils.isBlank(cell.getFamily())) {
+                continue;
+            }
+            if (StringUtils.isBlank(cell.getQualifier())) {
+                delete.addFamily(Bytes.toBytes(cell.getFamily()));
+            } else if (Objects.isNull(cell.getTimestamp())) {
+                delete.addColumn(Bytes.toBytes(cell.getFamily()), Bytes.toBytes(cell.getQualifier()));
+            } else {
+                delete.addColumn(Bytes.toBytes(cell.getFamily()), Bytes.toBytes(cell.getQualifier()), cell.getTimestamp());
+            }
+        }
+        mutate(connection, tableName, new ArrayList<>(deletes.values()), config);
+    }
+
+    /**
+     * 批量获取
+     *
+     * @param connection hbase 连接
+     * @param tableName  表名
+     * @param cells      获取的单元格
+     * @param config     批量操作配置
+     * @return 获取到的单元格
+     * @throws IOException 获取异常
+     */
+    public static List<HbaseCellDTO> get(Connection connection, String tableName, List<HbaseCellDTO> cells, HbaseBatchConfig config) throws IOException {
+        Map<String, Get> gets = new LinkedHashMap<>();
+        for (HbaseCellDTO cell : cells) {
+            checkRowKey(cell);
+            Get get = gets.computeIfAbsent(cell.getRowKey(), rowKey -> new Get(Bytes.toBytes(rowKey)));
+            if (StringUtils.isBlank(cell.getFamily())) {
+                continue;
+            }
+            if (StringUtils.isBlank(cell.getQualifier())) {
+                get.addFamily(Bytes.toBytes(cell.getFamily()));
+            } else {
+                get.addColumn(Bytes.toBytes(cell.getFamily()), Bytes.toBytes(cell.getQualifier()));
+            }
+        }
+        TableName tbName = TableName.valueOf(tableName);
+        Map<String, List<HbaseCellDTO>> rowCells = new LinkedHashMap<>();
+        gets.keySet().forEach(rowKey -> rowCells.put(rowKey, new ArrayList<>()));
+        try (Table table = connection.getTable(tbName)) {
+            for (List<Get> group : groupByRegion(connection, tbName, new ArrayList<>(gets.values()), config)) {
+                for (List<Get> batch : Lists.partition(group, config.getBatchSize())) {
+                    for (Result result : table.get(batch)) {
+                        if (result.isEmpty()) {
+                            continue;
+                        }
+                        List<HbaseCellDTO> resultCells = rowCells.get(Bytes.toString(result.getRow()));
+                        for (Cell cell : result.rawCells()) {
+                            resultCells.add(toCellDTO(cell));
+                        }
+                    }
+                }
+            }
+        }
+        List<HbaseCellDTO> results = new ArrayList<>();
+        rowCells.values().forEach(results::addAll);
+        return results;
+    }
+
+    private static void mutate(Connection connection, String tableName, List<Mutation> mutations, HbaseBatchConfig config) throws IOException {
+        TableName tbName = TableName.valueOf(tableName);
+        BufferedMutatorParams params = new BufferedMutatorParams(tbName).writeBufferSize(config.getWriteBufferSize());
+        boolean flushEveryBatch = HbaseBatchConfig.FlushPolicy.EVERY_BATCH.equals(config.getFlushPolicy());
+        // 关闭时会提交剩余的缓冲数据
+        try (BufferedMutator mutator = connection.getBufferedMutator(params)) {
+            int count = 0;
+            for (List<Mutation> group : groupByRegion(connection, tbName, mutations, config)) {
+                for (Mutation mutation : group) {
+                    mutator.mutate(mutation);
+                    if (flushEveryBatch && ++count % config.getBatchSize() == 0) {
+                        mutator.flush();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 按 rowkey 所在 region 分组，region 位置信息由客户端缓存
+     */
+    private static <T extends Row> Collection<List<T>> groupByRegion(Connection connection, TableName tableName, List<T> rows, HbaseBatchConfig config) throws IOException {
+        if (!Boolean.TRUE.equals(config.getGroupByRegion()) || rows.size() <= 1) {
+            return Collections.singletonList(rows);
+        }
+        Map<String, List<T>> groups = new LinkedHashMap<>();
+        try (RegionLocator locator = connection.getRegionLocator(tableName)) {
+            for (T row : rows) {
+                HRegionLocation location = locator.getRegionLocation(row.getRow());
+                groups.computeIfAbsent(location.getRegionInfo().getEncodedName(), k -> new ArrayList<>()).add(row);
+            }
+        }
+        return groups.values();
+    }
+
+    private static HbaseCellDTO toCellDTO(Cell cell) {
+        return HbaseCellDTO.builder()
+                .rowKey(Bytes.toString(CellUtil.cloneRow(cell)))
+                .family(Bytes.toString(CellUtil.cloneFamily(cell)))
+                .qualifier(Bytes.toString(CellUtil.cloneQualifier(cell)))
+                .value(Bytes.toString(CellUtil.cloneValue(cell)))
+                .timestamp(cell.getTimestamp())
+                .build();
+    }
+
+    private static void checkRowKey(HbaseCellDTO cell) {
+        if (Objects.isNull(cell) || StringUtils.isBlank(cell.getRowKey())) {
+            throw new DtLoaderException("The rowKey cannot be empty！");
+        }
+    }
+
+    /**
+     * 补全批量操作配置的默认值
+     *
+     * @param config 批量操作配置
+     * @return 批量操作配置
+     */
+    public static HbaseBatchConfig fillDefault(HbaseBatchConfig config) {
+        HbaseBatchConfig defaultConfig = HbaseBatchConfig.builder().build();
+        if (Objects.isNull(config)) {
+            return defaultConfig;
+        }
+        return HbaseBatchConfig.builder()
+                .writeBufferSize(Objects.nonNull(config.getWriteBufferSize()) && config.getWriteBufferSize() > 0 ? config.getWriteBufferSize() : defaultConfig.getWriteBufferSize())
+                .batchSize(Objects.nonNull(config.getBatchSize()) && config.getBatchSize() > 0 ? config.getBatchSize() : defaultConfig.getBatchSize())
+                .flushPolicy(Objects.nonNull(config.getFlushPolicy()) ? config.getFlushPolicy() : defaultConfig.getFlushPolicy())
+                .groupByRegion(Objects.nonNull(config.getGroupByRegion()) ? config.getGroupByRegion() : defaultConfig.getGroupByRegion())
+                .build();
+    }
+}
@@ -1,6 +1,9 @@
 package com.dtstack.dtcenter.common.loader.tbds.hbase;
 
+import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
 import com.dtstack.dtcenter.loader.client.IHbase;
+import com.dtstack.dtcenter.loader.dto.HbaseBatchConfig;
+import com.dtstack.dtcenter.loader.dto.HbaseCellDTO;
 import com.dtstack.dtcenter.loader.dto.HbaseQueryDTO;
 import com.dtstack.dtcenter.loader.dto.filter.TimestampFilter;
 import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
@@ -24,12 +27,12 @@ import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
-import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.filter.CompareFilter;
 import org.apache.hadoop.hbase.filter.FilterList;
 import org.apache.hadoop.hbase.filter.PageFilter;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
 import org.apache.hadoop.hbase.filter.RegexStringComparator;
 import org.apache.hadoop.hbase.util.Bytes;
 
@@ -42,6 +45,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * hbase 新客户端，提供hbase特有的一些方法
@@ -170,26 +174,22 @@ public class HbaseClientSpecial implements IHbase {
     public List<String> scanByRegex(ISourceDTO source, String tbName, String regex) {
         TbdsHbaseSourceDTO hbaseSourceDTO = (TbdsHbaseSourceDTO) source;
         Connection connection = null;
-        Table table = null;
-        ResultScanner rs = null;
-        List<String> results = Lists.newArrayList();
+        List<String> results;
         try {
             //获取hbase连接
             connection = HbaseConnFactory.getHbaseConn(hbaseSourceDTO);
-            table = connection.getTable(TableName.valueOf(tbName));
             Scan scan = new Scan();
             org.apache.hadoop.hbase.filter.Filter rowFilter = new org.apache.hadoop.hbase.filter.RowFilter(CompareFilter.CompareOp.EQUAL, new RegexStringComparator(regex));
-            scan.setFilter(rowFilter);
-            rs = table.getScanner(scan);
-            for (Result r : rs) {
-                results.add(Bytes.toString(r.getRow()));
-            }
+            // 只需要 rowkey，每行只返回第一个 cell
+            scan.setFilter(new FilterList(FilterList.Operator.MUST_PASS_ALL, rowFilter, new FirstKeyOnlyFilter()));
+            scan.setCaching(HbaseRegionScanner.DEFAULT_CACHING);
+            results = HbaseRegionScanner.scan(connection, TableName.valueOf(tbName), scan, Long.MAX_VALUE,
+                    HbaseRegionScanner.DEFAULT_PARALLELISM, r -> Bytes.toString(r.getRow()));
         } catch (DtLoaderException e) {
             throw e;
         } catch (Exception e) {
             throw new DtLoaderException(String.format("Hbase scans data abnormally according to regular！,regex：%s", regex), e);
         } finally {
-            close(rs, table);
             closeConnection(connection, hbaseSourceDTO);
             HbaseClient.destroyProperty();
         }
@@ -208,12 +208,16 @@ public class HbaseClientSpecial implements IHbase {
             //获取hbase连接
             connection = HbaseConnFactory.getHbaseConn(hbaseSourceDTO);
             table = connection.getTable(TableName.valueOf(tbName));
+            List<Delete> deletes = new ArrayList<>(rowKeys.size());
             for (String rowKey : rowKeys) {
                 Delete delete = new Delete(Bytes.toBytes(rowKey));
                 delete.addColumn(Bytes.toBytes(family), Bytes.toBytes(qualifier));
-                table.delete(delete);
-                log.info("delete hbase rowKey success , rowKey {}", rowKey);
+                deletes.add(delete);
             }
+            // 一次批量请求删除，按 region server 分组提交
+            table.delete(deletes);
+            log.info("delete hbase rowKey success, table name {}, rowKey count {}", tbName, rowKeys.size());
+            log.debug("delete hbase rowKey success, table name {}, rowKeys {}", tbName, rowKeys);
             return true;
         } catch (DtLoaderException e) {
             throw e;
@@ -276,6 +280,71 @@ public class HbaseClientSpecial implements IHbase {
         return row;
     }
 
+    @Override
+    public Boolean batchPut(ISourceDTO source, String tableName, List<HbaseCellDTO> cells, HbaseBatchConfig config) {
+        if (CollectionUtils.isEmpty(cells)) {
+            throw new DtLoaderException("The cells to be put cannot be empty！");
+        }
+        TbdsHbaseSourceDTO hbaseSourceDTO = (TbdsHbaseSourceDTO) source;
+        Connection connection = null;
+        try {
+            //获取hbase连接，开启连接池时复用连接
+            connection = HbaseConnFactory.getHbaseConn(hbaseSourceDTO);
+            HbaseBatchUtils.put(connection, tableName, cells, HbaseBatchUtils.fillDefault(config));
+            return true;
+        } catch (DtLoaderException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DtLoaderException(String.format("hbase batch insert data exception! table: %s, size: %s, error: %s", tableName, cells.size(), e.getMessage()), e);
+        } finally {
+            closeConnection(connection, hbaseSourceDTO);
+            HbaseClient.destroyProperty();
+        }
+    }
+
+    @Override
+    public Boolean batchDelete(ISourceDTO source, String tableName, List<HbaseCellDTO> cells, HbaseBatchConfig config) {
+        if (CollectionUtils.isEmpty(cells)) {
+            throw new DtLoaderException("The cells to be deleted cannot be empty！");
+        }
+        TbdsHbaseSourceDTO hbaseSourceDTO = (TbdsHbaseSourceDTO) source;
+        Connection connection = null;
+        try {
+            //获取hbase连接，开启连接池时复用连接
+            connection = HbaseConnFactory.getHbaseConn(hbaseSourceDTO);
+            HbaseBatchUtils.delete(connection, tableName, cells, HbaseBatchUtils.fillDefault(config));
+            return true;
+        } catch (DtLoaderException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DtLoaderException(String.format("hbase batch delete data exception! table: %s, size: %s, error: %s", tableName, cells.size(), e.getMessage()), e);
+        } finally {
+            closeConnection(connection, hbaseSourceDTO);
+            HbaseClient.destroyProperty();
+        }
+    }
+
+    @Override
+    public List<HbaseCellDTO> batchGet(ISourceDTO source, String tableName, List<HbaseCellDTO> cells, HbaseBatchConfig config) {
+        if (CollectionUtils.isEmpty(cells)) {
+            return Collections.emptyList();
+        }
+        TbdsHbaseSourceDTO hbaseSourceDTO = (TbdsHbaseSourceDTO) source;
+        Connection connection = null;
+        try {
+            //获取hbase连接，开启连接池时复用连接
+            connection = HbaseConnFactory.getHbaseConn(hbaseSourceDTO);
+            return HbaseBatchUtils.get(connection, tableName, cells, HbaseBatchUtils.fillDefault(config));
+        } catch (DtLoaderException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DtLoaderException(String.format("hbase batch get data exception! table: %s, size: %s, error: %s", tableName, cells.size(), e.getMessage()), e);
+        } finally {
+            closeConnection(connection, hbaseSourceDTO);
+            HbaseClient.destroyProperty();
+        }
+    }
+
     @Override
     public List<List<String>> preview(ISourceDTO source, String tableName, Integer previewNum) {
         return preview(source, tableName, Maps.newHashMap(), previewNum);
@@ -294,13 +363,10 @@ public class HbaseClientSpecial implements IHbase {
     public List<List<String>> preview(ISourceDTO source, String tableName, Map<String, List<String>> familyQualifierMap, Integer previewNum) {
         TbdsHbaseSourceDTO hbaseSourceDTO = (TbdsHbaseSourceDTO) source;
         Connection connection = null;
-        Table table = null;
-        ResultScanner rs = null;
         List<List<String>> previewList = Lists.newArrayList();
         try {
             // 获取hbase连接
             connection = HbaseConnFactory.getHbaseConn(hbaseSourceDTO);
-            table = connection.getTable(TableName.valueOf(tableName));
             Scan scan = new Scan();
             // 计算数据预览条数，最大 5000，默认 100
             if (Objects.isNull(previewNum) || previewNum <= 0) {
@@ -321,20 +387,11 @@ public class HbaseClientSpecial implements IHbase {
                     }
                 }
             }
-            // 数据预览限制返回条数
-            scan.setMaxResultSize(previewNum);
             scan.setFilter(new PageFilter(previewNum));
-            rs = table.getScanner(scan);
-            List<Result> results = Lists.newArrayList();
-            for (Result row : rs) {
-                if (CollectionUtils.isEmpty(row.listCells())) {
-                    continue;
-                }
-                results.add(row);
-                if (results.size() >= previewNum) {
-                    break;
-                }
-            }
+            // 每次 rpc 最多返回预览条数，按 region 并行扫描，前面的 region 满足预览条数后其余 region 停止扫描
+            scan.setCaching(Math.min(previewNum, HbaseRegionScanner.DEFAULT_CACHING));
+            List<Result> results = HbaseRegionScanner.scan(connection, TableName.valueOf(tableName), scan, previewNum,
+                    HbaseRegionScanner.DEFAULT_PARALLELISM, Function.identity());
             if (CollectionUtils.isEmpty(results)) {
                 return previewList;
             }
@@ -406,7 +463,6 @@ public class HbaseClientSpecial implements IHbase {
         } catch (Exception e) {
             throw new DtLoaderException(String.format("Data preview failed,%s", e.getMessage()), e);
         } finally {
-            close(table, rs);
             closeConnection(connection, hbaseSourceDTO);
             HbaseClient.destroyProperty();
         }
@@ -416,17 +472,12 @@ public class HbaseClientSpecial implements IHbase {
     public List<Map<String, Object>> executeQuery(ISourceDTO source, HbaseQueryDTO hbaseQueryDTO, TimestampFilter timestampFilter) {
         TbdsHbaseSourceDTO hbaseSourceDTO = (TbdsHbaseSourceDTO) source;
         Connection connection = null;
-        Table table = null;
-        ResultScanner rs = null;
-        List<Result> results = Lists.newArrayList();
-        List<Map<String, Object>> executeResult = Lists.newArrayList();
         try {
             // 获取hbase连接
             connection = HbaseConnFactory.getHbaseConn(hbaseSourceDTO);
             List<String> columns = hbaseQueryDTO.getColumns();
             // 转化表名为 hbase TableName
             TableName tableName = TableName.valueOf(hbaseQueryDTO.getTableName());
-            table = connection.getTable(tableName);
             Scan scan = new Scan();
             // 指定 hbase 扫描列，格式 --> 列族:列名
             if (CollectionUtils.isNotEmpty(columns)) {
@@ -460,64 +511,78 @@ public class HbaseClientSpecial implements IHbase {
             }
             // 设置 pageFilter 返回结果在多 region 情况下可能也不准确，通过 limit 限制
             long limit = Objects.isNull(hbaseQueryDTO.getLimit()) ? Long.MAX_VALUE : hbaseQueryDTO.getLimit();
-            scan.setMaxResultSize(limit);
+            int parallelism = configScan(scan, hbaseQueryDTO, limit);
             // 单独设置时间戳过滤
             if (Objects.nonNull(timestampFilter)) {
                 HbaseClient.fillTimestampFilter(scan, timestampFilter);
             }
-            rs = table.getScanner(scan);
-            for (Result row : rs) {
-                if (CollectionUtils.isEmpty(row.listCells())) {
-                    continue;
-                }
-                results.add(row);
-                if (results.size() >= limit) {
-                    break;
-                }
-            }
-            if (CollectionUtils.isEmpty(results)) {
-                return executeResult;
-            }
+            // 按 region 并行扫描，扫描线程中直接转换为结果行
+            return HbaseRegionScanner.scan(connection, tableName, scan, limit, parallelism, result -> convertRow(result, hbaseQueryDTO));
         } catch (Exception e){
             throw new DtLoaderException(String.format("Failed to execute hbase customization,%s", e.getMessage()), e);
         } finally {
-            if (hbaseSourceDTO.getPoolConfig() == null || MapUtils.isNotEmpty(hbaseSourceDTO.getKerberosConfig())) {
-                close(rs, table, connection);
-            } else {
-                close(rs, table, null);
-            }
+            closeConnection(connection, hbaseSourceDTO);
             HbaseClient.destroyProperty();
         }
-        //理解为一行记录
-        for (Result result : results) {
-            List<Cell> cells = result.listCells();
-            if (CollectionUtils.isEmpty(cells)) {
-                continue;
+    }
+
+    /**
+     * 设置扫描的 caching、batch，返回扫描并行度
+     *
+     * @param scan          扫描条件
+     * @param hbaseQueryDTO hbase 查询条件
+     * @param limit         最多返回的行数
+     * @return 扫描并行度
+     */
+    private static int configScan(Scan scan, HbaseQueryDTO hbaseQueryDTO, long limit) {
+        Integer caching = null;
+        Integer batch = null;
+        Integer parallelism = null;
+        if (ReflectUtil.fieldExists(HbaseQueryDTO.class, "scanCaching")) {
+            caching = hbaseQueryDTO.getScanCaching();
+            batch = hbaseQueryDTO.getScanBatch();
+            parallelism = hbaseQueryDTO.getScanParallelism();
+        }
+        // 每次 rpc 返回的行数不超过 limit
+        int scanCaching = Objects.nonNull(caching) && caching > 0 ? caching : HbaseRegionScanner.DEFAULT_CACHING;
+        scan.setCaching((int) Math.max(1, Math.min(scanCaching, limit)));
+        // 设置 batch 后宽行会拆分为多个 Result，扫描时会合并为一行
+        if (Objects.nonNull(batch) && batch > 0) {
+            scan.setBatch(batch);
+        }
+        return Objects.nonNull(parallelism) && parallelism > 0 ? parallelism : HbaseRegionScanner.DEFAULT_PARALLELISM;
+    }
+
+    /**
+     * 转换为结果行，key 为 rowkey、列族:列名及 timestamp
+     *
+     * @param result        hbase 行
+     * @param hbaseQueryDTO hbase 查询条件
+     * @return 结果行
+     */
+    private Map<String, Object> convertRow(Result result, HbaseQueryDTO hbaseQueryDTO) {
+        long timestamp = 0L;
+        HashMap<String, Object> row = Maps.newHashMap();
+        for (Cell cell : result.listCells()) {
+            row.put(ROWKEY, Bytes.toString(cell.getRowArray(), cell.getRowOffset(), cell.getRowLength()));
+            String family = Bytes.toString(cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength());
+            String qualifier = Bytes.toString(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+            Object value;
+            String familyQualifier = String.format(FAMILY_QUALIFIER, family, qualifier);
+            if (MapUtils.isNotEmpty(hbaseQueryDTO.getColumnTypes()) && Objects.nonNull(hbaseQueryDTO.getColumnTypes().get(familyQualifier))) {
+                HbaseQueryDTO.ColumnType columnType = hbaseQueryDTO.getColumnTypes().get(familyQualifier);
+                value = convertColumnType(columnType, cell);
+            } else {
+                value = Bytes.toString(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
             }
-            long timestamp = 0L;
-            HashMap<String, Object> row = Maps.newHashMap();
-            for (Cell cell : cells){
-                row.put(ROWKEY, Bytes.toString(cell.getRowArray(), cell.getRowOffset(),cell.getRowLength()));
-                String family = Bytes.toString(cell.getFamilyArray(), cell.getFamilyOffset(),cell.getFamilyLength());
-                String qualifier = Bytes.toString(cell.getQualifierArray(), cell.getQualifierOffset(),cell.getQualifierLength());
-                Object value;
-                String familyQualifier = String.format(FAMILY_QUALIFIER, family, qualifier);
-                if (MapUtils.isNotEmpty(hbaseQueryDTO.getColumnTypes()) && Objects.nonNull(hbaseQueryDTO.getColumnTypes().get(familyQualifier))) {
-                    HbaseQueryDTO.ColumnType columnType = hbaseQueryDTO.getColumnTypes().get(familyQualifier);
-                    value = convertColumnType(columnType, cell);
-                } else {
-                    value = Bytes.toString(cell.getValueArray(), cell.getValueOffset(),cell.getValueLength());
-                }
-                row.put(familyQualifier, value);
-                //取到最新变动的时间
-                if (cell.getTimestamp() > timestamp) {
-                    timestamp = cell.getTimestamp();
-                }
+            row.put(familyQualifier, value);
+            //取到最新变动的时间
+            if (cell.getTimestamp() > timestamp) {
+                timestamp = cell.getTimestamp();
             }
-            row.put(TIMESTAMP, timestamp);
-            executeResult.add(row);
         }
-        return executeResult;
+        row.put(TIMESTAMP, timestamp);
+        return row;
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.dtstack.dtcenter.common.loader.tdbs.hdfs.client;
 
 import com.dtstack.dtcenter.common.loader.tdbs.hdfs.HadoopConfUtil;
+import com.dtstack.dtcenter.common.loader.tdbs.hdfs.HdfsContentSummaryCollector;
 import com.dtstack.dtcenter.common.loader.tdbs.hdfs.HdfsOperator;
 import com.dtstack.dtcenter.common.loader.tdbs.hdfs.downloader.HdfsFileDownload;
 import com.dtstack.dtcenter.common.loader.tdbs.hdfs.downloader.HdfsORCDownload;
@@ -10,6 +11,7 @@ import com.dtstack.dtcenter.common.loader.tdbs.hdfs.downloader.YarnLogDownload.Y
 import com.dtstack.dtcenter.common.loader.tdbs.hdfs.fileMerge.core.CombineMergeBuilder;
 import com.dtstack.dtcenter.common.loader.tdbs.hdfs.fileMerge.core.CombineServer;
 import com.dtstack.dtcenter.common.loader.tdbs.hdfs.hdfswriter.HdfsOrcWriter;
+import com.dtstack.dtcenter.common.loader.tdbs.hdfs.hdfswriter.HdfsParallelImporter;
 import com.dtstack.dtcenter.common.loader.tdbs.hdfs.hdfswriter.HdfsParquetWriter;
 import com.dtstack.dtcenter.common.loader.tdbs.hdfs.hdfswriter.HdfsTextWriter;
 import com.dtstack.dtcenter.common.loader.tdbs.hdfs.util.SecurityUtils;
@@ -30,7 +32,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.ContentSummary;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.FileUtil;
 import org.apache.hadoop.fs.LocatedFileStatus;
@@ -422,34 +423,13 @@ public class HdfsFileClient implements IHdfsFile {
             throw new DtLoaderException("hdfs path cannot be empty！");
         }
         TbdsHdfsSourceDTO hdfsSourceDTO = (TbdsHdfsSourceDTO) source;
-        List<HDFSContentSummary> hdfsContentSummaries = Lists.newArrayList();
 
         return SecurityUtils.login(() -> {
             try {
                 Configuration conf = HadoopConfUtil.getHdfsConf(hdfsSourceDTO.getTbdsUsername(), hdfsSourceDTO.getTbdsSecureId(), hdfsSourceDTO.getTbdsSecureKey(), hdfsSourceDTO.getDefaultFS(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getKerberosConfig());
                 FileSystem fs = FileSystem.get(conf);
-                for (String hdfsDirPath : hdfsDirPaths) {
-                    Path hdfsPath = new Path(hdfsDirPath);
-                    if (!fs.exists(hdfsPath)) {
-                        log.warn("hdfs path : {} does not exist", hdfsDirPath);
-                        HDFSContentSummary contentSummaryEmpty = HDFSContentSummary.builder()
-                                .directoryCount(0L)
-                                .fileCount(0L)
-                                .ModifyTime(0L)
-                                .spaceConsumed(0L).build();
-                        hdfsContentSummaries.add(contentSummaryEmpty);
-                        continue;
-                    }
-                    org.apache.hadoop.fs.FileStatus fileStatus = fs.getFileStatus(hdfsPath);
-                    ContentSummary contentSummary = fs.getContentSummary(hdfsPath);
-                    HDFSContentSummary hdfsContentSummary = HDFSContentSummary.builder()
-                            .directoryCount(contentSummary.getDirectoryCount())
-                            .fileCount(contentSummary.getFileCount())
-                            .ModifyTime(fileStatus.getModificationTime())
-                            .spaceConsumed(contentSummary.getLength()).build();
-                    hdfsContentSummaries.add(hdfsContentSummary);
-                }
-                return hdfsContentSummaries;
+                // 多个路径并行获取，不包含子目录且未修改的目录使用缓存的摘要
+                return HdfsContentSummaryCollector.collect(fs, hdfsDirPaths);
             } catch (Exception e) {
                 throw new DtLoaderException(String.format("Failed to obtain HDFS file information：%s", e.getMessage()), e);
             }
@@ -457,6 +437,9 @@ public class HdfsFileClient implements IHdfsFile {
     }
 
     private int writeByPosWithFileFormat(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO) throws IOException {
+        if (HdfsParallelImporter.isParallel(hdfsWriterDTO)) {
+            return HdfsParallelImporter.writeByPos(source, hdfsWriterDTO);
+        }
         if (FileFormat.ORC.getVal().equals(hdfsWriterDTO.getFileFormat())) {
             return HdfsOrcWriter.writeByPos(source, hdfsWriterDTO);
         }
@@ -470,6 +453,9 @@ public class HdfsFileClient implements IHdfsFile {
     }
 
     private int writeByNameWithFileFormat(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO) throws IOException {
+        if (HdfsParallelImporter.isParallel(hdfsWriterDTO)) {
+            return HdfsParallelImporter.writeByName(source, hdfsWriterDTO);
+        }
         if (FileFormat.ORC.getVal().equals(hdfsWriterDTO.getFileFormat())) {
             return HdfsOrcWriter.writeByName(source, hdfsWriterDTO);
         }
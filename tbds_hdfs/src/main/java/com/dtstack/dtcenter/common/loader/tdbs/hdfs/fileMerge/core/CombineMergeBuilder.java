@@ -46,6 +46,11 @@ public class CombineMergeBuilder {
      */
     private long maxCombinedFileSize = 125 * 1024 * 1024L;
 
+    /**
+     * 同时合并的文件组数量
+     */
+    private int parallelism = CombineServer.DEFAULT_PARALLELISM;
+
 
     public CombineMergeBuilder() {
     }
@@ -70,6 +75,11 @@ public class CombineMergeBuilder {
         return this;
     }
 
+    public CombineMergeBuilder parallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
     public CombineMergeBuilder fileType(FileFormat fileFormat) {
         this.fileFormat = fileFormat;
         return this;
@@ -90,6 +100,7 @@ public class CombineMergeBuilder {
         combine.setConfiguration(configuration);
         combine.setNeedCombineFileSizeLimit(needCombineFileSizeLimit);
         combine.setMaxCombinedFileSize(maxCombinedFileSize);
+        combine.setParallelism(parallelism);
         combine.setFs(FileSystem.get(configuration));
 
         log.info("combine info {}",combine);
@@ -118,6 +129,10 @@ public class CombineMergeBuilder {
             errorInfo.append("maxCombinedFileSize not allow less than needCombineFileSizeLimit").append("\n");
         }
 
+        if (parallelism <= 0) {
+            errorInfo.append("parallelism must be greater than 0").append("\n");
+        }
+
         if (errorInfo.length() > 0) {
             throw new DtLoaderException(errorInfo.toString());
         }
@@ -0,0 +1,204 @@
+
+package com.dtstack.dtcenter.common.loader.tdbs.hdfs.fileMerge.core;
+
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 小文件合并检查点，记录合并批次及已经合并完成的箱子
+ * <p>
+ * 检查点保存在合并目录下，每个箱子合并完成后更新；重新合并同一批小文件时跳过已完成的箱子，
+ * 并删除未完成箱子残留的合并文件，小文件或合并大小变化时删除上次批次的所有合并文件后重新合并
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/15
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class MergeCheckpoint {
+
+    /**
+     * 检查点文件名称，以 . 开头的文件 hive 读取时会忽略
+     */
+    private static final String CHECKPOINT_FILE_NAME = ".merge_checkpoint";
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private static final String KEY_SIGNATURE = "signature";
+
+    private static final String KEY_BATCH = "batch";
+
+    private static final String KEY_DONE = "done";
+
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * 合并文件名字前缀：批次_箱子序号_
+     */
+    private static final String FILE_PREFIX_SEPARATOR = "_";
+
+    private final FileSystem fs;
+
+    private final Path checkpointPath;
+
+    private final String signature;
+
+    private final String batch;
+
+    private final Set<Integer> doneBins;
+
+    private MergeCheckpoint(FileSystem fs, Path checkpointPath, String signature, String batch, Set<Integer> doneBins) {
+        this.fs = fs;
+        this.checkpointPath = checkpointPath;
+        this.signature = signature;
+        this.batch = batch;
+        this.doneBins = doneBins;
+    }
+
+    /**
+     * 读取合并目录下的检查点，签名相同时继续上次的合并，否则开始新的合并批次
+     *
+     * @param fs             文件系统
+     * @param mergedTempPath 合并目录
+     * @param signature      合并计划签名
+     * @return 检查点
+     * @throws IOException 读写检查点异常
+     */
+    public static MergeCheckpoint load(FileSystem fs, Path mergedTempPath, String signature) throws IOException {
+        Path checkpointPath = new Path(mergedTempPath, CHECKPOINT_FILE_NAME);
+        Path tmpPath = new Path(mergedTempPath, CHECKPOINT_FILE_NAME + TMP_SUFFIX);
+        String oldSignature = null;
+        String oldBatch = null;
+        Set<Integer> doneBins = new HashSet<>();
+        // 更新检查点时先删除旧文件再重命名临时文件，中断在两步之间时只存在临时文件
+        Path readPath = fs.exists(checkpointPath) ? checkpointPath : (fs.exists(tmpPath) ? tmpPath : null);
+        if (readPath != null) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(fs.open(readPath), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(SEPARATOR, 2);
+                    if (parts.length != 2) {
+                        continue;
+                    }
+                    if (KEY_SIGNATURE.equals(parts[0])) {
+                        oldSignature = parts[1];
+                    } else if (KEY_BATCH.equals(parts[0])) {
+                        oldBatch = parts[1];
+                    } else if (KEY_DONE.equals(parts[0])) {
+                        doneBins.add(Integer.parseInt(parts[1]));
+                    }
+                }
+            } catch (NumberFormatException e) {
+                log.warn("checkpoint {} is broken, start a new merge", readPath);
+                oldSignature = null;
+            }
+        }
+
+        boolean resume = oldBatch != null && signature.equals(oldSignature);
+        if (oldBatch != null) {
+            // 删除未完成箱子残留的合并文件，不能继续时删除上次批次的所有合并文件
+            deleteMergedFiles(fs, mergedTempPath, oldBatch, resume ? doneBins : Collections.emptySet());
+        }
+        MergeCheckpoint checkpoint;
+        if (resume) {
+            log.info("resume merge of {} from checkpoint, batch: {}, done bins: {}", mergedTempPath, oldBatch, doneBins.size());
+            checkpoint = new MergeCheckpoint(fs, checkpointPath, signature, oldBatch, doneBins);
+        } else {
+            checkpoint = new MergeCheckpoint(fs, checkpointPath, signature, String.valueOf(System.currentTimeMillis()), new HashSet<>());
+        }
+        checkpoint.save();
+        return checkpoint;
+    }
+
+    /**
+     * 箱子是否已经合并完成
+     *
+     * @param bin 箱子序号
+     * @return 是否合并完成
+     */
+    public synchronized boolean isDone(int bin) {
+        return doneBins.contains(bin);
+    }
+
+    /**
+     * 记录箱子合并完成并更新检查点
+     *
+     * @param bin 箱子序号
+     * @throws IOException 写检查点异常
+     */
+    public synchronized void markDone(int bin) throws IOException {
+        doneBins.add(bin);
+        save();
+    }
+
+    /**
+     * 获取箱子合并文件的名字前缀
+     *
+     * @param bin 箱子序号
+     * @return 合并文件名字前缀
+     */
+    public String getMergedFilePrefix(int bin) {
+        return batch + FILE_PREFIX_SEPARATOR + bin + FILE_PREFIX_SEPARATOR;
+    }
+
+    /**
+     * 合并完成后删除检查点
+     *
+     * @throws IOException 删除检查点异常
+     */
+    public synchronized void clear() throws IOException {
+        fs.delete(checkpointPath, false);
+    }
+
+    private synchronized void save() throws IOException {
+        Path tmpPath = new Path(checkpointPath.getParent(), CHECKPOINT_FILE_NAME + TMP_SUFFIX);
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(fs.create(tmpPath, true), StandardCharsets.UTF_8))) {
+            writer.write(KEY_SIGNATURE + SEPARATOR + signature);
+            writer.newLine();
+            writer.write(KEY_BATCH + SEPARATOR + batch);
+            writer.newLine();
+            for (Integer bin : doneBins) {
+                writer.write(KEY_DONE + SEPARATOR + bin);
+                writer.newLine();
+            }
+        }
+        // hdfs 的 rename 不会覆盖已经存在的文件
+        fs.delete(checkpointPath, false);
+        if (!fs.rename(tmpPath, checkpointPath)) {
+            throw new DtLoaderException(String.format("save merge checkpoint %s failed", checkpointPath));
+        }
+    }
+
+    private static void deleteMergedFiles(FileSystem fs, Path mergedTempPath, String batch, Set<Integer> keepBins) throws IOException {
+        String batchPrefix = batch + FILE_PREFIX_SEPARATOR;
+        for (FileStatus fileStatus : fs.listStatus(mergedTempPath)) {
+            String fileName = fileStatus.getPath().getName();
+            if (!fileStatus.isFile() || !fileName.startsWith(batchPrefix)) {
+                continue;
+            }
+            int end = fileName.indexOf(FILE_PREFIX_SEPARATOR, batchPrefix.length());
+            try {
+                if (end > 0 && keepBins.contains(Integer.parseInt(fileName.substring(batchPrefix.length(), end)))) {
+                    continue;
+                }
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            log.info("delete merged file {} of unfinished bin", fileStatus.getPath());
+            fs.delete(fileStatus.getPath(), false);
+        }
+    }
+}
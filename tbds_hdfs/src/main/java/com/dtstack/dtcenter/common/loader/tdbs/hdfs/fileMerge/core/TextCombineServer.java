@@ -18,7 +18,6 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -28,18 +27,15 @@ import java.util.zip.GZIPOutputStream;
 @Slf4j
 public class TextCombineServer extends CombineServer {
 
-    private int index;
-
-    private String mergedFileName;
-
     private FileMetaData fileMetaData;
 
     public TextCombineServer() {
     }
 
     @Override
-    protected void doCombine(ArrayList<FileStatus> combineFiles, Path mergedTempPath) throws IOException {
-        init(combineFiles);
+    protected void doCombine(List<FileStatus> combineFiles, String mergedFileName) throws IOException {
+        //文件编号
+        int index = 0;
 
         //文件大小是128M
 
@@ -91,11 +87,9 @@ public class TextCombineServer extends CombineServer {
 
     /**
      * 初始化
-     * 合并文件名字前缀
      */
-    private void init(List<FileStatus> combineFiles) throws IOException{
-        this.index = 0;
-        this.mergedFileName = System.currentTimeMillis() + "";
+    @Override
+    protected void init(List<FileStatus> combineFiles) throws IOException {
         FileStatus fileStatus = combineFiles.stream()
                 .sorted(Comparator.comparing(FileStatus::getLen).reversed())
                 .collect(Collectors.toList()).get(0);
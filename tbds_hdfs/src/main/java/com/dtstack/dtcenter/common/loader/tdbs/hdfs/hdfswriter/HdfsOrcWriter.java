@@ -1,10 +1,8 @@
 package com.dtstack.dtcenter.common.loader.tdbs.hdfs.hdfswriter;
 
 import com.csvreader.CsvReader;
-import com.dtstack.dtcenter.common.loader.common.utils.DateUtil;
-import com.dtstack.dtcenter.common.loader.common.utils.MathUtil;
+import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
 import com.dtstack.dtcenter.common.loader.tdbs.hdfs.HadoopConfUtil;
-import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
 import com.dtstack.dtcenter.loader.dto.HDFSImportColumn;
 import com.dtstack.dtcenter.loader.dto.HdfsWriterDTO;
 import com.dtstack.dtcenter.loader.dto.source.ISourceDTO;
@@ -15,21 +13,11 @@ import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
-import org.apache.hadoop.hive.common.type.HiveDecimal;
-import org.apache.hadoop.hive.ql.io.orc.OrcFile;
-import org.apache.hadoop.hive.ql.io.orc.Writer;
-import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
-import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
-import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
-import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
-import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.math.BigDecimal;
-import java.util.Arrays;
+import java.text.SimpleDateFormat;
 import java.util.List;
 import java.util.UUID;
 
@@ -44,11 +32,6 @@ public class HdfsOrcWriter {
 
     private static final Logger logger = LoggerFactory.getLogger(HdfsOrcWriter.class);
 
-    /**
-     * 10行刷新到远程一次
-     **/
-    public static final int FLUSH_LINE_NUM = 1000;
-
     /**
      * 按位置写入
      *
@@ -59,33 +42,42 @@ public class HdfsOrcWriter {
      */
     public static int writeByPos(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO) throws IOException {
 
-        TbdsHdfsSourceDTO hdfsSourceDTO = (TbdsHdfsSourceDTO) source;
-        Boolean topLineIsTitle = hdfsWriterDTO.getTopLineIsTitle();
         int startLine = hdfsWriterDTO.getStartLine();
         // 首行是标题则内容从下一行开始
-        if (BooleanUtils.isTrue(topLineIsTitle)) {
+        if (BooleanUtils.isTrue(hdfsWriterDTO.getTopLineIsTitle())) {
             startLine++;
         }
 
-        Configuration conf = HadoopConfUtil.getHdfsConf(hdfsSourceDTO.getDefaultFS(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getKerberosConfig());
-        String typeInfoStr = buildTypeInfo(hdfsWriterDTO.getColumnsList());
-
-        TypeInfo typeInfo = TypeInfoUtils.getTypeInfoFromTypeString(typeInfoStr);
-        ObjectInspector inspector = TypeInfoUtils.getStandardJavaObjectInspectorFromTypeInfo(typeInfo);
-        OrcFile.WriterOptions options = OrcFile.writerOptions(conf).inspector(inspector);
-        List<TypeInfo> structList = ((StructTypeInfo) typeInfo).getAllStructFieldTypeInfos();
-
         //FIXME 暂时根据uuid生成文件名称--需要改成和hive原始的名称eg: part-0000
         Path path = new Path(hdfsWriterDTO.getHdfsDirPath(), UUID.randomUUID().toString());
-        Writer writer = OrcFile.createWriter(path, options);
+        CsvReader reader = HdfsWriter.getCsvReader(hdfsWriterDTO);
+        try {
+            return writeByPos(source, hdfsWriterDTO, reader, path, startLine);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 按位置将 reader 中的数据写入指定文件
+     *
+     * @param source        数据源信息
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @param reader        源文件 reader，由调用方关闭
+     * @param path          写入的 hdfs 文件
+     * @param startLine     数据开始的行，之前的行跳过
+     * @return 写入条数
+     * @throws IOException io 异常
+     */
+    static int writeByPos(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO, CsvReader reader, Path path, int startLine) throws IOException {
+        TbdsHdfsSourceDTO hdfsSourceDTO = (TbdsHdfsSourceDTO) source;
+        Boolean topLineIsTitle = hdfsWriterDTO.getTopLineIsTitle();
+        Configuration conf = HadoopConfUtil.getHdfsConf(hdfsSourceDTO.getTbdsUsername(), hdfsSourceDTO.getTbdsSecureId(), hdfsSourceDTO.getTbdsSecureKey(), hdfsSourceDTO.getDefaultFS(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getKerberosConfig());
+        OrcVectorizedWriter writer = new OrcVectorizedWriter(conf, path, hdfsWriterDTO.getColumnsList(), getDateFormats(hdfsWriterDTO), isSetDefault(hdfsWriterDTO));
         int writeLineNum = 0;
         int currLineNum = 0;
 
-        InputStreamReader inputStreamReader = null;
-        CsvReader reader = null;
         try {
-            inputStreamReader = HdfsWriter.getReader(hdfsWriterDTO.getFromFileName(), hdfsWriterDTO.getOriCharSet());
-            reader = new CsvReader(inputStreamReader, HdfsWriter.getDelim(hdfsWriterDTO.getFromLineDelimiter()));
             while (reader.readRecord()) {
                 currLineNum++;
                 if (currLineNum < startLine) {
@@ -100,33 +92,15 @@ public class HdfsOrcWriter {
                     size = lineArray.length;
                 }
 
-                List<Object> targetList = Lists.newArrayList();
-                for (int i = 0; i < size; i++) {
-                    targetList.add(HdfsWriter.convertToTargetType(structList.get(i).getTypeName(), lineArray[i], hdfsWriterDTO.getKeyList().get(i).getDateFormat(), hdfsWriterDTO));
-                }
-
-                writer.addRow(targetList);
-                if (writeLineNum % FLUSH_LINE_NUM == 0) {
-                    writer.writeIntermediateFooter();
-                }
-
+                // 字段值直接解析到列向量中
+                writer.addRow(lineArray, size);
                 writeLineNum++;
             }
         } catch (Exception e) {
-            throw new DtLoaderException("The" + (currLineNum - (topLineIsTitle ? 1 : 0)) + " row of data is abnormal, please check");
+            throw new DtLoaderException("The" + (currLineNum - (BooleanUtils.isTrue(topLineIsTitle) ? 1 : 0)) + " row of data is abnormal, please check");
         } finally {
             try {
-                if (writer != null) {
-                    writer.close();
-                }
-
-                if (inputStreamReader != null) {
-                    inputStreamReader.close();
-                }
-
-                if (reader != null) {
-                    reader.close();
-                }
+                writer.close();
             } catch (Exception e) {
                 logger.error("Close connection exception", e);
             }
@@ -145,29 +119,38 @@ public class HdfsOrcWriter {
      */
     public static int writeByName(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO) throws IOException {
 
-        TbdsHdfsSourceDTO hdfsSourceDTO = (TbdsHdfsSourceDTO) source;
-        Configuration conf = HadoopConfUtil.getHdfsConf(hdfsSourceDTO.getTbdsUsername(), hdfsSourceDTO.getTbdsSecureId(), hdfsSourceDTO.getTbdsSecureKey(), hdfsSourceDTO.getDefaultFS(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getKerberosConfig());
-        String typeInfoStr = buildTypeInfo(hdfsWriterDTO.getColumnsList());
-
-        int startLine = hdfsWriterDTO.getStartLine();
-        TypeInfo typeInfo = TypeInfoUtils.getTypeInfoFromTypeString(typeInfoStr);
-        ObjectInspector inspector = TypeInfoUtils.getStandardJavaObjectInspectorFromTypeInfo(typeInfo);
-        OrcFile.WriterOptions options = OrcFile.writerOptions(conf).inspector(inspector);
-
         //FIXME 暂时根据uuid生成文件名称--需要改成和hive原始的名称eg: part-0000
         Path path = new Path(hdfsWriterDTO.getHdfsDirPath(), UUID.randomUUID().toString());
-        Writer writer = OrcFile.createWriter(path, options);
+        CsvReader reader = HdfsWriter.getCsvReader(hdfsWriterDTO);
+        try {
+            return writeByName(source, hdfsWriterDTO, reader, path, hdfsWriterDTO.getStartLine(), null);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 按名称将 reader 中的数据写入指定文件
+     *
+     * @param source        数据源信息
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @param reader        源文件 reader，由调用方关闭
+     * @param path          写入的 hdfs 文件
+     * @param startLine     标题行所在的行，之前的行跳过
+     * @param header        标题行，为 null 时从 reader 中读取
+     * @return 写入条数
+     * @throws IOException io 异常
+     */
+    static int writeByName(ISourceDTO source, HdfsWriterDTO hdfsWriterDTO, CsvReader reader, Path path, int startLine, String[] header) throws IOException {
+        TbdsHdfsSourceDTO hdfsSourceDTO = (TbdsHdfsSourceDTO) source;
+        Configuration conf = HadoopConfUtil.getHdfsConf(hdfsSourceDTO.getTbdsUsername(), hdfsSourceDTO.getTbdsSecureId(), hdfsSourceDTO.getTbdsSecureKey(), hdfsSourceDTO.getDefaultFS(), hdfsSourceDTO.getConfig(), hdfsSourceDTO.getKerberosConfig());
+        OrcVectorizedWriter writer = new OrcVectorizedWriter(conf, path, hdfsWriterDTO.getColumnsList(), getDateFormats(hdfsWriterDTO), isSetDefault(hdfsWriterDTO));
 
         int currLineNum = 0;
         int writeLineNum = 0;
-        List<Integer> indexList = Lists.newArrayList();
-        List<TypeInfo> structList = ((StructTypeInfo) typeInfo).getAllStructFieldTypeInfos();
+        List<Integer> indexList = header == null ? Lists.newArrayList() : getIndexList(hdfsWriterDTO, header);
 
-        InputStreamReader inputStreamReader = null;
-        CsvReader reader = null;
         try {
-            inputStreamReader = HdfsWriter.getReader(hdfsWriterDTO.getFromFileName(), hdfsWriterDTO.getOriCharSet());
-            reader = new CsvReader(inputStreamReader, HdfsWriter.getDelim(hdfsWriterDTO.getFromLineDelimiter()));
             while (reader.readRecord()) {
 
                 if (currLineNum < (startLine - 1)) {
@@ -178,56 +161,21 @@ public class HdfsOrcWriter {
                 String[] columnArr = reader.getValues();
                 // 首行为标题行
                 if (currLineNum == (startLine - 1)) {
-                    // 计算出需要使用的索引位置
-                    for (HDFSImportColumn importColum : hdfsWriterDTO.getKeyList()) {
-                        if (StringUtils.isBlank(importColum.getKey())) {
-                            indexList.add(-1);
-                        } else {
-                            boolean isMatch = false;
-                            for (int i = 0; i < columnArr.length; i++) {
-                                String name = columnArr[i];
-                                if (StringUtils.isNotEmpty(name)) {
-                                    name = name.trim();
-                                }
-                                String key = importColum.getKey();
-                                if (StringUtils.isNotEmpty(key)) {
-                                    key = key.trim();
-                                }
-                                if (name.equals(key)) {
-                                    indexList.add(i);
-                                    isMatch = true;
-                                    break;
-                                }
-                            }
-
-                            if (!isMatch) {
-                                indexList.add(-1);
-                            }
-                        }
-                    }
+                    indexList = getIndexList(hdfsWriterDTO, columnArr);
                     currLineNum++;
                     continue;
                 }
 
-                Object[] recordArr = new Object[indexList.size()];
-
+                String[] recordArr = new String[indexList.size()];
                 for (int i = 0; i < indexList.size(); i++) {
                     Integer index = indexList.get(i);
-                    String val = null;
-                    //根据schema进行类型转换
+                    //未匹配到的字段为 null，根据schema进行类型转换
                     if (index != -1 && index <= (columnArr.length - 1)) {
-                        val = columnArr[index].trim();
+                        recordArr[i] = columnArr[index].trim();
                     }
-
-                    TypeInfo struct = structList.get(i);
-                    Object record = HdfsWriter.convertToTargetType(struct.getTypeName(), val, hdfsWriterDTO.getKeyList().get(i).getDateFormat(), hdfsWriterDTO);
-                    recordArr[i] = record;
                 }
 
-                writer.addRow(Arrays.asList(recordArr));
-                if (writeLineNum % FLUSH_LINE_NUM == 0) {
-                    writer.writeIntermediateFooter();
-                }
+                writer.addRow(recordArr, recordArr.length);
 
                 currLineNum++;
                 writeLineNum++;
@@ -236,17 +184,7 @@ public class HdfsOrcWriter {
             throw new DtLoaderException("The" + currLineNum + "Row data is abnormal, please check");
         } finally {
             try {
-                if (writer != null) {
-                    writer.close();
-                }
-
-                if (inputStreamReader != null) {
-                    inputStreamReader.close();
-                }
-
-                if (reader != null) {
-                    reader.close();
-                }
+                writer.close();
             } catch (Exception e) {
                 logger.error("Close connection exception", e);
             }
@@ -256,85 +194,65 @@ public class HdfsOrcWriter {
     }
 
     /**
-     * FIXME columnsList 必须是经过index排序过的
-     * hive orc type 格式 struct<columnName:columnType,....>
+     * 根据标题行计算出需要使用的索引位置，未匹配到的字段为 -1
      *
-     * @param columnsList
-     * @return
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @param columnArr     标题行
+     * @return 索引位置
      */
-    public static String buildTypeInfo(List<ColumnMetaDTO> columnsList) {
-        StringBuffer sb = new StringBuffer("");
-        for (ColumnMetaDTO columns : columnsList) {
-            sb.append(columns.getKey())
-                    .append(":")
-                    .append(columns.getType())
-                    .append(",");
-        }
+    private static List<Integer> getIndexList(HdfsWriterDTO hdfsWriterDTO, String[] columnArr) {
+        List<Integer> indexList = Lists.newArrayList();
+        for (HDFSImportColumn importColum : hdfsWriterDTO.getKeyList()) {
+            if (StringUtils.isBlank(importColum.getKey())) {
+                indexList.add(-1);
+            } else {
+                boolean isMatch = false;
+                for (int i = 0; i < columnArr.length; i++) {
+                    String name = columnArr[i];
+                    if (StringUtils.isNotEmpty(name)) {
+                        name = name.trim();
+                    }
+                    String key = importColum.getKey();
+                    if (StringUtils.isNotEmpty(key)) {
+                        key = key.trim();
+                    }
+                    if (name.equals(key)) {
+                        indexList.add(i);
+                        isMatch = true;
+                        break;
+                    }
+                }
 
-        String typeInfo = sb.toString();
-        if (typeInfo.endsWith(",")) {
-            typeInfo = typeInfo.substring(0, typeInfo.length() - 1);
+                if (!isMatch) {
+                    indexList.add(-1);
+                }
+            }
         }
-
-        typeInfo = "struct<" + typeInfo + ">";
-        return typeInfo;
+        return indexList;
     }
 
     /**
-     * 根据hive定义的列类型将数据转换为相应的格式
+     * 每个字段的日期格式
      *
-     * @param typeName
-     * @param val
-     * @return
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @return 日期格式，未设置时为 null
      */
-    public static Object convertVal(String typeName, Object val) {
-        Object record;
-        switch (typeName) {
-            case "char":
-            case "varchar":
-            case "string":
-                record = MathUtil.getString(val);
-                break;
-            case "tinyint":
-                record = MathUtil.getByte(val);
-                break;
-            case "smallint":
-                record = MathUtil.getShort(val);
-                break;
-            case "bigint":
-                record = MathUtil.getLongVal(val);
-                break;
-            case "boolean":
-                record = MathUtil.getBoolean(val);
-                break;
-            case "int":
-                record = MathUtil.getIntegerVal(val);
-                break;
-            case "float":
-                record = MathUtil.getFloatVal(val);
-                break;
-            case "double":
-                record = MathUtil.getDoubleVal(val);
-                break;
-            case "timestamp":
-                record = DateUtil.getSqlTimeStampVal(val);
-                break;
-            case "date":
-                record = DateUtil.getSqlDate(val);
-                break;
-            case "decimal":
-                if (val == null) {
-                    return null;
-                }
-                HiveDecimal hiveDecimal = HiveDecimal.create(new BigDecimal(val.toString()));
-                record = new HiveDecimalWritable(hiveDecimal);
-                break;
-            default:
-                record = val;
-                break;
+    private static SimpleDateFormat[] getDateFormats(HdfsWriterDTO hdfsWriterDTO) {
+        SimpleDateFormat[] dateFormats = new SimpleDateFormat[hdfsWriterDTO.getColumnsList().size()];
+        List<HDFSImportColumn> keyList = hdfsWriterDTO.getKeyList();
+        for (int i = 0; keyList != null && i < Math.min(dateFormats.length, keyList.size()); i++) {
+            dateFormats[i] = keyList.get(i).getDateFormat();
         }
-
-        return record;
+        return dateFormats;
     }
 
-}
\ No newline at end of file
+    /**
+     * 空白字段是否设置默认值
+     *
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @return 是否设置默认值
+     */
+    private static boolean isSetDefault(HdfsWriterDTO hdfsWriterDTO) {
+        return ReflectUtil.getFieldValueNotThrow(Boolean.class, hdfsWriterDTO, "setDefault", true, true);
+    }
+}
@@ -1,5 +1,6 @@
 package com.dtstack.dtcenter.common.loader.tdbs.hdfs.hdfswriter;
 
+import com.csvreader.CsvReader;
 import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
 import com.dtstack.dtcenter.loader.dto.HdfsWriterDTO;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
@@ -85,6 +86,22 @@ public class HdfsWriter {
         return delim;
     }
 
+    /**
+     * 按写入配置打开本地源文件
+     *
+     * @param hdfsWriterDTO hdfs 写入配置类
+     * @return csv reader，由调用方关闭
+     */
+    public static CsvReader getCsvReader(HdfsWriterDTO hdfsWriterDTO) {
+        try {
+            return new CsvReader(getReader(hdfsWriterDTO.getFromFileName(), hdfsWriterDTO.getOriCharSet()), getDelim(hdfsWriterDTO.getFromLineDelimiter()));
+        } catch (DtLoaderException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DtLoaderException(String.format("read file %s error: %s", hdfsWriterDTO.getFromFileName(), e.getMessage()), e);
+        }
+    }
+
     /**
      * 根据类型转换字段值
      *
@@ -0,0 +1,280 @@
+package com.dtstack.dtcenter.common.loader.tdbs.hdfs.hdfswriter;
+
+import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.common.type.HiveDecimal;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DecimalColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.TimestampColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.serde2.io.DateWritable;
+import org.apache.orc.OrcFile;
+import org.apache.orc.TypeDescription;
+import org.apache.orc.Writer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * orc 向量化写入
+ * <p>
+ * 文本字段按列直接解析到 VectorizedRowBatch 的列向量中，每写满一批提交给 orc writer，
+ * stripe 大小由 orc.stripe.size 控制，不再手动写中间 footer
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/14
+ * company: www.dtstack.com
+ */
+public class OrcVectorizedWriter implements Closeable {
+
+    private static final Pattern TYPE_LENGTH_PATTERN = Pattern.compile("\\(\\s*(\\d+)\\s*(?:,\\s*(\\d+)\\s*)?\\)");
+
+    /**
+     * hive 中 decimal 不指定精度时默认为 decimal(10,0)
+     */
+    private static final int DEFAULT_DECIMAL_PRECISION = 10;
+
+    private static final int DEFAULT_DECIMAL_SCALE = 0;
+
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
+    private final Writer writer;
+
+    private final VectorizedRowBatch batch;
+
+    private final TypeDescription.Category[] categories;
+
+    private final SimpleDateFormat[] dateFormats;
+
+    private final boolean setDefault;
+
+    /**
+     * @param conf        hadoop 配置
+     * @param path        写入的文件路径
+     * @param columns     字段信息，类型为 hive 类型
+     * @param dateFormats 每个字段的日期格式，为空时使用默认格式
+     * @param setDefault  空白字段是否设置默认值
+     * @throws IOException 创建 writer 异常
+     */
+    public OrcVectorizedWriter(Configuration conf, Path path, List<ColumnMetaDTO> columns, SimpleDateFormat[] dateFormats, boolean setDefault) throws IOException {
+        TypeDescription schema = buildSchema(columns);
+        this.writer = OrcFile.createWriter(path, OrcFile.writerOptions(conf).setSchema(schema));
+        this.batch = schema.createRowBatch();
+        this.categories = new TypeDescription.Category[columns.size()];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = schema.getChildren().get(i).getCategory();
+        }
+        this.dateFormats = dateFormats;
+        this.setDefault = setDefault;
+    }
+
+    /**
+     * 写入一行，所有字段解析成功后该行才计入 batch，解析失败的行会被下一行覆盖
+     *
+     * @param values 字段值，按字段顺序
+     * @param size   有效的字段数，之后的字段写入 null
+     * @throws IOException    写入异常
+     * @throws ParseException 日期解析异常
+     */
+    public void addRow(String[] values, int size) throws IOException, ParseException {
+        int row = batch.size;
+        for (int i = 0; i < categories.length; i++) {
+            // 清除解析失败的行残留的 null 标识
+            batch.cols[i].isNull[row] = false;
+            if (i < size) {
+                setValue(i, row, values[i]);
+            } else {
+                setNull(batch.cols[i], row);
+            }
+        }
+        batch.size++;
+        if (batch.size == batch.getMaxSize()) {
+            writer.addRowBatch(batch);
+            batch.reset();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (batch.size > 0) {
+                writer.addRowBatch(batch);
+                batch.reset();
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void setValue(int column, int row, String value) throws ParseException {
+        ColumnVector vector = batch.cols[column];
+        TypeDescription.Category category = categories[column];
+        if (StringUtils.isBlank(value)) {
+            setDefaultValue(vector, category, row);
+            return;
+        }
+        // value 为 \N 时写入 null
+        if (StringUtils.equalsIgnoreCase(value, HdfsWriter.DEFAULT_NULL)) {
+            setNull(vector, row);
+            return;
+        }
+        switch (category) {
+            case BOOLEAN:
+                ((LongColumnVector) vector).vector[row] = Boolean.parseBoolean(value) ? 1 : 0;
+                break;
+            case BYTE:
+                ((LongColumnVector) vector).vector[row] = Byte.parseByte(value);
+                break;
+            case SHORT:
+                ((LongColumnVector) vector).vector[row] = Short.parseShort(value);
+                break;
+            case INT:
+                ((LongColumnVector) vector).vector[row] = Integer.parseInt(value);
+                break;
+            case LONG:
+                ((LongColumnVector) vector).vector[row] = Long.parseLong(value);
+                break;
+            case FLOAT:
+                ((DoubleColumnVector) vector).vector[row] = Float.parseFloat(value);
+                break;
+            case DOUBLE:
+                ((DoubleColumnVector) vector).vector[row] = Double.parseDouble(value);
+                break;
+            case DECIMAL:
+                ((DecimalColumnVector) vector).set(row, HiveDecimal.create(new BigDecimal(value)));
+                break;
+            case DATE:
+                ((LongColumnVector) vector).vector[row] = DateWritable.dateToDays(parseDate(column, value));
+                break;
+            case TIMESTAMP:
+                ((TimestampColumnVector) vector).set(row, parseTimestamp(column, value));
+                break;
+            default:
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                ((BytesColumnVector) vector).setRef(row, bytes, 0, bytes.length);
+                break;
+        }
+    }
+
+    /**
+     * 空白字段的默认值：字符串为空字符串，数值为 0，布尔为 false，日期、时间及 decimal 为 null
+     */
+    private void setDefaultValue(ColumnVector vector, TypeDescription.Category category, int row) {
+        if (!setDefault) {
+            setNull(vector, row);
+            return;
+        }
+        switch (category) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+                ((LongColumnVector) vector).vector[row] = 0;
+                break;
+            case FLOAT:
+            case DOUBLE:
+                ((DoubleColumnVector) vector).vector[row] = 0;
+                break;
+            case DECIMAL:
+            case DATE:
+            case TIMESTAMP:
+                setNull(vector, row);
+                break;
+            default:
+                ((BytesColumnVector) vector).setRef(row, EMPTY_BYTES, 0, 0);
+                break;
+        }
+    }
+
+    private static void setNull(ColumnVector vector, int row) {
+        vector.noNulls = false;
+        vector.isNull[row] = true;
+    }
+
+    private Date parseDate(int column, String value) throws ParseException {
+        if (dateFormats[column] != null) {
+            return new Date(dateFormats[column].parse(value).getTime());
+        }
+        // 格式必须符合'yyyy-MM-dd'
+        return Date.valueOf(value);
+    }
+
+    private Timestamp parseTimestamp(int column, String value) throws ParseException {
+        if (dateFormats[column] != null) {
+            return new Timestamp(dateFormats[column].parse(value).getTime());
+        }
+        // 格式必须符合'yyyy-MM-dd HH:mm:ss'
+        return Timestamp.valueOf(value);
+    }
+
+    /**
+     * 根据字段的 hive 类型构建 orc schema
+     *
+     * @param columns 字段信息
+     * @return orc schema
+     */
+    public static TypeDescription buildSchema(List<ColumnMetaDTO> columns) {
+        TypeDescription schema = TypeDescription.createStruct();
+        for (ColumnMetaDTO column : columns) {
+            schema.addField(column.getKey(), toTypeDescription(column.getType()));
+        }
+        return schema;
+    }
+
+    private static TypeDescription toTypeDescription(String type) {
+        String lowerType = StringUtils.trimToEmpty(type).toLowerCase(Locale.ENGLISH);
+        Matcher matcher = TYPE_LENGTH_PATTERN.matcher(lowerType);
+        boolean hasLength = matcher.find();
+        String baseType = hasLength ? lowerType.substring(0, matcher.start()).trim() : lowerType;
+        switch (baseType) {
+            case "boolean":
+                return TypeDescription.createBoolean();
+            case "tinyint":
+                return TypeDescription.createByte();
+            case "smallint":
+                return TypeDescription.createShort();
+            case "int":
+            case "integer":
+                return TypeDescription.createInt();
+            case "bigint":
+                return TypeDescription.createLong();
+            case "float":
+                return TypeDescription.createFloat();
+            case "double":
+                return TypeDescription.createDouble();
+            case "date":
+                return TypeDescription.createDate();
+            case "timestamp":
+                return TypeDescription.createTimestamp();
+            case "binary":
+                return TypeDescription.createBinary();
+            case "decimal":
+                int precision = hasLength ? Integer.parseInt(matcher.group(1)) : DEFAULT_DECIMAL_PRECISION;
+                int scale = hasLength && matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : DEFAULT_DECIMAL_SCALE;
+                // 先设置 scale，避免 precision 小于默认 scale 时校验失败
+                return TypeDescription.createDecimal().withScale(scale).withPrecision(precision);
+            case "varchar":
+                return hasLength ? TypeDescription.createVarchar().withMaxLength(Integer.parseInt(matcher.group(1))) : TypeDescription.createString();
+            case "char":
+                return hasLength ? TypeDescription.createChar().withMaxLength(Integer.parseInt(matcher.group(1))) : TypeDescription.createString();
+            default:
+                return TypeDescription.createString();
+        }
+    }
+}
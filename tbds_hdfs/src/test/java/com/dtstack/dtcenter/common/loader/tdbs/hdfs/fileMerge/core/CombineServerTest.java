@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.common.loader.tdbs.hdfs.fileMerge.core;
+
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 小文件装箱合并及检查点测试，使用本地文件系统
+ *
+ * @author ：wangchuan
+ * date：Created in 下午3:00 2022/6/16
+ * company: www.dtstack.com
+ */
+public class CombineServerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FileSystem fs;
+
+    private Path sourcePath;
+
+    private Path mergedTempPath;
+
+    @Before
+    public void setUp() throws IOException {
+        fs = FileSystem.getLocal(new Configuration());
+        sourcePath = new Path(folder.newFolder("source").toURI());
+        mergedTempPath = new Path(folder.getRoot().toURI().toString(), "merged");
+    }
+
+    /**
+     * 首次适应递减装箱，箱子大小不超过合并后的文件大小
+     */
+    @Test
+    public void pack() {
+        List<FileStatus> files = Arrays.asList(status("a", 60), status("b", 50), status("c", 40),
+                status("d", 30), status("e", 20), status("f", 10));
+        List<List<String>> bins = names(CombineServer.pack(files, 100));
+        Assert.assertEquals(Arrays.asList(
+                Arrays.asList("a", "c"),
+                Arrays.asList("b", "d", "e"),
+                Collections.singletonList("f")), bins);
+    }
+
+    /**
+     * 相同大小的文件按名称排序，输入顺序不影响装箱结果
+     */
+    @Test
+    public void packStable() {
+        List<FileStatus> files = Arrays.asList(status("c", 50), status("a", 50), status("b", 50));
+        List<FileStatus> reversed = new ArrayList<>(files);
+        Collections.reverse(reversed);
+        Assert.assertEquals(names(CombineServer.pack(files, 100)), names(CombineServer.pack(reversed, 100)));
+        Assert.assertEquals(Arrays.asList(Arrays.asList("a", "b"), Collections.singletonList("c")),
+                names(CombineServer.pack(files, 100)));
+    }
+
+    /**
+     * 超过合并大小的文件单独装一个箱子，不影响其他文件装箱
+     */
+    @Test
+    public void packOversizeFile() {
+        List<FileStatus> files = Arrays.asList(status("big", 150), status("a", 60), status("b", 40));
+        Assert.assertEquals(Arrays.asList(
+                Collections.singletonList("big"),
+                Arrays.asList("a", "b")), names(CombineServer.pack(files, 100)));
+    }
+
+    @Test
+    public void packEmpty() {
+        Assert.assertTrue(CombineServer.pack(Collections.emptyList(), 100).isEmpty());
+    }
+
+    /**
+     * 签名相同时继续上次的合并，保留已完成箱子的合并文件，删除未完成箱子残留的合并文件
+     */
+    @Test
+    public void checkpointResume() throws IOException {
+        fs.mkdirs(mergedTempPath);
+        MergeCheckpoint checkpoint = MergeCheckpoint.load(fs, mergedTempPath, "signature");
+        Path doneFile = touch(checkpoint.getMergedFilePrefix(0) + "0.txt");
+        checkpoint.markDone(0);
+        Path unfinishedFile = touch(checkpoint.getMergedFilePrefix(1) + "0.txt");
+
+        MergeCheckpoint resumed = MergeCheckpoint.load(fs, mergedTempPath, "signature");
+        Assert.assertTrue(resumed.isDone(0));
+        Assert.assertFalse(resumed.isDone(1));
+        Assert.assertEquals(checkpoint.getMergedFilePrefix(1), resumed.getMergedFilePrefix(1));
+        Assert.assertTrue(fs.exists(doneFile));
+        Assert.assertFalse(fs.exists(unfinishedFile));
+    }
+
+    /**
+     * 签名变化时丢弃检查点，删除上次批次的所有合并文件
+     */
+    @Test
+    public void checkpointStaleSignature() throws IOException {
+        fs.mkdirs(mergedTempPath);
+        MergeCheckpoint checkpoint = MergeCheckpoint.load(fs, mergedTempPath, "signature");
+        Path doneFile = touch(checkpoint.getMergedFilePrefix(0) + "0.txt");
+        checkpoint.markDone(0);
+
+        MergeCheckpoint stale = MergeCheckpoint.load(fs, mergedTempPath, "changed");
+        Assert.assertFalse(stale.isDone(0));
+        Assert.assertFalse(fs.exists(doneFile));
+    }
+
+    /**
+     * 箱子合并失败时已经移动的文件夹及大文件移回源目录，重新合并时跳过已完成的箱子
+     */
+    @Test
+    public void rollbackAndResume() throws IOException {
+        prepareSource();
+
+        MockCombineServer failed = newServer("d");
+        try {
+            failed.combine();
+            Assert.fail("combine should fail");
+        } catch (DtLoaderException e) {
+            Assert.assertTrue(e.getMessage().contains("mock merge failure"));
+        }
+        Assert.assertEquals(Collections.singletonList(Arrays.asList("a", "c")), failed.combined);
+        Assert.assertTrue(fs.exists(new Path(sourcePath, "dir")));
+        Assert.assertTrue(fs.exists(new Path(sourcePath, "big")));
+        Assert.assertFalse(fs.exists(new Path(mergedTempPath, "dir")));
+        Assert.assertFalse(fs.exists(new Path(mergedTempPath, "big")));
+
+        MockCombineServer resumed = newServer(null);
+        resumed.combine();
+        Assert.assertEquals(Arrays.asList(Arrays.asList("b", "d", "e"), Collections.singletonList("f")), resumed.combined);
+        Assert.assertTrue(fs.exists(new Path(mergedTempPath, "dir")));
+        Assert.assertTrue(fs.exists(new Path(mergedTempPath, "big")));
+        Assert.assertEquals(3, mergedFiles().size());
+        Assert.assertFalse(fs.exists(new Path(mergedTempPath, ".merge_checkpoint")));
+    }
+
+    /**
+     * 小文件变化后检查点失效，所有箱子重新合并
+     */
+    @Test
+    public void recombineAfterSourceChanged() throws IOException {
+        prepareSource();
+
+        try {
+            newServer("d").combine();
+            Assert.fail("combine should fail");
+        } catch (DtLoaderException e) {
+            Assert.assertTrue(e.getMessage().contains("mock merge failure"));
+        }
+        write(new Path(sourcePath, "f"), 15);
+
+        MockCombineServer recombined = newServer(null);
+        recombined.combine();
+        Assert.assertEquals(Arrays.asList(
+                Arrays.asList("a", "c"),
+                Arrays.asList("b", "d", "e"),
+                Collections.singletonList("f")), recombined.combined);
+        Assert.assertEquals(3, mergedFiles().size());
+    }
+
+    private void prepareSource() throws IOException {
+        fs.mkdirs(new Path(sourcePath, "dir"));
+        write(new Path(new Path(sourcePath, "dir"), "inner"), 10);
+        write(new Path(sourcePath, "big"), 200);
+        write(new Path(sourcePath, "a"), 60);
+        write(new Path(sourcePath, "b"), 50);
+        write(new Path(sourcePath, "c"), 40);
+        write(new Path(sourcePath, "d"), 30);
+        write(new Path(sourcePath, "e"), 20);
+        write(new Path(sourcePath, "f"), 10);
+    }
+
+    private MockCombineServer newServer(String failFile) {
+        MockCombineServer server = new MockCombineServer(failFile);
+        server.setFs(fs);
+        server.setSourcePath(sourcePath);
+        server.setMergedTempPath(mergedTempPath);
+        server.setNeedCombineFileSizeLimit(100L);
+        server.setMaxCombinedFileSize(100);
+        // 单线程合并，保证箱子按顺序合并
+        server.setParallelism(1);
+        return server;
+    }
+
+    private List<String> mergedFiles() throws IOException {
+        return Arrays.stream(fs.listStatus(mergedTempPath))
+                .map(fileStatus -> fileStatus.getPath().getName())
+                .filter(name -> name.endsWith(".txt"))
+                .collect(Collectors.toList());
+    }
+
+    private Path touch(String name) throws IOException {
+        Path path = new Path(mergedTempPath, name);
+        write(path, 1);
+        return path;
+    }
+
+    private void write(Path path, int len) throws IOException {
+        try (FSDataOutputStream out = fs.create(path, true)) {
+            out.write(new byte[len]);
+        }
+    }
+
+    private static FileStatus status(String name, long len) {
+        return new FileStatus(len, false, 1, 128, 0, new Path("/source", name));
+    }
+
+    private static List<List<String>> names(List<List<FileStatus>> bins) {
+        return bins.stream()
+                .map(bin -> bin.stream().map(fileStatus -> fileStatus.getPath().getName()).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 将箱子中的小文件按顺序写入一个合并文件，箱子中包含指定文件时合并失败
+     */
+    private static class MockCombineServer extends CombineServer {
+
+        private final String failFile;
+
+        private final List<List<String>> combined = Collections.synchronizedList(new ArrayList<>());
+
+        private MockCombineServer(String failFile) {
+            this.failFile = failFile;
+        }
+
+        @Override
+        protected void init(List<FileStatus> combineFiles) {
+        }
+
+        @Override
+        protected void doCombine(List<FileStatus> combineFiles, String mergedFileName) throws IOException {
+            List<String> names = combineFiles.stream().map(fileStatus -> fileStatus.getPath().getName()).collect(Collectors.toList());
+            if (names.contains(failFile)) {
+                throw new IOException("mock merge failure");
+            }
+            try (FSDataOutputStream out = fs.create(new Path(mergedTempPath, mergedFileName + "0." + getFileSuffix()))) {
+                for (FileStatus fileStatus : combineFiles) {
+                    out.write(new byte[(int) fileStatus.getLen()]);
+                }
+            }
+            combined.add(names);
+        }
+
+        @Override
+        protected String getFileSuffix() {
+            return "txt";
+        }
+    }
+}
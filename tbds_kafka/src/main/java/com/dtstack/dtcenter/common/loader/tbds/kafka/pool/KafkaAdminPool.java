@@ -0,0 +1,20 @@
+package com.dtstack.dtcenter.common.loader.tbds.kafka.pool;
+
+import com.dtstack.dtcenter.common.loader.common.Pool;
+import com.dtstack.dtcenter.loader.dto.source.TbdsKafkaSourceDTO;
+import kafka.admin.AdminClient;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+/**
+ * kafka admin client 连接池，用于查询消费者组等管理信息
+ *
+ * @author ：wangchuan
+ * date：Created in 上午11:20 2022/6/8
+ * company: www.dtstack.com
+ */
+public class KafkaAdminPool extends Pool<AdminClient> {
+
+    public KafkaAdminPool(GenericObjectPoolConfig config, TbdsKafkaSourceDTO sourceDTO) {
+        super(config, new KafkaAdminPoolFactory(sourceDTO));
+    }
+}
@@ -0,0 +1,73 @@
+package com.dtstack.dtcenter.common.loader.tbds.kafka.pool;
+
+import com.dtstack.dtcenter.common.loader.tbds.kafka.util.KafkaUtil;
+import com.dtstack.dtcenter.loader.dto.source.TbdsKafkaSourceDTO;
+import kafka.admin.AdminClient;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+
+import java.util.Properties;
+
+/**
+ * kafka admin client 连接池工厂
+ *
+ * @author ：wangchuan
+ * date：Created in 上午11:20 2022/6/8
+ * company: www.dtstack.com
+ */
+@Slf4j
+public class KafkaAdminPoolFactory implements PooledObjectFactory<AdminClient> {
+
+    private final TbdsKafkaSourceDTO sourceDTO;
+
+    public KafkaAdminPoolFactory(TbdsKafkaSourceDTO sourceDTO) {
+        this.sourceDTO = sourceDTO;
+    }
+
+    @Override
+    public PooledObject<AdminClient> makeObject() {
+        Properties props = KafkaUtil.initProperties(sourceDTO);
+        try {
+            return new DefaultPooledObject<>(AdminClient.create(props));
+        } finally {
+            KafkaUtil.destroyProperty();
+        }
+    }
+
+    @Override
+    public void destroyObject(PooledObject<AdminClient> pooledObject) {
+        try {
+            pooledObject.getObject().close();
+        } catch (Exception e) {
+            log.error("close kafka admin client error: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 闲置检测时查询一次 broker 列表，失败则认为 admin client 已不可用
+     *
+     * @param pooledObject 池化对象
+     * @return 是否可用
+     */
+    @Override
+    public boolean validateObject(PooledObject<AdminClient> pooledObject) {
+        try {
+            return !pooledObject.getObject().findAllBrokers().isEmpty();
+        } catch (Exception e) {
+            log.warn("kafka admin client validate failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void activateObject(PooledObject<AdminClient> pooledObject) {
+        // nothing
+    }
+
+    @Override
+    public void passivateObject(PooledObject<AdminClient> pooledObject) {
+        // nothing
+    }
+}
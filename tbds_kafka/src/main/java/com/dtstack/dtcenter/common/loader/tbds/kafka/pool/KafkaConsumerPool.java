@@ -0,0 +1,20 @@
+package com.dtstack.dtcenter.common.loader.tbds.kafka.pool;
+
+import com.dtstack.dtcenter.common.loader.common.Pool;
+import com.dtstack.dtcenter.loader.dto.source.TbdsKafkaSourceDTO;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+
+/**
+ * kafka consumer 连接池
+ *
+ * @author ：wangchuan
+ * date：Created in 上午11:20 2022/6/8
+ * company: www.dtstack.com
+ */
+public class KafkaConsumerPool extends Pool<KafkaConsumer<String, String>> {
+
+    public KafkaConsumerPool(GenericObjectPoolConfig config, TbdsKafkaSourceDTO sourceDTO) {
+        super(config, new KafkaConsumerPoolFactory(sourceDTO));
+    }
+}
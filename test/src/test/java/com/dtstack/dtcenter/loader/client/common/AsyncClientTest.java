@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.client.common;
+
+import com.dtstack.dtcenter.loader.client.BaseTest;
+import com.dtstack.dtcenter.loader.client.sql.AsyncClientConfig;
+import com.dtstack.dtcenter.loader.client.sql.AsyncClientExecutor;
+import com.dtstack.dtcenter.loader.dto.source.MongoSourceDTO;
+import com.dtstack.dtcenter.loader.dto.source.Mysql5SourceDTO;
+import com.dtstack.dtcenter.loader.exception.DtLoaderException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 异步客户端执行器测试
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/11
+ * company: www.dtstack.com
+ */
+public class AsyncClientTest extends BaseTest {
+
+    private static final Mysql5SourceDTO SOURCE = Mysql5SourceDTO.builder()
+            .url("jdbc:mysql://172.16.211.114:3306/hoping")
+            .username("root")
+            .build();
+
+    /**
+     * 同一数据源的并发数不超过限制
+     */
+    @Test
+    public void maxConcurrencyPerSource() throws Exception {
+        AsyncClientExecutor executor = new AsyncClientExecutor(AsyncClientConfig.builder().workerThreads(8).maxConcurrencyPerSource(2).build());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = IntStream.range(0, 8)
+                .mapToObj(i -> executor.submit(SOURCE, () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    return i;
+                }))
+                .collect(Collectors.toList());
+        for (int i = 0; i < futures.size(); i++) {
+            Assert.assertEquals(Integer.valueOf(i), futures.get(i).get());
+        }
+        Assert.assertEquals(2, maxRunning.get());
+        executor.shutdown();
+    }
+
+    /**
+     * 请求超时
+     */
+    @Test
+    public void timeout() throws Exception {
+        AsyncClientExecutor executor = new AsyncClientExecutor(AsyncClientConfig.builder().workerThreads(1).timeout(100L).build());
+        CompletableFuture<Boolean> future = executor.submit(SOURCE, () -> {
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        });
+        try {
+            future.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof DtLoaderException);
+            Assert.assertTrue(e.getCause().getCause() instanceof TimeoutException);
+        }
+        // 超时后工作线程被中断，可以继续执行后续请求
+        Assert.assertTrue(executor.submit(SOURCE, () -> true).get());
+        executor.shutdown();
+    }
+
+    /**
+     * 达到并发上限的数据源排队时不占用工作线程，不影响其他数据源
+     */
+    @Test
+    public void saturatedSourceNotStarveOthers() throws Exception {
+        AsyncClientExecutor executor = new AsyncClientExecutor(AsyncClientConfig.builder().workerThreads(4).maxConcurrencyPerSource(2).build());
+        MongoSourceDTO busy = MongoSourceDTO.builder().hostPort("172.16.100.1:27017").username("root").build();
+        MongoSourceDTO other = MongoSourceDTO.builder().hostPort("172.16.100.2:27017").username("root").build();
+        List<CompletableFuture<Boolean>> futures = IntStream.range(0, 10)
+                .mapToObj(i -> executor.submit(busy, () -> {
+                    try {
+                        Thread.sleep(500);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return true;
+                }))
+                .collect(Collectors.toList());
+        // 另一个集群的请求不需要等待 busy 数据源的请求
+        Assert.assertTrue(executor.submit(other, () -> true).get(200, TimeUnit.MILLISECONDS));
+        for (CompletableFuture<Boolean> future : futures) {
+            Assert.assertTrue(future.get());
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.client.common;
+
+import com.dtstack.dtcenter.common.loader.common.utils.CapabilityRegistry;
+import com.dtstack.dtcenter.common.loader.common.utils.ReflectUtil;
+import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 类能力注册表测试
+ *
+ * @author ：wangchuan
+ * date：Created in 下午3:00 2022/6/19
+ * company: www.dtstack.com
+ */
+public class CapabilityRegistryTest {
+
+    private static String staticField = "a";
+
+    /**
+     * 判断字段及 getter 是否存在
+     */
+    @Test
+    public void hasField() {
+        Assert.assertTrue(ReflectUtil.fieldExists(SqlQueryDTO.class, "fetchSize"));
+        Assert.assertFalse(ReflectUtil.fieldExists(SqlQueryDTO.class, "notExistsField"));
+        Assert.assertTrue(CapabilityRegistry.hasGetter(SqlQueryDTO.class, "fetchSize"));
+        Assert.assertFalse(CapabilityRegistry.hasGetter(SqlQueryDTO.class, "notExistsField"));
+    }
+
+    /**
+     * 读写字段值
+     */
+    @Test
+    public void getAndSetField() {
+        SqlQueryDTO queryDTO = SqlQueryDTO.builder().fetchSize(7).build();
+        Assert.assertEquals(Integer.valueOf(7), ReflectUtil.getFieldValueNotThrow(Integer.class, queryDTO, "fetchSize", 1));
+        Assert.assertEquals(Integer.valueOf(1), ReflectUtil.getFieldValueNotThrow(Integer.class, queryDTO, "notExistsField", 1));
+        CapabilityRegistry.getField(SqlQueryDTO.class, "fetchSize").set(queryDTO, 8);
+        Assert.assertEquals(Integer.valueOf(8), CapabilityRegistry.getField(SqlQueryDTO.class, "fetchSize").get(queryDTO, Integer.class));
+        ReflectUtil.setField(CapabilityRegistryTest.class, "staticField", null, "b");
+        Assert.assertEquals("b", staticField);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.dtcenter.loader.client.common;
+
+import com.dtstack.dtcenter.loader.PluginPackageIndex;
+import com.dtstack.dtcenter.loader.client.BaseTest;
+import com.dtstack.dtcenter.loader.client.ClientCache;
+import com.dtstack.dtcenter.loader.client.ClientFactory;
+import com.dtstack.dtcenter.loader.client.IClient;
+import com.dtstack.dtcenter.loader.client.PluginRegistry;
+import com.dtstack.dtcenter.loader.source.DataSourceType;
+import com.google.common.collect.Lists;
+import org.apache.commons.collections.CollectionUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 插件客户端缓存测试
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/10
+ * company: www.dtstack.com
+ */
+public class ClientCacheTest extends BaseTest {
+
+    /**
+     * 并行预热插件
+     */
+    @Test
+    public void warmUp() {
+        List<String> failedPlugins = ClientCache.warmUp(Lists.newArrayList(DataSourceType.MySQL.getVal(), DataSourceType.PostgreSQL.getVal()));
+        Assert.assertTrue(CollectionUtils.isEmpty(failedPlugins));
+        IClient<?> client = ClientCache.getClient(DataSourceType.MySQL.getVal());
+        Assert.assertSame(client, ClientCache.getClient(DataSourceType.MySQL.getVal()));
+    }
+
+    /**
+     * 同一插件的并发请求只加载一次
+     */
+    @Test
+    public void loadOnceConcurrently() throws Exception {
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        PluginRegistry<Object> registry = new PluginRegistry<>(pluginName -> {
+            loadCount.incrementAndGet();
+            latch.await();
+            return new Object();
+        });
+        List<CompletableFuture<Object>> futures = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return registry.get("mysql5");
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }))
+                .collect(Collectors.toList());
+        latch.countDown();
+        Object first = futures.get(0).get();
+        for (CompletableFuture<Object> future : futures) {
+            Assert.assertSame(first, future.get());
+        }
+        Assert.assertEquals(1, loadCount.get());
+        Assert.assertTrue(registry.contains("mysql5"));
+    }
+
+    /**
+     * 加载失败后可以重新加载
+     */
+    @Test
+    public void reloadAfterFailure() throws Exception {
+        AtomicInteger loadCount = new AtomicInteger();
+        PluginRegistry<String> registry = new PluginRegistry<>(pluginName -> {
+            if (loadCount.incrementAndGet() == 1) {
+                throw new IllegalStateException("load failed");
+            }
+            return pluginName;
+        });
+        try {
+            registry.get("hive");
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertFalse(registry.contains("hive"));
+        }
+        Assert.assertEquals("hive", registry.get("hive"));
+    }
+
+    /**
+     * 并行创建所有插件的 ClassLoader
+     */
+    @Test
+    public void preloadClassLoaders() {
+        List<String> failedPlugins = ClientCache.preloadClassLoaders();
+        Assert.assertTrue(CollectionUtils.isEmpty(failedPlugins));
+        Assert.assertTrue(ClientFactory.checkContainClassLoader(DataSourceType.MySQL.getPluginName()));
+    }
+
+    /**
+     * 插件包索引持久化及读取
+     */
+    @Test
+    public void packageIndex() {
+        File pluginDir = new File(ClientCache.getUserDir(), DataSourceType.MySQL.getPluginName());
+        List<File> jars = Arrays.asList(pluginDir.listFiles((dir, name) -> name.endsWith(".jar")));
+        PluginPackageIndex index = PluginPackageIndex.build(pluginDir, jars, true);
+        Assert.assertTrue(index.containsClass("com.dtstack.dtcenter.common.loader.mysql5.MysqlClient"));
+        Assert.assertFalse(index.containsClass("java.lang.String"));
+        Assert.assertTrue(CollectionUtils.isNotEmpty(index.getJars("com.dtstack.dtcenter.common.loader.mysql5")));
+        PluginPackageIndex persisted = PluginPackageIndex.build(pluginDir, jars, true);
+        Assert.assertTrue(persisted.containsClass("com.dtstack.dtcenter.common.loader.mysql5.MysqlClient"));
+        Assert.assertTrue(persisted.containsResource("META-INF/services/com.dtstack.dtcenter.loader.client.IClient"));
+    }
+}
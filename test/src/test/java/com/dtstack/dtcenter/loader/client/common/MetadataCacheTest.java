@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.client.common;
+
+import com.dtstack.dtcenter.loader.client.BaseTest;
+import com.dtstack.dtcenter.loader.client.sql.MetadataCache;
+import com.dtstack.dtcenter.loader.client.sql.MetadataCacheConfig;
+import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
+import com.dtstack.dtcenter.loader.dto.source.MongoSourceDTO;
+import com.dtstack.dtcenter.loader.dto.source.Mysql5SourceDTO;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 元数据缓存测试
+ *
+ * @author ：wangchuan
+ * date：Created in 下午2:00 2022/6/11
+ * company: www.dtstack.com
+ */
+public class MetadataCacheTest extends BaseTest {
+
+    private static final Mysql5SourceDTO SOURCE = Mysql5SourceDTO.builder()
+            .url("jdbc:mysql://172.16.211.114:3306/hoping")
+            .username("root")
+            .build();
+
+    /**
+     * 相同查询条件的并发请求只查询一次
+     */
+    @Test
+    public void loadOnceConcurrently() throws Exception {
+        MetadataCache cache = new MetadataCache(MetadataCacheConfig.builder().build());
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        List<CompletableFuture<List<String>>> futures = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> cache.<List<String>>get("getTableList", SOURCE, SqlQueryDTO.builder().schema("dev").build(), () -> {
+                    loadCount.incrementAndGet();
+                    latch.await();
+                    return Lists.newArrayList("LOADER_TEST");
+                })))
+                .collect(Collectors.toList());
+        latch.countDown();
+        for (CompletableFuture<List<String>> future : futures) {
+            Assert.assertEquals(Lists.newArrayList("LOADER_TEST"), future.get());
+        }
+        Assert.assertEquals(1, loadCount.get());
+        // 查询条件不同时重新查询
+        cache.get("getTableList", SOURCE, SqlQueryDTO.builder().schema("test").build(), () -> {
+            loadCount.incrementAndGet();
+            return Lists.newArrayList();
+        });
+        Assert.assertEquals(2, loadCount.get());
+    }
+
+    /**
+     * 清除表的缓存
+     */
+    @Test
+    public void invalidateTable() {
+        MetadataCache cache = new MetadataCache(MetadataCacheConfig.builder().build());
+        cache.get("getTableList", SOURCE, SqlQueryDTO.builder().schema("dev").build(), Lists::newArrayList);
+        cache.get("getTableMetaComment", SOURCE, SqlQueryDTO.builder().schema("dev").tableName("LOADER_TEST").build(), () -> null);
+        cache.get("getTableMetaComment", SOURCE, SqlQueryDTO.builder().schema("dev").tableName("LOADER_TEST_VIEW").build(), () -> "comment");
+        Assert.assertEquals(3, cache.size());
+        cache.invalidate(SOURCE, "dev", "LOADER_TEST");
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals("comment", cache.get("getTableMetaComment", SOURCE, SqlQueryDTO.builder().schema("dev").tableName("LOADER_TEST_VIEW").build(), () -> null));
+        cache.invalidate(SOURCE);
+        Assert.assertEquals(0, cache.size());
+    }
+
+    /**
+     * 用户名相同的不同集群及不同密码不共用缓存
+     */
+    @Test
+    public void sourceKeyWithoutUrl() {
+        MetadataCache cache = new MetadataCache(MetadataCacheConfig.builder().build());
+        MongoSourceDTO first = MongoSourceDTO.builder().hostPort("172.16.100.1:27017").username("root").password("abc123").build();
+        MongoSourceDTO second = MongoSourceDTO.builder().hostPort("172.16.100.2:27017").username("root").password("abc123").build();
+        MongoSourceDTO wrongPassword = MongoSourceDTO.builder().hostPort("172.16.100.1:27017").username("root").password("wrong").build();
+        SqlQueryDTO queryDTO = SqlQueryDTO.builder().schema("dev").build();
+        Assert.assertEquals(Lists.newArrayList("first"), cache.get("getTableList", first, queryDTO, () -> Lists.newArrayList("first")));
+        Assert.assertEquals(Lists.newArrayList("second"), cache.get("getTableList", second, queryDTO, () -> Lists.newArrayList("second")));
+        Assert.assertEquals(Lists.newArrayList("wrong"), cache.get("getTableList", wrongPassword, queryDTO, () -> Lists.newArrayList("wrong")));
+        Assert.assertEquals(3, cache.size());
+        Assert.assertEquals(Lists.newArrayList("first"), cache.get("getTableList", first, queryDTO, Lists::newArrayList));
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.client.common;
+
+import com.dtstack.dtcenter.common.loader.rdbms.IPageDialect;
+import com.dtstack.dtcenter.common.loader.rdbms.RdbmsPagination;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * rdbms 分页测试，使用代理模拟主键为 id 的单表
+ *
+ * @author ：wangchuan
+ * date：Created in 上午10:00 2022/6/20
+ * company: www.dtstack.com
+ */
+public class RdbmsPaginationTest {
+
+    private static final String KEYSET = "keyset";
+
+    private static final String OFFSET = "offset";
+
+    /**
+     * 主键原样出现在查询字段中时使用主键分页
+     */
+    @Test
+    public void keysetPagination() {
+        Assert.assertEquals(KEYSET, paginate("select * from t", "id", "name"));
+        Assert.assertEquals(KEYSET, paginate("select id, name from t where name is not null", "id", "name"));
+        Assert.assertEquals(KEYSET, paginate("select t.*, substr(name, 1, 2) as s from t", "id", "name", "s"));
+    }
+
+    /**
+     * 主键被设置别名或其他字段使用主键名作为别名时使用 offset 分页
+     */
+    @Test
+    public void aliasedKeyColumn() {
+        Assert.assertEquals(OFFSET, paginate("select name as id, id as pk from t", "id", "pk"));
+        Assert.assertEquals(OFFSET, paginate("select id pk, name from t", "pk", "name"));
+        Assert.assertEquals(OFFSET, paginate("select *, upper(name) `id` from t", "id", "name", "id"));
+        Assert.assertEquals(OFFSET, paginate("select name from t", "name"));
+    }
+
+    private static String paginate(String sql, String... columns) {
+        List<String> executed = Lists.newArrayList();
+        IPageDialect dialect = new IPageDialect() {
+            @Override
+            public String quote(String identifier) {
+                return "`" + identifier + "`";
+            }
+
+            @Override
+            public String limitSql(String sql, String where, String orderBy, int limit) {
+                return KEYSET;
+            }
+
+            @Override
+            public String offsetSql(String sql, List<String> columns, int offset, int limit) {
+                return OFFSET;
+            }
+        };
+        RdbmsPagination pagination = new RdbmsPagination(mockConnection(executed), sql, null, dialect, 10);
+        pagination.init(Lists.newArrayList(columns));
+        Assert.assertTrue(pagination.readNext().isEmpty());
+        Assert.assertTrue(pagination.reachedEnd());
+        pagination.close();
+        return executed.get(0);
+    }
+
+    private static Connection mockConnection(List<String> executed) {
+        Statement statement = proxy(Statement.class, (method, args) -> {
+            if ("executeQuery".equals(method)) {
+                executed.add((String) args[0]);
+                return resultSet(Lists.newArrayList());
+            }
+            return null;
+        });
+        DatabaseMetaData metaData = proxy(DatabaseMetaData.class, (method, args) ->
+                resultSet("getPrimaryKeys".equals(method) ? Lists.newArrayList("id") : Lists.newArrayList()));
+        return proxy(Connection.class, (method, args) -> {
+            if ("createStatement".equals(method)) {
+                return statement;
+            }
+            return "getMetaData".equals(method) ? metaData : null;
+        });
+    }
+
+    /**
+     * 只有一列字符串数据的结果集
+     */
+    private static ResultSet resultSet(List<String> values) {
+        Iterator<String> iterator = values.iterator();
+        String[] current = new String[1];
+        return proxy(ResultSet.class, (method, args) -> {
+            if ("next".equals(method)) {
+                if (!iterator.hasNext()) {
+                    return false;
+                }
+                current[0] = iterator.next();
+                return true;
+            }
+            return method.startsWith("get") ? current[0] : null;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> clazz, Handler handler) {
+        return (T) Proxy.newProxyInstance(clazz.getClassLoader(), new Class<?>[]{clazz},
+                (proxy, method, args) -> handler.invoke(method.getName(), args));
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+}
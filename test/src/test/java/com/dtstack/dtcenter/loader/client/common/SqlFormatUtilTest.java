@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dtstack.dtcenter.loader.client.common;
+
+import com.dtstack.dtcenter.common.loader.common.enums.SqlDialect;
+import com.dtstack.dtcenter.common.loader.common.utils.PreparedSql;
+import com.dtstack.dtcenter.common.loader.common.utils.SqlFormatUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * sql 格式化测试
+ *
+ * @author ：wangchuan
+ * date：Created in 上午11:00 2022/6/19
+ * company: www.dtstack.com
+ */
+public class SqlFormatUtilTest {
+
+    /**
+     * 去除注释、换行及末尾分号
+     */
+    @Test
+    public void formatSql() {
+        String sql = "-- query\nselect *\r\nfrom t /* comment */where id = 1 -- filter\n;\n";
+        Assert.assertEquals("select *  from t where id = 1", SqlFormatUtil.formatSql(sql));
+        Assert.assertEquals("select 1", SqlFormatUtil.formatSql("select 1 /** doc **/;"));
+    }
+
+    /**
+     * 引号内的内容不当做注释
+     */
+    @Test
+    public void formatSqlWithQuote() {
+        String sql = "select '--a', 'it''s /* b */', `c--d`, \"e\"\"--\" from f where h <> '--'";
+        Assert.assertEquals(sql, SqlFormatUtil.formatSql(sql + " -- comment"));
+    }
+
+    /**
+     * 反斜杠只在 MySQL 系列及 ClickHouse 中为转义符，PostgreSQL、Oracle、SQL Server 中为普通字符
+     */
+    @Test
+    public void formatSqlWithBackslash() {
+        String sql = "select 'C:\\' from t -- it's a comment";
+        Assert.assertEquals("select 'C:\\' from t", SqlFormatUtil.prepare(sql, SqlDialect.STANDARD).getSql());
+        Assert.assertEquals("select 'C:\\' from t", SqlFormatUtil.prepare(sql, SqlDialect.SQL_SERVER).getSql());
+
+        String mysqlSql = "select 'it\\'s --a', \"\\\"/* b */\" from t";
+        Assert.assertEquals(mysqlSql, SqlFormatUtil.prepare(mysqlSql + " -- comment", SqlDialect.MYSQL).getSql());
+        Assert.assertEquals("select 'C:\\\\' from t", SqlFormatUtil.prepare("select 'C:\\\\' from t -- it's a comment", SqlDialect.MYSQL).getSql());
+    }
+
+    /**
+     * [] 只在 SQL Server、Sybase 中当做标识符引用符，其他数据源中为数组下标
+     */
+    @Test
+    public void formatSqlWithBracket() {
+        String sql = "select [f--g] from t";
+        Assert.assertEquals(sql, SqlFormatUtil.prepare(sql + " -- comment", SqlDialect.SQL_SERVER).getSql());
+        Assert.assertEquals("select [f", SqlFormatUtil.prepare(sql, SqlDialect.STANDARD).getSql());
+        // postgresql 数组下标后的注释需要去除，数组元素中的 ] 不影响后续的引号识别
+        Assert.assertEquals("select arr[1], ']' from t", SqlFormatUtil.formatSql("select arr[1], ']' from t -- comment"));
+        Assert.assertEquals("select arr[1] from t", SqlFormatUtil.formatSql("select arr[1] /* x */from t;"));
+    }
+
+    /**
+     * 相同 sql 使用缓存的格式化结果及包装 sql
+     */
+    @Test
+    public void prepare() {
+        String sql = "select * from t;";
+        PreparedSql preparedSql = SqlFormatUtil.prepare(sql);
+        Assert.assertSame(preparedSql, SqlFormatUtil.prepare(sql));
+        String countSql = preparedSql.wrap("SELECT COUNT(*) FROM (%s) temp");
+        Assert.assertEquals("SELECT COUNT(*) FROM (select * from t) temp", countSql);
+        Assert.assertSame(countSql, preparedSql.wrap("SELECT COUNT(*) FROM (%s) temp"));
+    }
+
+    /**
+     * 缓存按 sql 长度计算权重，大 sql 较多时淘汰旧的缓存
+     */
+    @Test
+    public void prepareEvictByWeight() {
+        String padding = new String(new char[15 * 1024]).replace('\0', 'x');
+        String sql = "select 0 from t where c = '" + padding + "'";
+        PreparedSql preparedSql = SqlFormatUtil.prepare(sql);
+        Assert.assertSame(preparedSql, SqlFormatUtil.prepare(sql));
+        for (int i = 1; i <= 200; i++) {
+            SqlFormatUtil.prepare("select " + i + " from t where c = '" + padding + "'");
+        }
+        Assert.assertNotSame(preparedSql, SqlFormatUtil.prepare(sql));
+    }
+}
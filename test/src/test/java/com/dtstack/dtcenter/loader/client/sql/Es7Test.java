@@ -19,6 +19,7 @@
 package com.dtstack.dtcenter.loader.client.sql;
 
 import com.alibaba.fastjson.JSONObject;
+import com.dtstack.dtcenter.loader.IDownloader;
 import com.dtstack.dtcenter.loader.client.BaseTest;
 import com.dtstack.dtcenter.loader.client.ClientCache;
 import com.dtstack.dtcenter.loader.client.IClient;
@@ -92,6 +93,16 @@ public class Es7Test extends BaseTest {
         Assert.assertTrue(CollectionUtils.isNotEmpty(metaData));
     }
 
+    /**
+     * mapping 未变化时第二次获取走缓存，结果一致
+     */
+    @Test
+    public void getColumnMetaDataCached() {
+        List metaData = client.getColumnMetaData(source, SqlQueryDTO.builder().tableName("commodity").build());
+        List cachedMetaData = client.getColumnMetaData(source, SqlQueryDTO.builder().tableName("commodity").build());
+        Assert.assertEquals(metaData.size(), cachedMetaData.size());
+    }
+
     @Test
     public void executeQuery() {
         List<Map<String, Object>> list = client.executeQuery(source, SqlQueryDTO.builder().sql("{\"query\": {\"match_all\": {} }}").tableName("commodity").build());
@@ -99,6 +110,38 @@ public class Es7Test extends BaseTest {
         Assert.assertNotNull(result);
     }
 
+    /**
+     * scroll 导出索引数据
+     */
+    @Test
+    public void getDownloader() throws Exception {
+        IDownloader downloader = client.getDownloader(source, SqlQueryDTO.builder().tableName("commodity").readBatchSize(1).build());
+        Assert.assertTrue(CollectionUtils.isNotEmpty(downloader.getMetaInfo()));
+        int count = 0;
+        while (!downloader.reachedEnd()) {
+            List<Map<String, Object>> batch = (List<Map<String, Object>>) downloader.readNext();
+            Assert.assertTrue(batch.size() <= 1);
+            count += batch.size();
+        }
+        downloader.close();
+        Assert.assertTrue(count > 0);
+    }
+
+    /**
+     * sliced scroll 并行导出索引数据
+     */
+    @Test
+    public void getDownloaderWithSlices() throws Exception {
+        String dsl = "{\"query\": {\"match_all\": {}}}";
+        IDownloader downloader = client.getDownloader(source, SqlQueryDTO.builder().tableName("commodity").sql(dsl).readParallelism(2).build());
+        int count = 0;
+        while (!downloader.reachedEnd()) {
+            count += ((List<?>) downloader.readNext()).size();
+        }
+        downloader.close();
+        Assert.assertTrue(count > 0);
+    }
+
     /**
      * 删除
      */
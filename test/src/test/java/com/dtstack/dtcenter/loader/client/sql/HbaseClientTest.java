@@ -22,6 +22,8 @@ import com.dtstack.dtcenter.loader.cache.pool.config.PoolConfig;
 import com.dtstack.dtcenter.loader.client.BaseTest;
 import com.dtstack.dtcenter.loader.client.ClientCache;
 import com.dtstack.dtcenter.loader.client.IHbase;
+import com.dtstack.dtcenter.loader.dto.HbaseBatchConfig;
+import com.dtstack.dtcenter.loader.dto.HbaseCellDTO;
 import com.dtstack.dtcenter.loader.dto.HbaseQueryDTO;
 import com.dtstack.dtcenter.loader.dto.comparator.BinaryComparator;
 import com.dtstack.dtcenter.loader.dto.filter.FilterList;
@@ -121,6 +123,26 @@ public class HbaseClientTest extends BaseTest {
         System.out.println(queryResult);
     }
 
+    /**
+     * 按 region 并行扫描，结果按 rowkey 有序且不超过 limit
+     */
+    @Test
+    public void executeQueryParallel() {
+        HbaseQueryDTO hbaseQueryDTO = HbaseQueryDTO.builder()
+                .tableName("loader_test_2")
+                .startRowKey("1001")
+                .limit(5L)
+                .scanCaching(2)
+                .scanBatch(1)
+                .scanParallelism(4)
+                .build();
+        List<Map<String, Object>> queryResult = HBASE_CLIENT.executeQuery(source, hbaseQueryDTO, null);
+        Assert.assertTrue(queryResult.size() <= 5);
+        for (int i = 1; i < queryResult.size(); i++) {
+            Assert.assertTrue(((String) queryResult.get(i - 1).get("rowkey")).compareTo((String) queryResult.get(i).get("rowkey")) < 0);
+        }
+    }
+
     /**
      * 测试已经存在的namespace
      */
@@ -206,6 +228,28 @@ public class HbaseClientTest extends BaseTest {
         Assert.assertTrue(org.apache.commons.lang3.StringUtils.isNotBlank(row));
     }
 
+    /**
+     * 批量写入、获取及删除
+     */
+    @Test
+    public void batchPutGetDelete() {
+        List<HbaseCellDTO> cells = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            cells.add(HbaseCellDTO.builder().rowKey("batch_" + i).family("info1").qualifier("name").value("name_" + i).build());
+            cells.add(HbaseCellDTO.builder().rowKey("batch_" + i).family("info2").qualifier("age").value(String.valueOf(i)).build());
+        }
+        HbaseBatchConfig config = HbaseBatchConfig.builder().batchSize(30).flushPolicy(HbaseBatchConfig.FlushPolicy.EVERY_BATCH).build();
+        Assert.assertTrue(HBASE_CLIENT.batchPut(source, "loader_test_2", cells, config));
+        List<HbaseCellDTO> rows = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            rows.add(HbaseCellDTO.builder().rowKey("batch_" + i).build());
+        }
+        List<HbaseCellDTO> result = HBASE_CLIENT.batchGet(source, "loader_test_2", rows, null);
+        Assert.assertEquals(200, result.size());
+        Assert.assertTrue(HBASE_CLIENT.batchDelete(source, "loader_test_2", rows, null));
+        Assert.assertTrue(CollectionUtils.isEmpty(HBASE_CLIENT.batchGet(source, "loader_test_2", rows, null)));
+    }
+
     /**
      * 删除指定rowKey、列族、列名的数据
      */
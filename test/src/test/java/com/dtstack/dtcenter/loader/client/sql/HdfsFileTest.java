@@ -443,6 +443,25 @@ public class HdfsFileTest extends BaseTest {
         assert client.writeByPos(source, writerDTO) > 0;
     }
 
+    /**
+     * 并行写入多个orc格式part文件到hdfs
+     */
+    @Test
+    public void writeOrcByPosParallel() {
+        writerDTO.setTopLineIsTitle(true);
+        writerDTO.setFileFormat(FileFormat.ORC.getVal());
+        writerDTO.setFromFileName(localKerberosPath + "/textfile");
+        writerDTO.setParallelism(4);
+        try {
+            int writeLineNum = client.writeByPos(source, writerDTO);
+            Assert.assertTrue(writeLineNum > 0);
+            Assert.assertEquals(writeLineNum, writerDTO.getPartRowCounts().values().stream().mapToInt(Integer::intValue).sum());
+        } finally {
+            writerDTO.setParallelism(null);
+            writerDTO.setPartRowCounts(null);
+        }
+    }
+
     /**
      * 批量统计文件夹内容摘要，包括文件的数量，文件夹的数量，文件变动时间，以及这个文件夹的占用存储等内容
      */
@@ -452,6 +471,35 @@ public class HdfsFileTest extends BaseTest {
         assert CollectionUtils.isNotEmpty(list);
     }
 
+    /**
+     * 批量统计多个路径的内容摘要，并行获取时结果顺序与入参一致
+     */
+    @Test
+    public void getContentSummaryMultiPath() {
+        List<String> paths = Lists.newArrayList("/tmp", "/tmp/xxxxx", "/tmp/test.txt");
+        List<HDFSContentSummary> list = client.getContentSummary(source, paths);
+        Assert.assertEquals(paths.size(), list.size());
+        Assert.assertFalse(list.get(1).getIsExists());
+        Assert.assertEquals(1L, list.get(2).getFileCount().longValue());
+    }
+
+    /**
+     * 只缓存叶子目录的内容摘要，目录未变化时再次获取命中缓存，目录内新增文件后重新统计
+     */
+    @Test
+    public void getContentSummaryLeafDirCache() {
+        String leafDir = "/tmp/content_summary_leaf";
+        client.delete(source, leafDir, true);
+        assert client.createDir(source, leafDir, null);
+        assert client.uploadInputStreamToHdfs(source, "test".getBytes(), leafDir + "/test1.txt");
+        HDFSContentSummary summary = client.getContentSummary(source, leafDir);
+        Assert.assertEquals(1L, summary.getFileCount().longValue());
+        Assert.assertEquals(summary.getSpaceConsumed(), client.getContentSummary(source, leafDir).getSpaceConsumed());
+        assert client.uploadInputStreamToHdfs(source, "test".getBytes(), leafDir + "/test2.txt");
+        Assert.assertEquals(2L, client.getContentSummary(source, leafDir).getFileCount().longValue());
+        client.delete(source, leafDir, true);
+    }
+
     /**
      * 统计文件夹内容摘要，包括文件的数量，文件夹的数量，文件变动时间，以及这个文件夹的占用存储等内容
      */
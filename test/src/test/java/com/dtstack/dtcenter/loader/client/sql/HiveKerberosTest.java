@@ -24,6 +24,7 @@ import com.dtstack.dtcenter.loader.client.ClientCache;
 import com.dtstack.dtcenter.loader.client.IClient;
 import com.dtstack.dtcenter.loader.client.IKerberos;
 import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
+import com.dtstack.dtcenter.loader.dto.KerberosLoginMetricsDTO;
 import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
 import com.dtstack.dtcenter.loader.dto.Table;
 import com.dtstack.dtcenter.loader.dto.source.HiveSourceDTO;
@@ -40,6 +41,7 @@ import java.sql.Connection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  * @company: www.dtstack.com
@@ -101,6 +103,20 @@ public class HiveKerberosTest extends BaseTest {
         Assert.assertNotNull(table.getDelim());
     }
 
+    /**
+     * 并发获取连接时同一个 principal 只登录一次，后续命中 UGI 缓存
+     */
+    @Test
+    public void getLoginMetrics() {
+        IntStream.range(0, 8).parallel().forEach(i -> Assert.assertTrue(client.testCon(source)));
+        List<KerberosLoginMetricsDTO> metrics = ClientCache.getKerberos(DataSourceType.HIVE.getVal()).getLoginMetrics();
+        Assert.assertTrue(CollectionUtils.isNotEmpty(metrics));
+        KerberosLoginMetricsDTO loginMetrics = metrics.get(0);
+        Assert.assertEquals(1L, loginMetrics.getLoginCount() - loginMetrics.getRenewCount());
+        Assert.assertTrue(loginMetrics.getCacheHitCount() > 0);
+        Assert.assertNotNull(loginMetrics.getTgtEndTime());
+    }
+
     /**
      * 获取连接测试
      */
@@ -301,4 +317,20 @@ public class HiveKerberosTest extends BaseTest {
             Assert.assertNotNull(downloader.readNext());
         }
     }
+
+    /**
+     * 批量读取，一批数据只进入一次 kerberos 认证上下文
+     */
+    @Test
+    public void readNextBatch() throws Exception {
+        SqlQueryDTO queryDTO = SqlQueryDTO.builder().tableName("loader_test_parquet").build();
+        IDownloader downloader = client.getDownloader(source, queryDTO);
+        List<?> batch = downloader.readNextBatch(1);
+        Assert.assertEquals(1, batch.size());
+        batch = downloader.readNextBatch(10);
+        Assert.assertEquals(1, batch.size());
+        Assert.assertTrue(downloader.readNextBatch(10).isEmpty());
+        Assert.assertTrue(downloader.reachedEnd());
+        downloader.close();
+    }
 }
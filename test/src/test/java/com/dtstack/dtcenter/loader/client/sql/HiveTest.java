@@ -249,6 +249,18 @@ public class HiveTest extends BaseTest {
         }
     }
 
+    @Test
+    public void getDownloaderWithParallel() throws Exception {
+        IClient client = ClientCache.getClient(DataSourceType.HIVE.getVal());
+        SqlQueryDTO queryDTO = SqlQueryDTO.builder().tableName("loader_test_1").readParallelism(4).build();
+        IDownloader downloader = client.getDownloader(source, queryDTO);
+        Assert.assertTrue(CollectionUtils.isNotEmpty(downloader.getMetaInfo()));
+        while (!downloader.reachedEnd()){
+            Assert.assertNotNull(downloader.readNext());
+        }
+        downloader.close();
+    }
+
     @Test
     public void getDownloaderForParquet()throws Exception {
         SqlQueryDTO queryDTO = SqlQueryDTO.builder().tableName("loader_test_parquet").build();
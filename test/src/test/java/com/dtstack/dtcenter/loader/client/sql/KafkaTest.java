@@ -18,6 +18,7 @@
 
 package com.dtstack.dtcenter.loader.client.sql;
 
+import com.dtstack.dtcenter.loader.cache.pool.config.PoolConfig;
 import com.dtstack.dtcenter.loader.client.BaseTest;
 import com.dtstack.dtcenter.loader.client.ClientCache;
 import com.dtstack.dtcenter.loader.client.IClient;
@@ -88,6 +89,22 @@ public class KafkaTest extends BaseTest {
         System.out.println(topicList);
     }
 
+    @Test
+    public void getTopicListWithPool() {
+        IKafka client = ClientCache.getKafka(DataSourceType.KAFKA_09.getVal());
+        KafkaSourceDTO poolSource = KafkaSourceDTO.builder()
+                .url("172.16.101.236:2181,172.16.101.17:2181,172.16.100.109:2181/kafka")
+                .poolConfig(new PoolConfig())
+                .build();
+        // 多次调用复用连接池中的 consumer
+        for (int i = 0; i < 3; i++) {
+            List<String> topicList = client.getTopicList(poolSource);
+            Assert.assertTrue(CollectionUtils.isNotEmpty(topicList));
+        }
+        List<KafkaOffsetDTO> offset = client.getOffset(poolSource, "loader_test");
+        Assert.assertNotNull(offset);
+    }
+
     public static void createTopic() {
         try {
             IKafka client = ClientCache.getKafka(DataSourceType.KAFKA_09.getVal());
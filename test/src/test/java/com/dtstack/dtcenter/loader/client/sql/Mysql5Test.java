@@ -23,8 +23,12 @@ import com.dtstack.dtcenter.loader.cache.pool.config.PoolConfig;
 import com.dtstack.dtcenter.loader.client.BaseTest;
 import com.dtstack.dtcenter.loader.client.ClientCache;
 import com.dtstack.dtcenter.loader.client.IClient;
+import com.dtstack.dtcenter.loader.client.sql.AsyncDataSourceClient;
 import com.dtstack.dtcenter.loader.dto.ColumnMetaDTO;
+import com.dtstack.dtcenter.loader.dto.PoolMetricsDTO;
 import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
+import com.dtstack.dtcenter.loader.dto.batch.LongColumnVector;
+import com.dtstack.dtcenter.loader.dto.batch.RowBatch;
 import com.dtstack.dtcenter.loader.dto.source.Mysql5SourceDTO;
 import com.dtstack.dtcenter.loader.source.DataSourceType;
 import org.apache.commons.collections.CollectionUtils;
@@ -72,6 +76,17 @@ public class Mysql5Test extends BaseTest {
         client.executeSqlWithoutResultSet(source, queryDTO);
         queryDTO = SqlQueryDTO.builder().sql("create view LOADER_TEST_VIEW as select * from LOADER_TEST").build();
         client.executeSqlWithoutResultSet(source, queryDTO);
+        queryDTO = SqlQueryDTO.builder().sql("drop table if exists LOADER_TEST_STREAMING").build();
+        client.executeSqlWithoutResultSet(source, queryDTO);
+        queryDTO = SqlQueryDTO.builder().sql("create table LOADER_TEST_STREAMING (id int, name varchar(50))").build();
+        client.executeSqlWithoutResultSet(source, queryDTO);
+        // 插入 25 条数据用作流式下载测试
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            values.add(String.format("(%s, 'streaming_%s')", i, i));
+        }
+        queryDTO = SqlQueryDTO.builder().sql("insert into LOADER_TEST_STREAMING values " + String.join(",", values)).build();
+        client.executeSqlWithoutResultSet(source, queryDTO);
     }
 
     /**
@@ -151,6 +166,21 @@ public class Mysql5Test extends BaseTest {
                 && row.containsKey("id(2)"));
     }
 
+    /**
+     * 列式结果查询
+     */
+    @Test
+    public void executeQueryBatch() {
+        String sql = "select id, name, id as name from LOADER_TEST";
+        SqlQueryDTO queryDTO = SqlQueryDTO.builder().sql(sql).build();
+        RowBatch result = client.executeQueryBatch(source, queryDTO);
+        Assert.assertEquals(1, result.getRowCount());
+        Assert.assertEquals(3, result.getColumnCount());
+        Assert.assertEquals("name(1)", result.getColumns().get(2).getKey());
+        Assert.assertEquals(1L, ((LongColumnVector) result.getVector(0)).getLong(0));
+        Assert.assertEquals("LOADER_TEST", result.getObject(0, 1));
+    }
+
     /**
      * 字段别名测试
      */
@@ -238,6 +268,29 @@ public class Mysql5Test extends BaseTest {
         }
     }
 
+    /**
+     * 流式读取数据下载测试，数据跨多个 readBatchSize 批次
+     */
+    @Test
+    public void testGetDownloaderStreaming() throws Exception {
+        SqlQueryDTO queryDTO = SqlQueryDTO.builder().sql("select * from LOADER_TEST_STREAMING").streamingRead(true).readBatchSize(10).build();
+        IDownloader downloader = client.getDownloader(source, queryDTO);
+        Assert.assertEquals(2, downloader.getMetaInfo().size());
+        int count = 0;
+        int batchNum = 0;
+        while (!downloader.reachedEnd()) {
+            List<List<String>> result = (List<List<String>>) downloader.readNext();
+            Assert.assertTrue(CollectionUtils.isNotEmpty(result) && result.size() <= 10);
+            count += result.size();
+            batchNum++;
+        }
+        Assert.assertEquals(25, count);
+        Assert.assertEquals(3, batchNum);
+        Assert.assertTrue(downloader.reachedEnd());
+        Assert.assertTrue(CollectionUtils.isEmpty((List<?>) downloader.readNext()));
+        downloader.close();
+    }
+
     /**
      * 数据预览测试
      */
@@ -340,4 +393,27 @@ public class Mysql5Test extends BaseTest {
     public void getVersion() {
         Assert.assertTrue(StringUtils.isNotBlank(client.getVersion(source)));
     }
+
+    /**
+     * 获取连接池指标
+     */
+    @Test
+    public void getPoolMetrics() throws Exception {
+        Connection connection = client.getCon(source);
+        connection.close();
+        List<PoolMetricsDTO> poolMetrics = client.getPoolMetrics();
+        Assert.assertTrue(poolMetrics.stream().anyMatch(metrics -> metrics.getPoolName().contains(source.getUrl()) && metrics.getBorrowCount() > 0));
+    }
+
+    /**
+     * 异步查询
+     */
+    @Test
+    public void executeQueryAsync() throws Exception {
+        AsyncDataSourceClient asyncClient = ClientCache.getAsyncClient(DataSourceType.MySQL.getVal());
+        SqlQueryDTO queryDTO = SqlQueryDTO.builder().sql("select * from LOADER_TEST").build();
+        List<Map<String, Object>> result = asyncClient.executeQueryAsync(source, queryDTO).get();
+        Assert.assertTrue(CollectionUtils.isNotEmpty(result));
+        Assert.assertTrue(asyncClient.testConAsync(source).get());
+    }
 }
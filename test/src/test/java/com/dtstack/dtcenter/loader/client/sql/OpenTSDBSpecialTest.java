@@ -29,6 +29,7 @@ import com.dtstack.dtcenter.loader.dto.tsdb.QueryResult;
 import com.dtstack.dtcenter.loader.dto.tsdb.SubQuery;
 import com.dtstack.dtcenter.loader.dto.tsdb.Suggest;
 import com.dtstack.dtcenter.loader.dto.tsdb.TsdbPoint;
+import com.dtstack.dtcenter.loader.dto.tsdb.TsdbPutConfig;
 import com.dtstack.dtcenter.loader.dto.tsdb.TsdbQuery;
 import com.dtstack.dtcenter.loader.enums.Granularity;
 import com.dtstack.dtcenter.loader.source.DataSourceType;
@@ -82,6 +83,26 @@ public class OpenTSDBSpecialTest extends BaseTest {
         TSDB_CLIENT.putSync(SOURCE_DTO, points);
     }
 
+    /**
+     * 异步批量插入数据
+     */
+    @Test
+    public void putAsync() {
+        TsdbPutConfig putConfig = TsdbPutConfig.builder()
+                .batchSize(100)
+                .maxInFlight(2)
+                .build();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 1000; i++) {
+            TsdbPoint point = new TsdbPoint.TsdbPointBuilder("loader_test_1")
+                    .tag("host", "loader_host" + i % 2)
+                    .timestamp(now - i * 1000L)
+                    .value(RandomUtils.nextDouble(1.0, 10000.0)).build();
+            TSDB_CLIENT.putAsync(SOURCE_DTO, Collections.singleton(point), putConfig);
+        }
+        Assert.assertTrue(TSDB_CLIENT.flush(SOURCE_DTO));
+    }
+
     /**
      * 同步插入数据
      */
@@ -27,6 +27,7 @@ import com.dtstack.dtcenter.loader.dto.SqlQueryDTO;
 import com.dtstack.dtcenter.loader.dto.source.RedisSourceDTO;
 import com.dtstack.dtcenter.loader.enums.RedisCompareOp;
 import com.dtstack.dtcenter.loader.enums.RedisDataType;
+import com.dtstack.dtcenter.loader.enums.RedisMode;
 import com.dtstack.dtcenter.loader.exception.DtLoaderException;
 import com.dtstack.dtcenter.loader.source.DataSourceType;
 import org.apache.commons.collections.CollectionUtils;
@@ -119,6 +120,23 @@ public class RedisTest extends BaseTest {
         assert map1.size() == map2.size();
     }
 
+    /**
+     * 集群模式预览 key，并行扫描所有 master 节点
+     */
+    @Test
+    public void previewKeyCluster() {
+        RedisSourceDTO clusterSource = RedisSourceDTO.builder()
+                .hostPort("172.16.101.246:7001,172.16.101.246:7002,172.16.101.246:7003")
+                .password("DT@Stack#123")
+                .redisMode(RedisMode.Cluster)
+                .build();
+        IRedis client = ClientCache.getRedis(DataSourceType.REDIS.getVal());
+        List<String> keys = client.preViewKey(clusterSource, RedisQueryDTO.builder().redisDataType(RedisDataType.STRING).keyLimit(10).build());
+        assert CollectionUtils.isNotEmpty(keys) && keys.size() <= 10;
+        Map<String, Object> map = client.executeQuery(clusterSource, RedisQueryDTO.builder().redisDataType(RedisDataType.STRING).keys(keys).redisCompareOp(RedisCompareOp.EQUAL).build());
+        assert map.size() == keys.size();
+    }
+
     /**
      * 连通性测试
      */